@@ -0,0 +1,26 @@
+package com.egov.tendering.audit.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuration for background audit purge jobs
+ */
+@Configuration
+public class AuditPurgeConfig {
+
+    /**
+     * Single worker so at most one purge runs per instance
+     */
+    @Bean
+    public ThreadPoolTaskExecutor auditPurgeExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("audit-purge-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
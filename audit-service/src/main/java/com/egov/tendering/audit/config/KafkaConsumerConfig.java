@@ -0,0 +1,67 @@
+package com.egov.tendering.audit.config;
+
+import com.egov.tendering.audit.event.AuditEventEnvelope;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+import java.util.Map;
+
+/**
+ * Configuration for the batched audit event consumer
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    private static final long INITIAL_RETRY_INTERVAL_MS = 1000L;
+    private static final long MAX_RETRY_INTERVAL_MS = 60_000L;
+
+    /**
+     * Batch listener containers that bind every record to {@link AuditEventEnvelope}.
+     * Offsets are committed after the listener returns, i.e. after the batch's database
+     * transaction has committed; a failed batch is rolled back and retried.
+     * <p>
+     * Audit events must not be lost, so a failed batch is retried until it is written, backing off
+     * up to a minute between attempts; the consumer is paused meanwhile and stays in its group.
+     * Unreadable records never fail a batch: they reach the listener as null values and are skipped.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, AuditEventEnvelope> auditBatchListenerContainerFactory(
+            KafkaProperties kafkaProperties) {
+
+        // Producers' type headers name classes that do not exist here, so they are ignored
+        JsonDeserializer<AuditEventEnvelope> jsonDeserializer = new JsonDeserializer<>(AuditEventEnvelope.class);
+        jsonDeserializer.ignoreTypeHeaders();
+
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties(null);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        DefaultKafkaConsumerFactory<String, AuditEventEnvelope> consumerFactory = new DefaultKafkaConsumerFactory<>(
+                props, new StringDeserializer(), new ErrorHandlingDeserializer<>(jsonDeserializer));
+
+        ConcurrentKafkaListenerContainerFactory<String, AuditEventEnvelope> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(retryBackOff()));
+
+        return factory;
+    }
+
+    // No attempt or elapsed time limit
+    private static ExponentialBackOff retryBackOff() {
+        ExponentialBackOff backOff = new ExponentialBackOff(INITIAL_RETRY_INTERVAL_MS, 2.0);
+        backOff.setMaxInterval(MAX_RETRY_INTERVAL_MS);
+        return backOff;
+    }
+}
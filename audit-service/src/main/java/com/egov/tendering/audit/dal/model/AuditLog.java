@@ -12,7 +12,9 @@ import java.time.LocalDateTime;
  * Entity representing an audit log entry
  */
 @Entity
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = {
+        @Index(name = "idx_audit_logs_timestamp", columnList = "timestamp")
+})
 @Data
 @Builder
 @NoArgsConstructor
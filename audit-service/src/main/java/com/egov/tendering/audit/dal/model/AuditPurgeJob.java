@@ -0,0 +1,72 @@
+package com.egov.tendering.audit.dal.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a purge of audit logs older than a cutoff. Logs are deleted in
+ * ascending ID chunks and lastDeletedId is committed with each chunk, so a job picks up
+ * where it stopped after a restart.
+ */
+@Entity
+@Table(name = "audit_purge_jobs",
+        uniqueConstraints = @UniqueConstraint(name = "uk_audit_purge_jobs_running_slot", columnNames = "running_slot"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditPurgeJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDateTime cutoff;
+
+    // IDs in (firstId - 1, maxId] are covered by the job
+    @Column(nullable = false)
+    private Long firstId;
+
+    @Column(nullable = false)
+    private Long maxId;
+
+    @Column(nullable = false)
+    private Long lastDeletedId;
+
+    @Column(nullable = false)
+    private long deletedCount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AuditPurgeStatus status;
+
+    // 1 while the job is RUNNING and NULL afterwards; unique, so at most one job runs at a time
+    @Column(name = "running_slot")
+    private Integer runningSlot;
+
+    // Instance currently running the job, and until when it holds it
+    private String leaseOwner;
+
+    private LocalDateTime leaseExpiresAt;
+
+    private String failureReason;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+}
@@ -0,0 +1,11 @@
+package com.egov.tendering.audit.dal.model;
+
+/**
+ * Lifecycle of an audit purge job
+ */
+public enum AuditPurgeStatus {
+    RUNNING,
+    COMPLETED,
+    CANCELLED,
+    FAILED
+}
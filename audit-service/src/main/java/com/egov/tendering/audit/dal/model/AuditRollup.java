@@ -0,0 +1,50 @@
+package com.egov.tendering.audit.dal.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing the number of audit logs in one hour for one combination of
+ * action type, entity type, service and outcome. Rows are maintained incrementally
+ * as audit logs are saved and can be rebuilt from audit_logs for any time range.
+ */
+@Entity
+@Table(name = "audit_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_audit_rollups_bucket",
+                columnNames = {"bucket_start", "action_type", "entity_type", "service_id", "success"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "action_type", nullable = false, length = 50)
+    private AuditActionType actionType;
+
+    @Column(name = "entity_type", nullable = false, length = 100)
+    private String entityType;
+
+    // Empty when the audit log has no service ID, so the unique key also covers those rows
+    @Column(name = "service_id", nullable = false, length = 100)
+    private String serviceId;
+
+    @Column(nullable = false)
+    private boolean success;
+
+    @Column(name = "event_count", nullable = false)
+    private long eventCount;
+}
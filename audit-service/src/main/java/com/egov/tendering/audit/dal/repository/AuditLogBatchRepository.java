@@ -0,0 +1,19 @@
+package com.egov.tendering.audit.dal.repository;
+
+import com.egov.tendering.audit.dal.model.AuditLog;
+
+import java.util.List;
+
+/**
+ * Bulk writes of audit logs
+ */
+public interface AuditLogBatchRepository {
+
+    /**
+     * Insert audit logs with JDBC batch statements. Generated IDs are not read back,
+     * and timestamps must already be set.
+     *
+     * @return the number of audit logs inserted
+     */
+    int insertAll(List<AuditLog> auditLogs);
+}
@@ -0,0 +1,54 @@
+package com.egov.tendering.audit.dal.repository;
+
+import com.egov.tendering.audit.dal.model.AuditLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * JdbcTemplate implementation of {@link AuditLogBatchRepository}. AuditLog uses IDENTITY IDs,
+ * which stops Hibernate from batching inserts, so batches are written with plain JDBC.
+ */
+@RequiredArgsConstructor
+public class AuditLogBatchRepositoryImpl implements AuditLogBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO audit_logs " +
+            "(user_id, username, action_type, entity_type, entity_id, action, details, source_ip, user_agent, " +
+            "success, failure_reason, event_type, description, module, sub_module, timestamp, " +
+            "correlation_id, service_id, host_name) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.audit.ingest.jdbc-batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public int insertAll(List<AuditLog> auditLogs) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, auditLogs, batchSize, (ps, auditLog) -> {
+            ps.setObject(1, auditLog.getUserId());
+            ps.setString(2, auditLog.getUsername());
+            ps.setString(3, auditLog.getActionType() != null ? auditLog.getActionType().name() : null);
+            ps.setString(4, auditLog.getEntityType());
+            ps.setString(5, auditLog.getEntityId());
+            ps.setString(6, auditLog.getAction());
+            ps.setString(7, auditLog.getDetails());
+            ps.setString(8, auditLog.getSourceIp());
+            ps.setString(9, auditLog.getUserAgent());
+            ps.setBoolean(10, auditLog.isSuccess());
+            ps.setString(11, auditLog.getFailureReason());
+            ps.setString(12, auditLog.getEventType());
+            ps.setString(13, auditLog.getDescription());
+            ps.setString(14, auditLog.getModule());
+            ps.setString(15, auditLog.getSubModule());
+            ps.setTimestamp(16, Timestamp.valueOf(auditLog.getTimestamp()));
+            ps.setString(17, auditLog.getCorrelationId());
+            ps.setString(18, auditLog.getServiceId());
+            ps.setString(19, auditLog.getHostName());
+        });
+        return auditLogs.size();
+    }
+}
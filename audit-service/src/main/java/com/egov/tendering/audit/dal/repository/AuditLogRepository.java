@@ -6,6 +6,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -17,7 +18,8 @@ import java.util.List;
  * Repository for AuditLog entities
  */
 @Repository
-public interface AuditLogRepository extends JpaRepository<AuditLog, Long>, JpaSpecificationExecutor<AuditLog> {
+public interface AuditLogRepository extends JpaRepository<AuditLog, Long>, JpaSpecificationExecutor<AuditLog>,
+        AuditLogStreamingRepository, AuditLogBatchRepository {
 
     /**
      * Find audit logs by user ID
@@ -82,6 +84,95 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long>, JpaSp
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime);
 
+    /**
+     * Count audit logs by success flag within a timestamp range
+     */
+    @Query("SELECT a.success, COUNT(a) FROM AuditLog a " +
+            "WHERE a.timestamp BETWEEN :startTime AND :endTime GROUP BY a.success")
+    List<Object[]> countBySuccessAndTimestampBetween(
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * Count audit logs by action type within a timestamp range
+     */
+    @Query("SELECT a.actionType, COUNT(a) FROM AuditLog a " +
+            "WHERE a.timestamp BETWEEN :startTime AND :endTime GROUP BY a.actionType")
+    List<Object[]> countByActionTypeGroupedBetween(
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * Count audit logs by entity type within a timestamp range
+     */
+    @Query("SELECT a.entityType, COUNT(a) FROM AuditLog a " +
+            "WHERE a.timestamp BETWEEN :startTime AND :endTime GROUP BY a.entityType")
+    List<Object[]> countByEntityTypeGroupedBetween(
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * Count audit logs in the partial hours at the edges of a window, [from, headEnd) and
+     * [tailStart, to], by success flag, action type and entity type
+     */
+    @Query("SELECT a.success, a.actionType, a.entityType, COUNT(a) FROM AuditLog a " +
+            "WHERE (a.timestamp >= :from AND a.timestamp < :headEnd) " +
+            "OR (a.timestamp >= :tailStart AND a.timestamp <= :to) " +
+            "GROUP BY a.success, a.actionType, a.entityType")
+    List<Object[]> countGroupedAtEdges(
+            @Param("from") LocalDateTime from,
+            @Param("headEnd") LocalDateTime headEnd,
+            @Param("tailStart") LocalDateTime tailStart,
+            @Param("to") LocalDateTime to);
+
+    /**
+     * Get total and successful counts for an action type grouped by day, for the partial hours
+     * at the edges of a window, [from, headEnd) and [tailStart, to]
+     */
+    @Query("SELECT DATE(a.timestamp) as date, COUNT(a) as count, " +
+            "SUM(CASE WHEN a.success = true THEN 1 ELSE 0 END) as successCount " +
+            "FROM AuditLog a WHERE a.actionType = :actionType " +
+            "AND ((a.timestamp >= :from AND a.timestamp < :headEnd) " +
+            "OR (a.timestamp >= :tailStart AND a.timestamp <= :to)) " +
+            "GROUP BY DATE(a.timestamp)")
+    List<Object[]> getDailySummaryAtEdges(
+            @Param("actionType") AuditActionType actionType,
+            @Param("from") LocalDateTime from,
+            @Param("headEnd") LocalDateTime headEnd,
+            @Param("tailStart") LocalDateTime tailStart,
+            @Param("to") LocalDateTime to);
+
+    /**
+     * Count audit logs by user ID within a timestamp range
+     */
+    @Query("SELECT a.userId, COUNT(a) FROM AuditLog a " +
+            "WHERE a.timestamp BETWEEN :startTime AND :endTime GROUP BY a.userId")
+    List<Object[]> countByUserIdGroupedBetween(
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * Get the lowest audit log ID
+     */
+    @Query("SELECT MIN(a.id) FROM AuditLog a")
+    Long findMinId();
+
+    /**
+     * Get the highest ID of the audit logs older than a cutoff
+     */
+    @Query("SELECT MAX(a.id) FROM AuditLog a WHERE a.timestamp < :cutoff")
+    Long findMaxIdBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Delete the audit logs in an ID range (fromId, toId] that are older than a cutoff
+     */
+    @Modifying
+    @Query("DELETE FROM AuditLog a WHERE a.id > :fromId AND a.id <= :toId AND a.timestamp < :cutoff")
+    int deleteByIdRangeBefore(
+            @Param("fromId") Long fromId,
+            @Param("toId") Long toId,
+            @Param("cutoff") LocalDateTime cutoff);
+
     /**
      * Find audit logs by correlation ID
      */
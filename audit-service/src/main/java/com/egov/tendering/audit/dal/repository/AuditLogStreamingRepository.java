@@ -0,0 +1,21 @@
+package com.egov.tendering.audit.dal.repository;
+
+import com.egov.tendering.audit.dal.model.AuditLog;
+import jakarta.persistence.Tuple;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+/**
+ * Streaming queries over audit logs that are too large to load as a list
+ */
+public interface AuditLogStreamingRepository {
+
+    /**
+     * Stream the fields used by audit statistics (success, actionType, entityType, userId)
+     * for every audit log matching the specification. Rows are fetched from the database in
+     * batches and are not attached to the persistence context.
+     * The stream must be consumed inside a transaction and closed afterwards.
+     */
+    Stream<Tuple> streamStatisticsFields(Specification<AuditLog> spec);
+}
@@ -0,0 +1,50 @@
+package com.egov.tendering.audit.dal.repository;
+
+import com.egov.tendering.audit.dal.model.AuditLog;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+/**
+ * Criteria API implementation of {@link AuditLogStreamingRepository}
+ */
+public class AuditLogStreamingRepositoryImpl implements AuditLogStreamingRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.audit.statistics.fetch-size:1000}")
+    private int fetchSize;
+
+    @Override
+    public Stream<Tuple> streamStatisticsFields(Specification<AuditLog> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<AuditLog> root = query.from(AuditLog.class);
+
+        query.multiselect(
+                root.get("success").alias("success"),
+                root.get("actionType").alias("actionType"),
+                root.get("entityType").alias("entityType"),
+                root.get("userId").alias("userId"));
+
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
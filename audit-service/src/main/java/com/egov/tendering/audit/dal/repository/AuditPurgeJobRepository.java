@@ -0,0 +1,68 @@
+package com.egov.tendering.audit.dal.repository;
+
+import com.egov.tendering.audit.dal.model.AuditPurgeJob;
+import com.egov.tendering.audit.dal.model.AuditPurgeStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for AuditPurgeJob entities
+ */
+@Repository
+public interface AuditPurgeJobRepository extends JpaRepository<AuditPurgeJob, Long> {
+
+    List<AuditPurgeJob> findByStatusOrderByIdAsc(AuditPurgeStatus status);
+
+    List<AuditPurgeJob> findTop20ByOrderByIdDesc();
+
+    /**
+     * Take or renew the lease on a running job. Fails if another instance holds an unexpired lease.
+     *
+     * @return 1 if the lease is held by the owner after the update, otherwise 0
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE AuditPurgeJob j SET j.leaseOwner = :owner, j.leaseExpiresAt = :leaseExpiresAt " +
+            "WHERE j.id = :id AND j.status = com.egov.tendering.audit.dal.model.AuditPurgeStatus.RUNNING " +
+            "AND (j.leaseOwner IS NULL OR j.leaseOwner = :owner OR j.leaseExpiresAt < :now)")
+    int claim(@Param("id") Long id,
+              @Param("owner") String owner,
+              @Param("now") LocalDateTime now,
+              @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    /**
+     * Record a deleted chunk, if the owner still holds the job
+     *
+     * @return 1 if the chunk was recorded, 0 if the job was cancelled or taken over
+     */
+    @Modifying
+    @Query("UPDATE AuditPurgeJob j SET j.lastDeletedId = :lastDeletedId, " +
+            "j.deletedCount = j.deletedCount + :deleted, j.updatedAt = :now " +
+            "WHERE j.id = :id AND j.status = com.egov.tendering.audit.dal.model.AuditPurgeStatus.RUNNING " +
+            "AND j.leaseOwner = :owner")
+    int advance(@Param("id") Long id,
+                @Param("owner") String owner,
+                @Param("lastDeletedId") Long lastDeletedId,
+                @Param("deleted") long deleted,
+                @Param("now") LocalDateTime now);
+
+    /**
+     * Move a running job to a final status
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE AuditPurgeJob j SET j.status = :status, j.failureReason = :failureReason, " +
+            "j.runningSlot = NULL, j.leaseOwner = NULL, j.leaseExpiresAt = NULL, j.updatedAt = :now, j.completedAt = :now " +
+            "WHERE j.id = :id AND j.status = com.egov.tendering.audit.dal.model.AuditPurgeStatus.RUNNING")
+    int finish(@Param("id") Long id,
+               @Param("status") AuditPurgeStatus status,
+               @Param("failureReason") String failureReason,
+               @Param("now") LocalDateTime now);
+}
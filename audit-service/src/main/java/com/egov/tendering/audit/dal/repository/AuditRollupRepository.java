@@ -0,0 +1,86 @@
+package com.egov.tendering.audit.dal.repository;
+
+import com.egov.tendering.audit.dal.model.AuditActionType;
+import com.egov.tendering.audit.dal.model.AuditRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for AuditRollup entities
+ */
+@Repository
+public interface AuditRollupRepository extends JpaRepository<AuditRollup, Long> {
+
+    /**
+     * Add to the count of an hourly bucket, creating the bucket if it does not exist
+     */
+    @Modifying
+    @Query(value = "INSERT INTO audit_rollups (bucket_start, action_type, entity_type, service_id, success, event_count) " +
+            "VALUES (:bucketStart, :actionType, :entityType, :serviceId, :success, :count) " +
+            "ON DUPLICATE KEY UPDATE event_count = event_count + :count", nativeQuery = true)
+    int increment(
+            @Param("bucketStart") LocalDateTime bucketStart,
+            @Param("actionType") String actionType,
+            @Param("entityType") String entityType,
+            @Param("serviceId") String serviceId,
+            @Param("success") boolean success,
+            @Param("count") long count);
+
+    /**
+     * Delete the buckets starting in [from, to)
+     */
+    @Modifying
+    @Query(value = "DELETE FROM audit_rollups WHERE bucket_start >= :from AND bucket_start < :to", nativeQuery = true)
+    int deleteBuckets(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Recreate the buckets for audit logs with timestamps in [from, to) from audit_logs
+     */
+    @Modifying
+    @Query(value = "INSERT INTO audit_rollups (bucket_start, action_type, entity_type, service_id, success, event_count) " +
+            "SELECT TIMESTAMPADD(HOUR, TIMESTAMPDIFF(HOUR, '1970-01-01', a.timestamp), '1970-01-01'), " +
+            "a.action_type, a.entity_type, COALESCE(a.service_id, ''), a.success, COUNT(*) " +
+            "FROM audit_logs a WHERE a.timestamp >= :from AND a.timestamp < :to " +
+            "GROUP BY 1, 2, 3, 4, 5", nativeQuery = true)
+    int rebuildBuckets(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Sum bucket counts by success flag within a bucket range
+     */
+    @Query("SELECT r.success, SUM(r.eventCount) FROM AuditRollup r " +
+            "WHERE r.bucketStart BETWEEN :from AND :to GROUP BY r.success")
+    List<Object[]> sumBySuccess(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Sum bucket counts by action type within a bucket range
+     */
+    @Query("SELECT r.actionType, SUM(r.eventCount) FROM AuditRollup r " +
+            "WHERE r.bucketStart BETWEEN :from AND :to GROUP BY r.actionType")
+    List<Object[]> sumByActionType(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Sum bucket counts by entity type within a bucket range
+     */
+    @Query("SELECT r.entityType, SUM(r.eventCount) FROM AuditRollup r " +
+            "WHERE r.bucketStart BETWEEN :from AND :to GROUP BY r.entityType")
+    List<Object[]> sumByEntityType(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Get total and successful counts for an action type grouped by day
+     */
+    @Query("SELECT DATE(r.bucketStart) as date, SUM(r.eventCount) as count, " +
+            "SUM(CASE WHEN r.success = true THEN r.eventCount ELSE 0 END) as successCount " +
+            "FROM AuditRollup r " +
+            "WHERE r.actionType = :actionType AND r.bucketStart BETWEEN :from AND :to " +
+            "GROUP BY DATE(r.bucketStart) ORDER BY date ASC")
+    List<Object[]> getDailySummary(
+            @Param("actionType") AuditActionType actionType,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+}
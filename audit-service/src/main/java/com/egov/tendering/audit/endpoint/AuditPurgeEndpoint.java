@@ -0,0 +1,66 @@
+package com.egov.tendering.audit.endpoint;
+
+import com.egov.tendering.audit.dal.model.AuditPurgeJob;
+import com.egov.tendering.audit.services.impl.AuditPurgeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for running audit retention purges and following their progress.
+ * The jobs operation lists recent jobs, start with olderThan "2024-01-01T00:00:00" starts one,
+ * and cancel with a jobId cancels it. Exposed over JMX only: the service has no authentication
+ * of its own.
+ */
+@Component
+@Endpoint(id = "auditpurge")
+@RequiredArgsConstructor
+public class AuditPurgeEndpoint {
+
+    private final AuditPurgeService auditPurgeService;
+
+    @ReadOperation
+    public List<Map<String, Object>> jobs() {
+        return auditPurgeService.getRecentJobs().stream()
+                .map(this::toProgress)
+                .toList();
+    }
+
+    @WriteOperation
+    public Map<String, Object> start(String olderThan) {
+        return toProgress(auditPurgeService.startPurge(LocalDateTime.parse(olderThan)));
+    }
+
+    @DeleteOperation
+    public Map<String, Object> cancel(@Selector Long jobId) {
+        return Map.of("jobId", jobId, "cancelled", auditPurgeService.cancel(jobId));
+    }
+
+    private Map<String, Object> toProgress(AuditPurgeJob job) {
+        long range = job.getMaxId() - job.getFirstId() + 1;
+        long done = job.getLastDeletedId() - job.getFirstId() + 1;
+
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("jobId", job.getId());
+        progress.put("status", job.getStatus());
+        progress.put("cutoff", job.getCutoff());
+        progress.put("deletedCount", job.getDeletedCount());
+        progress.put("lastDeletedId", job.getLastDeletedId());
+        progress.put("maxId", job.getMaxId());
+        progress.put("percentComplete", range > 0 ? Math.min(100, done * 100 / range) : 100);
+        progress.put("createdAt", job.getCreatedAt());
+        progress.put("updatedAt", job.getUpdatedAt());
+        progress.put("completedAt", job.getCompletedAt());
+        progress.put("failureReason", job.getFailureReason());
+        return progress;
+    }
+}
@@ -0,0 +1,35 @@
+package com.egov.tendering.audit.endpoint;
+
+import com.egov.tendering.audit.services.impl.AuditRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for backfilling the audit rollups of a historical time range, through the
+ * rebuild operation with from "2024-01-01T00:00:00" and to "2024-02-01T00:00:00".
+ * Exposed over JMX only: the service has no authentication of its own.
+ */
+@Component
+@Endpoint(id = "auditrollups")
+@RequiredArgsConstructor
+public class AuditRollupEndpoint {
+
+    private final AuditRollupService auditRollupService;
+
+    @WriteOperation
+    public Map<String, Object> rebuild(String from, String to) {
+        LocalDateTime start = LocalDateTime.parse(from);
+        LocalDateTime end = LocalDateTime.parse(to);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+
+        long buckets = auditRollupService.rebuild(start, end);
+        return Map.of("from", start, "to", end, "buckets", buckets);
+    }
+}
@@ -0,0 +1,75 @@
+package com.egov.tendering.audit.endpoint;
+
+import com.egov.tendering.audit.dal.dto.AuditLogFilter;
+import com.egov.tendering.audit.dal.dto.AuditStatisticsDto;
+import com.egov.tendering.audit.dal.dto.AuditSummaryDto;
+import com.egov.tendering.audit.dal.model.AuditActionType;
+import com.egov.tendering.audit.services.impl.AuditService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Actuator endpoint for audit statistics. The statistics operation takes any of the audit log
+ * filters, with actionTypes as a comma-separated list and times like "2024-01-01T00:00:00"; a
+ * time window alone is answered from the hourly rollups, other filters stream the matching logs.
+ * The dailySummary operation takes an action type and an optional time window. Exposed over JMX
+ * only: the service has no authentication of its own.
+ */
+@Component
+@Endpoint(id = "auditstatistics")
+@RequiredArgsConstructor
+public class AuditStatisticsEndpoint {
+
+    private final AuditService auditService;
+
+    @ReadOperation
+    public AuditStatisticsDto statistics(@Nullable String startTime, @Nullable String endTime,
+                                         @Nullable String userId, @Nullable String username,
+                                         @Nullable String actionTypes, @Nullable String entityType,
+                                         @Nullable String entityId, @Nullable String action,
+                                         @Nullable Boolean success, @Nullable String keyword,
+                                         @Nullable String correlationId, @Nullable String serviceId) {
+        return auditService.getAuditStatistics(AuditLogFilter.builder()
+                .startTime(parseTime(startTime))
+                .endTime(parseTime(endTime))
+                .userId(userId)
+                .username(username)
+                .actionTypes(parseActionTypes(actionTypes))
+                .entityType(entityType)
+                .entityId(entityId)
+                .action(action)
+                .success(success)
+                .keyword(keyword)
+                .correlationId(correlationId)
+                .serviceId(serviceId)
+                .build());
+    }
+
+    @ReadOperation
+    public List<AuditSummaryDto> dailySummary(@Selector AuditActionType actionType,
+                                              @Nullable String startTime, @Nullable String endTime) {
+        return auditService.getDailySummary(actionType, parseTime(startTime), parseTime(endTime));
+    }
+
+    private static LocalDateTime parseTime(String value) {
+        return value != null && !value.isBlank() ? LocalDateTime.parse(value) : null;
+    }
+
+    private static List<AuditActionType> parseActionTypes(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .map(AuditActionType::valueOf)
+                .toList();
+    }
+}
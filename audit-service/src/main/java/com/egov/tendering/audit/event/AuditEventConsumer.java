@@ -1,68 +1,133 @@
 package com.egov.tendering.audit.event;
 
+import com.egov.tendering.audit.dal.model.AuditActionType;
 import com.egov.tendering.audit.dal.model.AuditLog;
-import com.egov.tendering.audit.dal.repository.AuditLogRepository;
+import com.egov.tendering.audit.services.impl.AuditService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Consumes domain events from other services in batches and records them as audit logs.
+ * Each poll is written in one transaction with JDBC batch inserts.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class AuditEventConsumer {
 
-    private final AuditLogRepository auditLogRepository;
+    private static final String SYSTEM_USERNAME = "system";
+    private static final String SYSTEM_SOURCE = "kafka";
 
-    @KafkaListener(topics = "tender-events", groupId = "${spring.application.name}")
-    public void listenTenderEvents(Object event) {
-        log.info("Received tender event: {}", event);
-        processEvent(event, "Tender", "Tenderee");
-    }
+    private final AuditService auditService;
 
-    @KafkaListener(topics = "evaluation-events", groupId = "${spring.application.name}")
-    public void listenEvaluationEvents(Object event) {
-        log.info("Received evaluation event: {}", event);
-        processEvent(event, "TenderOffer", "Evaluator");
-    }
+    @Value("${app.kafka.topics.tender-events:tender-events}")
+    private String tenderEventsTopic;
 
-    @KafkaListener(topics = "contract-events", groupId = "${spring.application.name}")
-    public void listenContractEvents(Object event) {
-        log.info("Received contract event: {}", event);
-        processEvent(event, "Contract", "Committee");
-    }
+    @Value("${app.kafka.topics.evaluation-events:evaluation-events}")
+    private String evaluationEventsTopic;
 
-    private void processEvent(Object event, String entityType, String module) {
-        try {
-            String eventString = event.toString();
-            AuditLog auditLog = AuditLog.builder()
-                    .eventType(extractEventType(eventString)) // e.g., "TenderCreated", "EvaluationCompleted"
-                    .entityType(entityType)
-                    .entityId(extractEntityId(eventString))
-                    .description(eventString)
-                    .timestamp(LocalDateTime.now()) // Replace with event timestamp if available
-                    .userId(extractUserId(eventString))
-                    .module(module)
-                    .build();
-            auditLogRepository.save(auditLog);
-            log.info("Audit log saved: {}", auditLog);
-        } catch (Exception e) {
-            log.error("Failed to process event: {}", event, e);
+    @Value("${app.kafka.topics.contract-events:contract-events}")
+    private String contractEventsTopic;
+
+    private final String hostName = resolveHostName();
+
+    @KafkaListener(
+            topics = {
+                    "${app.kafka.topics.tender-events:tender-events}",
+                    "${app.kafka.topics.evaluation-events:evaluation-events}",
+                    "${app.kafka.topics.contract-events:contract-events}"},
+            groupId = "${spring.application.name}",
+            containerFactory = "auditBatchListenerContainerFactory")
+    public void listenDomainEvents(List<ConsumerRecord<String, AuditEventEnvelope>> records) {
+        List<AuditLog> auditLogs = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, AuditEventEnvelope> record : records) {
+            if (record.value() == null) {
+                // ErrorHandlingDeserializer hands over unreadable records as null values
+                log.warn("Skipping undeserializable event at {}-{}@{}",
+                        record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            auditLogs.add(toAuditLog(record));
         }
+
+        int saved = auditService.saveAuditLogs(auditLogs);
+        log.debug("Saved {} audit logs from {} events", saved, records.size());
     }
 
-    // Placeholder extraction methods - refine with actual event structure
-    private String extractEventType(String event) {
-        return event.contains("eventType") ? event.split("eventType=")[1].split(",")[0] : "UNKNOWN";
+    private AuditLog toAuditLog(ConsumerRecord<String, AuditEventEnvelope> record) {
+        AuditEventEnvelope event = record.value();
+        String topic = record.topic();
+
+        String entityType;
+        String module;
+        String serviceId;
+        Long entityId;
+        if (topic.equals(tenderEventsTopic)) {
+            entityType = "Tender";
+            module = "Tenderee";
+            serviceId = "tender-service";
+            entityId = event.getTenderId();
+        } else if (topic.equals(evaluationEventsTopic)) {
+            entityType = "TenderOffer";
+            module = "Evaluator";
+            serviceId = "evaluation-service";
+            entityId = event.getEvaluationId() != null ? event.getEvaluationId() : event.getBidId();
+        } else if (topic.equals(contractEventsTopic)) {
+            entityType = "Contract";
+            module = "Committee";
+            serviceId = "contract-service";
+            entityId = event.getContractId();
+        } else {
+            entityType = topic;
+            module = null;
+            serviceId = null;
+            entityId = null;
+        }
+
+        String eventType = event.getEventType() != null ? event.getEventType() : "UNKNOWN";
+
+        return AuditLog.builder()
+                .userId(event.getUserId() != null ? event.getUserId() : 0L)
+                .username(SYSTEM_USERNAME)
+                .actionType(toActionType(eventType))
+                .entityType(entityType)
+                .entityId(entityId != null ? entityId.toString() : record.key())
+                .action(eventType)
+                .eventType(eventType)
+                .details(String.format("%s-%d@%d", topic, record.partition(), record.offset()))
+                .sourceIp(SYSTEM_SOURCE)
+                .success(true)
+                .module(module)
+                .timestamp(event.getTimestamp() != null ? event.getTimestamp() : LocalDateTime.now())
+                .correlationId(event.getEventId() != null ? event.getEventId().toString() : null)
+                .serviceId(serviceId)
+                .hostName(hostName)
+                .build();
     }
 
-    private String extractEntityId(String event) {
-        return event.contains("Id=") ? event.split("Id=")[1].split(",")[0] : "UNKNOWN";
+    private AuditActionType toActionType(String eventType) {
+        try {
+            return AuditActionType.valueOf(eventType);
+        } catch (IllegalArgumentException e) {
+            return AuditActionType.CUSTOM;
+        }
     }
 
-    private Long extractUserId(String event) {
-        return event.contains("userId") ? Long.parseLong(event.split("userId=")[1].split(",")[0]) : null;
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,32 @@
+package com.egov.tendering.audit.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fields the audit service reads from the events published by other services.
+ * Events are bound to this class regardless of their type headers; fields that only
+ * some events carry are null for the others.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AuditEventEnvelope {
+
+    private Long eventId;
+    private String eventType;
+    private LocalDateTime timestamp;
+    private Long userId;
+
+    private Long tenderId;
+    private Long evaluationId;
+    private Long bidId;
+    private Long contractId;
+}
@@ -0,0 +1,215 @@
+package com.egov.tendering.audit.services.impl;
+
+import com.egov.tendering.audit.dal.model.AuditPurgeJob;
+import com.egov.tendering.audit.dal.model.AuditPurgeStatus;
+import com.egov.tendering.audit.dal.repository.AuditLogRepository;
+import com.egov.tendering.audit.dal.repository.AuditPurgeJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service for purging old audit logs in bounded, throttled chunks.
+ * <p>
+ * Each chunk deletes the logs older than the cutoff in the next range of chunkSize IDs and
+ * records the new position in the same transaction. Chunks are paced so the purge stays under
+ * the configured rows per second. Jobs hold a lease that is renewed every chunk; jobs still
+ * RUNNING at startup are resumed once their previous owner's lease has expired.
+ */
+@Service
+@Slf4j
+public class AuditPurgeService {
+
+    private static final int RUNNING_SLOT = 1;
+
+    private final AuditLogRepository auditLogRepository;
+    private final AuditPurgeJobRepository auditPurgeJobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor auditPurgeExecutor;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${app.audit.purge.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${app.audit.purge.rows-per-second:20000}")
+    private int rowsPerSecond;
+
+    @Value("${app.audit.purge.lease:5m}")
+    private Duration lease;
+
+    public AuditPurgeService(AuditLogRepository auditLogRepository,
+                             AuditPurgeJobRepository auditPurgeJobRepository,
+                             TransactionTemplate transactionTemplate,
+                             @Qualifier("auditPurgeExecutor") ThreadPoolTaskExecutor auditPurgeExecutor) {
+        this.auditLogRepository = auditLogRepository;
+        this.auditPurgeJobRepository = auditPurgeJobRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.auditPurgeExecutor = auditPurgeExecutor;
+    }
+
+    /**
+     * Create a purge job for the audit logs older than a cutoff
+     *
+     * @throws IllegalStateException if another purge job is running
+     */
+    public AuditPurgeJob createJob(LocalDateTime olderThan) {
+        Long minId = auditLogRepository.findMinId();
+        Long maxId = auditLogRepository.findMaxIdBefore(olderThan);
+        boolean nothingToPurge = minId == null || maxId == null;
+
+        AuditPurgeJob job = AuditPurgeJob.builder()
+                .cutoff(olderThan)
+                .firstId(nothingToPurge ? 0L : minId)
+                .maxId(nothingToPurge ? 0L : maxId)
+                .lastDeletedId(nothingToPurge ? 0L : minId - 1)
+                .deletedCount(0)
+                .status(nothingToPurge ? AuditPurgeStatus.COMPLETED : AuditPurgeStatus.RUNNING)
+                .runningSlot(nothingToPurge ? null : RUNNING_SLOT)
+                .completedAt(nothingToPurge ? LocalDateTime.now() : null)
+                .build();
+
+        try {
+            job = auditPurgeJobRepository.save(job);
+        } catch (DataIntegrityViolationException e) {
+            // The running slot is taken: another purge was started first
+            throw new IllegalStateException("An audit purge is already running");
+        }
+        log.info("Created audit purge job {} for logs older than {} (IDs {} to {})",
+                job.getId(), olderThan, job.getFirstId(), job.getMaxId());
+        return job;
+    }
+
+    /**
+     * Start a purge job in the background
+     */
+    public AuditPurgeJob startPurge(LocalDateTime olderThan) {
+        AuditPurgeJob job = createJob(olderThan);
+        if (job.getStatus() == AuditPurgeStatus.RUNNING) {
+            Long jobId = job.getId();
+            auditPurgeExecutor.execute(() -> runJob(jobId));
+        }
+        return job;
+    }
+
+    /**
+     * Cancel a running purge job. The current chunk finishes first.
+     *
+     * @return true if the job was running
+     */
+    public boolean cancel(Long jobId) {
+        return auditPurgeJobRepository.finish(
+                jobId, AuditPurgeStatus.CANCELLED, null, LocalDateTime.now()) > 0;
+    }
+
+    /**
+     * Get the most recent purge jobs
+     */
+    public List<AuditPurgeJob> getRecentJobs() {
+        return auditPurgeJobRepository.findTop20ByOrderByIdDesc();
+    }
+
+    /**
+     * Resume the jobs that were running when the service last stopped
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeRunningJobs() {
+        for (AuditPurgeJob job : auditPurgeJobRepository.findByStatusOrderByIdAsc(AuditPurgeStatus.RUNNING)) {
+            log.info("Resuming audit purge job {} after ID {}", job.getId(), job.getLastDeletedId());
+            auditPurgeExecutor.execute(() -> resumeJob(job));
+        }
+    }
+
+    // Wait out the lease of the instance that ran the job before, then continue it
+    private void resumeJob(AuditPurgeJob job) {
+        LocalDateTime leaseExpiresAt = job.getLeaseExpiresAt();
+        if (leaseExpiresAt != null && leaseExpiresAt.isAfter(LocalDateTime.now())) {
+            try {
+                Thread.sleep(Duration.between(LocalDateTime.now(), leaseExpiresAt).toMillis() + 1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        runJob(job.getId());
+    }
+
+    /**
+     * Run a purge job chunk by chunk in the calling thread until it finishes,
+     * is cancelled, or its lease is taken over
+     *
+     * @return the number of audit logs deleted by this run
+     */
+    public long runJob(Long jobId) {
+        long deletedByRun = 0;
+        try {
+            while (true) {
+                LocalDateTime now = LocalDateTime.now();
+                if (auditPurgeJobRepository.claim(jobId, instanceId, now, now.plus(lease)) == 0) {
+                    log.info("Audit purge job {} is no longer running here, stopping", jobId);
+                    return deletedByRun;
+                }
+
+                AuditPurgeJob job = auditPurgeJobRepository.findById(jobId).orElseThrow();
+                if (job.getLastDeletedId() >= job.getMaxId()) {
+                    auditPurgeJobRepository.finish(jobId, AuditPurgeStatus.COMPLETED, null, LocalDateTime.now());
+                    log.info("Audit purge job {} completed, {} logs deleted", jobId, job.getDeletedCount());
+                    return deletedByRun;
+                }
+
+                long chunkStarted = System.nanoTime();
+                Long fromId = job.getLastDeletedId();
+                Long toId = Math.min(fromId + chunkSize, job.getMaxId());
+
+                Integer deleted = transactionTemplate.execute(status -> {
+                    int count = auditLogRepository.deleteByIdRangeBefore(fromId, toId, job.getCutoff());
+                    if (auditPurgeJobRepository.advance(jobId, instanceId, toId, count, LocalDateTime.now()) == 0) {
+                        // Cancelled or taken over since the claim; the new owner deletes this chunk
+                        status.setRollbackOnly();
+                        return null;
+                    }
+                    return count;
+                });
+                if (deleted == null) {
+                    log.info("Audit purge job {} is no longer held here, stopping", jobId);
+                    return deletedByRun;
+                }
+                deletedByRun += deleted;
+
+                throttle(deleted, System.nanoTime() - chunkStarted);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Audit purge job {} interrupted, it will resume on next startup", jobId);
+        } catch (Exception e) {
+            log.error("Audit purge job {} failed", jobId, e);
+            String reason = String.valueOf(e.getMessage());
+            auditPurgeJobRepository.finish(jobId, AuditPurgeStatus.FAILED,
+                    reason.substring(0, Math.min(reason.length(), 255)), LocalDateTime.now());
+        }
+        return deletedByRun;
+    }
+
+    // Sleep long enough that this chunk does not exceed the rows-per-second limit
+    private void throttle(int deleted, long elapsedNanos) throws InterruptedException {
+        if (rowsPerSecond <= 0 || deleted == 0) {
+            return;
+        }
+        long minimumNanos = deleted * 1_000_000_000L / rowsPerSecond;
+        if (elapsedNanos < minimumNanos) {
+            TimeUnit.NANOSECONDS.sleep(minimumNanos - elapsedNanos);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.egov.tendering.audit.services.impl;
+
+import com.egov.tendering.audit.dal.model.AuditLog;
+import com.egov.tendering.audit.dal.repository.AuditRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service for maintaining the hourly audit rollups
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuditRollupService {
+
+    private final AuditRollupRepository auditRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Count a saved audit log in its hourly bucket
+     */
+    @Transactional
+    public void record(AuditLog auditLog) {
+        if (auditLog.getActionType() == null || auditLog.getEntityType() == null) {
+            log.debug("Audit log {} has no action or entity type, not counted in rollups", auditLog.getId());
+            return;
+        }
+        auditRollupRepository.increment(
+                bucketStart(timestampOf(auditLog)),
+                auditLog.getActionType().name(),
+                auditLog.getEntityType(),
+                auditLog.getServiceId() != null ? auditLog.getServiceId() : "",
+                auditLog.isSuccess(),
+                1L);
+    }
+
+    /**
+     * Count a batch of saved audit logs, with one upsert per distinct bucket
+     */
+    @Transactional
+    public void recordAll(List<AuditLog> auditLogs) {
+        Map<List<Object>, Long> counts = new HashMap<>();
+        for (AuditLog auditLog : auditLogs) {
+            if (auditLog.getActionType() == null || auditLog.getEntityType() == null) {
+                continue;
+            }
+            List<Object> bucket = List.of(
+                    bucketStart(timestampOf(auditLog)),
+                    auditLog.getActionType().name(),
+                    auditLog.getEntityType(),
+                    auditLog.getServiceId() != null ? auditLog.getServiceId() : "",
+                    auditLog.isSuccess());
+            counts.merge(bucket, 1L, Long::sum);
+        }
+
+        counts.forEach((bucket, count) -> auditRollupRepository.increment(
+                (LocalDateTime) bucket.get(0),
+                (String) bucket.get(1),
+                (String) bucket.get(2),
+                (String) bucket.get(3),
+                (Boolean) bucket.get(4),
+                count));
+    }
+
+    /**
+     * Rebuild the rollups of every hour overlapping [from, to) from the audit logs.
+     * Each day is rebuilt in its own transaction.
+     *
+     * @return the number of buckets written
+     */
+    public long rebuild(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = bucketStart(from);
+        LocalDateTime end = bucketStart(to).isBefore(to) ? bucketStart(to).plusHours(1) : bucketStart(to);
+        log.info("Rebuilding audit rollups from {} to {}", start, end);
+
+        long buckets = 0;
+        LocalDateTime chunkStart = start;
+        while (chunkStart.isBefore(end)) {
+            LocalDateTime chunkFrom = chunkStart;
+            LocalDateTime chunkTo = chunkStart.plusDays(1).isBefore(end) ? chunkStart.plusDays(1) : end;
+
+            Integer written = transactionTemplate.execute(status -> {
+                auditRollupRepository.deleteBuckets(chunkFrom, chunkTo);
+                return auditRollupRepository.rebuildBuckets(chunkFrom, chunkTo);
+            });
+            buckets += written != null ? written : 0;
+            chunkStart = chunkTo;
+        }
+
+        log.info("Rebuilt {} audit rollup buckets", buckets);
+        return buckets;
+    }
+
+    // Logs saved without a timestamp are counted in the current hour
+    private static LocalDateTime timestampOf(AuditLog auditLog) {
+        return auditLog.getTimestamp() != null ? auditLog.getTimestamp() : LocalDateTime.now();
+    }
+
+    /**
+     * Start of the hourly bucket containing a timestamp
+     */
+    public static LocalDateTime bucketStart(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(ChronoUnit.HOURS);
+    }
+}
@@ -5,9 +5,13 @@ import com.egov.tendering.audit.dal.dto.*;
 import com.egov.tendering.audit.dal.mapper.AuditMapper;
 import com.egov.tendering.audit.dal.model.AuditActionType;
 import com.egov.tendering.audit.dal.model.AuditLog;
+import com.egov.tendering.audit.dal.model.AuditPurgeJob;
+import com.egov.tendering.audit.dal.model.AuditPurgeStatus;
 import com.egov.tendering.audit.dal.repository.AuditLogRepository;
+import com.egov.tendering.audit.dal.repository.AuditRollupRepository;
 
 import com.egov.tendering.audit.specification.AuditLogSpecification;
+import jakarta.persistence.Tuple;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -23,6 +27,7 @@ import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service for managing audit logs
@@ -32,7 +37,14 @@ import java.util.stream.Collectors;
 @Slf4j
 public class AuditService {
 
+    // Bounds of the MySQL DATETIME range, used for open-ended time windows
+    private static final LocalDateTime EARLIEST_TIMESTAMP = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST_TIMESTAMP = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     private final AuditLogRepository auditLogRepository;
+    private final AuditRollupRepository auditRollupRepository;
+    private final AuditRollupService auditRollupService;
+    private final AuditPurgeService auditPurgeService;
     private final AuditMapper auditMapper;
 
     /**
@@ -52,10 +64,33 @@ public class AuditService {
             auditLog.setHostName("unknown");
         }
 
-        AuditLog savedAuditLog = auditLogRepository.save(auditLog);
+        AuditLog savedAuditLog = saveAuditLog(auditLog);
         return auditMapper.toResponse(savedAuditLog);
     }
 
+    /**
+     * Save an audit log and count it in the hourly rollups
+     */
+    @Transactional
+    public AuditLog saveAuditLog(AuditLog auditLog) {
+        AuditLog savedAuditLog = auditLogRepository.save(auditLog);
+        auditRollupService.record(savedAuditLog);
+        return savedAuditLog;
+    }
+
+    /**
+     * Save a batch of audit logs with JDBC batch inserts and count them in the hourly rollups
+     */
+    @Transactional
+    public int saveAuditLogs(List<AuditLog> auditLogs) {
+        if (auditLogs.isEmpty()) {
+            return 0;
+        }
+        int inserted = auditLogRepository.insertAll(auditLogs);
+        auditRollupService.recordAll(auditLogs);
+        return inserted;
+    }
+
     /**
      * Create an audit log entry from an event received from Kafka
      */
@@ -64,7 +99,7 @@ public class AuditService {
         log.debug("Creating audit log entry from event for action: {}", event.getAction());
 
         AuditLog auditLog = auditMapper.toEntity(event);
-        AuditLog savedAuditLog = auditLogRepository.save(auditLog);
+        AuditLog savedAuditLog = saveAuditLog(auditLog);
         return auditMapper.toResponse(savedAuditLog);
     }
 
@@ -159,54 +194,59 @@ public class AuditService {
     }
 
     /**
-     * Get audit statistics
+     * Get audit statistics for a time window. Outcome, action type and entity type counts are
+     * read from the hourly rollups for the whole hours inside the window, and counted from the
+     * audit logs for the partial hours at its edges. User counts are not rolled up and are
+     * aggregated from the audit logs by the database.
      */
     @Transactional(readOnly = true)
     public AuditStatisticsDto getAuditStatistics(LocalDateTime startTime, LocalDateTime endTime) {
         log.debug("Getting audit statistics between {} and {}", startTime, endTime);
 
-        // Get total count
-        long totalCount = auditLogRepository.count();
+        HourWindow window = HourWindow.of(
+                startTime != null ? startTime : EARLIEST_TIMESTAMP,
+                endTime != null ? endTime : LATEST_TIMESTAMP);
 
-        // Get success and failure counts
         long successCount = 0;
         long failureCount = 0;
         Map<AuditActionType, Long> actionTypeCounts = new HashMap<>();
         Map<String, Long> entityTypeCounts = new HashMap<>();
-        Map<String, Long> userActivityCounts = new HashMap<>();
-
-        // This approach might not be efficient for large datasets
-        // In a production environment, consider using aggregation queries
-        AuditLogFilter filter = AuditLogFilter.builder()
-                .startTime(startTime)
-                .endTime(endTime)
-                .build();
 
-        Specification<AuditLog> spec = buildSpecification(filter);
-        List<AuditLog> auditLogs = auditLogRepository.findAll(spec);
+        if (window.hasWholeHours()) {
+            for (Object[] row : auditRollupRepository.sumBySuccess(window.headEnd(), window.lastWholeHour())) {
+                if ((Boolean) row[0]) {
+                    successCount += ((Number) row[1]).longValue();
+                } else {
+                    failureCount += ((Number) row[1]).longValue();
+                }
+            }
+            for (Object[] row : auditRollupRepository.sumByActionType(window.headEnd(), window.lastWholeHour())) {
+                actionTypeCounts.merge((AuditActionType) row[0], ((Number) row[1]).longValue(), Long::sum);
+            }
+            for (Object[] row : auditRollupRepository.sumByEntityType(window.headEnd(), window.lastWholeHour())) {
+                entityTypeCounts.merge((String) row[0], ((Number) row[1]).longValue(), Long::sum);
+            }
+        }
 
-        for (AuditLog log : auditLogs) {
-            if (log.isSuccess()) {
-                successCount++;
+        for (Object[] row : auditLogRepository.countGroupedAtEdges(
+                window.from(), window.headEnd(), window.tailStart(), window.to())) {
+            long count = ((Number) row[3]).longValue();
+            if ((Boolean) row[0]) {
+                successCount += count;
             } else {
-                failureCount++;
+                failureCount += count;
             }
+            actionTypeCounts.merge((AuditActionType) row[1], count, Long::sum);
+            entityTypeCounts.merge((String) row[2], count, Long::sum);
+        }
 
-            // Count by action type
-            actionTypeCounts.put(log.getActionType(),
-                    actionTypeCounts.getOrDefault(log.getActionType(), 0L) + 1);
-
-            // Count by entity type
-            entityTypeCounts.put(log.getEntityType(),
-                    entityTypeCounts.getOrDefault(log.getEntityType(), 0L) + 1);
-
-            // Count by user
-            userActivityCounts.put(String.valueOf(log.getUserId()),
-                    userActivityCounts.getOrDefault(log.getUserId(), 0L) + 1);
+        Map<String, Long> userActivityCounts = new HashMap<>();
+        for (Object[] row : auditLogRepository.countByUserIdGroupedBetween(window.from(), window.to())) {
+            userActivityCounts.put(String.valueOf(row[0]), ((Number) row[1]).longValue());
         }
 
         return AuditStatisticsDto.builder()
-                .totalAuditLogs(totalCount)
+                .totalAuditLogs(successCount + failureCount)
                 .successfulActions(successCount)
                 .failedActions(failureCount)
                 .actionTypeCounts(actionTypeCounts)
@@ -216,52 +256,96 @@ public class AuditService {
     }
 
     /**
-     * Get daily audit summary for a specific action type
+     * Get audit statistics for an arbitrary filter. Filters other than a time window cannot use
+     * the grouped queries, so matching rows are streamed and counted one at a time.
      */
     @Transactional(readOnly = true)
-    public List<AuditSummaryDto> getDailySummary(AuditActionType actionType, LocalDateTime startTime, LocalDateTime endTime) {
-        log.debug("Getting daily summary for action type: {} between {} and {}", actionType, startTime, endTime);
-
-        List<Object[]> results = auditLogRepository.getActionSummaryByDay(actionType, startTime, endTime);
+    public AuditStatisticsDto getAuditStatistics(AuditLogFilter filter) {
+        AuditLogFilter timeRangeOnly = AuditLogFilter.builder()
+                .startTime(filter.getStartTime())
+                .endTime(filter.getEndTime())
+                .build();
+        if (timeRangeOnly.equals(filter)) {
+            return getAuditStatistics(filter.getStartTime(), filter.getEndTime());
+        }
 
-        List<AuditSummaryDto> summaries = new ArrayList<>();
-        for (Object[] result : results) {
-            LocalDate date = ((java.sql.Date) result[0]).toLocalDate();
-            long count = ((Number) result[1]).longValue();
+        log.debug("Streaming audit statistics with filter: {}", filter);
 
-            // We would need additional queries to get success/failure counts
-            // This is a simplified implementation
-            AuditSummaryDto summary = AuditSummaryDto.builder()
-                    .date(date)
-                    .actionType(actionType.name())
-                    .count(count)
-                    .build();
+        long[] successAndFailureCounts = new long[2];
+        Map<AuditActionType, Long> actionTypeCounts = new HashMap<>();
+        Map<String, Long> entityTypeCounts = new HashMap<>();
+        Map<String, Long> userActivityCounts = new HashMap<>();
 
-            summaries.add(summary);
+        try (Stream<Tuple> rows = auditLogRepository.streamStatisticsFields(buildSpecification(filter))) {
+            rows.forEach(row -> {
+                successAndFailureCounts[row.get("success", Boolean.class) ? 0 : 1]++;
+                actionTypeCounts.merge(row.get("actionType", AuditActionType.class), 1L, Long::sum);
+                entityTypeCounts.merge(row.get("entityType", String.class), 1L, Long::sum);
+                userActivityCounts.merge(String.valueOf(row.get("userId", Long.class)), 1L, Long::sum);
+            });
         }
 
-        return summaries;
+        return AuditStatisticsDto.builder()
+                .totalAuditLogs(successAndFailureCounts[0] + successAndFailureCounts[1])
+                .successfulActions(successAndFailureCounts[0])
+                .failedActions(successAndFailureCounts[1])
+                .actionTypeCounts(actionTypeCounts)
+                .entityTypeCounts(entityTypeCounts)
+                .userActivityCounts(userActivityCounts)
+                .build();
     }
 
     /**
-     * Delete audit logs older than a certain date
+     * Get daily audit summary for a specific action type, from the hourly rollups for the whole
+     * hours inside the window and from the audit logs for the partial hours at its edges
      */
-    @Transactional
-    public long purgeOldAuditLogs(LocalDateTime olderThan) {
-        log.info("Purging audit logs older than: {}", olderThan);
+    @Transactional(readOnly = true)
+    public List<AuditSummaryDto> getDailySummary(AuditActionType actionType, LocalDateTime startTime, LocalDateTime endTime) {
+        log.debug("Getting daily summary for action type: {} between {} and {}", actionType, startTime, endTime);
 
-        AuditLogFilter filter = AuditLogFilter.builder()
-                .endTime(olderThan)
-                .build();
+        HourWindow window = HourWindow.of(
+                startTime != null ? startTime : EARLIEST_TIMESTAMP,
+                endTime != null ? endTime : LATEST_TIMESTAMP);
 
-        Specification<AuditLog> spec = buildSpecification(filter);
-        List<AuditLog> logsToDelete = auditLogRepository.findAll(spec);
+        // Total and successful counts by day
+        Map<LocalDate, long[]> counts = new TreeMap<>();
+        if (window.hasWholeHours()) {
+            addDailyCounts(counts, auditRollupRepository.getDailySummary(
+                    actionType, window.headEnd(), window.lastWholeHour()));
+        }
+        addDailyCounts(counts, auditLogRepository.getDailySummaryAtEdges(
+                actionType, window.from(), window.headEnd(), window.tailStart(), window.to()));
+
+        List<AuditSummaryDto> summaries = new ArrayList<>(counts.size());
+        counts.forEach((date, count) -> summaries.add(AuditSummaryDto.builder()
+                .date(date)
+                .actionType(actionType.name())
+                .count(count[0])
+                .successCount(count[1])
+                .failureCount(count[0] - count[1])
+                .build()));
+        return summaries;
+    }
 
-        int count = logsToDelete.size();
-        if (count > 0) {
-            auditLogRepository.deleteAll(logsToDelete);
-            log.info("Deleted {} audit logs", count);
+    private static void addDailyCounts(Map<LocalDate, long[]> counts, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            LocalDate date = row[0] instanceof java.sql.Date sqlDate ? sqlDate.toLocalDate() : (LocalDate) row[0];
+            long[] count = counts.computeIfAbsent(date, key -> new long[2]);
+            count[0] += ((Number) row[1]).longValue();
+            count[1] += ((Number) row[2]).longValue();
         }
+    }
+
+    /**
+     * Delete audit logs older than a certain date. Runs a chunked purge job in the calling
+     * thread; use the auditpurge actuator endpoint to run it in the background instead.
+     */
+    public long purgeOldAuditLogs(LocalDateTime olderThan) {
+        log.info("Purging audit logs older than: {}", olderThan);
+
+        AuditPurgeJob job = auditPurgeService.createJob(olderThan);
+        long count = job.getStatus() == AuditPurgeStatus.RUNNING ? auditPurgeService.runJob(job.getId()) : 0;
+        log.info("Deleted {} audit logs", count);
 
         return count;
     }
@@ -322,4 +406,34 @@ public class AuditService {
 
         return spec;
     }
+
+    /**
+     * A time window [from, to] split into the whole hours inside it, whose counts are in the
+     * hourly rollups, and the partial hours at its edges, [from, headEnd) and [tailStart, to],
+     * which are counted from the audit logs. A window without a whole hour is all edge.
+     */
+    private record HourWindow(LocalDateTime from, LocalDateTime headEnd, LocalDateTime tailStart, LocalDateTime to) {
+
+        static HourWindow of(LocalDateTime from, LocalDateTime to) {
+            LocalDateTime firstWholeHour = AuditRollupService.bucketStart(from);
+            if (firstWholeHour.isBefore(from)) {
+                firstWholeHour = firstWholeHour.plusHours(1);
+            }
+            // The hour containing 'to' is partial, even when 'to' is its first instant
+            LocalDateTime wholeHoursEnd = AuditRollupService.bucketStart(to);
+            if (!firstWholeHour.isBefore(wholeHoursEnd)) {
+                return new HourWindow(from, to, to, to);
+            }
+            return new HourWindow(from, firstWholeHour, wholeHoursEnd, to);
+        }
+
+        boolean hasWholeHours() {
+            return headEnd.isBefore(tailStart);
+        }
+
+        // Start of the last whole hour; rollup queries take a range of bucket starts
+        LocalDateTime lastWholeHour() {
+            return tailStart.minusHours(1);
+        }
+    }
 }
@@ -9,8 +9,11 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.listener.ContainerProperties;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -18,6 +21,10 @@ import java.util.Map;
 @Configuration
 public class KafkaConsumerConfig {
 
+    private static final long INITIAL_RETRY_INTERVAL_MS = 1000L;
+    // Stays well below max.poll.interval.ms, since the consumer thread waits between attempts
+    private static final long MAX_RETRY_INTERVAL_MS = 60_000L;
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
@@ -27,16 +34,24 @@ public class KafkaConsumerConfig {
     @Value("${spring.application.name}")
     private String applicationName;
 
+    @Value("${app.kafka.consumer.concurrency:3}")
+    private int concurrency;
+
+    @Value("${app.kafka.consumer.max-retries:10}")
+    private int maxRetries;
+
     /**
-     * Generic consumer factory for receiving events from other services
+     * Consumer factory for receiving events from other services. Values are read as JSON text and
+     * mapped to this service's event classes by the listener, since the type headers written by
+     * the producers name classes that only exist in the producing service.
      */
     @Bean
-    public ConsumerFactory<String, Object> consumerFactory() {
+    public ConsumerFactory<String, String> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
         props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 100);
@@ -46,21 +61,39 @@ public class KafkaConsumerConfig {
         props.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, 300000);
         props.put(ConsumerConfig.CLIENT_ID_CONFIG, applicationName + "-consumer");
 
-        // Allow deserialization from trusted packages
-        props.put(JsonDeserializer.TRUSTED_PACKAGES, "com.egov.tendering.*");
-
         return new DefaultKafkaConsumerFactory<>(props);
     }
 
     /**
-     * Listener container factory for tender events
+     * Batch listener container factory for events from other services. Each partition is
+     * consumed by one thread, so events with the same key are processed in order, and
+     * throughput scales with the number of partitions. Offsets are committed after each batch.
+     * <p>
+     * Events that can never be applied are skipped by the listener itself. Any other failure is
+     * retried from the failed event, backing off up to a minute between attempts; the events
+     * before it are not redelivered, and the partition does not move past the failed event in the
+     * meantime. An event still failing after {@code app.kafka.consumer.max-retries} retries is
+     * published to the dead-letter topic of its topic ({@code <topic>.DLT}, same partition) and
+     * the partition moves on.
      */
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory(
+            KafkaTemplate<String, String> deadLetterKafkaTemplate) {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
-        factory.setConcurrency(3);
-        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        factory.setConcurrency(concurrency);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(
+                new DeadLetterPublishingRecoverer(deadLetterKafkaTemplate), retryBackOff()));
         return factory;
     }
-}
\ No newline at end of file
+
+    private ExponentialBackOffWithMaxRetries retryBackOff() {
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(maxRetries);
+        backOff.setInitialInterval(INITIAL_RETRY_INTERVAL_MS);
+        backOff.setMultiplier(2.0);
+        backOff.setMaxInterval(MAX_RETRY_INTERVAL_MS);
+        return backOff;
+    }
+}
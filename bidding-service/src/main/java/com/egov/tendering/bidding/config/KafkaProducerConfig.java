@@ -52,4 +52,20 @@ public class KafkaProducerConfig {
     public KafkaTemplate<String, BidEvent> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
+
+    /**
+     * Template for publishing consumed events that could not be applied to their dead-letter
+     * topics. Values are the JSON text as received.
+     */
+    @Bean
+    public KafkaTemplate<String, String> deadLetterKafkaTemplate() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.CLIENT_ID_CONFIG, applicationName + "-dead-letter-producer");
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(configProps));
+    }
 }
\ No newline at end of file
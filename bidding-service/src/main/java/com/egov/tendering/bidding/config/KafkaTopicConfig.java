@@ -5,6 +5,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
 
 @Configuration
 public class KafkaTopicConfig {
@@ -56,4 +57,16 @@ public class KafkaTopicConfig {
                 .replicas(1)
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Dead-letter topics of the consumed topics, for events that failed every retry. They have
+     * the partitions of their source topics, since an event keeps its partition.
+     */
+    @Bean
+    public KafkaAdmin.NewTopics deadLetterTopics() {
+        return new KafkaAdmin.NewTopics(
+                TopicBuilder.name("tender-events.DLT").partitions(3).replicas(1).build(),
+                TopicBuilder.name("evaluation-events.DLT").partitions(3).replicas(1).build(),
+                TopicBuilder.name("contract-events.DLT").partitions(3).replicas(1).build());
+    }
+}
@@ -0,0 +1,45 @@
+package com.egov.tendering.bidding.config;
+
+import com.egov.tendering.bidding.exception.FileStorageException;
+import com.egov.tendering.common.storage.LocalStorageBackend;
+import com.egov.tendering.common.storage.S3StorageBackend;
+import com.egov.tendering.common.storage.StorageBackend;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Paths;
+
+@Configuration
+public class StorageConfig {
+
+    /**
+     * Keeps uploaded files on this node's disk, under the upload directory
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.file-storage.type", havingValue = "local", matchIfMissing = true)
+    public StorageBackend localStorageBackend(@Value("${app.file-storage.upload-dir:uploads}") String uploadDir) {
+        try {
+            return new LocalStorageBackend(Paths.get(uploadDir).resolve("blobs"));
+        } catch (IOException ex) {
+            throw new FileStorageException("Could not create the directory where the uploaded files will be stored", ex);
+        }
+    }
+
+    /**
+     * Keeps uploaded files in an S3-compatible bucket, so every instance can serve every file
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.file-storage.type", havingValue = "s3")
+    public StorageBackend s3StorageBackend(
+            @Value("${app.file-storage.s3.endpoint}") String endpoint,
+            @Value("${app.file-storage.s3.region:us-east-1}") String region,
+            @Value("${app.file-storage.s3.bucket}") String bucket,
+            @Value("${app.file-storage.s3.access-key}") String accessKey,
+            @Value("${app.file-storage.s3.secret-key}") String secretKey) {
+        return new S3StorageBackend(URI.create(endpoint), region, bucket, accessKey, secretKey);
+    }
+}
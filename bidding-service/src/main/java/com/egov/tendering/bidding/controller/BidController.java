@@ -44,6 +44,13 @@ public class BidController {
     return ResponseEntity.ok(bid);
   }
 
+  @PostMapping("/batch")
+  public ResponseEntity<List<BidDTO>> getBidsByIds(@RequestBody List<Long> bidIds) {
+    log.info("Getting {} bids by ID", bidIds.size());
+    List<BidDTO> bids = bidService.getBidsByIds(bidIds);
+    return ResponseEntity.ok(bids);
+  }
+
   @PostMapping("/{bidId}/submit")
   public ResponseEntity<BidDTO> submitBid(@PathVariable Long bidId) {
     log.info("Submitting bid with ID: {}", bidId);
@@ -22,6 +22,7 @@ public class BidDTO {
     private BidStatus status;
     private BigDecimal totalPrice;
     private LocalDateTime submissionTime;
+    private String submissionHash;
     private LocalDateTime createdAt;
     private List<BidItemDTO> items;
     private List<BidDocumentDTO> documents;
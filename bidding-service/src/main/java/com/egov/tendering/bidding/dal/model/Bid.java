@@ -12,15 +12,19 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "bids")
+@Table(name = "bids", indexes = {
+        @Index(name = "idx_bids_tender_status", columnList = "tender_id, status")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Bid {
 
+  // Sequence ids let a bid and its items be inserted together in one JDBC batch
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bids_seq")
+  @SequenceGenerator(name = "bids_seq", sequenceName = "bids_seq", allocationSize = 50)
   private Long id;
 
   @Column(name = "tender_id", nullable = false)
@@ -53,6 +57,10 @@ public class Bid {
   @Column(name = "submission_time")
   private LocalDateTime submissionTime;
 
+  // SHA-256 of the submitted content, the tenderer's receipt for what was submitted
+  @Column(name = "submission_hash", length = 64)
+  private String submissionHash;
+
   @Column(name = "created_at", nullable = false, updatable = false)
   private LocalDateTime createdAt;
 
@@ -18,7 +18,8 @@ import java.time.LocalDateTime;
 public class BidItem {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bid_items_seq")
+  @SequenceGenerator(name = "bid_items_seq", sequenceName = "bid_items_seq", allocationSize = 50)
   private Long id;
 
   @ManyToOne(fetch = FetchType.LAZY)
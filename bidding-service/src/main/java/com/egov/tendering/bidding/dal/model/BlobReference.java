@@ -0,0 +1,38 @@
+package com.egov.tendering.bidding.dal.model;
+
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of stored files that share a content-addressed blob, keyed by its SHA-256 hash
+ */
+@Entity
+@Table(name = "blob_references")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlobReference {
+
+    @Id
+    @Column(name = "hash", length = 64)
+    private String hash;
+
+    @Column(name = "size", nullable = false)
+    private Long size;
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
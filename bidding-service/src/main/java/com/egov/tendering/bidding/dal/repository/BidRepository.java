@@ -2,16 +2,32 @@ package com.egov.tendering.bidding.dal.repository;
 
 import com.egov.tendering.bidding.dal.model.Bid;
 import com.egov.tendering.bidding.dal.model.BidStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BidRepository extends JpaRepository<Bid, Long> {
 
+    /**
+     * Find a bid and lock it until the transaction ends, so concurrent submissions of the same
+     * bid are applied one after the other
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Bid b WHERE b.id = :bidId")
+    Optional<Bid> findByIdForUpdate(@Param("bidId") Long bidId);
+
     List<Bid> findByTenderIdAndStatus(Long tenderId, BidStatus status);
 
     List<Bid> findByTendererIdAndStatus(Long tendererId, BidStatus status);
@@ -36,4 +52,53 @@ public interface BidRepository extends JpaRepository<Bid, Long> {
      */
     List<Bid> findByTenderIdAndStatusNot(Long tenderId, BidStatus status);
 
+    /**
+     * Lock the bids of a tender in one of the given statuses until the transaction ends
+     *
+     * @return the number of bids locked
+     */
+    @Query(value = "SELECT COUNT(*) FROM bids WHERE tender_id = :tenderId AND status IN (:statuses) FOR UPDATE",
+            nativeQuery = true)
+    long lockByTenderIdAndStatusIn(@Param("tenderId") Long tenderId, @Param("statuses") Collection<String> statuses);
+
+    /**
+     * Move every bid of a tender in one of the given statuses to a new status, with one statement
+     *
+     * @return the number of bids updated
+     */
+    @Modifying
+    @Query(value = "UPDATE bids SET status = :newStatus, status_reason = :reason, updated_at = NOW(6) " +
+            "WHERE tender_id = :tenderId AND status IN (:fromStatuses)", nativeQuery = true)
+    int updateStatusByTenderId(@Param("tenderId") Long tenderId,
+                               @Param("fromStatuses") Collection<String> fromStatuses,
+                               @Param("newStatus") String newStatus,
+                               @Param("reason") String reason);
+
+    /**
+     * Lock a bid if it is in one of the given statuses until the transaction ends
+     *
+     * @return 1 if the bid was locked
+     */
+    @Query(value = "SELECT COUNT(*) FROM bids WHERE id = :bidId AND status IN (:statuses) FOR UPDATE",
+            nativeQuery = true)
+    long lockByIdAndStatusIn(@Param("bidId") Long bidId, @Param("statuses") Collection<String> statuses);
+
+    /**
+     * Move a bid to a new status if it is in one of the given statuses
+     *
+     * @return 1 if the bid was updated
+     */
+    @Modifying
+    @Query(value = "UPDATE bids SET status = :newStatus, updated_at = NOW(6) " +
+            "WHERE id = :bidId AND status IN (:fromStatuses)", nativeQuery = true)
+    int updateStatusById(@Param("bidId") Long bidId,
+                         @Param("fromStatuses") Collection<String> fromStatuses,
+                         @Param("newStatus") String newStatus);
+
+    /**
+     * Find all bids with the given IDs, fetching their items in the same query
+     */
+    @EntityGraph(attributePaths = "items")
+    List<Bid> findByIdIn(Collection<Long> ids);
+
 }
\ No newline at end of file
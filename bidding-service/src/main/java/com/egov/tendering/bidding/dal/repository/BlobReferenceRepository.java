@@ -0,0 +1,32 @@
+package com.egov.tendering.bidding.dal.repository;
+
+import com.egov.tendering.bidding.dal.model.BlobReference;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BlobReferenceRepository extends JpaRepository<BlobReference, String> {
+
+    /**
+     * Adds a reference to a blob, creating its counter on first use. The row stays locked
+     * until the transaction ends, which serialises concurrent stores and deletes of the same blob.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO blob_references (hash, size, ref_count, created_at, updated_at) " +
+            "VALUES (:hash, :size, 1, NOW(), NOW()) " +
+            "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1, updated_at = NOW()",
+            nativeQuery = true)
+    int acquire(@Param("hash") String hash, @Param("size") long size);
+
+    @Modifying
+    @Query("UPDATE BlobReference b SET b.refCount = b.refCount - 1, b.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE b.hash = :hash AND b.refCount > 0")
+    int release(@Param("hash") String hash);
+
+    @Modifying
+    @Query("DELETE FROM BlobReference b WHERE b.hash = :hash AND b.refCount = 0")
+    int deleteIfUnreferenced(@Param("hash") String hash);
+}
@@ -0,0 +1,63 @@
+package com.egov.tendering.bidding.dal.repository;
+
+import com.egov.tendering.bidding.dal.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Writes a BID_STATUS_CHANGED event for every bid of a tender in one of the given statuses,
+     * with one statement. The payload is a JSON BidStatusChangedEvent.
+     *
+     * @return the number of events written
+     */
+    @Modifying
+    @Query(value = "INSERT INTO outbox_events (aggregate_id, topic, event_type, payload, created_at) " +
+            "SELECT b.id, :topic, 'BID_STATUS_CHANGED', JSON_OBJECT(" +
+            "'eventType', 'BID_STATUS_CHANGED', " +
+            "'timestamp', DATE_FORMAT(NOW(6), '%Y-%m-%dT%H:%i:%s.%f'), " +
+            "'bidId', b.id, 'tenderId', b.tender_id, 'tendererId', b.tenderer_id, 'totalPrice', b.total_price, " +
+            "'oldStatus', b.status, 'newStatus', :newStatus), NOW(6) " +
+            "FROM bids b WHERE b.tender_id = :tenderId AND b.status IN (:fromStatuses)",
+            nativeQuery = true)
+    int enqueueBidStatusChanges(@Param("topic") String topic,
+                                @Param("tenderId") Long tenderId,
+                                @Param("fromStatuses") Collection<String> fromStatuses,
+                                @Param("newStatus") String newStatus);
+
+    /**
+     * Writes a BID_STATUS_CHANGED event for a bid if it is in one of the given statuses
+     *
+     * @return 1 if the event was written
+     */
+    @Modifying
+    @Query(value = "INSERT INTO outbox_events (aggregate_id, topic, event_type, payload, created_at) " +
+            "SELECT b.id, :topic, 'BID_STATUS_CHANGED', JSON_OBJECT(" +
+            "'eventType', 'BID_STATUS_CHANGED', " +
+            "'timestamp', DATE_FORMAT(NOW(6), '%Y-%m-%dT%H:%i:%s.%f'), " +
+            "'bidId', b.id, 'tenderId', b.tender_id, 'tendererId', b.tenderer_id, 'totalPrice', b.total_price, " +
+            "'oldStatus', b.status, 'newStatus', :newStatus), NOW(6) " +
+            "FROM bids b WHERE b.id = :bidId AND b.status IN (:fromStatuses)",
+            nativeQuery = true)
+    int enqueueBidStatusChange(@Param("topic") String topic,
+                               @Param("bidId") Long bidId,
+                               @Param("fromStatuses") Collection<String> fromStatuses,
+                               @Param("newStatus") String newStatus);
+
+    /**
+     * Claims the oldest events that have not been parked, until the transaction ends. Rows
+     * claimed by another transaction are waited for rather than skipped, so events are never
+     * sent past older ones still being sent.
+     */
+    @Query(value = "SELECT * FROM outbox_events WHERE parked_at IS NULL ORDER BY id LIMIT :limit FOR UPDATE",
+            nativeQuery = true)
+    List<OutboxEvent> claimBatch(@Param("limit") int limit);
+}
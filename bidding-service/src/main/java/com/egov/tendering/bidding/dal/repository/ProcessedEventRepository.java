@@ -0,0 +1,32 @@
+package com.egov.tendering.bidding.dal.repository;
+
+import com.egov.tendering.bidding.dal.model.ProcessedEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, String> {
+
+    /**
+     * Records an event as processed. The row stays locked until the transaction ends, so a
+     * concurrent delivery of the same event waits and then sees it as processed.
+     *
+     * @return 1 if the event was recorded, 0 if it had already been processed
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO processed_events (event_key, processed_at) VALUES (:eventKey, NOW(6))",
+            nativeQuery = true)
+    int markProcessed(@Param("eventKey") String eventKey);
+
+    /**
+     * Deletes up to {@code limit} records of events processed before the cutoff
+     */
+    @Modifying
+    @Query(value = "DELETE FROM processed_events WHERE processed_at < :cutoff LIMIT :limit", nativeQuery = true)
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
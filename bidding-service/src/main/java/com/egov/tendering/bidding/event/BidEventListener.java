@@ -1,158 +1,221 @@
 package com.egov.tendering.bidding.event;
 
-import com.egov.tendering.bidding.dal.dto.BidDTO;
-import com.egov.tendering.bidding.dal.dto.PageDTO;
 import com.egov.tendering.bidding.dal.model.BidStatus;
+import com.egov.tendering.bidding.dal.repository.ProcessedEventRepository;
+import com.egov.tendering.bidding.exception.BidNotFoundException;
+import com.egov.tendering.bidding.exception.InvalidBidStateException;
+import com.egov.tendering.bidding.exception.ResourceNotFoundException;
 import com.egov.tendering.bidding.service.BidService;
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.jaxb.SpringDataJaxb;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.support.Acknowledgment;
-import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
 
+/**
+ * Applies tender, evaluation and contract events from other services to bids.
+ * <p>
+ * Events arrive in batches, one consumer thread per partition, and each batch is processed in
+ * offset order, so events for the same tender are applied in the order they were published.
+ * Each event is applied in its own transaction together with a row in processed_events keyed by
+ * its topic, partition and offset, so an event delivered again after a rebalance or a failed
+ * batch is skipped. Only events that can never be applied, such as a transition the bid is no
+ * longer in a state for or a malformed payload, are logged and recorded as processed. Any other
+ * failure, such as an unavailable database, is handed to the container's error handler, which
+ * retries from the failed event and sends it to a dead-letter topic once the retries run out.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class BidEventListener {
 
+    private static final int PURGE_BATCH_SIZE = 10000;
+
     private final BidService bidService;
+    private final ProcessedEventRepository processedEventRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration processedEventRetention;
+
+    public BidEventListener(BidService bidService,
+                            ProcessedEventRepository processedEventRepository,
+                            ObjectMapper objectMapper,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${app.kafka.consumer.processed-event-retention:7d}") Duration processedEventRetention) {
+        this.bidService = bidService;
+        this.processedEventRepository = processedEventRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.processedEventRetention = processedEventRetention;
+    }
+
+    @KafkaListener(topics = {"tender-events", "evaluation-events", "contract-events"},
+            groupId = "${spring.kafka.consumer.group-id}")
+    public void consumeEvents(List<ConsumerRecord<String, String>> records) {
+        log.debug("Received {} events", records.size());
+
+        for (ConsumerRecord<String, String> record : records) {
+            String eventKey = record.topic() + "-" + record.partition() + "@" + record.offset();
+            try {
+                Boolean applied = transactionTemplate.execute(status -> {
+                    if (processedEventRepository.markProcessed(eventKey) == 0) {
+                        return false;
+                    }
+                    dispatch(record);
+                    return true;
+                });
+                if (!Boolean.TRUE.equals(applied)) {
+                    log.debug("Skipping event {} which was already processed", eventKey);
+                }
+            } catch (InvalidBidStateException | BidNotFoundException | ResourceNotFoundException
+                     | IllegalArgumentException e) {
+                log.warn("Skipping event {} which cannot be applied: {}", eventKey, e.getMessage());
+                transactionTemplate.executeWithoutResult(status -> processedEventRepository.markProcessed(eventKey));
+            } catch (RuntimeException e) {
+                throw new BatchListenerFailedException("Error processing event " + eventKey, e, record);
+            }
+        }
+    }
 
     /**
-     * Listen for tender events to take appropriate actions on bids
+     * Delete the records of events processed longer ago than any redelivery could happen
      */
-    @KafkaListener(topics = "tender-events", groupId = "${spring.kafka.consumer.group-id}")
-    public void consumeTenderEvents(@Payload TenderEvent event, Acknowledgment ack) {
-        try {
-            log.info("Received tender event: type={}, tenderId={}", event.getEventType(), event.getTenderId());
+    @Scheduled(cron = "${app.kafka.consumer.purge-cron:0 30 3 * * ?}")
+    public void purgeProcessedEvents() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(processedEventRetention);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status ->
+                    processedEventRepository.deleteProcessedBefore(cutoff, PURGE_BATCH_SIZE));
+            total += deleted;
+        } while (deleted == PURGE_BATCH_SIZE);
+        log.info("Purged {} processed event records older than {}", total, cutoff);
+    }
 
-            switch (event.getEventType()) {
-                case "TENDER_PUBLISHED" ->
-                        log.info("Tender published: {}", event.getTenderId());
+    private void dispatch(ConsumerRecord<String, String> record) {
+        switch (record.topic()) {
+            case "tender-events" -> handleTenderEvent(readEvent(record, TenderEvent.class));
+            case "evaluation-events" -> handleEvaluationEvent(readEvent(record, EvaluationEvent.class));
+            case "contract-events" -> handleContractEvent(readEvent(record, ContractEvent.class));
+            default -> log.warn("Received event from unexpected topic: {}", record.topic());
+        }
+    }
 
-                case "TENDER_UPDATED" ->
-                        log.info("Tender updated: {}", event.getTenderId());
+    private <T> T readEvent(ConsumerRecord<String, String> record, Class<T> eventClass) {
+        try {
+            T event = objectMapper.readValue(record.value(), eventClass);
+            if (event == null) {
+                throw new IllegalArgumentException("Empty " + eventClass.getSimpleName());
+            }
+            return event;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed " + eventClass.getSimpleName() + ": " + e.getOriginalMessage(), e);
+        }
+    }
 
-                case "TENDER_DEADLINE_EXTENDED" ->
-                        log.info("Tender deadline extended: {}", event.getTenderId());
+    // An event without its type or the id of what it is about can never be applied
+    private static void requireFields(String eventType, Long id, String idName) {
+        if (eventType == null) {
+            throw new IllegalArgumentException("Event has no eventType");
+        }
+        if (id == null) {
+            throw new IllegalArgumentException(eventType + " event has no " + idName);
+        }
+    }
 
-                case "TENDER_CLOSED" -> {
-                    log.info("Tender closed - updating all bid statuses: {}", event.getTenderId());
-                    // Close all draft bids for this tender
-                    List<BidDTO> draftBids = bidService.getBidsByTenderAndStatus(event.getTenderId(), BidStatus.DRAFT);
-                    for (BidDTO bid : draftBids) {
-                        bidService.updateBidStatus(bid.getId(), BidStatus.NOT_SUBMITTED);
-                    }
-                }
+    private void handleTenderEvent(TenderEvent event) {
+        requireFields(event.getEventType(), event.getTenderId(), "tenderId");
+        log.info("Received tender event: type={}, tenderId={}", event.getEventType(), event.getTenderId());
 
-                case "TENDER_CANCELLED" -> {
-                    log.info("Tender cancelled - cancelling all bids: {}", event.getTenderId());
-                    // Use pagination to handle potentially large number of bids
-                    PageDTO<BidDTO> firstPage = bidService.getBidsByTender(event.getTenderId(), PageRequest.of(0, 100));
-                    int totalPages = firstPage.getTotalPages();
+        switch (event.getEventType()) {
+            case "TENDER_PUBLISHED" ->
+                    log.info("Tender published: {}", event.getTenderId());
 
-                    // Process first page
-                    processPageForCancellation(firstPage.getContent());
+            case "TENDER_UPDATED" ->
+                    log.info("Tender updated: {}", event.getTenderId());
 
-                    // Process any remaining pages
-                    for (int i = 1; i < totalPages; i++) {
-                        PageDTO<BidDTO> page = bidService.getBidsByTender(
-                                event.getTenderId(), PageRequest.of(i, 100));
-                        processPageForCancellation(page.getContent());
-                    }
-                }
+            case "TENDER_DEADLINE_EXTENDED" ->
+                    log.info("Tender deadline extended: {}", event.getTenderId());
 
-                default ->
-                        log.warn("Unknown tender event type: {}", event.getEventType());
+            case "TENDER_CLOSED" -> {
+                log.info("Tender closed - closing all draft bids: {}", event.getTenderId());
+                bidService.closeBidsForTender(event.getTenderId());
             }
 
-            ack.acknowledge();
-        } catch (Exception e) {
-            log.error("Error processing tender event: {}", event, e);
-            // Don't acknowledge - will be retried
-        }
-    }
-
-    // Helper method to process bids for cancellation
-    private void processPageForCancellation(List<BidDTO> bids) {
-        for (BidDTO bid : bids) {
-            if (bid.getStatus() != BidStatus.CANCELLED) {
-                bidService.updateBidStatus(bid.getId(), BidStatus.CANCELLED);
+            case "TENDER_CANCELLED" -> {
+                log.info("Tender cancelled - cancelling all bids: {}", event.getTenderId());
+                bidService.cancelBidsForTender(event.getTenderId(),
+                        event.getCancelReason() != null ? event.getCancelReason() : "Tender was cancelled");
             }
+
+            default ->
+                    log.warn("Unknown tender event type: {}", event.getEventType());
         }
     }
 
-    /**
-     * Listen for evaluation events to update bid statuses
-     */
-    @KafkaListener(topics = "evaluation-events", groupId = "${spring.kafka.consumer.group-id}")
-    public void consumeEvaluationEvents(@Payload EvaluationEvent event, Acknowledgment ack) {
-        try {
-            log.info("Received evaluation event: type={}, bidId={}", event.getEventType(), event.getBidId());
-
-            switch (event.getEventType()) {
-                case "EVALUATION_STARTED" -> {
-                    log.info("Evaluation started for bid: {}", event.getBidId());
-                    bidService.updateBidStatus(event.getBidId(), BidStatus.UNDER_EVALUATION);
-                }
+    private void handleEvaluationEvent(EvaluationEvent event) {
+        requireFields(event.getEventType(), event.getBidId(), "bidId");
+        log.info("Received evaluation event: type={}, bidId={}", event.getEventType(), event.getBidId());
 
-                case "EVALUATION_COMPLETED" -> {
-                    log.info("Evaluation completed for bid: {}", event.getBidId());
-                    BidStatus newStatus = "PASS".equals(event.getResult()) ?
-                            BidStatus.EVALUATED : BidStatus.REJECTED;
-                    bidService.updateBidStatus(event.getBidId(), newStatus);
+        switch (event.getEventType()) {
+            case "EVALUATION_STARTED" -> {
+                log.info("Evaluation started for bid: {}", event.getBidId());
+                if (!bidService.transitionBidStatus(event.getBidId(), EnumSet.of(BidStatus.SUBMITTED), BidStatus.UNDER_EVALUATION)) {
+                    log.info("Bid {} is not awaiting evaluation, ignoring", event.getBidId());
                 }
+            }
 
-                case "BID_AWARDED" -> {
-                    log.info("Bid awarded: {}", event.getBidId());
-                    bidService.updateBidStatus(event.getBidId(), BidStatus.AWARDED);
+            case "EVALUATION_COMPLETED", "BID_EVALUATED" -> {
+                log.info("Evaluation completed for bid: {}", event.getBidId());
+                String result = event.getEvaluationResult() != null ? event.getEvaluationResult() : event.getResult();
+                if (result == null) {
+                    throw new IllegalArgumentException("Evaluation event for bid " + event.getBidId() + " has no result");
                 }
+                bidService.updateBidEvaluationStatus(event.getBidId(), result, event.getEvaluatedBy(), event.getComments());
+            }
 
-                default ->
-                        log.warn("Unknown evaluation event type: {}", event.getEventType());
+            case "BID_AWARDED" -> {
+                log.info("Bid awarded: {}", event.getBidId());
+                bidService.awardBid(event.getBidId(), event.getAwardedBy(), event.getAwardComments());
             }
 
-            ack.acknowledge();
-        } catch (Exception e) {
-            log.error("Error processing evaluation event: {}", event, e);
-            // Don't acknowledge - will be retried
+            default ->
+                    log.warn("Unknown evaluation event type: {}", event.getEventType());
         }
     }
 
-    /**
-     * Listen for contract events to update bid statuses
-     */
-    @KafkaListener(topics = "contract-events", groupId = "${spring.kafka.consumer.group-id}")
-    public void consumeContractEvents(@Payload ContractEvent event, Acknowledgment ack) {
-        try {
-            log.info("Received contract event: type={}, bidId={}", event.getEventType(), event.getBidId());
+    private void handleContractEvent(ContractEvent event) {
+        requireFields(event.getEventType(), event.getBidId(), "bidId");
+        log.info("Received contract event: type={}, bidId={}", event.getEventType(), event.getBidId());
 
-            switch (event.getEventType()) {
-                case "CONTRACT_CREATED" -> {
-                    log.info("Contract created for bid: {}", event.getBidId());
-                    bidService.updateBidStatus(event.getBidId(), BidStatus.CONTRACTED);
-                }
+        switch (event.getEventType()) {
+            case "CONTRACT_CREATED" -> {
+                log.info("Contract created for bid: {}", event.getBidId());
+                bidService.updateBidContractStatus(event.getBidId(), event.getContractId());
+            }
 
-                case "CONTRACT_SIGNED" ->
-                        log.info("Contract signed for bid: {}", event.getBidId());
+            case "CONTRACT_SIGNED" ->
+                    log.info("Contract signed for bid: {}", event.getBidId());
 
-                case "CONTRACT_TERMINATED" -> {
-                    log.info("Contract terminated for bid: {}", event.getBidId());
-                    bidService.updateBidStatus(event.getBidId(), BidStatus.TERMINATED);
+            case "CONTRACT_TERMINATED" -> {
+                log.info("Contract terminated for bid: {}", event.getBidId());
+                if (!bidService.transitionBidStatus(event.getBidId(), EnumSet.of(BidStatus.CONTRACTED), BidStatus.TERMINATED)) {
+                    log.info("Bid {} is not contracted, ignoring termination", event.getBidId());
                 }
-
-                default ->
-                        log.warn("Unknown contract event type: {}", event.getEventType());
             }
 
-            ack.acknowledge();
-        } catch (Exception e) {
-            log.error("Error processing contract event: {}", event, e);
-            // Don't acknowledge - will be retried
+            default ->
+                    log.warn("Unknown contract event type: {}", event.getEventType());
         }
     }
-}
\ No newline at end of file
+}
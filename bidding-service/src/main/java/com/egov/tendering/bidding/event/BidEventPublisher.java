@@ -3,27 +3,38 @@ package com.egov.tendering.bidding.event;
 import com.egov.tendering.bidding.dal.model.Bid;
 import com.egov.tendering.bidding.dal.model.BidClarification;
 import com.egov.tendering.bidding.dal.model.BidStatus;
+import com.egov.tendering.bidding.dal.model.OutboxEvent;
+import com.egov.tendering.bidding.dal.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 
+/**
+ * Writes bid events to the outbox in the caller's transaction; {@link OutboxRelay} sends them to
+ * Kafka once it has committed, so no event is sent for a change that rolls back and none is lost
+ * for a change that commits
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class BidEventPublisher {
 
-    private final KafkaTemplate<String, BidEvent> kafkaTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
 
     @Value("${app.kafka.topics.bid-events}")
     private String bidEventsTopic;
 
-    public void publishBidCreatedEvent(Bid bid) {
+    /**
+     * Write a BID_CREATED event to the outbox; must be called in the transaction creating the bid
+     */
+    public void enqueueBidCreatedEvent(Bid bid) {
         BidCreatedEvent event = BidCreatedEvent.builder()
-                .eventId(System.currentTimeMillis())
                 .eventType("BID_CREATED")
                 .timestamp(LocalDateTime.now())
                 .bidId(bid.getId())
@@ -33,14 +44,14 @@ public class BidEventPublisher {
                 .itemCount(bid.getItems().size())
                 .build();
 
-        log.info("Publishing bid created event: {}", event);
-        kafkaTemplate.send(bidEventsTopic, bid.getId().toString(), event);
+        enqueue(event);
     }
 
-
-    public void publishBidSubmittedEvent(Bid bid) {
+    /**
+     * Write a BID_SUBMITTED event to the outbox; must be called in the transaction submitting the bid
+     */
+    public void enqueueBidSubmittedEvent(Bid bid) {
         BidSubmittedEvent event = BidSubmittedEvent.builder()
-                .eventId(System.currentTimeMillis())
                 .eventType("BID_SUBMITTED")
                 .timestamp(LocalDateTime.now())
                 .bidId(bid.getId())
@@ -50,13 +61,15 @@ public class BidEventPublisher {
                 .submissionTime(bid.getSubmissionTime())
                 .build();
 
-        log.info("Publishing bid submitted event: {}", event);
-        kafkaTemplate.send(bidEventsTopic, bid.getId().toString(), event);
+        enqueue(event);
     }
 
-    public void publishBidStatusChangedEvent(Bid bid, BidStatus oldStatus) {
+    /**
+     * Write a BID_STATUS_CHANGED event to the outbox; must be called in the transaction changing
+     * the bid's status
+     */
+    public void enqueueBidStatusChangedEvent(Bid bid, BidStatus oldStatus) {
         BidStatusChangedEvent event = BidStatusChangedEvent.builder()
-                .eventId(System.currentTimeMillis())
                 .eventType("BID_STATUS_CHANGED")
                 .timestamp(LocalDateTime.now())
                 .bidId(bid.getId())
@@ -67,14 +80,14 @@ public class BidEventPublisher {
                 .newStatus(bid.getStatus())
                 .build();
 
-        log.info("Publishing bid status changed event: {}", event);
-        kafkaTemplate.send(bidEventsTopic, bid.getId().toString(), event);
+        enqueue(event);
     }
 
-
-    public void publishBidDeletedEvent(Bid bid) {
+    /**
+     * Write a BID_DELETED event to the outbox; must be called in the transaction deleting the bid
+     */
+    public void enqueueBidDeletedEvent(Bid bid) {
         BidDeletedEvent event = BidDeletedEvent.builder()
-                .eventId(System.currentTimeMillis())
                 .eventType("BID_DELETED")
                 .timestamp(LocalDateTime.now())
                 .bidId(bid.getId())
@@ -83,14 +96,15 @@ public class BidEventPublisher {
                 .totalPrice(bid.getTotalPrice())
                 .build();
 
-        log.info("Publishing bid deleted event: {}", event);
-        kafkaTemplate.send(bidEventsTopic, bid.getId().toString(), event);
+        enqueue(event);
     }
 
-
-    public void publishClarificationRequestedEvent(Bid bid, BidClarification clarification) {
+    /**
+     * Write a CLARIFICATION_REQUESTED event to the outbox; must be called in the transaction
+     * requesting the clarification
+     */
+    public void enqueueClarificationRequestedEvent(Bid bid, BidClarification clarification) {
         BidClarificationRequestedEvent event = BidClarificationRequestedEvent.builder()
-                .eventId(System.currentTimeMillis())
                 .eventType("CLARIFICATION_REQUESTED")
                 .timestamp(LocalDateTime.now())
                 .bidId(bid.getId())
@@ -102,14 +116,15 @@ public class BidEventPublisher {
                 .deadline(clarification.getDeadline())
                 .build();
 
-        log.info("Publishing clarification requested event: {}", event);
-        kafkaTemplate.send(bidEventsTopic, bid.getId().toString(), event);
+        enqueue(event);
     }
 
-
-    public void publishClarificationRespondedEvent(BidClarification clarification) {
+    /**
+     * Write a CLARIFICATION_RESPONDED event to the outbox; must be called in the transaction
+     * answering the clarification
+     */
+    public void enqueueClarificationRespondedEvent(BidClarification clarification) {
         BidClarificationRespondedEvent event = BidClarificationRespondedEvent.builder()
-                .eventId(System.currentTimeMillis())
                 .eventType("CLARIFICATION_RESPONDED")
                 .timestamp(LocalDateTime.now())
                 .bidId(clarification.getBid().getId())
@@ -121,7 +136,27 @@ public class BidEventPublisher {
                 .respondedAt(clarification.getRespondedAt())
                 .build();
 
-        log.info("Publishing clarification responded event: {}", event);
-        kafkaTemplate.send(bidEventsTopic, clarification.getBid().getId().toString(), event);
+        enqueue(event);
+    }
+
+    /**
+     * Store an event in the outbox for the relay to send once the transaction commits. The
+     * relay sets the event ID to the outbox row ID.
+     */
+    private void enqueue(BidEvent event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + event.getEventType() + " event", e);
+        }
+
+        log.debug("Enqueuing {} event for bid {}", event.getEventType(), event.getBidId());
+        outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateId(event.getBidId())
+                .topic(bidEventsTopic)
+                .eventType(event.getEventType())
+                .payload(payload)
+                .build());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,204 @@
+package com.egov.tendering.bidding.event;
+
+import com.egov.tendering.bidding.dal.model.OutboxEvent;
+import com.egov.tendering.bidding.dal.repository.OutboxEventRepository;
+import com.egov.tendering.bidding.service.SchedulerLockService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sends the events in the outbox to Kafka.
+ * <p>
+ * One instance relays at a time, the holder of the {@value #RELAY_LOCK} lease, so events of a bid
+ * are sent in the order they were written. Each poll claims batches of the oldest events, sends a
+ * batch without waiting between messages, and deletes the events Kafka has acknowledged. When an
+ * event fails, it and the later events of the same bid in the batch stay in the outbox and are
+ * sent again on the next poll, so consumers may see an event more than once; the event ID is the
+ * outbox row ID, which stays the same across retries. An event that fails
+ * {@code app.outbox.max-attempts} times is parked: it stays in the outbox with its last error and
+ * is no longer sent, so it cannot hold up the events behind it.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    static final String RELAY_LOCK = "outbox-relay";
+
+    private static final Map<String, Class<? extends BidEvent>> EVENT_CLASSES = Map.of(
+            "BID_CREATED", BidCreatedEvent.class,
+            "BID_SUBMITTED", BidSubmittedEvent.class,
+            "BID_STATUS_CHANGED", BidStatusChangedEvent.class,
+            "BID_DELETED", BidDeletedEvent.class,
+            "CLARIFICATION_REQUESTED", BidClarificationRequestedEvent.class,
+            "CLARIFICATION_RESPONDED", BidClarificationRespondedEvent.class
+    );
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, BidEvent> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLockService lockService;
+    private final int batchSize;
+    private final long sendTimeoutMillis;
+    private final int maxAttempts;
+    private final Duration lockDuration;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, BidEvent> kafkaTemplate,
+                       ObjectMapper objectMapper,
+                       TransactionTemplate transactionTemplate,
+                       SchedulerLockService lockService,
+                       @Value("${app.outbox.batch-size:500}") int batchSize,
+                       @Value("${app.outbox.send-timeout:30000}") long sendTimeoutMillis,
+                       @Value("${app.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${app.outbox.lock-duration:2m}") Duration lockDuration) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.lockService = lockService;
+        this.batchSize = batchSize;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.maxAttempts = maxAttempts;
+        this.lockDuration = lockDuration;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:1000}")
+    public void relayPendingEvents() {
+        if (!lockService.tryLock(RELAY_LOCK, lockDuration)) {
+            log.debug("Another instance is relaying outbox events");
+            return;
+        }
+
+        try {
+            boolean more;
+            do {
+                more = Boolean.TRUE.equals(transactionTemplate.execute(status -> relayBatch()));
+                if (more && !lockService.extendLock(RELAY_LOCK, lockDuration)) {
+                    log.warn("Lost the lease on relaying outbox events, stopping");
+                    return;
+                }
+            } while (more);
+        } finally {
+            lockService.unlock(RELAY_LOCK);
+        }
+    }
+
+    /**
+     * Send one batch of events
+     *
+     * @return true if the batch was full and every event in it was sent, so more may be waiting
+     */
+    private boolean relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.claimBatch(batchSize);
+        if (batch.isEmpty()) {
+            return false;
+        }
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent outboxEvent : batch) {
+            BidEvent event = toBidEvent(outboxEvent);
+            sends.add(event != null
+                    ? kafkaTemplate.send(outboxEvent.getTopic(), outboxEvent.getAggregateId().toString(), event)
+                    : CompletableFuture.completedFuture(null));
+        }
+
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sending outbox events", e);
+        } catch (ExecutionException | TimeoutException e) {
+            // The events that failed or did not finish are found below
+        }
+
+        List<OutboxEvent> sent = new ArrayList<>(batch.size());
+        List<OutboxEvent> failed = new ArrayList<>();
+        Set<Long> blockedAggregates = new HashSet<>();
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent outboxEvent = batch.get(i);
+            CompletableFuture<?> send = sends.get(i);
+            if (blockedAggregates.contains(outboxEvent.getAggregateId())) {
+                // Sent again after the failed event of its bid
+                continue;
+            }
+            if (send.isDone() && !send.isCompletedExceptionally()) {
+                sent.add(outboxEvent);
+            } else {
+                blockedAggregates.add(outboxEvent.getAggregateId());
+                recordFailure(outboxEvent, send);
+                failed.add(outboxEvent);
+            }
+        }
+
+        outboxEventRepository.deleteAllInBatch(sent);
+        if (!failed.isEmpty()) {
+            outboxEventRepository.saveAll(failed);
+            log.warn("Relayed {} of {} outbox events, {} failed", sent.size(), batch.size(), failed.size());
+            return false;
+        }
+        log.info("Relayed {} outbox events", sent.size());
+        return batch.size() == batchSize;
+    }
+
+    private void recordFailure(OutboxEvent outboxEvent, CompletableFuture<?> send) {
+        String error;
+        try {
+            send.getNow(null);
+            error = "Not acknowledged within " + sendTimeoutMillis + " ms";
+        } catch (CompletionException | CancellationException e) {
+            error = String.valueOf(e.getCause() != null ? e.getCause() : e);
+        }
+
+        outboxEvent.setAttempts(outboxEvent.getAttempts() + 1);
+        outboxEvent.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+        if (outboxEvent.getAttempts() >= maxAttempts) {
+            outboxEvent.setParkedAt(LocalDateTime.now());
+            log.error("Parking outbox event {} of bid {} after {} failed sends: {}",
+                    outboxEvent.getId(), outboxEvent.getAggregateId(), outboxEvent.getAttempts(), error);
+        } else {
+            log.warn("Failed to send outbox event {} of bid {}, attempt {} of {}: {}",
+                    outboxEvent.getId(), outboxEvent.getAggregateId(), outboxEvent.getAttempts(), maxAttempts, error);
+        }
+    }
+
+    /**
+     * Rebuild the event from its stored payload, or null if it cannot be read; such events are
+     * logged and dropped rather than blocking the outbox
+     */
+    private BidEvent toBidEvent(OutboxEvent outboxEvent) {
+        Class<? extends BidEvent> eventClass = EVENT_CLASSES.get(outboxEvent.getEventType());
+        if (eventClass == null) {
+            log.error("Dropping outbox event {} of unknown type {}", outboxEvent.getId(), outboxEvent.getEventType());
+            return null;
+        }
+        try {
+            BidEvent event = objectMapper.readValue(outboxEvent.getPayload(), eventClass);
+            event.setEventId(outboxEvent.getId());
+            return event;
+        } catch (JsonProcessingException e) {
+            log.error("Dropping outbox event {} with unreadable payload", outboxEvent.getId(), e);
+            return null;
+        }
+    }
+}
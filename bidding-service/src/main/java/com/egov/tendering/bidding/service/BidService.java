@@ -6,6 +6,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.Set;
 
 public interface BidService {
 
@@ -19,6 +20,11 @@ public interface BidService {
    */
   BidDTO getBidById(Long bidId);
 
+  /**
+   * Get several bids by their IDs in a single call; unknown IDs are skipped
+   */
+  List<BidDTO> getBidsByIds(List<Long> bidIds);
+
   /**
    * Get all bids for a specific tender with pagination
    */
@@ -49,6 +55,13 @@ public interface BidService {
    */
   BidDTO updateBidStatus(Long bidId, BidStatus status);
 
+  /**
+   * Move a bid to a new status if it is in one of the expected statuses, without loading it
+   *
+   * @return true if the bid was moved, false if it was not in an expected status
+   */
+  boolean transitionBidStatus(Long bidId, Set<BidStatus> fromStatuses, BidStatus newStatus);
+
   /**
    * Delete a draft bid
    */
@@ -7,10 +7,11 @@ import org.springframework.web.multipart.MultipartFile;
 public interface FileStorageService {
 
     /**
-     * Stores a file with a specified prefix and returns the generated filename
+     * Stores a file and returns the generated filename. Files with identical content are
+     * stored once and share the same filename.
      *
      * @param file the file to store
-     * @param prefix the prefix to use for the stored file name
+     * @param prefix a label for the upload, used in logging
      * @return the generated filename for the stored file
      * @throws com.egov.tendering.bidding.exception.FileStorageException if an error occurs during storage
      */
@@ -26,10 +27,12 @@ public interface FileStorageService {
     Resource loadFileAsResource(String fileName);
 
     /**
-     * Deletes a file from storage
+     * Deletes a file from storage. For files shared by identical uploads, this removes one
+     * reference and the content is deleted with the last one. Content is removed once the
+     * calling transaction commits, and kept if it rolls back.
      *
      * @param fileName the name of the file to delete
-     * @return true if the file was successfully deleted, false otherwise
+     * @return true if the file existed and is deleted, false otherwise
      */
     boolean deleteFile(String fileName);
 }
\ No newline at end of file
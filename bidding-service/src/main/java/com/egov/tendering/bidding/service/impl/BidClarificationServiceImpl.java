@@ -62,7 +62,7 @@ public class BidClarificationServiceImpl implements BidClarificationService {
 
         // Save and notify
         clarification = clarificationRepository.save(clarification);
-        eventPublisher.publishClarificationRequestedEvent(bid, clarification);
+        eventPublisher.enqueueClarificationRequestedEvent(bid, clarification);
         log.info("Clarification ID: {} requested for bid ID: {}", clarification.getId(), bidId);
         return clarificationMapper.toDto(clarification);
     }
@@ -99,7 +99,7 @@ public class BidClarificationServiceImpl implements BidClarificationService {
 
         // Save and notify
         clarification = clarificationRepository.save(clarification);
-        eventPublisher.publishClarificationRespondedEvent(clarification);
+        eventPublisher.enqueueClarificationRespondedEvent(clarification);
         log.info("Clarification ID: {} responded for bid ID: {}", clarificationId, bid.getId());
         return clarificationMapper.toDto(clarification);
     }
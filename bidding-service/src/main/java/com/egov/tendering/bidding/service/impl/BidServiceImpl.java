@@ -11,6 +11,7 @@ import com.egov.tendering.bidding.service.FileStorageService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -18,9 +19,17 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -36,6 +45,7 @@ public class BidServiceImpl implements BidService {
     private final ComplianceRequirementRepository complianceRequirementRepository;
     private final BidClarificationRepository bidClarificationRepository;
     private final BidVersionRepository bidVersionRepository;
+    private final OutboxEventRepository outboxEventRepository;
 
     private final BidMapper bidMapper;
     private final BidItemMapper bidItemMapper;
@@ -49,6 +59,9 @@ public class BidServiceImpl implements BidService {
     private final FileStorageService fileStorageService;
     private final ObjectMapper objectMapper;
 
+    @Value("${app.kafka.topics.bid-events}")
+    private String bidEventsTopic;
+
     @Override
     @Transactional
     public BidDTO createBid(BidSubmissionRequest request, Long tendererId) {
@@ -76,7 +89,7 @@ public class BidServiceImpl implements BidService {
         bid.setItems(bidItems);
         bid = bidRepository.save(bid);
 
-        eventPublisher.publishBidCreatedEvent(bid);
+        eventPublisher.enqueueBidCreatedEvent(bid);
         return bidMapper.toDto(bid);
     }
 
@@ -89,22 +102,32 @@ public class BidServiceImpl implements BidService {
         return bidMapper.toDto(bid);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<BidDTO> getBidsByIds(List<Long> bidIds) {
+        log.info("Getting {} bids by ID", bidIds.size());
+        if (bidIds.isEmpty()) {
+            return List.of();
+        }
+        return bidRepository.findByIdIn(bidIds)
+                .stream()
+                .map(bidMapper::toDto)
+                .toList();
+    }
+
     @Override
     @Transactional
     public BidDTO submitBid(Long bidId) {
         log.info("Submitting bid with ID: {}", bidId);
-        Bid bid = bidRepository.findById(bidId)
+        Bid bid = bidRepository.findByIdForUpdate(bidId)
                 .orElseThrow(() -> new BidNotFoundException(bidId));
 
         if (bid.getStatus() != BidStatus.DRAFT) {
             throw new InvalidBidStateException("Only draft bids can be submitted");
         }
 
-        bid.setStatus(BidStatus.SUBMITTED);
-        bid.setSubmissionTime(LocalDateTime.now());
-        bid = bidRepository.save(bid);
-
-        eventPublisher.publishBidSubmittedEvent(bid);
+        markSubmitted(bid);
+        eventPublisher.enqueueBidSubmittedEvent(bid);
         return bidMapper.toDto(bid);
     }
 
@@ -119,10 +142,21 @@ public class BidServiceImpl implements BidService {
         bid.setStatus(status);
         bid = bidRepository.save(bid);
 
-        eventPublisher.publishBidStatusChangedEvent(bid, oldStatus);
+        eventPublisher.enqueueBidStatusChangedEvent(bid, oldStatus);
         return bidMapper.toDto(bid);
     }
 
+    @Override
+    @Transactional
+    public boolean transitionBidStatus(Long bidId, Set<BidStatus> fromStatuses, BidStatus newStatus) {
+        log.info("Moving bid ID: {} from {} to {}", bidId, fromStatuses, newStatus);
+        List<String> statuses = fromStatuses.stream().map(Enum::name).toList();
+
+        bidRepository.lockByIdAndStatusIn(bidId, statuses);
+        outboxEventRepository.enqueueBidStatusChange(bidEventsTopic, bidId, statuses, newStatus.name());
+        return bidRepository.updateStatusById(bidId, statuses, newStatus.name()) == 1;
+    }
+
     @Override
     @Transactional
     public void deleteBid(Long bidId) {
@@ -134,7 +168,7 @@ public class BidServiceImpl implements BidService {
             throw new InvalidBidStateException("Only draft bids can be deleted");
         }
 
-        eventPublisher.publishBidDeletedEvent(bid);
+        eventPublisher.enqueueBidDeletedEvent(bid);
         bidRepository.delete(bid);
     }
 
@@ -217,8 +251,9 @@ public class BidServiceImpl implements BidService {
         }
 
         bid.getDocuments().remove(document);
-        fileStorageService.deleteFile(document.getFilePath());
         bidDocumentRepository.delete(document);
+        // The stored content is only removed once the document row is gone for good
+        fileStorageService.deleteFile(document.getFilePath());
     }
 
     @Override
@@ -336,7 +371,7 @@ public class BidServiceImpl implements BidService {
                 .build();
 
         clarification = bidClarificationRepository.save(clarification);
-        eventPublisher.publishClarificationRequestedEvent(bid, clarification);
+        eventPublisher.enqueueClarificationRequestedEvent(bid, clarification);
         return clarificationMapper.toDto(clarification);
     }
 
@@ -367,7 +402,7 @@ public class BidServiceImpl implements BidService {
         clarification.setStatus(ClarificationStatus.RESPONDED);
         clarification = bidClarificationRepository.save(clarification);
 
-        eventPublisher.publishClarificationRespondedEvent(clarification);
+        eventPublisher.enqueueClarificationRespondedEvent(clarification);
         return clarificationMapper.toDto(clarification);
     }
 
@@ -386,7 +421,7 @@ public class BidServiceImpl implements BidService {
     @Transactional
     public BidDTO submitBidWithSecurity(Long bidId, BidSecurityRequest securityRequest, MultipartFile securityDocument) {
         log.info("Submitting bid with security for bid ID: {}", bidId);
-        Bid bid = bidRepository.findById(bidId)
+        Bid bid = bidRepository.findByIdForUpdate(bidId)
                 .orElseThrow(() -> new BidNotFoundException(bidId));
 
         if (bid.getStatus() != BidStatus.DRAFT) {
@@ -411,12 +446,45 @@ public class BidServiceImpl implements BidService {
         }
 
         bidSecurityRepository.save(security);
+        markSubmitted(bid);
+        eventPublisher.enqueueBidSubmittedEvent(bid);
+        return bidMapper.toDto(bid);
+    }
+
+    /**
+     * Move a bid to SUBMITTED and record its receipt: the submission time and a SHA-256 hash of
+     * the submitted content, which the tenderer can later check the stored bid against
+     */
+    private void markSubmitted(Bid bid) {
         bid.setStatus(BidStatus.SUBMITTED);
         bid.setSubmissionTime(LocalDateTime.now());
-        bid = bidRepository.save(bid);
+        bid.setSubmissionHash(hashSubmission(bid));
+    }
 
-        eventPublisher.publishBidSubmittedEvent(bid);
-        return bidMapper.toDto(bid);
+    private String hashSubmission(Bid bid) {
+        StringBuilder content = new StringBuilder()
+                .append(bid.getId()).append('\n')
+                .append(bid.getTenderId()).append('\n')
+                .append(bid.getTendererId()).append('\n')
+                .append(bid.getTotalPrice().toPlainString()).append('\n')
+                .append(bid.getSubmissionTime()).append('\n');
+        bid.getItems().stream()
+                .sorted(Comparator.comparing(BidItem::getCriteriaId).thenComparing(BidItem::getId))
+                .forEach(item -> content.append("item ")
+                        .append(item.getCriteriaId()).append(' ')
+                        .append(item.getValue().toPlainString()).append(' ')
+                        .append(Objects.toString(item.getDescription(), "")).append('\n'));
+        bid.getDocuments().stream()
+                .sorted(Comparator.comparing(BidDocument::getId))
+                .forEach(document -> content.append("document ")
+                        .append(document.getFilePath()).append('\n'));
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
     @Override
@@ -477,48 +545,34 @@ public class BidServiceImpl implements BidService {
     public void closeBidsForTender(Long tenderId) {
         log.info("Closing all bids for tender ID: {}", tenderId);
 
-        // Find all draft bids for this tender
-        List<Bid> draftBids = bidRepository.findByTenderIdAndStatus(tenderId, BidStatus.DRAFT);
-
-        for (Bid bid : draftBids) {
-            // Save previous status for event publishing
-            BidStatus oldStatus = bid.getStatus();
-
-            // Update bid status to NOT_SUBMITTED
-            bid.setStatus(BidStatus.NOT_SUBMITTED);
-            bid.setStatusReason("Tender closing date reached before submission");
-            bidRepository.save(bid);
-
-            // Publish status change event
-            eventPublisher.publishBidStatusChangedEvent(bid, oldStatus);
-            log.info("Closed draft bid ID: {}", bid.getId());
-        }
+        int closed = changeStatusForTender(tenderId, EnumSet.of(BidStatus.DRAFT), BidStatus.NOT_SUBMITTED,
+                "Tender closing date reached before submission");
 
-        log.info("Closed {} draft bids for tender ID: {}", draftBids.size(), tenderId);
+        log.info("Closed {} draft bids for tender ID: {}", closed, tenderId);
     }
 
     @Transactional
     public void cancelBidsForTender(Long tenderId, String reason) {
         log.info("Cancelling all bids for tender ID: {} due to: {}", tenderId, reason);
 
-        // Find all active (non-cancelled) bids for this tender
-        List<Bid> activeBids = bidRepository.findByTenderIdAndStatusNot(tenderId, BidStatus.CANCELLED);
+        int cancelled = changeStatusForTender(tenderId, EnumSet.complementOf(EnumSet.of(BidStatus.CANCELLED)),
+                BidStatus.CANCELLED, "Tender cancelled: " + reason);
 
-        for (Bid bid : activeBids) {
-            // Save previous status for event publishing
-            BidStatus oldStatus = bid.getStatus();
-
-            // Update bid status to CANCELLED
-            bid.setStatus(BidStatus.CANCELLED);
-            bid.setStatusReason("Tender cancelled: " + reason);
-            bidRepository.save(bid);
-
-            // Publish status change event
-            eventPublisher.publishBidStatusChangedEvent(bid, oldStatus);
-            log.info("Cancelled bid ID: {}", bid.getId());
-        }
+        log.info("Cancelled {} bids for tender ID: {}", cancelled, tenderId);
+    }
 
-        log.info("Cancelled {} bids for tender ID: {}", activeBids.size(), tenderId);
+    /**
+     * Move every bid of a tender in one of the given statuses to a new status with a fixed number
+     * of statements, whatever the number of bids. The status changed events are written to the
+     * outbox in the same transaction and sent by the outbox relay after commit.
+     */
+    private int changeStatusForTender(Long tenderId, Set<BidStatus> fromStatuses, BidStatus newStatus, String reason) {
+        List<String> statuses = fromStatuses.stream().map(Enum::name).toList();
+
+        // Lock the bids first, so the events and the update cover exactly the same bids
+        bidRepository.lockByTenderIdAndStatusIn(tenderId, statuses);
+        outboxEventRepository.enqueueBidStatusChanges(bidEventsTopic, tenderId, statuses, newStatus.name());
+        return bidRepository.updateStatusByTenderId(tenderId, statuses, newStatus.name(), reason);
     }
 
     @Transactional
@@ -564,7 +618,7 @@ public class BidServiceImpl implements BidService {
 
         // Save and publish event
         bidRepository.save(bid);
-        eventPublisher.publishBidStatusChangedEvent(bid, oldStatus);
+        eventPublisher.enqueueBidStatusChangedEvent(bid, oldStatus);
         log.info("Updated evaluation status for bid ID: {} to {}", bidId, bid.getStatus());
     }
 
@@ -590,7 +644,7 @@ public class BidServiceImpl implements BidService {
 
         // Save and publish events
         bidRepository.save(bid);
-        eventPublisher.publishBidStatusChangedEvent(bid, oldStatus);
+        eventPublisher.enqueueBidStatusChangedEvent(bid, oldStatus);
 
         log.info("Awarded bid ID: {}", bidId);
     }
@@ -616,7 +670,7 @@ public class BidServiceImpl implements BidService {
 
         // Save and publish event
         bidRepository.save(bid);
-        eventPublisher.publishBidStatusChangedEvent(bid, oldStatus);
+        eventPublisher.enqueueBidStatusChangedEvent(bid, oldStatus);
         log.info("Updated contract status for bid ID: {} to CONTRACTED with contract ID: {}", bidId, contractId);
     }
 }
\ No newline at end of file
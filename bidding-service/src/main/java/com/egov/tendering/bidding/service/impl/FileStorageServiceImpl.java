@@ -1,31 +1,63 @@
 package com.egov.tendering.bidding.service.impl;
 
+import com.egov.tendering.bidding.dal.repository.BlobReferenceRepository;
 import com.egov.tendering.bidding.exception.FileStorageException;
 import com.egov.tendering.bidding.service.FileStorageService;
+import com.egov.tendering.common.storage.ContentAddressedBlobStore;
+import com.egov.tendering.common.storage.StorageBackend;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.MalformedURLException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
-
+import java.util.Optional;
+
+/**
+ * Stores uploaded files in a content-addressed blob store on the configured storage backend, so
+ * identical files uploaded by many bidders are kept once. Stored file names are the SHA-256 hash of
+ * the content plus the original extension; blob_references counts how many stored files share each
+ * blob. Files stored before the blob store keep their prefix-UUID names and are still served from
+ * the local upload directory.
+ * <p>
+ * Uploads are read once, written to a staging object while they are hashed. Content is only
+ * deleted after the transaction removing its last reference has committed.
+ */
 @Service
 @Slf4j
 public class FileStorageServiceImpl implements FileStorageService {
 
     private final Path fileStorageLocation;
-
-    public FileStorageServiceImpl(@Value("${app.file-storage.upload-dir:uploads}") String uploadDir) {
+    private final ContentAddressedBlobStore blobStore;
+    private final BlobReferenceRepository blobReferenceRepository;
+    private final TransactionTemplate newTransaction;
+
+    public FileStorageServiceImpl(@Value("${app.file-storage.upload-dir:uploads}") String uploadDir,
+                                  StorageBackend storageBackend,
+                                  BlobReferenceRepository blobReferenceRepository,
+                                  PlatformTransactionManager transactionManager) {
         this.fileStorageLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.blobStore = new ContentAddressedBlobStore(storageBackend);
+        this.blobReferenceRepository = blobReferenceRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
 
         try {
             Files.createDirectories(this.fileStorageLocation);
@@ -36,6 +68,7 @@ public class FileStorageServiceImpl implements FileStorageService {
     }
 
     @Override
+    @Transactional
     public String storeFile(MultipartFile file, String prefix) {
         // Validate file
         if (file == null || file.isEmpty()) {
@@ -49,24 +82,22 @@ public class FileStorageServiceImpl implements FileStorageService {
             throw new FileStorageException("Filename contains invalid path sequence: " + originalFileName);
         }
 
-        try {
-            // Extract file extension
-            String fileExtension = "";
-            int lastDotIndex = originalFileName.lastIndexOf(".");
-            if (lastDotIndex > 0) {
-                fileExtension = originalFileName.substring(lastDotIndex);
-            }
+        try (InputStream in = file.getInputStream();
+             ContentAddressedBlobStore.StagedBlob staged = blobStore.stage(in, file.getSize())) {
+            String hash = staged.hash();
 
-            // Generate unique filename
-            String sanitizedPrefix = prefix.replaceAll("[^a-zA-Z0-9-_]", "_");
-            String fileName = sanitizedPrefix + "-" + UUID.randomUUID() + fileExtension;
+            // Take the reference before looking for the blob, so a concurrent delete of the
+            // last reference cannot remove the blob after we decided to reuse it
+            blobReferenceRepository.acquire(hash, file.getSize());
 
-            // Copy file to the target location
-            Path targetLocation = this.fileStorageLocation.resolve(fileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+            if (blobStore.contains(hash)) {
+                log.info("File {} ({}) matches stored content {}", originalFileName, prefix, hash);
+            } else {
+                staged.promote();
+                log.info("Successfully stored file: {} ({}) as {}", originalFileName, prefix, hash);
+            }
 
-            log.info("Successfully stored file: {} as {}", originalFileName, fileName);
-            return fileName;
+            return hash + getFileExtension(originalFileName);
         } catch (IOException ex) {
             throw new FileStorageException("Failed to store file " + originalFileName, ex);
         }
@@ -74,8 +105,13 @@ public class FileStorageServiceImpl implements FileStorageService {
 
     @Override
     public Resource loadFileAsResource(String fileName) {
+        String hash = getBlobHash(fileName);
+        if (hash != null) {
+            return loadBlobAsResource(fileName, hash);
+        }
+
         try {
-            Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
+            Path filePath = resolveLegacyFile(fileName);
             Resource resource = new UrlResource(filePath.toUri());
 
             if (resource.exists()) {
@@ -90,19 +126,112 @@ public class FileStorageServiceImpl implements FileStorageService {
     }
 
     @Override
+    @Transactional
     public boolean deleteFile(String fileName) {
-        try {
-            Path file = this.fileStorageLocation.resolve(fileName).normalize();
-            boolean result = Files.deleteIfExists(file);
-            if (result) {
+        String hash = getBlobHash(fileName);
+        if (hash != null) {
+            return releaseBlob(fileName, hash);
+        }
+
+        Path file = resolveLegacyFile(fileName);
+        if (!Files.exists(file)) {
+            log.warn("File does not exist and could not be deleted: {}", fileName);
+            return false;
+        }
+        afterCommit(() -> {
+            try {
+                Files.deleteIfExists(file);
                 log.info("Successfully deleted file: {}", fileName);
-            } else {
-                log.warn("File does not exist and could not be deleted: {}", fileName);
+            } catch (IOException ex) {
+                log.error("Error deleting file: {}", fileName, ex);
             }
-            return result;
-        } catch (IOException ex) {
-            log.error("Error deleting file: {}", fileName, ex);
+        });
+        return true;
+    }
+
+    private boolean releaseBlob(String fileName, String hash) {
+        if (blobReferenceRepository.release(hash) == 0) {
+            log.warn("File does not exist and could not be deleted: {}", fileName);
             return false;
         }
+        afterCommit(() -> deleteBlobIfUnreferenced(hash));
+        log.info("Successfully deleted file: {}", fileName);
+        return true;
+    }
+
+    // Deleting the counter row locks it until the blob is gone, so a concurrent store of the
+    // same content waits and then writes the blob again. If the blob cannot be deleted the
+    // counter stays at zero, and the next store of that content reuses the blob.
+    private void deleteBlobIfUnreferenced(String hash) {
+        try {
+            newTransaction.executeWithoutResult(status -> {
+                if (blobReferenceRepository.deleteIfUnreferenced(hash) == 1) {
+                    try {
+                        blobStore.delete(hash);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                }
+            });
+        } catch (RuntimeException ex) {
+            log.error("Error deleting unreferenced blob: {}", hash, ex);
+        }
+    }
+
+    /**
+     * Runs a deletion once the current transaction has committed, so a rollback never leaves a
+     * stored file name pointing at deleted content
+     */
+    private void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private Resource loadBlobAsResource(String fileName, String hash) {
+        try {
+            // Blobs on this node's disk are served as files; blobs in a remote store are streamed
+            Optional<Path> localPath = blobStore.localPath(hash);
+            if (localPath.isPresent()) {
+                return new UrlResource(localPath.get().toUri());
+            }
+            return new InputStreamResource(blobStore.open(hash));
+        } catch (NoSuchFileException ex) {
+            log.error("File not found: {}", fileName);
+            throw new FileStorageException("File not found: " + fileName, ex);
+        } catch (IOException ex) {
+            throw new FileStorageException("Could not read file " + fileName, ex);
+        }
+    }
+
+    private Path resolveLegacyFile(String fileName) {
+        Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
+        if (!filePath.startsWith(this.fileStorageLocation)) {
+            throw new FileStorageException("File not found: " + fileName);
+        }
+        return filePath;
+    }
+
+    /**
+     * Returns the blob hash a stored file name refers to, or null for files stored by name
+     */
+    private String getBlobHash(String fileName) {
+        int dotIndex = fileName.indexOf('.');
+        String hash = dotIndex > 0 ? fileName.substring(0, dotIndex) : fileName;
+        return ContentAddressedBlobStore.isHash(hash) ? hash : null;
+    }
+
+    private String getFileExtension(String fileName) {
+        int lastDotIndex = fileName.lastIndexOf(".");
+        if (lastDotIndex > 0) {
+            String extension = fileName.substring(lastDotIndex + 1).replaceAll("[^a-zA-Z0-9]", "");
+            if (!extension.isEmpty()) {
+                return "." + extension;
+            }
+        }
+        return "";
     }
-}
\ No newline at end of file
+}
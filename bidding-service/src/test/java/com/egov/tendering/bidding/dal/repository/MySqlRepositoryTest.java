@@ -0,0 +1,54 @@
+package com.egov.tendering.bidding.dal.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.MySQLContainer;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Base of the tests running repositories against MySQL in a container, with the schema Hibernate
+ * creates in production, so native statements, locking and the database clock behave as they do
+ * there. Skipped when Docker is not available.
+ * <p>
+ * Tests run outside a test transaction: every repository call commits, as it does when
+ * several instances share the database.
+ */
+@DataJpaTest(properties = {"spring.cloud.config.enabled=false", "spring.jpa.show-sql=false"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = MySqlRepositoryTest.RepositoryConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public abstract class MySqlRepositoryTest {
+
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @BeforeAll
+    static void startMySql() {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+        MYSQL.start();
+    }
+
+    @DynamicPropertySource
+    static void mySqlProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+
+    /**
+     * Entities and repositories only, without the application class and its clients
+     */
+    @Configuration(proxyBeanMethods = false)
+    @AutoConfigurationPackage(basePackages = "com.egov.tendering.bidding.dal")
+    static class RepositoryConfig {
+    }
+}
@@ -0,0 +1,96 @@
+package com.egov.tendering.bidding.event;
+
+import com.egov.tendering.bidding.dal.repository.ProcessedEventRepository;
+import com.egov.tendering.bidding.service.BidService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Which failures of consumed events are skipped and which are handed to the error handler
+ */
+class BidEventListenerTest {
+
+    private BidService bidService;
+    private ProcessedEventRepository processedEventRepository;
+    private BidEventListener listener;
+
+    @BeforeEach
+    void setUp() {
+        bidService = mock(BidService.class);
+        processedEventRepository = mock(ProcessedEventRepository.class);
+        when(processedEventRepository.markProcessed(anyString())).thenReturn(1);
+
+        // Runs the callbacks directly
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        listener = new BidEventListener(bidService, processedEventRepository, new ObjectMapper().findAndRegisterModules(),
+                transactionTemplate, Duration.ofDays(7));
+    }
+
+    @Test
+    void appliesAnEvent() {
+        listener.consumeEvents(List.of(record("tender-events", 0, "{\"eventType\":\"TENDER_CLOSED\",\"tenderId\":5}")));
+
+        verify(bidService).closeBidsForTender(5L);
+        verify(processedEventRepository).markProcessed("tender-events-0@0");
+    }
+
+    @Test
+    void eventsThatCanNeverBeAppliedAreSkipped() {
+        List<ConsumerRecord<String, String>> records = List.of(
+                record("tender-events", 0, "{\"tenderId\":5}"),
+                record("tender-events", 1, "{\"eventType\":\"TENDER_CLOSED\"}"),
+                record("evaluation-events", 2, "{\"eventType\":\"BID_AWARDED\"}"),
+                record("contract-events", 3, "{\"eventType\":\"CONTRACT_TERMINATED\"}"),
+                record("contract-events", 4, "null"),
+                record("contract-events", 5, "not json"),
+                record("tender-events", 6, "{\"eventType\":\"TENDER_CLOSED\",\"tenderId\":5}"));
+
+        listener.consumeEvents(records);
+
+        // The events before the last one were recorded as processed without being applied
+        verify(bidService, only()).closeBidsForTender(5L);
+        for (ConsumerRecord<String, String> record : records) {
+            verify(processedEventRepository, atLeastOnce())
+                    .markProcessed(record.topic() + "-0@" + record.offset());
+        }
+    }
+
+    @Test
+    void otherFailuresAreHandedToTheErrorHandlerWithTheFailedEvent() {
+        doThrow(new DataAccessResourceFailureException("database unavailable")).when(bidService).closeBidsForTender(5L);
+        ConsumerRecord<String, String> failing = record("tender-events", 1, "{\"eventType\":\"TENDER_CLOSED\",\"tenderId\":5}");
+
+        assertThatThrownBy(() -> listener.consumeEvents(List.of(
+                record("tender-events", 0, "{\"eventType\":\"TENDER_PUBLISHED\",\"tenderId\":4}"), failing)))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        e -> assertThat(e.getRecord()).isSameAs(failing));
+    }
+
+    private static ConsumerRecord<String, String> record(String topic, long offset, String value) {
+        return new ConsumerRecord<>(topic, 0, offset, "key", value);
+    }
+}
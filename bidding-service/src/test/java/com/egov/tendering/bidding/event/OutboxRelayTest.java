@@ -0,0 +1,265 @@
+package com.egov.tendering.bidding.event;
+
+import com.egov.tendering.bidding.dal.model.Bid;
+import com.egov.tendering.bidding.dal.model.BidStatus;
+import com.egov.tendering.bidding.dal.model.OutboxEvent;
+import com.egov.tendering.bidding.dal.repository.BidRepository;
+import com.egov.tendering.bidding.dal.repository.MySqlRepositoryTest;
+import com.egov.tendering.bidding.dal.repository.OutboxEventRepository;
+import com.egov.tendering.bidding.dal.repository.SchedulerLockRepository;
+import com.egov.tendering.bidding.service.SchedulerLockService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Relaying of events written by {@link BidEventPublisher} through the outbox table in MySQL, to a
+ * mocked Kafka
+ */
+@Import(SchedulerLockService.class)
+class OutboxRelayTest extends MySqlRepositoryTest {
+
+    private static final String TOPIC = "bid-events";
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private SchedulerLockRepository lockRepository;
+
+    @Autowired
+    private SchedulerLockService lockService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<BidEvent> sent = Collections.synchronizedList(new ArrayList<>());
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private KafkaTemplate<String, BidEvent> kafkaTemplate;
+    private TransactionTemplate transactionTemplate;
+    private BidEventPublisher publisher;
+    private OutboxRelay relay;
+
+    // Result of each send; successful unless a test says otherwise
+    private Function<BidEvent, CompletableFuture<Object>> sendResult = event -> CompletableFuture.completedFuture(null);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(anyString(), anyString(), any(BidEvent.class))).thenAnswer(invocation -> {
+            BidEvent event = invocation.getArgument(2);
+            sent.add(event);
+            return sendResult.apply(event);
+        });
+
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        publisher = new BidEventPublisher(outboxEventRepository, objectMapper);
+        ReflectionTestUtils.setField(publisher, "bidEventsTopic", TOPIC);
+        relay = new OutboxRelay(outboxEventRepository, kafkaTemplate, objectMapper, transactionTemplate, lockService,
+                BATCH_SIZE, 1000, MAX_ATTEMPTS, Duration.ofMinutes(2));
+    }
+
+    @AfterEach
+    void clearTables() {
+        outboxEventRepository.deleteAllInBatch();
+        bidRepository.deleteAllInBatch();
+        lockRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void relaysEveryEventInOrderWithTheRowIdAsEventId() {
+        for (long bidId = 1; bidId <= 1200; bidId++) {
+            Bid bid = bid(bidId);
+            switch ((int) (bidId % 3)) {
+                case 0 -> publisher.enqueueBidSubmittedEvent(bid);
+                case 1 -> publisher.enqueueBidStatusChangedEvent(bid, BidStatus.DRAFT);
+                default -> publisher.enqueueBidDeletedEvent(bid);
+            }
+        }
+        List<Long> rowIds = outbox().stream().map(OutboxEvent::getId).toList();
+
+        relay.relayPendingEvents();
+
+        assertThat(outbox()).isEmpty();
+        assertThat(sent).extracting(BidEvent::getEventId).isEqualTo(rowIds);
+        assertThat(sent.get(0)).isInstanceOf(BidStatusChangedEvent.class);
+        assertThat(((BidStatusChangedEvent) sent.get(0)).getOldStatus()).isEqualTo(BidStatus.DRAFT);
+        assertThat(sent.get(1)).isInstanceOf(BidDeletedEvent.class);
+        assertThat(sent.get(2)).isInstanceOf(BidSubmittedEvent.class);
+        verify(kafkaTemplate).send(TOPIC, "1", sent.get(0));
+        // The relay gave up its lease when it was done
+        assertThat(lockService.tryLock(OutboxRelay.RELAY_LOCK, Duration.ofMinutes(2))).isTrue();
+    }
+
+    @Test
+    void statusChangesWrittenInSqlAreRelayedLikeThoseOfThePublisher() {
+        Bid submitted = bidRepository.save(newBid(7L, BidStatus.SUBMITTED));
+        bidRepository.save(newBid(7L, BidStatus.DRAFT));
+        bidRepository.save(newBid(8L, BidStatus.SUBMITTED));
+
+        int written = transactionTemplate.execute(status -> outboxEventRepository.enqueueBidStatusChanges(
+                TOPIC, 7L, List.of(BidStatus.SUBMITTED.name()), BidStatus.UNDER_EVALUATION.name()));
+        relay.relayPendingEvents();
+
+        assertThat(written).isEqualTo(1);
+        assertThat(sent).singleElement().isInstanceOfSatisfying(BidStatusChangedEvent.class, event -> {
+            assertThat(event.getBidId()).isEqualTo(submitted.getId());
+            assertThat(event.getTenderId()).isEqualTo(7L);
+            assertThat(event.getTotalPrice()).isEqualByComparingTo(submitted.getTotalPrice());
+            assertThat(event.getOldStatus()).isEqualTo(BidStatus.SUBMITTED);
+            assertThat(event.getNewStatus()).isEqualTo(BidStatus.UNDER_EVALUATION);
+            assertThat(event.getTimestamp()).isNotNull();
+        });
+    }
+
+    @Test
+    void failedEventAndTheLaterEventsOfItsBidAreSentAgainWithTheSameEventIds() {
+        for (long bidId = 1; bidId <= 10; bidId++) {
+            publisher.enqueueBidSubmittedEvent(bid(bidId));
+        }
+        publisher.enqueueBidDeletedEvent(bid(7L));
+        sendResult = event -> event.getBidId() == 7 && event instanceof BidSubmittedEvent
+                ? CompletableFuture.failedFuture(new IllegalStateException("broker unavailable"))
+                : CompletableFuture.completedFuture(null);
+
+        relay.relayPendingEvents();
+
+        List<OutboxEvent> left = outbox();
+        assertThat(left).extracting(OutboxEvent::getAggregateId).containsExactly(7L, 7L);
+        assertThat(left.get(0).getAttempts()).isEqualTo(1);
+        assertThat(left.get(0).getLastError()).contains("broker unavailable");
+        // The later event of the bid was not sent, so it does not count as a failure
+        assertThat(left.get(1).getAttempts()).isZero();
+
+        sent.clear();
+        sendResult = event -> CompletableFuture.completedFuture(null);
+        relay.relayPendingEvents();
+
+        assertThat(outbox()).isEmpty();
+        assertThat(sent).extracting(BidEvent::getEventId).isEqualTo(left.stream().map(OutboxEvent::getId).toList());
+    }
+
+    @Test
+    void eventThatKeepsFailingIsParkedAndStopsBlockingTheOutbox() {
+        publisher.enqueueBidSubmittedEvent(bid(1L));
+        sendResult = event -> CompletableFuture.failedFuture(new IllegalStateException("record too large"));
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            relay.relayPendingEvents();
+        }
+        OutboxEvent parked = outbox().get(0);
+        assertThat(parked.getParkedAt()).isNotNull();
+        assertThat(parked.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+
+        sent.clear();
+        sendResult = event -> CompletableFuture.completedFuture(null);
+        publisher.enqueueBidSubmittedEvent(bid(2L));
+        relay.relayPendingEvents();
+
+        assertThat(sent).extracting(BidEvent::getBidId).containsExactly(2L);
+        assertThat(outbox()).extracting(OutboxEvent::getId).containsExactly(parked.getId());
+    }
+
+    @Test
+    void unreadableEventsAreDroppedWithoutBlockingTheOutbox() {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateId(1L).topic(TOPIC).eventType("BID_ARCHIVED").payload("{}").build());
+        outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateId(2L).topic(TOPIC).eventType("BID_SUBMITTED").payload("not json").build());
+        publisher.enqueueBidSubmittedEvent(bid(3L));
+
+        relay.relayPendingEvents();
+
+        assertThat(sent).extracting(BidEvent::getBidId).containsExactly(3L);
+        assertThat(outbox()).isEmpty();
+    }
+
+    @Test
+    void aBatchClaimedByOneTransactionIsWaitedForByTheNext() throws Exception {
+        for (long bidId = 1; bidId <= 3; bidId++) {
+            publisher.enqueueBidSubmittedEvent(bid(bidId));
+        }
+
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            int size = outboxEventRepository.claimBatch(BATCH_SIZE).size();
+            claimed.countDown();
+            await(release);
+            return size;
+        }));
+        assertThat(claimed.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status ->
+                outboxEventRepository.claimBatch(BATCH_SIZE).size()));
+        Thread.sleep(500);
+        assertThat(second).isNotDone();
+
+        release.countDown();
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo(3);
+        assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo(3);
+    }
+
+    private List<OutboxEvent> outbox() {
+        return outboxEventRepository.findAll(Sort.by("id"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Bid bid(long id) {
+        Bid bid = newBid(100L + id % 7, BidStatus.SUBMITTED);
+        bid.setId(id);
+        bid.setTendererId(200L + id);
+        bid.setTotalPrice(BigDecimal.valueOf(id * 1000, 2));
+        return bid;
+    }
+
+    private static Bid newBid(long tenderId, BidStatus status) {
+        return Bid.builder()
+                .tenderId(tenderId)
+                .tendererId(200L)
+                .status(status)
+                .totalPrice(new BigDecimal("1234.50"))
+                .submissionTime(LocalDateTime.of(2024, 3, 1, 12, 0))
+                .build();
+    }
+}
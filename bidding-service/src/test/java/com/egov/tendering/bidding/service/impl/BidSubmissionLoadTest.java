@@ -0,0 +1,199 @@
+package com.egov.tendering.bidding.service.impl;
+
+import com.egov.tendering.bidding.dal.dto.BidItemRequest;
+import com.egov.tendering.bidding.dal.dto.BidSubmissionRequest;
+import com.egov.tendering.bidding.dal.mapper.BidClarificationMapper;
+import com.egov.tendering.bidding.dal.mapper.BidComplianceItemMapper;
+import com.egov.tendering.bidding.dal.mapper.BidDocumentMapper;
+import com.egov.tendering.bidding.dal.mapper.BidItemMapper;
+import com.egov.tendering.bidding.dal.mapper.BidMapper;
+import com.egov.tendering.bidding.dal.mapper.BidSecurityMapper;
+import com.egov.tendering.bidding.dal.mapper.BidVersionMapper;
+import com.egov.tendering.bidding.dal.model.Bid;
+import com.egov.tendering.bidding.dal.model.BidStatus;
+import com.egov.tendering.bidding.dal.repository.BidItemRepository;
+import com.egov.tendering.bidding.dal.repository.BidRepository;
+import com.egov.tendering.bidding.dal.repository.MySqlRepositoryTest;
+import com.egov.tendering.bidding.dal.repository.OutboxEventRepository;
+import com.egov.tendering.bidding.event.BidCreatedEvent;
+import com.egov.tendering.bidding.event.BidEvent;
+import com.egov.tendering.bidding.event.BidEventPublisher;
+import com.egov.tendering.bidding.event.BidSubmittedEvent;
+import com.egov.tendering.bidding.event.OutboxRelay;
+import com.egov.tendering.bidding.service.BidService;
+import com.egov.tendering.bidding.service.FileStorageService;
+import com.egov.tendering.bidding.service.SchedulerLockService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Load on the submission path in the last minute before a deadline: 10,000 draft bids are
+ * submitted by concurrent tenderers, each submission locking its bid, hashing the receipt and
+ * writing its event to the outbox, then the relay drains the outbox to a mocked Kafka. Runs on
+ * MySQL in a container and is opt-in:
+ * <pre>
+ * mvn -pl bidding-service -am test -Dtest=BidSubmissionLoadTest -Dbidding.benchmark=true -Dsurefire.failIfNoSpecifiedTests=false
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "bidding.benchmark", matches = "true")
+@Import({BidServiceImpl.class, BidEventPublisher.class, SchedulerLockService.class, BidSubmissionLoadTest.Beans.class})
+@MockBean({BidMapper.class, BidItemMapper.class, BidDocumentMapper.class, BidSecurityMapper.class,
+        BidClarificationMapper.class, BidComplianceItemMapper.class, BidVersionMapper.class, FileStorageService.class})
+@TestPropertySource(properties = "spring.datasource.hikari.maximum-pool-size=" + BidSubmissionLoadTest.TENDERERS)
+class BidSubmissionLoadTest extends MySqlRepositoryTest {
+
+    static final int TENDERERS = 64;
+
+    private static final int SUBMISSIONS = 10_000;
+    private static final int TENDERS = 20;
+    private static final Duration FINAL_MINUTE = Duration.ofMinutes(1);
+
+    @Autowired
+    private BidService bidService;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private BidItemRepository bidItemRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private SchedulerLockService lockService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void clearTables() {
+        outboxEventRepository.deleteAllInBatch();
+        bidItemRepository.deleteAllInBatch();
+        bidRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void tenThousandSubmissionsInTheFinalMinute() throws Exception {
+        run("Created", SUBMISSIONS, i -> bidService.createBid(request(i), 1_000L + i));
+        List<Long> bidIds = bidRepository.findAll().stream().map(Bid::getId).toList();
+        assertThat(bidIds).hasSize(SUBMISSIONS);
+
+        Duration submitting = run("Submitted", SUBMISSIONS, i -> bidService.submitBid(bidIds.get((int) i)));
+
+        assertThat(submitting).isLessThan(FINAL_MINUTE);
+        assertThat(bidRepository.findAll()).allSatisfy(bid -> {
+            assertThat(bid.getStatus()).isEqualTo(BidStatus.SUBMITTED);
+            assertThat(bid.getSubmissionHash()).hasSize(64);
+        });
+        assertThat(outboxEventRepository.count()).isEqualTo(2L * SUBMISSIONS);
+
+        List<BidEvent> sent = Collections.synchronizedList(new ArrayList<>(2 * SUBMISSIONS));
+        KafkaTemplate<String, BidEvent> kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(anyString(), anyString(), any(BidEvent.class))).thenAnswer(invocation -> {
+            sent.add(invocation.getArgument(2));
+            return CompletableFuture.completedFuture(null);
+        });
+        OutboxRelay relay = new OutboxRelay(outboxEventRepository, kafkaTemplate, objectMapper,
+                new TransactionTemplate(transactionManager), lockService, 500, 30_000, 10, Duration.ofMinutes(2));
+
+        long start = System.nanoTime();
+        relay.relayPendingEvents();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Relayed %d events in %.2f s: %.0f/s%n", sent.size(), seconds, sent.size() / seconds);
+
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(sent).hasSize(2 * SUBMISSIONS);
+        Map<Long, List<Class<?>>> eventsByBid = new HashMap<>();
+        sent.forEach(event -> eventsByBid.computeIfAbsent(event.getBidId(), id -> new ArrayList<>()).add(event.getClass()));
+        assertThat(eventsByBid).hasSize(SUBMISSIONS)
+                .allSatisfy((bidId, events) -> assertThat(events).containsExactly(BidCreatedEvent.class, BidSubmittedEvent.class));
+    }
+
+    /**
+     * Run calls from concurrent tenderers and print their throughput and latency
+     *
+     * @return how long the calls took
+     */
+    private static Duration run(String action, int calls, LongConsumer call) throws Exception {
+        long[] latencies = new long[calls];
+        ExecutorService tenderers = Executors.newFixedThreadPool(TENDERERS);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>(calls);
+            for (int i = 0; i < calls; i++) {
+                int index = i;
+                futures.add(tenderers.submit(() -> {
+                    long callStart = System.nanoTime();
+                    call.accept(index);
+                    latencies[index] = System.nanoTime() - callStart;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            tenderers.shutdown();
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        Arrays.sort(latencies);
+        System.out.printf("%s %d bids in %.2f s: %.0f/s, latency p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                action, calls, elapsed.toNanos() / 1e9, calls / (elapsed.toNanos() / 1e9),
+                latencies[calls / 2] / 1e6, latencies[calls * 99 / 100] / 1e6, latencies[calls - 1] / 1e6);
+        return elapsed;
+    }
+
+    private static BidSubmissionRequest request(long i) {
+        return BidSubmissionRequest.builder()
+                .tenderId(1L + i % TENDERS)
+                .items(List.of(
+                        BidItemRequest.builder().criteriaId(1L).value(BigDecimal.valueOf(10_000 + i, 2)).description("Works").build(),
+                        BidItemRequest.builder().criteriaId(2L).value(BigDecimal.valueOf(2_500, 2)).description("Warranty").build()))
+                .build();
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class Beans {
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().findAndRegisterModules();
+        }
+    }
+}
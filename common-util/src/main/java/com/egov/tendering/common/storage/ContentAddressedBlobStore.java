@@ -0,0 +1,177 @@
+package com.egov.tendering.common.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Store that keeps each distinct content exactly once, under its SHA-256 hash.
+ * <p>
+ * Blobs are objects of a {@link StorageBackend} keyed by their hash. Writes pass the hash to
+ * the backend, which rejects content that does not match, so a blob that is visible is always
+ * complete and correct. The store does no reference counting of its own; callers track which
+ * blobs are still in use and call {@link #delete(String)} when the last reference goes away.
+ * <p>
+ * Content whose hash is not known in advance is {@linkplain #stage(InputStream, long) staged}:
+ * written to a staging object under {@code staging/} while it is hashed, then promoted to its
+ * blob or discarded, so it is read only once.
+ */
+public class ContentAddressedBlobStore {
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String STAGING_PREFIX = "staging/";
+
+    private final StorageBackend backend;
+
+    public ContentAddressedBlobStore(StorageBackend backend) {
+        this.backend = backend;
+    }
+
+    /**
+     * Computes the SHA-256 hash of a stream, reading it to the end
+     *
+     * @param in The content to hash
+     * @return The hash as lowercase hex
+     */
+    public static String sha256(InputStream in) throws IOException {
+        MessageDigest digest = Hashing.newSha256Digest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Checks whether a string is a lowercase hex SHA-256 hash
+     */
+    public static boolean isHash(String hash) {
+        return hash != null && HASH_PATTERN.matcher(hash).matches();
+    }
+
+    /**
+     * Checks whether a blob is present
+     */
+    public boolean contains(String hash) throws IOException {
+        return backend.exists(checkHash(hash));
+    }
+
+    /**
+     * Stores content under its hash unless a blob with that hash is already present
+     *
+     * @param hash   The expected SHA-256 hash of the content
+     * @param in     The content
+     * @param length The number of bytes in the content
+     * @return true if the blob was written, false if it was already present
+     * @throws IOException if the content could not be written or does not match the hash
+     */
+    public boolean write(String hash, InputStream in, long length) throws IOException {
+        if (backend.exists(checkHash(hash))) {
+            return false;
+        }
+        // A concurrent writer of the same content may win the race; replacing its
+        // blob with identical bytes is harmless
+        backend.put(hash, in, length, hash);
+        return true;
+    }
+
+    /**
+     * Writes content to a new staging object, hashing it on the way. The caller closes the
+     * result, which discards the staged content unless it was promoted.
+     *
+     * @param in     The content
+     * @param length The number of bytes in the content
+     * @return The staged content and its hash
+     */
+    public StagedBlob stage(InputStream in, long length) throws IOException {
+        String stagingKey = STAGING_PREFIX + UUID.randomUUID();
+        MessageDigest digest = Hashing.newSha256Digest();
+        backend.put(stagingKey, new DigestInputStream(in, digest), length, null);
+        return new StagedBlob(stagingKey, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /**
+     * Opens a blob for reading; the caller closes the stream
+     */
+    public InputStream open(String hash) throws IOException {
+        return backend.get(checkHash(hash));
+    }
+
+    /**
+     * Opens part of a blob for reading; the caller closes the stream
+     */
+    public InputStream openRange(String hash, long offset, long length) throws IOException {
+        return backend.getRange(checkHash(hash), offset, length);
+    }
+
+    /**
+     * Gets the local file holding a blob, when the backend keeps blobs on this node
+     */
+    public Optional<Path> localPath(String hash) throws IOException {
+        return backend.localPath(checkHash(hash));
+    }
+
+    /**
+     * Removes a blob
+     */
+    public void delete(String hash) throws IOException {
+        backend.delete(checkHash(hash));
+    }
+
+    /**
+     * Content written to a staging object by {@link #stage(InputStream, long)}
+     */
+    public final class StagedBlob implements Closeable {
+
+        private final String stagingKey;
+        private final String hash;
+        private boolean promoted;
+
+        private StagedBlob(String stagingKey, String hash) {
+            this.stagingKey = stagingKey;
+            this.hash = hash;
+        }
+
+        /**
+         * The SHA-256 hash of the staged content as lowercase hex
+         */
+        public String hash() {
+            return hash;
+        }
+
+        /**
+         * Makes the staged content the blob of its hash. A blob with that hash written
+         * concurrently holds the same bytes, so replacing it is harmless.
+         */
+        public void promote() throws IOException {
+            backend.move(stagingKey, hash);
+            promoted = true;
+        }
+
+        /**
+         * Deletes the staged content unless it was promoted
+         */
+        @Override
+        public void close() throws IOException {
+            if (!promoted) {
+                backend.delete(stagingKey);
+            }
+        }
+    }
+
+    private static String checkHash(String hash) {
+        if (!isHash(hash)) {
+            throw new IllegalArgumentException("Not a SHA-256 hash: " + hash);
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,27 @@
+package com.egov.tendering.common.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 helpers shared by the storage classes
+ */
+final class Hashing {
+
+    private Hashing() {
+    }
+
+    static MessageDigest newSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    static String sha256Hex(String value) {
+        return HexFormat.of().formatHex(newSha256Digest().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+}
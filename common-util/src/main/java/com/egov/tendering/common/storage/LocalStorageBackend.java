@@ -0,0 +1,142 @@
+package com.egov.tendering.common.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Storage backend keeping objects as files under a root directory on this node.
+ * <p>
+ * Objects are spread over 65536 shard directories, {@code <root>/ab/cd/<encoded key>}, where
+ * {@code abcd} are the first hex digits of the SHA-256 of the key, so no directory grows large
+ * whatever the key layout. Keys are URL-encoded into a single file name. Writes go to a temporary
+ * file in the shard directory and are moved into place atomically.
+ */
+public class LocalStorageBackend implements StorageBackend {
+
+    private static final String TEMP_PREFIX = ".put-";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path root;
+
+    public LocalStorageBackend(Path root) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        Files.createDirectories(this.root);
+    }
+
+    @Override
+    public void put(String key, InputStream content, long contentLength, String sha256) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+
+        // Only hashed when there is a hash to check; staged content is already hashed by the caller
+        MessageDigest digest = sha256 != null ? Hashing.newSha256Digest() : null;
+        InputStream in = digest != null ? new DigestInputStream(content, digest) : content;
+        Path tempFile = Files.createTempFile(target.getParent(), TEMP_PREFIX, TEMP_SUFFIX);
+        try {
+            long written = Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            if (written != contentLength) {
+                throw new IOException("Expected " + contentLength + " bytes for " + key + " but read " + written);
+            }
+            if (digest != null) {
+                String actual = HexFormat.of().formatHex(digest.digest());
+                if (!actual.equals(sha256)) {
+                    throw new IOException("Content hash " + actual + " does not match expected hash " + sha256);
+                }
+            }
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public InputStream getRange(String key, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ);
+        try {
+            channel.position(offset);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new BoundedInputStream(Channels.newInputStream(channel), length);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        return Files.size(resolve(key));
+    }
+
+    @Override
+    public void move(String sourceKey, String targetKey) throws IOException {
+        Path target = resolve(targetKey);
+        Files.createDirectories(target.getParent());
+        Files.move(resolve(sourceKey), target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public Stream<String> list(String prefix) throws IOException {
+        return Files.walk(root, 3)
+                .filter(Files::isRegularFile)
+                .map(path -> path.getFileName().toString())
+                .filter(name -> !name.startsWith(TEMP_PREFIX))
+                .map(LocalStorageBackend::decodeKey)
+                .filter(key -> key.startsWith(prefix));
+    }
+
+    @Override
+    public Optional<Path> localPath(String key) throws IOException {
+        Path path = resolve(key);
+        if (!Files.isRegularFile(path)) {
+            throw new NoSuchFileException(key);
+        }
+        return Optional.of(path);
+    }
+
+    private Path resolve(String key) {
+        if (key == null || key.isEmpty()) {
+            throw new IllegalArgumentException("Storage key must not be empty");
+        }
+        String shard = Hashing.sha256Hex(key);
+        return root.resolve(shard.substring(0, 2)).resolve(shard.substring(2, 4)).resolve(encodeKey(key));
+    }
+
+    private static String encodeKey(String key) {
+        String encoded = URLEncoder.encode(key, StandardCharsets.UTF_8);
+        // A leading dot would hide the file and could be mistaken for a temporary file
+        return encoded.startsWith(".") ? "%2E" + encoded.substring(1) : encoded;
+    }
+
+    private static String decodeKey(String fileName) {
+        return URLDecoder.decode(fileName, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,374 @@
+package com.egov.tendering.common.storage;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Storage backend for S3-compatible object stores such as AWS S3 or MinIO.
+ * <p>
+ * Talks to the store's REST API directly with the JDK HTTP client, using path-style bucket
+ * addressing and Signature Version 4. Uploads and downloads are streamed. When the SHA-256 of
+ * an upload is known it is signed as the payload hash, and the store rejects content that
+ * does not match.
+ */
+public class S3StorageBackend implements StorageBackend {
+
+    private static final String SERVICE = "s3";
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    private static final String EMPTY_PAYLOAD_HASH = Hashing.sha256Hex("");
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter DATE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+
+    private final HttpClient httpClient;
+    private final String endpoint;
+    private final String host;
+    private final String region;
+    private final String bucket;
+    private final String accessKey;
+    private final String secretKey;
+
+    public S3StorageBackend(URI endpoint, String region, String bucket, String accessKey, String secretKey) {
+        String url = endpoint.toString();
+        this.endpoint = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        this.host = hostHeader(endpoint);
+        this.region = region;
+        this.bucket = bucket;
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    @Override
+    public void put(String key, InputStream content, long contentLength, String sha256) throws IOException {
+        HttpRequest.BodyPublisher body = contentLength == 0
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.fromPublisher(HttpRequest.BodyPublishers.ofInputStream(() -> content), contentLength);
+        String payloadHash = sha256 != null ? sha256 : (contentLength == 0 ? EMPTY_PAYLOAD_HASH : UNSIGNED_PAYLOAD);
+
+        HttpResponse<InputStream> response = send("PUT", key, Map.of(), null, body, payloadHash);
+        checkStatus(response, key, 200);
+        response.body().close();
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        HttpResponse<InputStream> response = send("GET", key, Map.of(), null, HttpRequest.BodyPublishers.noBody(), EMPTY_PAYLOAD_HASH);
+        checkStatus(response, key, 200);
+        return response.body();
+    }
+
+    @Override
+    public InputStream getRange(String key, long offset, long length) throws IOException {
+        if (length <= 0) {
+            return InputStream.nullInputStream();
+        }
+        String range = "bytes=" + offset + "-" + (offset + length - 1);
+        HttpResponse<InputStream> response = send("GET", key, Map.of(), range, HttpRequest.BodyPublishers.noBody(), EMPTY_PAYLOAD_HASH);
+        if (response.statusCode() == 200) {
+            // The store ignored the range and sent the whole object
+            InputStream in = response.body();
+            in.skipNBytes(offset);
+            return new BoundedInputStream(in, length);
+        }
+        checkStatus(response, key, 206);
+        return new BoundedInputStream(response.body(), length);
+    }
+
+    @Override
+    public boolean exists(String key) throws IOException {
+        HttpResponse<InputStream> response = send("HEAD", key, Map.of(), null, HttpRequest.BodyPublishers.noBody(), EMPTY_PAYLOAD_HASH);
+        if (response.statusCode() == 404) {
+            response.body().close();
+            return false;
+        }
+        checkStatus(response, key, 200);
+        response.body().close();
+        return true;
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        HttpResponse<InputStream> response = send("HEAD", key, Map.of(), null, HttpRequest.BodyPublishers.noBody(), EMPTY_PAYLOAD_HASH);
+        checkStatus(response, key, 200);
+        response.body().close();
+        return response.headers().firstValueAsLong("Content-Length")
+                .orElseThrow(() -> new IOException("No Content-Length returned for " + key));
+    }
+
+    @Override
+    public void move(String sourceKey, String targetKey) throws IOException {
+        // Copied within the store, so the content does not pass through this node again
+        String copySource = "/" + uriEncode(bucket, false) + "/" + uriEncode(sourceKey, true);
+        HttpResponse<InputStream> response = send("PUT", targetKey, Map.of(), null, Map.of("x-amz-copy-source", copySource),
+                HttpRequest.BodyPublishers.noBody(), EMPTY_PAYLOAD_HASH);
+        checkStatus(response, sourceKey, 200);
+
+        // A copy that fails after it started is reported in the body of a 200 response
+        String result;
+        try (InputStream in = response.body()) {
+            result = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        if (result.contains("<Error>")) {
+            throw new IOException("Object store failed to copy " + sourceKey + " to " + targetKey + ": " + result);
+        }
+        delete(sourceKey);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        HttpResponse<InputStream> response = send("DELETE", key, Map.of(), null, HttpRequest.BodyPublishers.noBody(), EMPTY_PAYLOAD_HASH);
+        if (response.statusCode() != 404) {
+            checkStatus(response, key, 204, 200);
+        }
+        response.body().close();
+    }
+
+    @Override
+    public Stream<String> list(String prefix) {
+        Iterator<String> keys = new Iterator<>() {
+            private final Deque<String> page = new ArrayDeque<>();
+            private String continuationToken;
+            private boolean truncated = true;
+
+            @Override
+            public boolean hasNext() {
+                while (page.isEmpty() && truncated) {
+                    fetchPage();
+                }
+                return !page.isEmpty();
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.poll();
+            }
+
+            private void fetchPage() {
+                Map<String, String> query = new TreeMap<>();
+                query.put("list-type", "2");
+                query.put("prefix", prefix);
+                if (continuationToken != null) {
+                    query.put("continuation-token", continuationToken);
+                }
+                try {
+                    HttpResponse<InputStream> response = send("GET", null, query, null, HttpRequest.BodyPublishers.noBody(), EMPTY_PAYLOAD_HASH);
+                    checkStatus(response, prefix, 200);
+                    try (InputStream in = response.body()) {
+                        ListPage result = parseListPage(in);
+                        page.addAll(result.keys());
+                        truncated = result.truncated() && result.nextContinuationToken() != null;
+                        continuationToken = result.nextContinuationToken();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to list objects with prefix " + prefix, e);
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(keys, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private HttpResponse<InputStream> send(String method, String key, Map<String, String> query, String range,
+                                           HttpRequest.BodyPublisher body, String payloadHash) throws IOException {
+        return send(method, key, query, range, Map.of(), body, payloadHash);
+    }
+
+    /**
+     * Sends a signed request. The x-amz-* headers given are signed along with host,
+     * x-amz-content-sha256 and x-amz-date, as the store requires of every x-amz-* header.
+     */
+    private HttpResponse<InputStream> send(String method, String key, Map<String, String> query, String range,
+                                           Map<String, String> amzHeaders, HttpRequest.BodyPublisher body,
+                                           String payloadHash) throws IOException {
+        HttpRequest request = signedRequest(method, key, query, range, amzHeaders, body, payloadHash, Instant.now());
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while calling object store");
+        }
+    }
+
+    /**
+     * Builds a request signed at the given time
+     */
+    HttpRequest signedRequest(String method, String key, Map<String, String> query, String range,
+                              Map<String, String> amzHeaders, HttpRequest.BodyPublisher body,
+                              String payloadHash, Instant now) {
+        String canonicalUri = "/" + uriEncode(bucket, false) + (key != null ? "/" + uriEncode(key, true) : "");
+        String canonicalQuery = new TreeMap<>(query).entrySet().stream()
+                .map(e -> uriEncode(e.getKey(), false) + "=" + uriEncode(e.getValue(), false))
+                .collect(Collectors.joining("&"));
+
+        String amzDate = AMZ_DATE.format(now);
+
+        Map<String, String> headers = new TreeMap<>(amzHeaders);
+        headers.put("host", host);
+        headers.put("x-amz-content-sha256", payloadHash);
+        headers.put("x-amz-date", amzDate);
+        String signedHeaders = String.join(";", headers.keySet());
+        String canonicalHeaders = headers.entrySet().stream()
+                .map(e -> e.getKey() + ":" + e.getValue() + "\n")
+                .collect(Collectors.joining());
+        String canonicalRequest = method + "\n" + canonicalUri + "\n" + canonicalQuery + "\n"
+                + canonicalHeaders
+                + "\n" + signedHeaders + "\n" + payloadHash;
+
+        HttpRequest.Builder request = HttpRequest.newBuilder()
+                .uri(URI.create(endpoint + canonicalUri + (canonicalQuery.isEmpty() ? "" : "?" + canonicalQuery)))
+                .method(method, body)
+                .header("x-amz-content-sha256", payloadHash)
+                .header("x-amz-date", amzDate)
+                .header("Authorization", ALGORITHM + " Credential=" + accessKey + "/" + scope(now)
+                        + ", SignedHeaders=" + signedHeaders + ", Signature=" + signature(canonicalRequest, now));
+        amzHeaders.forEach(request::header);
+        if (range != null) {
+            request.header("Range", range);
+        }
+        return request.build();
+    }
+
+    /**
+     * Signature Version 4 signature of a canonical request made at the given time
+     */
+    String signature(String canonicalRequest, Instant now) {
+        String stringToSign = ALGORITHM + "\n" + AMZ_DATE.format(now) + "\n" + scope(now) + "\n"
+                + Hashing.sha256Hex(canonicalRequest);
+        return HexFormat.of().formatHex(hmac(signingKey(DATE_STAMP.format(now)), stringToSign));
+    }
+
+    private String scope(Instant now) {
+        return DATE_STAMP.format(now) + "/" + region + "/" + SERVICE + "/aws4_request";
+    }
+
+    private static void checkStatus(HttpResponse<InputStream> response, String key, int... expected) throws IOException {
+        for (int status : expected) {
+            if (response.statusCode() == status) {
+                return;
+            }
+        }
+        String error;
+        try (InputStream in = response.body()) {
+            error = new String(in.readNBytes(1024), StandardCharsets.UTF_8);
+        }
+        if (response.statusCode() == 404) {
+            throw new NoSuchFileException(key);
+        }
+        throw new IOException("Object store returned " + response.statusCode() + " for " + key + ": " + error);
+    }
+
+    private byte[] signingKey(String dateStamp) {
+        byte[] dateKey = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), dateStamp);
+        byte[] regionKey = hmac(dateKey, region);
+        byte[] serviceKey = hmac(regionKey, SERVICE);
+        return hmac(serviceKey, "aws4_request");
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    /**
+     * Percent-encodes a value as Signature Version 4 expects, leaving only unreserved characters
+     * (and optionally slashes) as they are
+     */
+    private static String uriEncode(String value, boolean keepSlash) {
+        StringBuilder encoded = new StringBuilder();
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xff);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~' || (keepSlash && c == '/')) {
+                encoded.append(c);
+            } else {
+                encoded.append('%').append(HexFormat.of().withUpperCase().toHexDigits(b));
+            }
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * The Host header value the JDK client sends for an endpoint, which must match the signed one
+     */
+    private static String hostHeader(URI endpoint) {
+        int port = endpoint.getPort();
+        boolean defaultPort = port == -1
+                || ("http".equalsIgnoreCase(endpoint.getScheme()) && port == 80)
+                || ("https".equalsIgnoreCase(endpoint.getScheme()) && port == 443);
+        return defaultPort ? endpoint.getHost() : endpoint.getHost() + ":" + port;
+    }
+
+    private static ListPage parseListPage(InputStream in) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        Deque<String> keys = new ArrayDeque<>();
+        boolean truncated = false;
+        String nextContinuationToken = null;
+        try {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                switch (reader.getLocalName()) {
+                    case "Key" -> keys.add(reader.getElementText());
+                    case "IsTruncated" -> truncated = Boolean.parseBoolean(reader.getElementText());
+                    case "NextContinuationToken" -> nextContinuationToken = reader.getElementText();
+                    default -> {
+                    }
+                }
+            }
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not parse object listing", e);
+        }
+        return new ListPage(keys, truncated, nextContinuationToken);
+    }
+
+    private record ListPage(Deque<String> keys, boolean truncated, String nextContinuationToken) {
+    }
+}
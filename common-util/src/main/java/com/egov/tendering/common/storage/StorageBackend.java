@@ -0,0 +1,80 @@
+package com.egov.tendering.common.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Object storage used by the services to keep uploaded content.
+ * <p>
+ * Objects are addressed by string keys and are written and read as streams, so no
+ * implementation holds a whole object in memory. A written object becomes visible
+ * to readers only once it is complete. Missing objects are reported with
+ * {@link java.nio.file.NoSuchFileException}.
+ */
+public interface StorageBackend {
+
+    /**
+     * Stores an object, replacing any existing object with the same key
+     *
+     * @param key           The object key
+     * @param content       The content, read to the end; the caller still closes it
+     * @param contentLength The number of bytes in the content
+     * @param sha256        The SHA-256 hash of the content as lowercase hex, or null if unknown.
+     *                      When given, content that does not match is rejected.
+     */
+    void put(String key, InputStream content, long contentLength, String sha256) throws IOException;
+
+    /**
+     * Opens an object for reading; the caller closes the stream
+     */
+    InputStream get(String key) throws IOException;
+
+    /**
+     * Opens part of an object for reading; the caller closes the stream
+     *
+     * @param offset The position of the first byte to read
+     * @param length The number of bytes to read
+     */
+    InputStream getRange(String key, long offset, long length) throws IOException;
+
+    /**
+     * Checks whether an object exists
+     */
+    boolean exists(String key) throws IOException;
+
+    /**
+     * Gets the size of an object in bytes
+     */
+    long size(String key) throws IOException;
+
+    /**
+     * Moves an object to another key, replacing any existing object with that key
+     *
+     * @param sourceKey The key of the object to move
+     * @param targetKey The key the object is stored under afterwards
+     */
+    void move(String sourceKey, String targetKey) throws IOException;
+
+    /**
+     * Deletes an object; deleting a missing object is not an error
+     */
+    void delete(String key) throws IOException;
+
+    /**
+     * Lists the keys that start with a prefix. The stream may hold open resources
+     * and should be closed.
+     */
+    Stream<String> list(String prefix) throws IOException;
+
+    /**
+     * Gets the local file holding an object, for backends that keep objects on this node's
+     * file system. Callers use it to hand the file to the container (for example sendfile)
+     * and fall back to {@link #get(String)} when it is empty.
+     */
+    default Optional<Path> localPath(String key) throws IOException {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,149 @@
+package com.egov.tendering.common.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Staging of uploads on local storage: hashing while writing, promotion and discarding. The
+ * throughput run is opt-in:
+ * <pre>
+ * mvn -pl common-util test -Dtest=ContentAddressedBlobStoreTest -Dstorage.benchmark=true -DargLine=-Xmx64m
+ * </pre>
+ */
+class ContentAddressedBlobStoreTest {
+
+    private static final int MB = 1024 * 1024;
+
+    @TempDir
+    Path root;
+
+    private LocalStorageBackend backend;
+    private ContentAddressedBlobStore blobStore;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        backend = new LocalStorageBackend(root);
+        blobStore = new ContentAddressedBlobStore(backend);
+    }
+
+    @Test
+    void stagedContentIsHashedWhileWrittenAndPromotedToItsBlob() throws Exception {
+        byte[] content = new byte[3 * MB + 17];
+        new Random(1).nextBytes(content);
+
+        String hash;
+        try (ContentAddressedBlobStore.StagedBlob staged = blobStore.stage(new ByteArrayInputStream(content), content.length)) {
+            hash = staged.hash();
+            assertThat(hash).isEqualTo(sha256(content));
+            staged.promote();
+        }
+
+        assertThat(blobStore.contains(hash)).isTrue();
+        try (InputStream in = blobStore.open(hash)) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+        assertThat(backend.list("staging/")).isEmpty();
+    }
+
+    @Test
+    void stagedContentThatIsNotPromotedIsDiscarded() throws Exception {
+        byte[] content = "duplicate".getBytes();
+
+        String hash;
+        try (ContentAddressedBlobStore.StagedBlob staged = blobStore.stage(new ByteArrayInputStream(content), content.length)) {
+            hash = staged.hash();
+        }
+
+        assertThat(blobStore.contains(hash)).isFalse();
+        assertThat(backend.list("")).isEmpty();
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "storage.benchmark", matches = "true")
+    void stagingThroughput() throws Exception {
+        for (long size : new long[]{MB, 100L * MB, 1024L * MB}) {
+            System.gc();
+            long heapBefore = usedHeap();
+            long start = System.nanoTime();
+
+            String hash;
+            try (ContentAddressedBlobStore.StagedBlob staged = blobStore.stage(new GeneratedInputStream(size), size)) {
+                hash = staged.hash();
+                staged.promote();
+            }
+
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.gc();
+            long heapAfter = usedHeap();
+            System.out.printf("Staged %d MB in %.2f s: %.0f MB/s, heap %+.1f MB%n",
+                    size / MB, seconds, size / (double) MB / seconds, (heapAfter - heapBefore) / (double) MB);
+
+            assertThat(hash).isEqualTo(ContentAddressedBlobStore.sha256(new GeneratedInputStream(size)));
+            blobStore.delete(hash);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+
+    /**
+     * A stream of the given length repeating one block of random bytes, so large uploads need
+     * no memory of their own
+     */
+    private static final class GeneratedInputStream extends InputStream {
+
+        private static final byte[] BLOCK = new byte[64 * 1024 + 7];
+
+        static {
+            new Random(42).nextBytes(BLOCK);
+        }
+
+        private long remaining;
+        private int position;
+
+        GeneratedInputStream(long length) {
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() {
+            if (remaining == 0) {
+                return -1;
+            }
+            remaining--;
+            int value = BLOCK[position] & 0xff;
+            position = (position + 1) % BLOCK.length;
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (remaining == 0) {
+                return -1;
+            }
+            int count = (int) Math.min(Math.min(length, remaining), BLOCK.length - position);
+            System.arraycopy(BLOCK, position, buffer, offset, count);
+            position = (position + count) % BLOCK.length;
+            remaining -= count;
+            return count;
+        }
+    }
+}
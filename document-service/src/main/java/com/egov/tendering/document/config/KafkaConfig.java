@@ -13,8 +13,10 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -98,6 +100,8 @@ public class KafkaConfig {
         ConcurrentKafkaListenerContainerFactory<String, DocumentEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(documentEventConsumerFactory());
+        // Retry a failed event a few times with a pause, e.g. while document storage is unavailable
+        factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(2000L, 5)));
         return factory;
     }
 }
\ No newline at end of file
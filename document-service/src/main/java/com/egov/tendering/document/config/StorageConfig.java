@@ -0,0 +1,41 @@
+package com.egov.tendering.document.config;
+
+import com.egov.tendering.common.storage.LocalStorageBackend;
+import com.egov.tendering.common.storage.S3StorageBackend;
+import com.egov.tendering.common.storage.StorageBackend;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Paths;
+
+/**
+ * Storage backend configuration for document content.
+ * <p>
+ * {@code document.storage.type=local} (the default) keeps content on this node under
+ * {@code document.storage.location}; {@code s3} keeps it in an S3-compatible bucket, so
+ * any instance of the service can serve any document without a shared file system.
+ */
+@Configuration
+public class StorageConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "document.storage.type", havingValue = "local", matchIfMissing = true)
+    public StorageBackend localStorageBackend(@Value("${document.storage.location}") String storageLocation) throws IOException {
+        return new LocalStorageBackend(Paths.get(storageLocation).resolve("blobs"));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "document.storage.type", havingValue = "s3")
+    public StorageBackend s3StorageBackend(
+            @Value("${document.storage.s3.endpoint}") String endpoint,
+            @Value("${document.storage.s3.region:us-east-1}") String region,
+            @Value("${document.storage.s3.bucket}") String bucket,
+            @Value("${document.storage.s3.access-key}") String accessKey,
+            @Value("${document.storage.s3.secret-key}") String secretKey) {
+        return new S3StorageBackend(URI.create(endpoint), region, bucket, accessKey, secretKey);
+    }
+}
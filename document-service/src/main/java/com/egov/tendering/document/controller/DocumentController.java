@@ -9,22 +9,30 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 
 /**
  * REST controller for document management
@@ -36,6 +44,12 @@ import java.nio.charset.StandardCharsets;
 @Tag(name = "Document Management", description = "API for document management")
 public class DocumentController {
 
+    // Request attributes of Tomcat's sendfile support
+    private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
     private final DocumentService documentService;
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -64,28 +78,101 @@ public class DocumentController {
     @GetMapping("/{id}/download")
     @Operation(summary = "Download a document")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
-    public ResponseEntity<Resource> downloadDocument(
+    public ResponseEntity<StreamingResponseBody> downloadDocument(
             @PathVariable Long id,
             @AuthenticationPrincipal Jwt jwt,
-            HttpServletRequest request
-    ) {
+            HttpServletRequest request,
+            WebRequest webRequest
+    ) throws IOException {
         log.info("REST request to download document: {}", id);
+
+        DocumentDownloadResponse downloadResponse = documentService.getDownload(id);
+
+        // The content checksum is a strong validator: revalidating clients get a 304 and are not logged
+        String eTag = StringUtils.hasText(downloadResponse.getChecksum())
+                ? "\"" + downloadResponse.getChecksum() + "\""
+                : null;
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         String userId = jwt.getSubject();
         String ipAddress = getClientIp(request);
         String userAgent = request.getHeader("User-Agent");
-
-        DocumentDownloadResponse downloadResponse = documentService.downloadDocument(id, userId, ipAddress, userAgent);
-
-        ByteArrayResource resource = new ByteArrayResource(downloadResponse.getContent());
+        documentService.recordDownload(id, userId, ipAddress, userAgent);
 
         String encodedFilename = URLEncoder.encode(downloadResponse.getOriginalFilename(), StandardCharsets.UTF_8)
                 .replace("+", "%20");
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(downloadResponse.getContentType()))
-                .contentLength(downloadResponse.getFileSize())
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" + encodedFilename)
-                .body(resource);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(downloadResponse.getContentType()));
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" + encodedFilename);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (eTag != null) {
+            headers.setETag(eTag);
+        }
+
+        Path filePath = downloadResponse.getFilePath();
+        long fileSize = filePath != null ? Files.size(filePath) : downloadResponse.getFileSize();
+
+        // A Range is only honoured if If-Range, when sent, still matches the current content
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(eTag)) {
+            rangeHeader = null;
+        }
+
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + fileSize)
+                    .build();
+        }
+
+        // Multiple ranges are not served; the whole content is sent instead
+        if (ranges.size() > 1) {
+            ranges = List.of();
+        }
+
+        long start = 0;
+        long end = fileSize - 1;
+        HttpStatus status = HttpStatus.OK;
+
+        if (ranges.size() == 1) {
+            if (fileSize == 0 || ranges.get(0).getRangeStart(fileSize) >= fileSize) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes */" + fileSize)
+                        .build();
+            }
+            start = ranges.get(0).getRangeStart(fileSize);
+            end = ranges.get(0).getRangeEnd(fileSize);
+            status = HttpStatus.PARTIAL_CONTENT;
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + fileSize);
+        }
+        headers.setContentLength(end - start + 1);
+
+        // Let Tomcat send a local file (or a single range of it) with sendfile, bypassing the heap entirely
+        if (filePath != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, filePath.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+            request.setAttribute(SENDFILE_END_ATTRIBUTE, end + 1);
+
+            return ResponseEntity.status(status).headers(headers).build();
+        }
+
+        // Otherwise stream the requested bytes from storage. The body is not a Resource, so Spring
+        // never applies the request's Range header to it again: a 200 here is the whole content
+        InputStream content = documentService.openContent(downloadResponse, start, end - start + 1);
+        StreamingResponseBody body = outputStream -> {
+            try (content) {
+                content.transferTo(outputStream);
+            }
+        };
+        return ResponseEntity.status(status)
+                .headers(headers)
+                .body(body);
     }
 
     @PutMapping("/{id}")
@@ -140,6 +227,15 @@ public class DocumentController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/search/facets")
+    @Operation(summary = "Count documents matching a search by facet")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<DocumentSearchFacets> getSearchFacets(@RequestBody DocumentSearchFilter filter) {
+        log.info("REST request to count search facets with filter: {}", filter);
+        DocumentSearchFacets response = documentService.getSearchFacets(filter);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}/access-logs")
     @Operation(summary = "Get document access logs")
     @PreAuthorize("hasRole('ADMIN')")
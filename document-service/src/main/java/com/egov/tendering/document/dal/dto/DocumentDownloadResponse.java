@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.nio.file.Path;
+
 /**
  * DTO for document download response
  */
@@ -20,5 +22,8 @@ public class DocumentDownloadResponse {
     private String originalFilename;
     private String contentType;
     private Long fileSize;
-    private byte[] content;
+    private String checksum;
+
+    // Local file holding the content, or null when the content is streamed from a remote store
+    private Path filePath;
 }
@@ -0,0 +1,27 @@
+package com.egov.tendering.document.dal.dto;
+
+import com.egov.tendering.document.dal.model.DocumentStatus;
+import com.egov.tendering.document.dal.model.DocumentType;
+import com.egov.tendering.document.dal.model.EntityType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * DTO for the number of documents matching a search, by facet value
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentSearchFacets {
+
+    private long total;
+    private Map<DocumentType, Long> documentTypes;
+    private Map<EntityType, Long> entityTypes;
+    private Map<DocumentStatus, Long> statuses;
+    private Map<Boolean, Long> isPublic;
+}
@@ -0,0 +1,43 @@
+package com.egov.tendering.document.dal.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Entity representing the number of accesses of one type to a document on one day.
+ * Rows are maintained as access logs are written, so popularity queries do not have
+ * to aggregate the access log itself.
+ */
+@Entity
+@Table(name = "document_access_counts", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_access_counts_document_day",
+                columnNames = {"document_id", "access_date", "access_type"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentAccessCount {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long documentId;
+
+    @Column(nullable = false)
+    private LocalDate accessDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AccessType accessType;
+
+    @Column(nullable = false)
+    private Long accessCount;
+}
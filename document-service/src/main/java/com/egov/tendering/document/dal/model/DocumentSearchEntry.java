@@ -0,0 +1,83 @@
+package com.egov.tendering.document.dal.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a document in the full-text search index. Entries copy the searchable
+ * metadata of a document together with the text extracted from its content, and are kept up
+ * to date from document events.
+ */
+@Entity
+@Table(name = "document_search_index")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentSearchEntry {
+
+    @Id
+    private Long documentId;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private String originalFilename;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(columnDefinition = "MEDIUMTEXT")
+    private String content;
+
+    // Whether the content of the current checksum has been extracted, or has no text to extract
+    @Column(nullable = false)
+    private Boolean contentIndexed;
+
+    // Failed extractions of the current checksum's content, and when to try again
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer contentAttempts = 0;
+
+    @Column
+    private LocalDateTime contentRetryAt;
+
+    @Column
+    private String checksum;
+
+    @Column(nullable = false)
+    private String contentType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DocumentType documentType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EntityType entityType;
+
+    @Column(nullable = false)
+    private String entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DocumentStatus status;
+
+    @Column(nullable = false)
+    private Boolean isPublic;
+
+    @Column
+    private String createdBy;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,46 @@
+package com.egov.tendering.document.dal.repository;
+
+import com.egov.tendering.document.dal.model.BlobReference;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the reference counts of stored blobs
+ */
+@Repository
+public interface BlobReferenceRepository extends JpaRepository<BlobReference, String> {
+
+    /**
+     * Add a reference to a blob, creating its counter on first use.
+     * The row stays locked until the transaction ends, which serialises
+     * concurrent stores and releases of the same blob.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO blob_references (hash, size, ref_count, created_at, updated_at) " +
+            "VALUES (:hash, :size, 1, NOW(), NOW()) " +
+            "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1, updated_at = NOW()",
+            nativeQuery = true)
+    int acquire(@Param("hash") String hash, @Param("size") long size);
+
+    /**
+     * Remove a reference to a blob
+     *
+     * @return 1 if a reference was removed, 0 if the blob had none
+     */
+    @Modifying
+    @Query("UPDATE BlobReference b SET b.refCount = b.refCount - 1, b.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE b.hash = :hash AND b.refCount > 0")
+    int release(@Param("hash") String hash);
+
+    /**
+     * Delete the counter of a blob that is no longer referenced
+     *
+     * @return 1 if the counter was deleted, 0 if the blob is still referenced
+     */
+    @Modifying
+    @Query("DELETE FROM BlobReference b WHERE b.hash = :hash AND b.refCount = 0")
+    int deleteIfUnreferenced(@Param("hash") String hash);
+}
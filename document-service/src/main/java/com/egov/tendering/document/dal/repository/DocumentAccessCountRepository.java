@@ -0,0 +1,41 @@
+package com.egov.tendering.document.dal.repository;
+
+import com.egov.tendering.document.dal.model.DocumentAccessCount;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository for daily document access counters
+ */
+@Repository
+public interface DocumentAccessCountRepository extends JpaRepository<DocumentAccessCount, Long> {
+
+    /**
+     * Add to the count of a document's accesses on a day, creating the counter if it does not exist
+     */
+    @Modifying
+    @Query(value = "INSERT INTO document_access_counts (document_id, access_date, access_type, access_count) " +
+            "VALUES (:documentId, :accessDate, :accessType, :count) " +
+            "ON DUPLICATE KEY UPDATE access_count = access_count + :count", nativeQuery = true)
+    int increment(@Param("documentId") Long documentId,
+                  @Param("accessDate") LocalDate accessDate,
+                  @Param("accessType") String accessType,
+                  @Param("count") long count);
+
+    /**
+     * Get popular documents based on number of accesses between two days, inclusive
+     */
+    @Query("SELECT c.documentId, SUM(c.accessCount) AS accessCount FROM DocumentAccessCount c " +
+            "WHERE c.accessDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY c.documentId ORDER BY accessCount DESC")
+    List<Object[]> findPopularDocuments(@Param("startDate") LocalDate startDate,
+                                        @Param("endDate") LocalDate endDate,
+                                        Pageable pageable);
+}
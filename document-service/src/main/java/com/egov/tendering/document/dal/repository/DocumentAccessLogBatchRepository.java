@@ -0,0 +1,18 @@
+package com.egov.tendering.document.dal.repository;
+
+import com.egov.tendering.document.dal.model.DocumentAccessLog;
+
+import java.util.List;
+
+/**
+ * Batch write operations for document access logs
+ */
+public interface DocumentAccessLogBatchRepository {
+
+    /**
+     * Insert access logs with JDBC batching
+     *
+     * @return the number of access logs inserted
+     */
+    int insertAll(List<DocumentAccessLog> accessLogs);
+}
@@ -0,0 +1,35 @@
+package com.egov.tendering.document.dal.repository;
+
+import com.egov.tendering.document.dal.model.DocumentAccessLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * JdbcTemplate implementation of {@link DocumentAccessLogBatchRepository}. DocumentAccessLog uses
+ * IDENTITY IDs, which stops Hibernate from batching inserts, so batches are written with plain JDBC.
+ */
+@RequiredArgsConstructor
+public class DocumentAccessLogBatchRepositoryImpl implements DocumentAccessLogBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO document_access_logs " +
+            "(document_id, user_id, ip_address, access_type, user_agent, accessed_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertAll(List<DocumentAccessLog> accessLogs) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, accessLogs, accessLogs.size(), (ps, accessLog) -> {
+            ps.setLong(1, accessLog.getDocumentId());
+            ps.setString(2, accessLog.getUserId());
+            ps.setString(3, accessLog.getIpAddress());
+            ps.setString(4, accessLog.getAccessType().name());
+            ps.setString(5, accessLog.getUserAgent());
+            ps.setTimestamp(6, Timestamp.valueOf(accessLog.getAccessedAt()));
+        });
+        return accessLogs.size();
+    }
+}
@@ -2,14 +2,18 @@
 package com.egov.tendering.document.dal.repository;
 
 import com.egov.tendering.document.dal.model.*;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -41,9 +45,27 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
     List<Document> findByDocumentTypeAndStatus(DocumentType documentType, DocumentStatus status);
 
     /**
-     * Find all documents that expire before a specific date
+     * Find and lock the next batch of documents that have passed their expiry time, in
+     * (expiresAt, id) order after the given position
      */
-    List<Document> findByExpiresAtBeforeAndStatusNot(LocalDateTime expiryDate, DocumentStatus status);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Document d WHERE d.expiresAt < :now AND d.status NOT IN :excludedStatuses " +
+            "AND (d.expiresAt > :afterExpiresAt OR (d.expiresAt = :afterExpiresAt AND d.id > :afterId)) " +
+            "ORDER BY d.expiresAt, d.id")
+    List<Document> findExpiredBatchForUpdate(@Param("now") LocalDateTime now,
+                                             @Param("excludedStatuses") Collection<DocumentStatus> excludedStatuses,
+                                             @Param("afterExpiresAt") LocalDateTime afterExpiresAt,
+                                             @Param("afterId") Long afterId,
+                                             Pageable pageable);
+
+    /**
+     * Set the status of documents with one statement
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Document d SET d.status = :status, d.updatedAt = :updatedAt WHERE d.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("status") DocumentStatus status,
+                     @Param("updatedAt") LocalDateTime updatedAt);
 
     /**
      * Find all public documents for a specific entity
@@ -0,0 +1,23 @@
+package com.egov.tendering.document.dal.repository;
+
+import com.egov.tendering.document.dal.dto.DocumentSearchFacets;
+import com.egov.tendering.document.dal.dto.DocumentSearchFilter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Full-text queries over the document search index
+ */
+public interface DocumentSearchQueryRepository {
+
+    /**
+     * Find the IDs of the documents matching a filter. Results are ranked by relevance when the
+     * filter has a search term and the page has no explicit sort.
+     */
+    Page<Long> searchDocumentIds(DocumentSearchFilter filter, Pageable pageable);
+
+    /**
+     * Count the documents matching a filter by document type, entity type, status and visibility
+     */
+    DocumentSearchFacets countFacets(DocumentSearchFilter filter);
+}
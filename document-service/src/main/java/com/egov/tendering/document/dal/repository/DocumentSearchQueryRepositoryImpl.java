@@ -0,0 +1,164 @@
+package com.egov.tendering.document.dal.repository;
+
+import com.egov.tendering.document.dal.dto.DocumentSearchFacets;
+import com.egov.tendering.document.dal.dto.DocumentSearchFilter;
+import com.egov.tendering.document.dal.model.DocumentStatus;
+import com.egov.tendering.document.dal.model.DocumentType;
+import com.egov.tendering.document.dal.model.EntityType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+
+/**
+ * JdbcTemplate implementation of {@link DocumentSearchQueryRepository} using the MySQL full-text
+ * index on document_search_index. Search terms are matched in boolean mode, every word required
+ * and matched as a prefix, and ranked in natural language mode.
+ */
+@RequiredArgsConstructor
+public class DocumentSearchQueryRepositoryImpl implements DocumentSearchQueryRepository {
+
+    private static final String MATCH = "MATCH(name, original_filename, description, content)";
+
+    // InnoDB does not index words shorter than innodb_ft_min_token_size, so requiring them would match nothing
+    private static final int MIN_WORD_LENGTH = 3;
+
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "document_id",
+            "name", "name",
+            "documentType", "document_type",
+            "createdAt", "created_at",
+            "updatedAt", "updated_at"
+    );
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Page<Long> searchDocumentIds(DocumentSearchFilter filter, Pageable pageable) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String where = buildWhereClause(filter, params);
+
+        StringBuilder sql = new StringBuilder("SELECT document_id FROM document_search_index")
+                .append(where)
+                .append(buildOrderByClause(pageable.getSort(), params.hasValue("terms")));
+        if (pageable.isPaged()) {
+            sql.append(" LIMIT :limit OFFSET :offset");
+            params.addValue("limit", pageable.getPageSize());
+            params.addValue("offset", pageable.getOffset());
+        }
+
+        List<Long> documentIds = jdbcTemplate.queryForList(sql.toString(), params, Long.class);
+        return PageableExecutionUtils.getPage(documentIds, pageable, () -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM document_search_index" + where, params, Long.class));
+    }
+
+    @Override
+    public DocumentSearchFacets countFacets(DocumentSearchFilter filter) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String where = buildWhereClause(filter, params);
+
+        Map<DocumentStatus, Long> statuses = countBy("status", where, params,
+                (rs, rowNum) -> DocumentStatus.valueOf(rs.getString(1)));
+
+        return DocumentSearchFacets.builder()
+                .total(statuses.values().stream().mapToLong(Long::longValue).sum())
+                .documentTypes(countBy("document_type", where, params, (rs, rowNum) -> DocumentType.valueOf(rs.getString(1))))
+                .entityTypes(countBy("entity_type", where, params, (rs, rowNum) -> EntityType.valueOf(rs.getString(1))))
+                .statuses(statuses)
+                .isPublic(countBy("is_public", where, params, (rs, rowNum) -> rs.getBoolean(1)))
+                .build();
+    }
+
+    private <K> Map<K, Long> countBy(String column, String where, MapSqlParameterSource params, RowMapper<K> keyMapper) {
+        String sql = "SELECT " + column + ", COUNT(*) FROM document_search_index" + where +
+                " GROUP BY " + column + " ORDER BY COUNT(*) DESC";
+        Map<K, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, params, rs -> {
+            counts.put(keyMapper.mapRow(rs, 0), rs.getLong(2));
+        });
+        return counts;
+    }
+
+    private String buildWhereClause(DocumentSearchFilter filter, MapSqlParameterSource params) {
+        List<String> conditions = new ArrayList<>();
+
+        String booleanQuery = toBooleanQuery(filter.getSearchTerm());
+        if (booleanQuery != null) {
+            conditions.add(MATCH + " AGAINST (:query IN BOOLEAN MODE)");
+            params.addValue("query", booleanQuery);
+            params.addValue("terms", filter.getSearchTerm());
+        } else if (StringUtils.hasText(filter.getSearchTerm())) {
+            // Only words too short for the full-text index: fall back to matching the name
+            conditions.add("name LIKE :namePattern");
+            params.addValue("namePattern", "%" + escapeLike(filter.getSearchTerm().trim()) + "%");
+        }
+        if (filter.getEntityType() != null) {
+            conditions.add("entity_type = :entityType");
+            params.addValue("entityType", filter.getEntityType().name());
+        }
+        if (StringUtils.hasText(filter.getEntityId())) {
+            conditions.add("entity_id = :entityId");
+            params.addValue("entityId", filter.getEntityId());
+        }
+        if (filter.getDocumentType() != null) {
+            conditions.add("document_type = :documentType");
+            params.addValue("documentType", filter.getDocumentType().name());
+        }
+        if (filter.getIsPublic() != null) {
+            conditions.add("is_public = :isPublic");
+            params.addValue("isPublic", filter.getIsPublic());
+        }
+        if (StringUtils.hasText(filter.getCreatedBy())) {
+            conditions.add("created_by = :createdBy");
+            params.addValue("createdBy", filter.getCreatedBy());
+        }
+
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private String buildOrderByClause(Sort sort, boolean ranked) {
+        List<String> orders = new ArrayList<>();
+        if (sort.isSorted()) {
+            for (Sort.Order order : sort) {
+                String column = SORT_COLUMNS.get(order.getProperty());
+                if (column != null) {
+                    orders.add(column + (order.isAscending() ? " ASC" : " DESC"));
+                }
+            }
+        }
+        if (orders.isEmpty()) {
+            orders.add(ranked ? MATCH + " AGAINST (:terms IN NATURAL LANGUAGE MODE) DESC" : "created_at DESC");
+        }
+        // Keep pages stable when sort values tie
+        orders.add("document_id DESC");
+        return " ORDER BY " + String.join(", ", orders);
+    }
+
+    /**
+     * Turns free text into a boolean mode query requiring every word as a prefix, dropping the
+     * operators and punctuation a user might type
+     */
+    private static String toBooleanQuery(String searchTerm) {
+        if (!StringUtils.hasText(searchTerm)) {
+            return null;
+        }
+        StringJoiner query = new StringJoiner(" ");
+        for (String word : searchTerm.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}_]+")) {
+            if (word.length() >= MIN_WORD_LENGTH) {
+                query.add("+" + word + "*");
+            }
+        }
+        return query.length() == 0 ? null : query.toString();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,41 @@
+package com.egov.tendering.document.dal.repository;
+
+import com.egov.tendering.document.dal.model.DocumentSearchEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for the document search index
+ */
+@Repository
+public interface DocumentSearchRepository extends JpaRepository<DocumentSearchEntry, Long>, DocumentSearchQueryRepository {
+
+    /**
+     * Find entries whose content has not been extracted yet and is due for an attempt
+     */
+    @Query("SELECT e.documentId FROM DocumentSearchEntry e WHERE e.contentIndexed = false " +
+            "AND (e.contentRetryAt IS NULL OR e.contentRetryAt <= :now) ORDER BY e.documentId")
+    List<Long> findDocumentIdsWithPendingContent(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Record a failed extraction of an entry's content
+     *
+     * @param retryAt when to try again
+     * @param giveUp  whether to stop trying and keep the entry indexed without text
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE DocumentSearchEntry e SET e.contentAttempts = e.contentAttempts + 1, e.contentRetryAt = :retryAt, " +
+            "e.contentIndexed = :giveUp WHERE e.documentId = :documentId AND e.contentIndexed = false")
+    int recordContentFailure(@Param("documentId") Long documentId,
+                             @Param("retryAt") LocalDateTime retryAt,
+                             @Param("giveUp") boolean giveUp);
+}
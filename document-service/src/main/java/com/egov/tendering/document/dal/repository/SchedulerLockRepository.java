@@ -0,0 +1,54 @@
+package com.egov.tendering.document.dal.repository;
+
+import com.egov.tendering.document.dal.model.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for scheduled job leases. Lease times use the database clock, so instances with
+ * skewed clocks still agree on when a lease runs out.
+ */
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    /**
+     * Take a lease that has never been taken
+     *
+     * @return 1 if the lease was taken
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO scheduler_locks (name, locked_until, locked_at, locked_by) " +
+            "VALUES (:name, TIMESTAMPADD(MICROSECOND, :millis * 1000, NOW(3)), NOW(3), :owner)", nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name, @Param("millis") long millis, @Param("owner") String owner);
+
+    /**
+     * Take a lease whose holder released it or let it run out
+     *
+     * @return 1 if the lease was taken
+     */
+    @Modifying
+    @Query(value = "UPDATE scheduler_locks SET locked_until = TIMESTAMPADD(MICROSECOND, :millis * 1000, NOW(3)), " +
+            "locked_at = NOW(3), locked_by = :owner WHERE name = :name AND locked_until <= NOW(3)", nativeQuery = true)
+    int takeIfExpired(@Param("name") String name, @Param("millis") long millis, @Param("owner") String owner);
+
+    /**
+     * Extend a lease held by the owner
+     *
+     * @return 1 if the owner still holds the lease
+     */
+    @Modifying
+    @Query(value = "UPDATE scheduler_locks SET locked_until = TIMESTAMPADD(MICROSECOND, :millis * 1000, NOW(3)) " +
+            "WHERE name = :name AND locked_by = :owner", nativeQuery = true)
+    int extend(@Param("name") String name, @Param("millis") long millis, @Param("owner") String owner);
+
+    /**
+     * Release a lease held by the owner
+     */
+    @Modifying
+    @Query(value = "UPDATE scheduler_locks SET locked_until = NOW(3) WHERE name = :name AND locked_by = :owner",
+            nativeQuery = true)
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
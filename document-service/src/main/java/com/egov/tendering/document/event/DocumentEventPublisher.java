@@ -7,8 +7,11 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -64,6 +67,20 @@ public class DocumentEventPublisher {
         publishEvent(event, "document-expired");
     }
 
+    /**
+     * Publish document expired events for a batch of documents, flushing them to Kafka together
+     */
+    public void publishDocumentExpiredEvents(List<Document> documents) {
+        List<DocumentEvent> events = documents.stream()
+                .map(document -> buildDocumentEvent(document, DocumentEventType.EXPIRED, "system"))
+                .toList();
+        runAfterCommit(() -> {
+            log.info("Publishing {} document-expired events", events.size());
+            events.forEach(event -> sendEvent(event, "document-expired"));
+            kafkaTemplate.flush();
+        });
+    }
+
     /**
      * Publish document verified event
      */
@@ -101,8 +118,33 @@ public class DocumentEventPublisher {
      * Publish event to Kafka
      */
     private void publishEvent(DocumentEvent event, String eventDescription) {
-        log.info("Publishing {} event for document: {}", eventDescription, event.getDocumentId());
+        runAfterCommit(() -> {
+            log.info("Publishing {} event for document: {}", eventDescription, event.getDocumentId());
+            sendEvent(event, eventDescription);
+        });
+    }
+
+    /**
+     * Run an action once the surrounding transaction has committed if there is one, so consumers
+     * reading a document back see the change its event is about
+     */
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
 
+    /**
+     * Send event to Kafka
+     */
+    private void sendEvent(DocumentEvent event, String eventDescription) {
         try {
             CompletableFuture<SendResult<String, DocumentEvent>> future = kafkaTemplate.send(
                     documentEventsTopic,
@@ -1,8 +1,10 @@
 package com.egov.tendering.document.scheduler;
 
-import com.egov.tendering.document.service.DocumentService;
+import com.egov.tendering.document.service.DocumentExpiryService;
+import com.egov.tendering.document.service.DocumentSearchIndexer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
@@ -14,15 +16,30 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class DocumentScheduler {
 
-    private final DocumentService documentService;
+    private final DocumentExpiryService expiryService;
+    private final DocumentSearchIndexer searchIndexer;
+
+    @Value("${document.search.content-batch-size:100}")
+    private int contentBatchSize;
 
     /**
-     * Process expired documents daily at midnight
+     * Process expired documents daily at midnight, on one instance at a time
      */
     @Scheduled(cron = "${document.expiry.cron:0 0 0 * * ?}")
     public void processExpiredDocuments() {
         log.info("Starting scheduled task: Process expired documents");
-        documentService.processExpiredDocuments();
+        expiryService.processExpiredDocuments();
         log.info("Completed scheduled task: Process expired documents");
     }
-}
\ No newline at end of file
+
+    /**
+     * Extract the text of documents whose search index entry does not have it yet
+     */
+    @Scheduled(fixedDelayString = "${document.search.content-interval:300000}")
+    public void indexPendingContent() {
+        int indexed = searchIndexer.indexPendingContent(contentBatchSize);
+        if (indexed > 0) {
+            log.info("Indexed the content of {} documents", indexed);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.egov.tendering.document.service;
+
+import com.egov.tendering.common.storage.ContentAddressedBlobStore;
+import com.egov.tendering.common.storage.StorageBackend;
+import com.egov.tendering.document.dal.repository.BlobReferenceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Service storing document content once per distinct SHA-256 hash.
+ * <p>
+ * Documents with identical content share one blob in the configured {@link StorageBackend},
+ * and {@code blob_references} counts how many documents use each blob. The counter is
+ * updated in the caller's transaction. An upload is written to a staging object while it is
+ * hashed and only promoted to a blob if no identical blob is stored yet. A blob whose last
+ * reference is released is deleted once the caller's transaction has committed.
+ */
+@Service
+@Slf4j
+public class BlobStorageService {
+
+    private static final String BLOB_PATH_PREFIX = "blobs/";
+
+    private final ContentAddressedBlobStore blobStore;
+    private final BlobReferenceRepository blobReferenceRepository;
+    private final TransactionTemplate newTransaction;
+
+    public BlobStorageService(BlobReferenceRepository blobReferenceRepository,
+                              StorageBackend storageBackend,
+                              PlatformTransactionManager transactionManager) {
+        this.blobReferenceRepository = blobReferenceRepository;
+        this.blobStore = new ContentAddressedBlobStore(storageBackend);
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Store the content of an upload and add a reference to it
+     *
+     * @return the SHA-256 checksum of the content as lowercase hex
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String store(MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream();
+             ContentAddressedBlobStore.StagedBlob staged = blobStore.stage(in, file.getSize())) {
+            String hash = staged.hash();
+
+            // Take the reference before looking for the blob, so a concurrent release of the
+            // last reference cannot delete the blob after we decided to reuse it
+            blobReferenceRepository.acquire(hash, file.getSize());
+
+            if (blobStore.contains(hash)) {
+                log.debug("Reusing stored blob {} for {}", hash, file.getOriginalFilename());
+            } else {
+                staged.promote();
+            }
+            return hash;
+        }
+    }
+
+    /**
+     * Remove a reference to a blob. When nothing else uses the blob, it is deleted after the
+     * caller's transaction commits, so a rollback never leaves a document without its content.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(String hash) {
+        if (blobReferenceRepository.release(hash) == 0) {
+            log.warn("Blob {} has no references to release", hash);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deleteIfUnreferenced(hash);
+            }
+        });
+    }
+
+    // Deleting the counter row locks it until the blob is gone, so a concurrent store of the
+    // same content waits and then writes the blob again. If the blob cannot be deleted the
+    // counter stays at zero, and the next store of that content reuses the blob.
+    private void deleteIfUnreferenced(String hash) {
+        try {
+            newTransaction.executeWithoutResult(status -> {
+                if (blobReferenceRepository.deleteIfUnreferenced(hash) == 1) {
+                    try {
+                        blobStore.delete(hash);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to delete unreferenced blob {}", hash, e);
+        }
+    }
+
+    /**
+     * Open part of a blob for reading; the caller closes the stream
+     */
+    public InputStream openRange(String hash, long offset, long length) throws IOException {
+        return blobStore.openRange(hash, offset, length);
+    }
+
+    /**
+     * Get the local file holding a blob, when the storage backend keeps content on this node
+     */
+    public Optional<Path> getLocalPath(String hash) throws IOException {
+        return blobStore.localPath(hash);
+    }
+
+    /**
+     * Get the storage path recorded on documents whose content is the given blob
+     */
+    public String getStoragePath(String hash) {
+        return BLOB_PATH_PREFIX + hash;
+    }
+
+    /**
+     * Check whether a document storage path points at a shared blob
+     */
+    public boolean isBlobPath(String storagePath, String hash) {
+        return ContentAddressedBlobStore.isHash(hash) && getStoragePath(hash).equals(storagePath);
+    }
+}
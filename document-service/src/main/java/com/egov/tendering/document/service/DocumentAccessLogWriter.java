@@ -0,0 +1,223 @@
+package com.egov.tendering.document.service;
+
+import com.egov.tendering.document.dal.model.AccessType;
+import com.egov.tendering.document.dal.model.Document;
+import com.egov.tendering.document.dal.model.DocumentAccessLog;
+import com.egov.tendering.document.dal.repository.DocumentAccessCountRepository;
+import com.egov.tendering.document.dal.repository.DocumentAccessLogRepository;
+import com.egov.tendering.document.dal.repository.DocumentRepository;
+import com.egov.tendering.document.event.DocumentEventPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes document access logs in the background.
+ * <p>
+ * Requests hand their access log to a bounded ring buffer and return immediately. A single writer
+ * thread drains the buffer and writes each batch with one JDBC batch insert, updates the daily
+ * access counters for the batch, and then publishes the downloaded events. When the buffer is full
+ * a request waits briefly for space and, failing that, writes its own entry, so a burst slows
+ * requests down to the rate the database can absorb instead of dropping entries. The writer stops
+ * after the web server during shutdown and flushes everything still buffered.
+ */
+@Component
+@Slf4j
+public class DocumentAccessLogWriter implements SmartLifecycle {
+
+    private static final long POLL_TIMEOUT_MILLIS = 200;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MILLIS = 1000;
+
+    private final DocumentAccessLogRepository accessLogRepository;
+    private final DocumentAccessCountRepository accessCountRepository;
+    private final DocumentRepository documentRepository;
+    private final DocumentEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final BlockingQueue<DocumentAccessLog> buffer;
+    private final int batchSize;
+    private final Duration offerTimeout;
+    private final Duration shutdownTimeout;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public DocumentAccessLogWriter(DocumentAccessLogRepository accessLogRepository,
+                                   DocumentAccessCountRepository accessCountRepository,
+                                   DocumentRepository documentRepository,
+                                   DocumentEventPublisher eventPublisher,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${document.access-log.buffer-size:10000}") int bufferSize,
+                                   @Value("${document.access-log.batch-size:500}") int batchSize,
+                                   @Value("${document.access-log.offer-timeout:50ms}") Duration offerTimeout,
+                                   @Value("${document.access-log.shutdown-timeout:10s}") Duration shutdownTimeout) {
+        this.accessLogRepository = accessLogRepository;
+        this.accessCountRepository = accessCountRepository;
+        this.documentRepository = documentRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.batchSize = batchSize;
+        this.offerTimeout = offerTimeout;
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    /**
+     * Record an access log, normally without waiting for the database
+     */
+    public void record(DocumentAccessLog accessLog) {
+        if (running) {
+            try {
+                if (buffer.offer(accessLog, offerTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            log.debug("Access log buffer is full, writing access to document {} directly", accessLog.getDocumentId());
+        }
+        write(List.of(accessLog), false);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::run, "document-access-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Started document access log writer with buffer size {}", buffer.remainingCapacity());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writerThread.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            log.warn("Document access log writer did not finish within {}; {} access logs were not written",
+                    shutdownTimeout, buffer.size());
+        } else {
+            log.info("Stopped document access log writer");
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stop after the web server has stopped taking requests, and start before it
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void run() {
+        List<DocumentAccessLog> batch = new ArrayList<>(batchSize);
+        // Keep draining after stop() until the buffer is empty
+        while (running || !buffer.isEmpty()) {
+            try {
+                DocumentAccessLog first = buffer.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                write(batch, true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Write a batch of access logs and their counters in one transaction, then publish the
+     * downloaded events. The writer thread retries a failed batch a few times while running.
+     */
+    private void write(List<DocumentAccessLog> batch, boolean retry) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    accessLogRepository.insertAll(batch);
+                    countAccesses(batch).forEach((key, count) -> accessCountRepository.increment(
+                            (Long) key.get(0), (LocalDate) key.get(1), ((AccessType) key.get(2)).name(), count));
+                });
+                break;
+            } catch (RuntimeException e) {
+                if (!retry || !running || attempt >= MAX_ATTEMPTS) {
+                    log.error("Failed to write {} document access logs", batch.size(), e);
+                    return;
+                }
+                log.warn("Failed to write {} document access logs, retrying (attempt {} of {})",
+                        batch.size(), attempt, MAX_ATTEMPTS, e);
+                try {
+                    Thread.sleep(RETRY_DELAY_MILLIS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        publishDownloadedEvents(batch);
+    }
+
+    private Map<List<Object>, Long> countAccesses(List<DocumentAccessLog> batch) {
+        Map<List<Object>, Long> counts = new HashMap<>();
+        for (DocumentAccessLog accessLog : batch) {
+            List<Object> key = List.of(accessLog.getDocumentId(), accessLog.getAccessedAt().toLocalDate(), accessLog.getAccessType());
+            counts.merge(key, 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    private void publishDownloadedEvents(List<DocumentAccessLog> batch) {
+        List<DocumentAccessLog> downloads = batch.stream()
+                .filter(accessLog -> accessLog.getAccessType() == AccessType.DOWNLOAD)
+                .toList();
+        if (downloads.isEmpty()) {
+            return;
+        }
+
+        try {
+            Set<Long> documentIds = downloads.stream().map(DocumentAccessLog::getDocumentId).collect(Collectors.toSet());
+            Map<Long, Document> documents = documentRepository.findAllById(documentIds).stream()
+                    .collect(Collectors.toMap(Document::getId, Function.identity()));
+
+            for (DocumentAccessLog download : downloads) {
+                Document document = documents.get(download.getDocumentId());
+                if (document != null) {
+                    eventPublisher.publishDocumentDownloadedEvent(document, download.getUserId());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to publish downloaded events for {} document accesses", downloads.size(), e);
+        }
+    }
+}
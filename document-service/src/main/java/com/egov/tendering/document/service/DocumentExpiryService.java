@@ -0,0 +1,121 @@
+package com.egov.tendering.document.service;
+
+import com.egov.tendering.document.dal.model.Document;
+import com.egov.tendering.document.dal.model.DocumentStatus;
+import com.egov.tendering.document.dal.repository.DocumentRepository;
+import com.egov.tendering.document.event.DocumentEventPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Service marking documents as expired once their expiry time has passed.
+ * <p>
+ * Documents are expired in chunks, walking the expiry index in (expiresAt, id) order. Each chunk
+ * is locked, updated with one statement and committed in its own short transaction, and its
+ * expired events are published together after the commit. The job holds a lease so that only
+ * one instance runs it at a time, and extends the lease after every chunk.
+ */
+@Service
+@Slf4j
+public class DocumentExpiryService {
+
+    private static final String EXPIRY_LOCK = "document-expiry";
+    private static final Set<DocumentStatus> EXCLUDED_STATUSES = EnumSet.of(DocumentStatus.EXPIRED, DocumentStatus.DELETED);
+
+    // Before any TIMESTAMP value, so the first chunk starts at the beginning of the index
+    private static final LocalDateTime START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final DocumentRepository documentRepository;
+    private final DocumentEventPublisher eventPublisher;
+    private final SchedulerLockService lockService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Duration lockDuration;
+
+    public DocumentExpiryService(DocumentRepository documentRepository,
+                                 DocumentEventPublisher eventPublisher,
+                                 SchedulerLockService lockService,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${document.expiry.chunk-size:500}") int chunkSize,
+                                 @Value("${document.expiry.lock-duration:10m}") Duration lockDuration) {
+        this.documentRepository = documentRepository;
+        this.eventPublisher = eventPublisher;
+        this.lockService = lockService;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.lockDuration = lockDuration;
+    }
+
+    /**
+     * Process expired documents, unless another instance is already doing so
+     *
+     * @return the number of documents expired
+     */
+    public int processExpiredDocuments() {
+        if (!lockService.tryLock(EXPIRY_LOCK, lockDuration)) {
+            log.info("Skipping expired document processing, another instance is running it");
+            return 0;
+        }
+
+        try {
+            log.info("Processing expired documents");
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime afterExpiresAt = START;
+            Long afterId = 0L;
+            int total = 0;
+
+            while (true) {
+                List<Document> expired = expireChunk(now, afterExpiresAt, afterId);
+                if (expired.isEmpty()) {
+                    break;
+                }
+                total += expired.size();
+
+                Document last = expired.get(expired.size() - 1);
+                afterExpiresAt = last.getExpiresAt();
+                afterId = last.getId();
+
+                if (!lockService.extendLock(EXPIRY_LOCK, lockDuration)) {
+                    log.warn("Lost the lease on expired document processing after {} documents, stopping", total);
+                    return total;
+                }
+            }
+
+            log.info("Processed {} expired documents", total);
+            return total;
+        } finally {
+            lockService.unlock(EXPIRY_LOCK);
+        }
+    }
+
+    /**
+     * Expire the next chunk of documents in one transaction
+     *
+     * @return the documents expired, in (expiresAt, id) order
+     */
+    private List<Document> expireChunk(LocalDateTime now, LocalDateTime afterExpiresAt, Long afterId) {
+        return transactionTemplate.execute(status -> {
+            List<Document> documents = documentRepository.findExpiredBatchForUpdate(
+                    now, EXCLUDED_STATUSES, afterExpiresAt, afterId, PageRequest.of(0, chunkSize));
+            if (documents.isEmpty()) {
+                return documents;
+            }
+
+            documentRepository.updateStatus(documents.stream().map(Document::getId).toList(), DocumentStatus.EXPIRED, now);
+
+            // The update detached the documents, so this only shapes the events
+            documents.forEach(document -> document.setStatus(DocumentStatus.EXPIRED));
+            eventPublisher.publishDocumentExpiredEvents(documents);
+            return documents;
+        });
+    }
+}
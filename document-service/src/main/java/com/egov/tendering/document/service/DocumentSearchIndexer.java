@@ -0,0 +1,173 @@
+package com.egov.tendering.document.service;
+
+import com.egov.tendering.document.dal.dto.DocumentDownloadResponse;
+import com.egov.tendering.document.dal.model.Document;
+import com.egov.tendering.document.dal.model.DocumentSearchEntry;
+import com.egov.tendering.document.dal.repository.DocumentRepository;
+import com.egov.tendering.document.dal.repository.DocumentSearchRepository;
+import com.egov.tendering.document.event.DocumentEvent;
+import com.egov.tendering.document.event.DocumentEventType;
+import com.egov.tendering.document.exception.DocumentStorageException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Keeps the document search index up to date.
+ * <p>
+ * Every document event re-reads the document and rewrites its index entry, so events can be
+ * replayed or arrive more than once. The text of a document's content is extracted only when its
+ * checksum changes; entries whose text is still missing, such as those created by the index
+ * migration, are picked up by {@link #indexPendingContent(int)}. Content that cannot be read is
+ * tried again after a delay that doubles with every attempt, and indexed without text once the
+ * attempts run out.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentSearchIndexer {
+
+    private final DocumentRepository documentRepository;
+    private final DocumentSearchRepository searchRepository;
+    private final DocumentService documentService;
+    private final DocumentTextExtractor textExtractor;
+
+    @Value("${document.search.content-retry-delay:15m}")
+    private Duration contentRetryDelay;
+
+    @Value("${document.search.content-max-attempts:8}")
+    private int contentMaxAttempts;
+
+    /**
+     * Update the index entry of the document an event is about
+     */
+    @KafkaListener(
+            topics = "${kafka.topics.document-events}",
+            groupId = "${document.search.consumer-group:document-search-indexer}",
+            containerFactory = "documentEventKafkaListenerContainerFactory"
+    )
+    public void handleDocumentEvent(DocumentEvent event) {
+        if (event.getEventType() == DocumentEventType.DOWNLOADED) {
+            return;
+        }
+        log.debug("Indexing document {} after {} event", event.getDocumentId(), event.getEventType());
+        try {
+            indexDocument(event.getDocumentId());
+        } catch (DocumentStorageException e) {
+            // The metadata is indexed; the content is read again by the catch-up pass
+            log.error("Failed to read content of document {}", event.getDocumentId(), e);
+            recordFailure(event.getDocumentId());
+        }
+    }
+
+    /**
+     * Create, update or remove the index entry of a document
+     */
+    public void indexDocument(Long documentId) {
+        Optional<Document> found = documentRepository.findByIdAndNotDeleted(documentId);
+        if (found.isEmpty()) {
+            searchRepository.findById(documentId).ifPresent(searchRepository::delete);
+            return;
+        }
+
+        Document document = found.get();
+        DocumentSearchEntry entry = searchRepository.findById(documentId)
+                .orElseGet(() -> DocumentSearchEntry.builder().documentId(documentId).build());
+
+        if (entry.getContentIndexed() == null || !Objects.equals(entry.getChecksum(), document.getChecksum())) {
+            entry.setContent(null);
+            entry.setContentIndexed(!textExtractor.supports(
+                    document.getContentType(), document.getFileExtension(), document.getFileSize()));
+            entry.setContentAttempts(0);
+            entry.setContentRetryAt(null);
+        }
+        entry.setName(document.getName());
+        entry.setOriginalFilename(document.getOriginalFilename());
+        entry.setDescription(document.getDescription());
+        entry.setChecksum(document.getChecksum());
+        entry.setContentType(document.getContentType());
+        entry.setDocumentType(document.getDocumentType());
+        entry.setEntityType(document.getEntityType());
+        entry.setEntityId(document.getEntityId());
+        entry.setStatus(document.getStatus());
+        entry.setIsPublic(Boolean.TRUE.equals(document.getIsPublic()));
+        entry.setCreatedBy(document.getCreatedBy());
+        entry.setCreatedAt(document.getCreatedAt());
+        entry.setUpdatedAt(document.getUpdatedAt());
+
+        if (!entry.getContentIndexed()) {
+            // Saved before the content is read, so a document whose content cannot be read yet is
+            // found by its metadata and picked up by indexPendingContent
+            entry = searchRepository.save(entry);
+            entry.setContent(extractText(document));
+            entry.setContentIndexed(true);
+        }
+
+        searchRepository.save(entry);
+    }
+
+    /**
+     * Extract the text of index entries that do not have it yet
+     *
+     * @return the number of entries processed
+     */
+    public int indexPendingContent(int batchSize) {
+        List<Long> documentIds = searchRepository.findDocumentIdsWithPendingContent(
+                LocalDateTime.now(), PageRequest.of(0, batchSize));
+        for (Long documentId : documentIds) {
+            try {
+                indexDocument(documentId);
+            } catch (RuntimeException e) {
+                log.error("Failed to index content of document {}", documentId, e);
+                recordFailure(documentId);
+            }
+        }
+        return documentIds.size();
+    }
+
+    // Keep a failing entry out of the next batches until its retry is due
+    private void recordFailure(Long documentId) {
+        int attempts = searchRepository.findById(documentId)
+                .map(entry -> entry.getContentAttempts() + 1)
+                .orElse(1);
+        boolean giveUp = attempts >= contentMaxAttempts;
+        LocalDateTime retryAt = LocalDateTime.now().plus(contentRetryDelay.multipliedBy(1L << Math.min(attempts - 1, 20)));
+        if (giveUp) {
+            log.warn("Giving up on the content of document {} after {} attempts, indexing its metadata only",
+                    documentId, attempts);
+        }
+        searchRepository.recordContentFailure(documentId, retryAt, giveUp);
+    }
+
+    /**
+     * Read a document's content and extract its text. Content that cannot be parsed is indexed
+     * without text; content that cannot be read fails, so the document is indexed again later.
+     */
+    private String extractText(Document document) {
+        byte[] content;
+        DocumentDownloadResponse download = documentService.getDownload(document.getId());
+        try (InputStream in = documentService.openContent(download, 0, download.getFileSize())) {
+            content = in.readAllBytes();
+        } catch (IOException e) {
+            throw new DocumentStorageException("Failed to read document file: " + document.getStoragePath(), e);
+        }
+
+        try {
+            return textExtractor.extractText(content);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not extract text from document {}, indexing its metadata only", document.getId(), e);
+            return null;
+        }
+    }
+}
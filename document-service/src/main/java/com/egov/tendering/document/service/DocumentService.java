@@ -1,5 +1,6 @@
 package com.egov.tendering.document.service;
 
+import com.egov.tendering.common.storage.BoundedInputStream;
 import com.egov.tendering.document.dal.dto.*;
 import com.egov.tendering.document.dal.mapper.DocumentMapper;
 import com.egov.tendering.document.dal.model.AccessType;
@@ -8,6 +9,7 @@ import com.egov.tendering.document.dal.model.DocumentAccessLog;
 import com.egov.tendering.document.dal.model.DocumentStatus;
 import com.egov.tendering.document.dal.repository.DocumentAccessLogRepository;
 import com.egov.tendering.document.dal.repository.DocumentRepository;
+import com.egov.tendering.document.dal.repository.DocumentSearchRepository;
 import com.egov.tendering.document.event.DocumentEventPublisher;
 import com.egov.tendering.document.exception.DocumentNotFoundException;
 import com.egov.tendering.document.exception.DocumentStorageException;
@@ -15,22 +17,23 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service for managing documents
@@ -42,8 +45,11 @@ public class DocumentService {
 
     private final DocumentRepository documentRepository;
     private final DocumentAccessLogRepository accessLogRepository;
+    private final DocumentSearchRepository searchRepository;
     private final DocumentMapper documentMapper;
     private final DocumentEventPublisher eventPublisher;
+    private final BlobStorageService blobStorageService;
+    private final DocumentAccessLogWriter accessLogWriter;
 
     @Value("${document.storage.location}")
     private String storageLocation;
@@ -59,17 +65,9 @@ public class DocumentService {
         log.info("Uploading document: {}", request.getName());
 
         try {
-            // Create storage path
-            String filename = generateUniqueFilename(file.getOriginalFilename());
-            String storagePath = createStoragePath(filename);
-
-            // Save file
-            Path targetLocation = Paths.get(storageLocation).resolve(storagePath);
-            Files.createDirectories(targetLocation.getParent());
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-
-            // Calculate checksum
-            String checksum = calculateChecksum(file);
+            // Store the content, reusing the blob of an identical earlier upload
+            String checksum = blobStorageService.store(file);
+            String storagePath = blobStorageService.getStoragePath(checksum);
 
             // Create document entity
             Document document = Document.builder()
@@ -124,46 +122,84 @@ public class DocumentService {
     /**
      * Download a document
      */
-    @Transactional
+    @Transactional(readOnly = true)
     public DocumentDownloadResponse downloadDocument(Long id, String userId, String ipAddress, String userAgent) {
+        DocumentDownloadResponse download = getDownload(id);
+        recordDownload(id, userId, ipAddress, userAgent);
+        return download;
+    }
+
+    /**
+     * Locate the stored content of a document for streaming, without recording an access
+     */
+    @Transactional(readOnly = true)
+    public DocumentDownloadResponse getDownload(Long id) {
         log.info("Downloading document with ID: {}", id);
 
         Document document = findDocumentById(id);
 
-        // Log the download
-        DocumentAccessLog accessLog = DocumentAccessLog.builder()
-                .documentId(document.getId())
-                .userId(userId)
-                .ipAddress(ipAddress)
-                .userAgent(userAgent)
-                .accessType(AccessType.DOWNLOAD)
-                .build();
-
-        accessLogRepository.save(accessLog);
-
-        // Get file content
-        byte[] content;
-        try {
-            Path filePath = Paths.get(storageLocation).resolve(document.getStoragePath());
-            content = Files.readAllBytes(filePath);
-        } catch (IOException e) {
-            log.error("Failed to read document file", e);
-            throw new DocumentStorageException("Failed to read document file: " + e.getMessage());
+        Path filePath;
+        if (blobStorageService.isBlobPath(document.getStoragePath(), document.getChecksum())) {
+            // Content held in a remote store has no local file and is streamed from the store
+            try {
+                filePath = blobStorageService.getLocalPath(document.getChecksum()).orElse(null);
+            } catch (IOException e) {
+                log.error("Document content is missing or unreadable: {}", document.getStoragePath(), e);
+                throw new DocumentStorageException("Failed to read document file: " + document.getStoragePath(), e);
+            }
+        } else {
+            filePath = Paths.get(storageLocation).resolve(document.getStoragePath());
+            if (!Files.isReadable(filePath)) {
+                log.error("Document file is missing or unreadable: {}", filePath);
+                throw new DocumentStorageException("Failed to read document file: " + document.getStoragePath());
+            }
         }
 
-        // Publish document downloaded event
-        eventPublisher.publishDocumentDownloadedEvent(document, userId);
-
         return DocumentDownloadResponse.builder()
                 .documentId(document.getId())
                 .name(document.getName())
                 .originalFilename(document.getOriginalFilename())
                 .contentType(document.getContentType())
                 .fileSize(document.getFileSize())
-                .content(content)
+                .checksum(document.getChecksum())
+                .filePath(filePath)
                 .build();
     }
 
+    /**
+     * Open part of a document's content for streaming; the caller closes the stream
+     */
+    public InputStream openContent(DocumentDownloadResponse download, long offset, long length) throws IOException {
+        if (download.getFilePath() == null) {
+            return blobStorageService.openRange(download.getChecksum(), offset, length);
+        }
+        InputStream in = Files.newInputStream(download.getFilePath());
+        try {
+            in.skipNBytes(offset);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return new BoundedInputStream(in, length);
+    }
+
+    /**
+     * Log a download of a document; the access log is written and the downloaded event published
+     * in the background
+     */
+    public void recordDownload(Long id, String userId, String ipAddress, String userAgent) {
+        DocumentAccessLog accessLog = DocumentAccessLog.builder()
+                .documentId(id)
+                .userId(userId)
+                .ipAddress(ipAddress)
+                .userAgent(userAgent)
+                .accessType(AccessType.DOWNLOAD)
+                .accessedAt(LocalDateTime.now())
+                .build();
+
+        accessLogWriter.record(accessLog);
+    }
+
     /**
      * Update document metadata
      */
@@ -218,6 +254,11 @@ public class DocumentService {
 
         // Publish document deleted event
         eventPublisher.publishDocumentDeletedEvent(document, userId);
+
+        // Drop the document's reference to its content; unused content is deleted after commit
+        if (blobStorageService.isBlobPath(document.getStoragePath(), document.getChecksum())) {
+            blobStorageService.release(document.getChecksum());
+        }
     }
 
     /**
@@ -242,25 +283,37 @@ public class DocumentService {
     }
 
     /**
-     * Search documents
+     * Search documents using the full-text search index, ranked by relevance to the search term
      */
     @Transactional(readOnly = true)
     public Page<DocumentResponse> searchDocuments(DocumentSearchFilter filter, Pageable pageable) {
         log.info("Searching documents with filter: {}", filter);
 
-        // For simplicity, using the name search. In a real implementation,
-        // you would build a more complex query based on the filter
-        Page<Document> documents = documentRepository.findByNameContainingIgnoreCaseAndStatusNot(
-                filter.getSearchTerm(),
-                DocumentStatus.DELETED,
-                pageable
-        );
+        Page<Long> documentIds = searchRepository.searchDocumentIds(filter, pageable);
+        Map<Long, Document> documents = documentRepository.findAllById(documentIds.getContent()).stream()
+                .collect(Collectors.toMap(Document::getId, Function.identity()));
+
+        // Keep the order of the index, skipping documents deleted since they were indexed
+        List<DocumentResponse> responses = documentIds.getContent().stream()
+                .map(documents::get)
+                .filter(document -> document != null && document.getStatus() != DocumentStatus.DELETED)
+                .map(document -> {
+                    DocumentResponse response = documentMapper.toDocumentResponse(document);
+                    response.setDownloadUrl(generateDownloadUrl(document.getId()));
+                    return response;
+                })
+                .toList();
+
+        return new PageImpl<>(responses, pageable, documentIds.getTotalElements());
+    }
 
-        return documents.map(document -> {
-            DocumentResponse response = documentMapper.toDocumentResponse(document);
-            response.setDownloadUrl(generateDownloadUrl(document.getId()));
-            return response;
-        });
+    /**
+     * Count the documents matching a search by document type, entity type, status and visibility
+     */
+    @Transactional(readOnly = true)
+    public DocumentSearchFacets getSearchFacets(DocumentSearchFilter filter) {
+        log.info("Counting search facets for filter: {}", filter);
+        return searchRepository.countFacets(filter);
     }
 
     /**
@@ -278,30 +331,6 @@ public class DocumentService {
         return logs.map(documentMapper::toDocumentAccessLogResponse);
     }
 
-    /**
-     * Process expired documents
-     */
-    @Transactional
-    public void processExpiredDocuments() {
-        log.info("Processing expired documents");
-
-        LocalDateTime now = LocalDateTime.now();
-        List<Document> expiredDocuments = documentRepository.findByExpiresAtBeforeAndStatusNot(
-                now,
-                DocumentStatus.DELETED
-        );
-
-        for (Document document : expiredDocuments) {
-            document.setStatus(DocumentStatus.EXPIRED);
-            documentRepository.save(document);
-
-            // Publish document expired event
-            eventPublisher.publishDocumentExpiredEvent(document);
-        }
-
-        log.info("Processed {} expired documents", expiredDocuments.size());
-    }
-
     /**
      * Find document by ID or throw exception
      */
@@ -310,23 +339,6 @@ public class DocumentService {
                 .orElseThrow(() -> new DocumentNotFoundException("Document not found with ID: " + id));
     }
 
-    /**
-     * Generate a unique filename
-     */
-    private String generateUniqueFilename(String originalFilename) {
-        String extension = getFileExtension(originalFilename);
-        return UUID.randomUUID().toString() + "." + extension;
-    }
-
-    /**
-     * Create a storage path for the file
-     */
-    private String createStoragePath(String filename) {
-        // Organize files in subdirectories based on the first characters of the filename
-        // to prevent too many files in a single directory
-        return filename.substring(0, 2) + "/" + filename.substring(2, 4) + "/" + filename;
-    }
-
     /**
      * Get file extension from filename
      */
@@ -337,30 +349,6 @@ public class DocumentService {
                 .orElse("");
     }
 
-    /**
-     * Calculate checksum for a file
-     */
-    private String calculateChecksum(MultipartFile file) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hashBytes = digest.digest(file.getBytes());
-
-            StringBuilder hexString = new StringBuilder();
-            for (byte hashByte : hashBytes) {
-                String hex = Integer.toHexString(0xff & hashByte);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException | IOException e) {
-            log.error("Failed to calculate checksum", e);
-            return "";
-        }
-    }
-
     /**
      * Generate download URL for a document
      */
@@ -0,0 +1,51 @@
+package com.egov.tendering.document.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+
+/**
+ * Extracts the text of document content for the search index. Only PDFs are supported.
+ */
+@Component
+@Slf4j
+public class DocumentTextExtractor {
+
+    private static final String PDF_CONTENT_TYPE = "application/pdf";
+    private static final String PDF_EXTENSION = "pdf";
+
+    private final DataSize maxFileSize;
+    private final int maxTextLength;
+
+    public DocumentTextExtractor(@Value("${document.search.max-extract-size:50MB}") DataSize maxFileSize,
+                                 @Value("${document.search.max-text-length:1000000}") int maxTextLength) {
+        this.maxFileSize = maxFileSize;
+        this.maxTextLength = maxTextLength;
+    }
+
+    /**
+     * Check whether text can be extracted from a document of the given type and size
+     */
+    public boolean supports(String contentType, String fileExtension, long fileSize) {
+        boolean pdf = PDF_CONTENT_TYPE.equalsIgnoreCase(contentType) || PDF_EXTENSION.equalsIgnoreCase(fileExtension);
+        return pdf && fileSize <= maxFileSize.toBytes();
+    }
+
+    /**
+     * Extract the text of a PDF, with runs of whitespace collapsed and cut to the maximum length
+     *
+     * @throws IOException if the content is not a readable PDF
+     */
+    public String extractText(byte[] content) throws IOException {
+        try (PDDocument pdf = Loader.loadPDF(content)) {
+            String text = new PDFTextStripper().getText(pdf).replaceAll("\\s+", " ").trim();
+            return text.length() > maxTextLength ? text.substring(0, maxTextLength) : text;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.egov.tendering.document.service;
+
+import com.egov.tendering.document.dal.repository.SchedulerLockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Service granting leases on scheduled jobs, so a job scheduled on every instance of the
+ * service runs on one instance at a time.
+ * <p>
+ * A lease runs out after its duration even if its holder dies, and a holder running a long
+ * job extends its lease as it makes progress. Each call commits on its own, outside any
+ * caller transaction, so other instances see a lease as soon as it is taken.
+ */
+@Service
+@Slf4j
+public class SchedulerLockService {
+
+    private final SchedulerLockRepository lockRepository;
+    private final String owner;
+
+    public SchedulerLockService(SchedulerLockRepository lockRepository) {
+        this.lockRepository = lockRepository;
+        this.owner = createOwnerId();
+    }
+
+    /**
+     * Take the lease on a job unless another instance holds it
+     *
+     * @return true if this instance now holds the lease
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean tryLock(String name, Duration duration) {
+        boolean locked = lockRepository.insertIfAbsent(name, duration.toMillis(), owner) == 1
+                || lockRepository.takeIfExpired(name, duration.toMillis(), owner) == 1;
+        log.debug("Lease on {} {} by {}", name, locked ? "taken" : "not taken", owner);
+        return locked;
+    }
+
+    /**
+     * Extend the lease on a job held by this instance
+     *
+     * @return false if this instance no longer holds the lease
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean extendLock(String name, Duration duration) {
+        return lockRepository.extend(name, duration.toMillis(), owner) == 1;
+    }
+
+    /**
+     * Release the lease on a job held by this instance
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void unlock(String name) {
+        lockRepository.release(name, owner);
+    }
+
+    private static String createOwnerId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID();
+    }
+}
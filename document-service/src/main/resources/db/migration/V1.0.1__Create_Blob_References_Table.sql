@@ -0,0 +1,10 @@
+-- V1.0.1__Create_Blob_References_Table.sql
+
+-- Reference counts for content-addressed blobs shared by documents with identical content
+CREATE TABLE IF NOT EXISTS blob_references (
+    hash CHAR(64) PRIMARY KEY,
+    size BIGINT NOT NULL,
+    ref_count INT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
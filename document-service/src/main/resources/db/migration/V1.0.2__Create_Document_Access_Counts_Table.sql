@@ -0,0 +1,20 @@
+-- V1.0.2__Create_Document_Access_Counts_Table.sql
+
+-- Daily access counters maintained alongside document_access_logs, so popularity queries
+-- do not have to aggregate the full log
+CREATE TABLE IF NOT EXISTS document_access_counts (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    document_id BIGINT NOT NULL,
+    access_date DATE NOT NULL,
+    access_type VARCHAR(20) NOT NULL,
+    access_count BIGINT NOT NULL,
+
+    UNIQUE KEY uk_access_counts_document_day (document_id, access_date, access_type),
+    INDEX idx_access_counts_access_date (access_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Seed the counters from the existing access logs
+INSERT INTO document_access_counts (document_id, access_date, access_type, access_count)
+SELECT document_id, DATE(accessed_at), access_type, COUNT(*)
+FROM document_access_logs
+GROUP BY document_id, DATE(accessed_at), access_type;
@@ -0,0 +1,39 @@
+-- V1.0.3__Create_Document_Search_Index.sql
+
+-- Full-text search index over document metadata and extracted text, maintained from document events
+CREATE TABLE IF NOT EXISTS document_search_index (
+    document_id BIGINT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    original_filename VARCHAR(255) NOT NULL,
+    description TEXT,
+    content MEDIUMTEXT,
+    content_indexed BOOLEAN NOT NULL,
+    checksum VARCHAR(255),
+    content_type VARCHAR(100) NOT NULL,
+    document_type VARCHAR(50) NOT NULL,
+    entity_type VARCHAR(50) NOT NULL,
+    entity_id VARCHAR(100) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    is_public BOOLEAN NOT NULL,
+    created_by VARCHAR(100),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+
+    FULLTEXT INDEX ft_document_search (name, original_filename, description, content),
+    INDEX idx_search_entity (entity_type, entity_id),
+    INDEX idx_search_document_type (document_type),
+    INDEX idx_search_created_by (created_by),
+    INDEX idx_search_created_at (created_at),
+    INDEX idx_search_content_indexed (content_indexed)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Index the metadata of existing documents; the text of their PDFs is extracted in the background
+INSERT INTO document_search_index (document_id, name, original_filename, description, content_indexed, checksum,
+                                   content_type, document_type, entity_type, entity_id, status, is_public,
+                                   created_by, created_at, updated_at)
+SELECT id, name, original_filename, description,
+       content_type <> 'application/pdf' AND LOWER(file_extension) <> 'pdf',
+       checksum, content_type, document_type, entity_type, entity_id, status, COALESCE(is_public, FALSE),
+       created_by, created_at, updated_at
+FROM documents
+WHERE status <> 'DELETED';
@@ -0,0 +1,9 @@
+-- V1.0.4__Create_Scheduler_Locks_Table.sql
+
+-- Leases on scheduled jobs, so a job scheduled on every instance runs on one instance at a time
+CREATE TABLE IF NOT EXISTS scheduler_locks (
+    name VARCHAR(64) PRIMARY KEY,
+    locked_until TIMESTAMP(3) NOT NULL,
+    locked_at TIMESTAMP(3) NOT NULL,
+    locked_by VARCHAR(255) NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,8 @@
+-- V1.0.5__Add_Search_Content_Retries.sql
+
+-- Failed text extractions are retried with a growing delay, so unreadable content does not hold up the rest
+ALTER TABLE document_search_index
+    ADD COLUMN content_attempts INT NOT NULL DEFAULT 0,
+    ADD COLUMN content_retry_at TIMESTAMP NULL;
+
+CREATE INDEX idx_search_content_pending ON document_search_index (content_indexed, content_retry_at, document_id);
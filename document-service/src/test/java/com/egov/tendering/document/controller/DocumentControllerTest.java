@@ -0,0 +1,134 @@
+package com.egov.tendering.document.controller;
+
+import com.egov.tendering.document.dal.dto.DocumentDownloadResponse;
+import com.egov.tendering.document.service.DocumentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Range handling of document downloads that are streamed rather than sent with sendfile
+ */
+class DocumentControllerTest {
+
+    private static final byte[] CONTENT = "0123456789abcdefghijklmnopqrstuvwxyz".getBytes(StandardCharsets.US_ASCII);
+    private static final String CHECKSUM = "c0ffee";
+    private static final String ETAG = "\"" + CHECKSUM + "\"";
+
+    private final DocumentService documentService = mock(DocumentService.class);
+
+    private MockMvc mockMvc;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockMvc = MockMvcBuilders.standaloneSetup(new DocumentController(documentService))
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .build();
+
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "none").subject("user-1").build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+
+        when(documentService.openContent(any(), anyLong(), anyLong())).thenAnswer(invocation -> {
+            int offset = Math.toIntExact(invocation.<Long>getArgument(1));
+            int length = Math.toIntExact(invocation.<Long>getArgument(2));
+            return new ByteArrayInputStream(CONTENT, offset, length);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void multipleRangesOfRemoteContentReturnTheWholeContent() throws Exception {
+        when(documentService.getDownload(1L)).thenReturn(download(null));
+
+        MvcResult result = perform(get("/api/v1/documents/1/download")
+                .header(HttpHeaders.RANGE, "bytes=0-4,10-14"));
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, CONTENT.length))
+                .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    void staleIfRangeReturnsTheWholeLocalFileWithoutSendfile() throws Exception {
+        Path file = Files.write(tempDir.resolve("document.bin"), CONTENT);
+        when(documentService.getDownload(1L)).thenReturn(download(file));
+
+        MvcResult result = perform(get("/api/v1/documents/1/download")
+                .header(HttpHeaders.RANGE, "bytes=5-9")
+                .header(HttpHeaders.IF_RANGE, "\"outdated\""));
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, CONTENT.length))
+                .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    void matchingIfRangeReturnsTheRange() throws Exception {
+        when(documentService.getDownload(1L)).thenReturn(download(null));
+
+        MvcResult result = perform(get("/api/v1/documents/1/download")
+                .header(HttpHeaders.RANGE, "bytes=5-9")
+                .header(HttpHeaders.IF_RANGE, ETAG));
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 5-9/" + CONTENT.length))
+                .andExpect(content().bytes(Arrays.copyOfRange(CONTENT, 5, 10)));
+    }
+
+    private MvcResult perform(MockHttpServletRequestBuilder builder) throws Exception {
+        return mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private static DocumentDownloadResponse download(Path filePath) {
+        return DocumentDownloadResponse.builder()
+                .documentId(1L)
+                .name("document")
+                .originalFilename("document.bin")
+                .contentType("application/octet-stream")
+                .fileSize((long) CONTENT.length)
+                .checksum(CHECKSUM)
+                .filePath(filePath)
+                .build();
+    }
+}
@@ -0,0 +1,134 @@
+package com.egov.tendering.document.service;
+
+import com.egov.tendering.document.dal.repository.MySqlRepositoryTest;
+import com.egov.tendering.document.dal.repository.SchedulerLockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Leases taken by two instances sharing one lock table in MySQL
+ */
+@Import(SchedulerLockServiceTest.Instances.class)
+class SchedulerLockServiceTest extends MySqlRepositoryTest {
+
+    private static final String JOB = "document-expiry";
+    private static final Duration LEASE = Duration.ofMinutes(5);
+
+    @Autowired
+    @Qualifier("first")
+    private SchedulerLockService first;
+
+    @Autowired
+    @Qualifier("second")
+    private SchedulerLockService second;
+
+    @Autowired
+    private SchedulerLockRepository lockRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void clearLeases() {
+        lockRepository.deleteAll();
+    }
+
+    @Test
+    void onlyOneInstanceHoldsTheLease() {
+        assertThat(first.tryLock(JOB, LEASE)).isTrue();
+        assertThat(second.tryLock(JOB, LEASE)).isFalse();
+        // Not re-entrant: a holder extends its lease instead
+        assertThat(first.tryLock(JOB, LEASE)).isFalse();
+        assertThat(first.extendLock(JOB, LEASE)).isTrue();
+    }
+
+    @Test
+    void instancesRacingForANewLeaseTakeItOnce() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            String job = JOB + "-" + round;
+            CountDownLatch start = new CountDownLatch(1);
+            CompletableFuture<Boolean> byFirst = CompletableFuture.supplyAsync(() -> race(start, first, job));
+            CompletableFuture<Boolean> bySecond = CompletableFuture.supplyAsync(() -> race(start, second, job));
+            start.countDown();
+
+            assertThat(byFirst.get(10, TimeUnit.SECONDS) ^ bySecond.get(10, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    void anExpiredLeaseIsTakenOverAndTheOldHolderCannotExtendIt() {
+        assertThat(first.tryLock(JOB, LEASE)).isTrue();
+        assertThat(second.tryLock(JOB, LEASE)).isFalse();
+
+        expireLease();
+        assertThat(second.tryLock(JOB, LEASE)).isTrue();
+        assertThat(first.extendLock(JOB, LEASE)).isFalse();
+        assertThat(second.extendLock(JOB, LEASE)).isTrue();
+    }
+
+    @Test
+    void extendingRunsTheLeaseFromTheDatabaseClock() {
+        assertThat(first.tryLock(JOB, LEASE)).isTrue();
+        jdbcTemplate.update("UPDATE scheduler_locks SET locked_until = TIMESTAMPADD(SECOND, 1, NOW(3)) WHERE name = ?", JOB);
+
+        assertThat(first.extendLock(JOB, LEASE)).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT locked_until > TIMESTAMPADD(MINUTE, 4, NOW(3)) " +
+                "FROM scheduler_locks WHERE name = ?", Boolean.class, JOB)).isTrue();
+        assertThat(second.tryLock(JOB, LEASE)).isFalse();
+    }
+
+    @Test
+    void onlyTheHolderCanReleaseTheLease() {
+        assertThat(first.tryLock(JOB, LEASE)).isTrue();
+
+        second.unlock(JOB);
+        assertThat(second.tryLock(JOB, LEASE)).isFalse();
+
+        first.unlock(JOB);
+        assertThat(second.tryLock(JOB, LEASE)).isTrue();
+    }
+
+    private void expireLease() {
+        jdbcTemplate.update("UPDATE scheduler_locks SET locked_until = TIMESTAMPADD(SECOND, -1, NOW(3)) WHERE name = ?", JOB);
+    }
+
+    private static boolean race(CountDownLatch start, SchedulerLockService instance, String job) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return instance.tryLock(job, LEASE);
+    }
+
+    /**
+     * Two instances of the service, each with its own owner ID
+     */
+    @TestConfiguration(proxyBeanMethods = false)
+    static class Instances {
+
+        @Bean
+        SchedulerLockService first(SchedulerLockRepository lockRepository) {
+            return new SchedulerLockService(lockRepository);
+        }
+
+        @Bean
+        SchedulerLockService second(SchedulerLockRepository lockRepository) {
+            return new SchedulerLockService(lockRepository);
+        }
+    }
+}
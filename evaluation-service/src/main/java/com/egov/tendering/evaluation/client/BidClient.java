@@ -4,6 +4,10 @@ import com.egov.tendering.common.dal.dto.BidDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
 
 /**
  * Feign client for accessing Bidding Service APIs
@@ -19,4 +23,14 @@ public interface BidClient {
      */
     @GetMapping("/api/bids/{bidId}")
     BidDTO getBidById(@PathVariable Long bidId);
+
+    /**
+     * Gets several bids by ID in a single round trip.
+     * Unknown IDs are omitted from the result.
+     *
+     * @param bidIds The bid IDs
+     * @return The bids that were found
+     */
+    @PostMapping("/api/bids/batch")
+    List<BidDTO> getBidsByIds(@RequestBody List<Long> bidIds);
 }
\ No newline at end of file
@@ -4,6 +4,10 @@ import com.egov.tendering.common.dal.dto.TenderDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
 
 /**
  * Feign client for accessing Tender Service APIs
@@ -19,4 +23,14 @@ public interface TenderClient {
      */
     @GetMapping("/api/tenders/{tenderId}")
     TenderDTO getTenderById(@PathVariable Long tenderId);
+
+    /**
+     * Gets several tenders by ID in a single round trip.
+     * Unknown IDs are omitted from the result.
+     *
+     * @param tenderIds The tender IDs
+     * @return The tenders that were found
+     */
+    @PostMapping("/api/tenders/batch")
+    List<TenderDTO> getTendersByIds(@RequestBody List<Long> tenderIds);
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+package com.egov.tendering.evaluation.client;
+
+import com.egov.tendering.common.dal.dto.BidDTO;
+import com.egov.tendering.common.dal.dto.TenderDTO;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+
+/**
+ * Per-calculation cache of bid and tender data fetched from the remote services.
+ * Each bid and tender is requested at most once, and bids are loaded through the
+ * batch endpoint so a whole evaluation run costs a handful of round trips.
+ * <p>
+ * A snapshot is not thread-safe and should not outlive the operation that created it.
+ */
+@Slf4j
+public class TenderDataSnapshot {
+
+    private static final int BATCH_SIZE = 200;
+
+    private final TenderClient tenderClient;
+    private final BidClient bidClient;
+
+    private final Map<Long, TenderDTO> tenders = new HashMap<>();
+    private final Map<Long, BidDTO> bids = new HashMap<>();
+    private final Set<Long> requestedTenderIds = new HashSet<>();
+    private final Set<Long> requestedBidIds = new HashSet<>();
+
+    public TenderDataSnapshot(TenderClient tenderClient, BidClient bidClient) {
+        this.tenderClient = tenderClient;
+        this.bidClient = bidClient;
+    }
+
+    /**
+     * Gets a tender, fetching it on first access
+     *
+     * @param tenderId The tender ID
+     * @return The tender details
+     */
+    public TenderDTO getTender(Long tenderId) {
+        TenderDTO tender = tenders.get(tenderId);
+        if (tender == null) {
+            tender = tenderClient.getTenderById(tenderId);
+            tenders.put(tenderId, tender);
+            requestedTenderIds.add(tenderId);
+        }
+        return tender;
+    }
+
+    /**
+     * Gets a bid, fetching it on first access
+     *
+     * @param bidId The bid ID
+     * @return The bid details, or empty if the bid could not be retrieved
+     */
+    public Optional<BidDTO> findBid(Long bidId) {
+        prefetchBids(Collections.singleton(bidId));
+        return Optional.ofNullable(bids.get(bidId));
+    }
+
+    /**
+     * Loads any bids that have not been requested yet through the batch endpoint
+     *
+     * @param bidIds The bid IDs that will be needed
+     */
+    public void prefetchBids(Collection<Long> bidIds) {
+        List<Long> missing = bidIds.stream()
+                .filter(Objects::nonNull)
+                .filter(requestedBidIds::add)
+                .distinct()
+                .toList();
+
+        for (int from = 0; from < missing.size(); from += BATCH_SIZE) {
+            List<Long> chunk = missing.subList(from, Math.min(from + BATCH_SIZE, missing.size()));
+            try {
+                bidClient.getBidsByIds(chunk).forEach(bid -> bids.put(bid.getId(), bid));
+            } catch (Exception e) {
+                log.warn("Failed to get bid data for {} bids", chunk.size(), e);
+            }
+        }
+    }
+
+    /**
+     * Loads any tenders that have not been requested yet through the batch endpoint
+     *
+     * @param tenderIds The tender IDs that will be needed
+     */
+    public void prefetchTenders(Collection<Long> tenderIds) {
+        List<Long> missing = tenderIds.stream()
+                .filter(Objects::nonNull)
+                .filter(requestedTenderIds::add)
+                .distinct()
+                .toList();
+
+        for (int from = 0; from < missing.size(); from += BATCH_SIZE) {
+            List<Long> chunk = missing.subList(from, Math.min(from + BATCH_SIZE, missing.size()));
+            try {
+                tenderClient.getTendersByIds(chunk).forEach(tender -> tenders.put(tender.getId(), tender));
+            } catch (Exception e) {
+                log.warn("Failed to get tender data for {} tenders", chunk.size(), e);
+            }
+        }
+    }
+
+    /**
+     * Gets a tender that was previously prefetched
+     *
+     * @param tenderId The tender ID
+     * @return The tender details, or empty if the tender could not be retrieved
+     */
+    public Optional<TenderDTO> findTender(Long tenderId) {
+        prefetchTenders(Collections.singleton(tenderId));
+        return Optional.ofNullable(tenders.get(tenderId));
+    }
+
+    /**
+     * Gets the bidder name for a bid, or "Unknown" if the bid is not available
+     */
+    public String getBidderName(Long bidId) {
+        return findBid(bidId)
+                .map(BidDTO::getTendererName)
+                .orElse("Unknown");
+    }
+}
@@ -0,0 +1,43 @@
+package com.egov.tendering.evaluation.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves the id sequences of tables that used to have AUTO_INCREMENT ids past the ids already in
+ * use. MySQL has no sequences, so Hibernate keeps each one as a single-row table; a new one starts
+ * at 1 and would hand out ids of existing rows. This runs once the schema is up to date and
+ * before the web server and listeners start.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdSequenceInitializer implements SmartInitializingSingleton {
+
+    // Must match the allocationSize of the sequence generators
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "allocation_results_seq", "allocation_results"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        SEQUENCES.forEach((sequence, table) -> {
+            // Hibernate hands out the block of ids ending at the value it reads, so the value
+            // must be a whole block above the highest id in use
+            int updated = jdbcTemplate.update("UPDATE " + sequence + " SET next_val = GREATEST(next_val, " +
+                    "(SELECT COALESCE(MAX(id), 0) + " + (ALLOCATION_SIZE + 1) + " FROM " + table + "))");
+            if (updated > 0) {
+                log.info("Checked id sequence {} against table {}", sequence, table);
+            }
+        });
+    }
+}
@@ -17,8 +17,11 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class AllocationResult {
 
+    // Sequence ids let Hibernate batch the inserts made by saveAll; IdSequenceInitializer moves
+    // the sequence past the ids of rows inserted with AUTO_INCREMENT
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "allocation_results_seq")
+    @SequenceGenerator(name = "allocation_results_seq", sequenceName = "allocation_results_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "tender_id", nullable = false)
@@ -0,0 +1,57 @@
+package com.egov.tendering.evaluation.dal.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Running sum and count of the overall scores of a bid's completed evaluations,
+ * used to keep tender rankings current without recomputing them from every evaluation.
+ */
+@Entity
+@Table(name = "bid_score_tallies",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"tender_id", "bid_id"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BidScoreTally {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tender_id", nullable = false)
+    private Long tenderId;
+
+    @Column(name = "bid_id", nullable = false)
+    private Long bidId;
+
+    @Column(name = "score_sum", nullable = false, precision = 19, scale = 2)
+    private BigDecimal scoreSum;
+
+    @Column(name = "evaluation_count", nullable = false)
+    private Integer evaluationCount;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
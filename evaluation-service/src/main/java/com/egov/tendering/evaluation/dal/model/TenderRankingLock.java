@@ -0,0 +1,22 @@
+package com.egov.tendering.evaluation.dal.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row per ranked tender, locked while the tender's rankings are changed. Unlike the rankings
+ * themselves it exists before the first bid is ranked, so concurrent first changes also wait.
+ */
+@Entity
+@Table(name = "tender_ranking_locks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TenderRankingLock {
+
+    @Id
+    @Column(name = "tender_id")
+    private Long tenderId;
+}
@@ -0,0 +1,28 @@
+package com.egov.tendering.evaluation.dal.repository;
+
+import com.egov.tendering.evaluation.dal.model.BidScoreTally;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BidScoreTallyRepository extends JpaRepository<BidScoreTally, Long> {
+
+    List<BidScoreTally> findByTenderId(Long tenderId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<BidScoreTally> findWithLockByTenderIdAndBidId(Long tenderId, Long bidId);
+
+    // Bulk delete so the tallies are gone before a full recalculation re-inserts them. The
+    // persistence context is not cleared: callers still hold evaluations with lazy associations.
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM BidScoreTally t WHERE t.tenderId = :tenderId")
+    int deleteByTenderId(@Param("tenderId") Long tenderId);
+}
@@ -0,0 +1,28 @@
+package com.egov.tendering.evaluation.dal.repository;
+
+import com.egov.tendering.evaluation.dal.model.TenderRankingLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TenderRankingLockRepository extends JpaRepository<TenderRankingLock, Long> {
+
+    /**
+     * Locks the ranking row of a tender until the transaction ends, creating it if needed.
+     * A second transaction inserting the same row waits for the first one to finish.
+     */
+    default void lock(Long tenderId) {
+        insertIfAbsent(tenderId);
+        lockRow(tenderId);
+    }
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO tender_ranking_locks (tender_id) VALUES (:tenderId)", nativeQuery = true)
+    int insertIfAbsent(@Param("tenderId") Long tenderId);
+
+    @Query(value = "SELECT tender_id FROM tender_ranking_locks WHERE tender_id = :tenderId FOR UPDATE", nativeQuery = true)
+    Long lockRow(@Param("tenderId") Long tenderId);
+}
@@ -2,8 +2,13 @@ package com.egov.tendering.evaluation.dal.repository;
 
 import com.egov.tendering.evaluation.dal.model.TenderRanking;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,4 +22,20 @@ public interface TenderRankingRepository extends JpaRepository<TenderRanking, Lo
     Optional<TenderRanking> findByTenderIdAndBidId(Long tenderId, Long bidId);
 
     void deleteByTenderId(Long tenderId);
+
+    /**
+     * Marks the given bids of a tender as winners in a single update statement
+     *
+     * @return the number of rankings updated
+     */
+    default int markWinners(Long tenderId, Collection<Long> bidIds) {
+        return markWinners(tenderId, bidIds, LocalDateTime.now());
+    }
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TenderRanking r SET r.isWinner = true, r.updatedAt = :updatedAt " +
+            "WHERE r.tenderId = :tenderId AND r.bidId IN :bidIds")
+    int markWinners(@Param("tenderId") Long tenderId,
+                    @Param("bidIds") Collection<Long> bidIds,
+                    @Param("updatedAt") LocalDateTime updatedAt);
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.egov.tendering.evaluation.event;
+
+import com.egov.tendering.evaluation.service.NameLookupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts cached bidder and criteria names when tender-service or bidding-service publish a change.
+ * Both services key their events by entity ID. Every instance uses its own consumer group, named
+ * after the stable app.instance-id, so each local cache sees every event and a restarted instance
+ * rejoins its group instead of leaving an orphaned one on the broker.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReferenceDataEventListener {
+
+    private final NameLookupService nameLookupService;
+
+    @KafkaListener(
+            topics = "${app.kafka.topics.tender-events}",
+            groupId = "${spring.application.name}-lookup-${app.instance-id}",
+            containerFactory = "referenceDataListenerContainerFactory")
+    public void onTenderEvent(ConsumerRecord<String, String> record) {
+        Long tenderId = parseId(record);
+        if (tenderId != null) {
+            nameLookupService.evictTender(tenderId);
+        }
+    }
+
+    @KafkaListener(
+            topics = "${app.kafka.topics.bid-events}",
+            groupId = "${spring.application.name}-lookup-${app.instance-id}",
+            containerFactory = "referenceDataListenerContainerFactory")
+    public void onBidEvent(ConsumerRecord<String, String> record) {
+        Long bidId = parseId(record);
+        if (bidId != null) {
+            nameLookupService.evictBid(bidId);
+        }
+    }
+
+    private Long parseId(ConsumerRecord<String, String> record) {
+        try {
+            return record.key() != null ? Long.valueOf(record.key()) : null;
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring {} event with non-numeric key: {}", record.topic(), record.key());
+            return null;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.egov.tendering.evaluation.service;
 
+import com.egov.tendering.evaluation.client.TenderDataSnapshot;
 import com.egov.tendering.evaluation.dal.dto.AllocationResultDTO;
 import com.egov.tendering.evaluation.dal.dto.TenderRankingDTO;
 import com.egov.tendering.evaluation.dal.model.Evaluation;
@@ -11,14 +12,27 @@ public interface AllocationService {
 
     List<AllocationResultDTO> allocateSingleWinner(Long tenderId, List<TenderRankingDTO> rankings);
 
+    List<AllocationResultDTO> allocateSingleWinner(
+            Long tenderId, List<TenderRankingDTO> rankings, TenderDataSnapshot snapshot);
+
     List<AllocationResultDTO> allocateCooperative(Long tenderId, List<Evaluation> evaluations);
 
+    List<AllocationResultDTO> allocateCooperative(
+            Long tenderId, List<Evaluation> evaluations, TenderDataSnapshot snapshot);
+
     List<AllocationResultDTO> allocateCompetitive(
             Long tenderId,
             List<TenderRankingDTO> rankings,
             BigDecimal cutoffScore,
             boolean isAverageAllocation);
 
+    List<AllocationResultDTO> allocateCompetitive(
+            Long tenderId,
+            List<TenderRankingDTO> rankings,
+            BigDecimal cutoffScore,
+            boolean isAverageAllocation,
+            TenderDataSnapshot snapshot);
+
     List<AllocationResultDTO> getAllocationsByTender(Long tenderId);
 
     List<AllocationResultDTO> getAllocationsByBid(Long bidId);
@@ -0,0 +1,25 @@
+package com.egov.tendering.evaluation.service;
+
+import com.egov.tendering.evaluation.dal.model.Evaluation;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the best-scoring bids per criteria for cooperative allocation.
+ * Scores are averaged per bid and criteria across all evaluations and
+ * rounded to two decimal places before comparison.
+ */
+public interface CooperativeScoringEngine {
+
+    /**
+     * Finds the bids with the highest average score for each requested criteria.
+     * Only bids with a non-negative average are considered.
+     *
+     * @param evaluations The completed evaluations for the tender
+     * @param criteriaIds The criteria to select winners for
+     * @return Tied top bid IDs in ascending order by criteria ID; criteria without eligible bids are absent
+     */
+    Map<Long, List<Long>> findTopBidsByCriteria(List<Evaluation> evaluations, Collection<Long> criteriaIds);
+}
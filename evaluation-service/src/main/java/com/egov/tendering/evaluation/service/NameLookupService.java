@@ -0,0 +1,31 @@
+package com.egov.tendering.evaluation.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Cached lookup of display names owned by other services.
+ * Entries are loaded in bulk and evicted when the owning service publishes a change.
+ */
+public interface NameLookupService {
+
+    /**
+     * Gets the tenderer names for the given bids
+     *
+     * @param bidIds The bid IDs
+     * @return Tenderer name by bid ID; bids that could not be resolved are absent
+     */
+    Map<Long, String> getBidderNames(Collection<Long> bidIds);
+
+    /**
+     * Gets the criteria names of the given tenders
+     *
+     * @param tenderIds The tender IDs
+     * @return Criteria name by criteria ID, by tender ID; tenders that could not be resolved are absent
+     */
+    Map<Long, Map<Long, String>> getCriteriaNames(Collection<Long> tenderIds);
+
+    void evictBid(Long bidId);
+
+    void evictTender(Long tenderId);
+}
@@ -1,14 +1,25 @@
 package com.egov.tendering.evaluation.service;
 
+import com.egov.tendering.evaluation.client.TenderDataSnapshot;
 import com.egov.tendering.evaluation.dal.dto.TenderRankingDTO;
 import com.egov.tendering.evaluation.dal.model.Evaluation;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 public interface TenderRankingService {
 
     List<TenderRankingDTO> calculateBidRankings(Long tenderId, List<Evaluation> evaluations);
 
+    List<TenderRankingDTO> calculateBidRankings(
+            Long tenderId, List<Evaluation> evaluations, TenderDataSnapshot snapshot);
+
+    /**
+     * Applies one evaluation's change in counted score to the bid's tally and moves the bid
+     * to its new position in the tender rankings. Null means the evaluation is not counted.
+     */
+    void applyScoreChange(Long tenderId, Long bidId, BigDecimal removedScore, BigDecimal addedScore);
+
     List<TenderRankingDTO> getBidRankingsByTender(Long tenderId);
 
     List<TenderRankingDTO> getWinningBids(Long tenderId);
@@ -6,19 +6,21 @@ import com.egov.tendering.common.dal.dto.TenderDTO;
 import com.egov.tendering.common.dal.dto.TenderItemDTO;
 import com.egov.tendering.evaluation.client.BidClient;
 import com.egov.tendering.evaluation.client.TenderClient;
+import com.egov.tendering.evaluation.client.TenderDataSnapshot;
 import com.egov.tendering.evaluation.dal.dto.AllocationResultDTO;
 import com.egov.tendering.evaluation.dal.dto.TenderRankingDTO;
 import com.egov.tendering.evaluation.dal.mapper.AllocationResultMapper;
 import com.egov.tendering.evaluation.dal.model.AllocationResult;
 import com.egov.tendering.evaluation.dal.model.Evaluation;
-import com.egov.tendering.evaluation.dal.model.TenderRanking;
 import com.egov.tendering.evaluation.dal.repository.AllocationResultRepository;
 import com.egov.tendering.evaluation.dal.repository.TenderRankingRepository;
 import com.egov.tendering.evaluation.exception.AllocationException;
 import com.egov.tendering.evaluation.service.AllocationService;
+import com.egov.tendering.evaluation.service.CooperativeScoringEngine;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -26,6 +28,7 @@ import java.math.RoundingMode;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Implementation of the AllocationService.
@@ -44,6 +47,13 @@ public class AllocationServiceImpl implements AllocationService {
     private final AllocationResultMapper allocationMapper;
     private final TenderClient tenderClient;
     private final BidClient bidClient;
+    private final CooperativeScoringEngine cooperativeScoringEngine;
+
+    /**
+     * Tenders with at least this many items are allocated competitively in parallel
+     */
+    @Value("${app.allocation.parallel-item-threshold:256}")
+    private int parallelItemThreshold;
 
     /**
      * Allocates all items to a single winner with the highest score.
@@ -52,6 +62,13 @@ public class AllocationServiceImpl implements AllocationService {
     @Override
     @Transactional
     public List<AllocationResultDTO> allocateSingleWinner(Long tenderId, List<TenderRankingDTO> rankings) {
+        return allocateSingleWinner(tenderId, rankings, newSnapshot());
+    }
+
+    @Override
+    @Transactional
+    public List<AllocationResultDTO> allocateSingleWinner(
+            Long tenderId, List<TenderRankingDTO> rankings, TenderDataSnapshot snapshot) {
         log.info("Allocating single winner for tender ID: {}", tenderId);
 
         // Clear existing allocations
@@ -70,14 +87,12 @@ public class AllocationServiceImpl implements AllocationService {
         log.info("Selected winner for tender ID: {} is bid ID: {}", tenderId, topRanking.getBidId());
 
         // Mark as winner in rankings
-        TenderRanking winnerRanking = rankingRepository.findByTenderIdAndBidId(tenderId, topRanking.getBidId())
-                .orElseThrow(() -> new AllocationException("Ranking not found for bid ID: " + topRanking.getBidId()));
-        winnerRanking.setIsWinner(true);
-        rankingRepository.save(winnerRanking);
+        markWinners(tenderId, Collections.singleton(topRanking.getBidId()), true);
 
         // Get tender and bid details
-        TenderDTO tenderDTO = tenderClient.getTenderById(tenderId);
-        BidDTO bidDTO = bidClient.getBidById(topRanking.getBidId());
+        TenderDTO tenderDTO = snapshot.getTender(tenderId);
+        BidDTO bidDTO = snapshot.findBid(topRanking.getBidId())
+                .orElseThrow(() -> new AllocationException("Bid not found for bid ID: " + topRanking.getBidId()));
 
         // Map of bid items by criteria ID
         Map<Long, BidItemDTO> bidItemsByCriteriaId = bidDTO.getItems().stream()
@@ -109,7 +124,7 @@ public class AllocationServiceImpl implements AllocationService {
 
         List<AllocationResultDTO> allocationDTOs = allocationMapper.toDtoList(allocations);
 
-        return enrichAllocationDTOs(allocationDTOs);
+        return enrichAllocationDTOs(allocationDTOs, snapshot);
     }
 
     /**
@@ -121,6 +136,13 @@ public class AllocationServiceImpl implements AllocationService {
     @Override
     @Transactional
     public List<AllocationResultDTO> allocateCooperative(Long tenderId, List<Evaluation> evaluations) {
+        return allocateCooperative(tenderId, evaluations, newSnapshot());
+    }
+
+    @Override
+    @Transactional
+    public List<AllocationResultDTO> allocateCooperative(
+            Long tenderId, List<Evaluation> evaluations, TenderDataSnapshot snapshot) {
         log.info("Allocating cooperatively for tender ID: {}", tenderId);
 
         // Clear existing allocations
@@ -131,65 +153,30 @@ public class AllocationServiceImpl implements AllocationService {
             return Collections.emptyList();
         }
 
-        TenderDTO tenderDTO = tenderClient.getTenderById(tenderId);
-
-        // Map of criteria scores by bid ID and criteria ID
-        Map<Long, Map<Long, List<BigDecimal>>> scoresByBidAndCriteria = new HashMap<>();
-
-        // Organize scores by bid and criteria
-        for (Evaluation evaluation : evaluations) {
-            evaluation.getCriteriaScores().forEach(score -> {
-                scoresByBidAndCriteria
-                        .computeIfAbsent(evaluation.getBidId(), k -> new HashMap<>())
-                        .computeIfAbsent(score.getCriteriaId(), k -> new ArrayList<>())
-                        .add(score.getScore());
-            });
-        }
-
-        // Calculate average score for each bid and criteria
-        Map<Long, Map<Long, BigDecimal>> avgScoresByBidAndCriteria = new HashMap<>();
+        TenderDTO tenderDTO = snapshot.getTender(tenderId);
 
-        scoresByBidAndCriteria.forEach((bidId, criteriaScores) -> {
-            Map<Long, BigDecimal> avgScores = new HashMap<>();
-
-            criteriaScores.forEach((criteriaId, scores) -> {
-                if (!scores.isEmpty()) {
-                    BigDecimal sum = scores.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
-                    BigDecimal avgScore = sum.divide(BigDecimal.valueOf(scores.size()), 2, RoundingMode.HALF_UP);
-                    avgScores.put(criteriaId, avgScore);
-                }
-            });
+        // Find the bids with the highest average score for each criteria
+        List<Long> criteriaIds = tenderDTO.getItems().stream()
+                .map(TenderItemDTO::getCriteriaId)
+                .collect(Collectors.toList());
+        Map<Long, List<Long>> topBidsByCriteria =
+                cooperativeScoringEngine.findTopBidsByCriteria(evaluations, criteriaIds);
 
-            avgScoresByBidAndCriteria.put(bidId, avgScores);
-        });
+        // Fetch every candidate bid in one batch rather than once per item
+        snapshot.prefetchBids(topBidsByCriteria.values().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toSet()));
 
-        // List to store allocations
+        // List to store allocations and the bids that won at least one item
         List<AllocationResult> allocations = new ArrayList<>();
+        Set<Long> winnerBidIds = new HashSet<>();
 
         // For each tender item, find the best bidder for its criteria
         for (TenderItemDTO item : tenderDTO.getItems()) {
             Long criteriaId = item.getCriteriaId();
 
-            // Find all bids with max score for this criteria
-            BigDecimal maxScore = BigDecimal.ZERO;
-            List<Long> maxScoreBids = new ArrayList<>();
-
-            for (Map.Entry<Long, Map<Long, BigDecimal>> entry : avgScoresByBidAndCriteria.entrySet()) {
-                Long bidId = entry.getKey();
-                Map<Long, BigDecimal> avgScores = entry.getValue();
-
-                if (avgScores.containsKey(criteriaId)) {
-                    BigDecimal score = avgScores.get(criteriaId);
-
-                    if (score.compareTo(maxScore) > 0) {
-                        maxScore = score;
-                        maxScoreBids.clear();
-                        maxScoreBids.add(bidId);
-                    } else if (score.compareTo(maxScore) == 0) {
-                        maxScoreBids.add(bidId);
-                    }
-                }
-            }
+            // All bids with max score for this criteria
+            List<Long> maxScoreBids = topBidsByCriteria.getOrDefault(criteriaId, Collections.emptyList());
 
             // Randomly select one winner if there are multiple with max score
             Long bestBidId = null;
@@ -210,21 +197,17 @@ public class AllocationServiceImpl implements AllocationService {
 
             try {
                 // Get the bid and its item
-                BidDTO bid = bidClient.getBidById(bestBidId);
-                Optional<BidItemDTO> bidItem = bid.getItems().stream()
+                Optional<BidDTO> bid = snapshot.findBid(bestBidId);
+                if (bid.isEmpty()) {
+                    log.warn("Bid information unavailable for bid ID: {}", bestBidId);
+                    continue;
+                }
+                Optional<BidItemDTO> bidItem = bid.get().getItems().stream()
                         .filter(bi -> bi.getCriteriaId().equals(criteriaId))
                         .findFirst();
 
                 if (bidItem.isPresent()) {
-                    // Mark as winner in rankings
-                    Optional<TenderRanking> rankingOpt = rankingRepository.findByTenderIdAndBidId(tenderId, bestBidId);
-                    if (rankingOpt.isPresent()) {
-                        TenderRanking ranking = rankingOpt.get();
-                        ranking.setIsWinner(true);
-                        rankingRepository.save(ranking);
-                    } else {
-                        log.warn("No ranking found for tender ID: {} and bid ID: {}", tenderId, bestBidId);
-                    }
+                    winnerBidIds.add(bestBidId);
 
                     // Create allocation
                     AllocationResult allocation = new AllocationResult();
@@ -245,6 +228,9 @@ public class AllocationServiceImpl implements AllocationService {
             }
         }
 
+        // Mark all item winners in rankings with a single statement
+        markWinners(tenderId, winnerBidIds, false);
+
         if (allocations.isEmpty()) {
             log.warn("No allocations could be made for tender ID: {}", tenderId);
             return Collections.emptyList();
@@ -254,7 +240,7 @@ public class AllocationServiceImpl implements AllocationService {
 
         List<AllocationResultDTO> allocationDTOs = allocationMapper.toDtoList(allocations);
 
-        return enrichAllocationDTOs(allocationDTOs);
+        return enrichAllocationDTOs(allocationDTOs, snapshot);
     }
 
     /**
@@ -269,6 +255,17 @@ public class AllocationServiceImpl implements AllocationService {
             List<TenderRankingDTO> rankings,
             BigDecimal cutoffScore,
             boolean isAverageAllocation) {
+        return allocateCompetitive(tenderId, rankings, cutoffScore, isAverageAllocation, newSnapshot());
+    }
+
+    @Override
+    @Transactional
+    public List<AllocationResultDTO> allocateCompetitive(
+            Long tenderId,
+            List<TenderRankingDTO> rankings,
+            BigDecimal cutoffScore,
+            boolean isAverageAllocation,
+            TenderDataSnapshot snapshot) {
 
         log.info("Allocating competitively for tender ID: {}", tenderId);
 
@@ -281,7 +278,7 @@ public class AllocationServiceImpl implements AllocationService {
         }
 
         // Get tender details
-        TenderDTO tenderDTO = tenderClient.getTenderById(tenderId);
+        TenderDTO tenderDTO = snapshot.getTender(tenderId);
 
         // Filter bids above cutoff score (higher scores are better)
         List<TenderRankingDTO> eligibleRankings = rankings.stream()
@@ -297,20 +294,26 @@ public class AllocationServiceImpl implements AllocationService {
                 eligibleRankings.size(), cutoffScore);
 
         // Mark winners in rankings
-        for (TenderRankingDTO ranking : eligibleRankings) {
-            TenderRanking winnerRanking = rankingRepository.findByTenderIdAndBidId(tenderId, ranking.getBidId())
-                    .orElseThrow(() -> new AllocationException("Ranking not found for bid ID: " + ranking.getBidId()));
-            winnerRanking.setIsWinner(true);
-            rankingRepository.save(winnerRanking);
-        }
+        markWinners(tenderId, eligibleRankings.stream()
+                .map(TenderRankingDTO::getBidId)
+                .collect(Collectors.toSet()), true);
 
         // Calculate composite bids (weighted sum of prices)
         Map<Long, BigDecimal> compositeBids = new HashMap<>();
         Map<Long, BidDTO> bidsByBidId = new HashMap<>();
 
+        snapshot.prefetchBids(eligibleRankings.stream()
+                .map(TenderRankingDTO::getBidId)
+                .collect(Collectors.toList()));
+
         for (TenderRankingDTO ranking : eligibleRankings) {
             try {
-                BidDTO bid = bidClient.getBidById(ranking.getBidId());
+                Optional<BidDTO> fetchedBid = snapshot.findBid(ranking.getBidId());
+                if (fetchedBid.isEmpty()) {
+                    log.error("Bid information unavailable for bid ID: {}", ranking.getBidId());
+                    continue;
+                }
+                BidDTO bid = fetchedBid.get();
                 bidsByBidId.put(ranking.getBidId(), bid);
 
                 BigDecimal compositeBid = calculateCompositeBid(bid, tenderDTO);
@@ -356,63 +359,35 @@ public class AllocationServiceImpl implements AllocationService {
             }
         }
 
-        // Calculate unified unit prices for each item
-        Map<Long, BigDecimal> unifiedUnitPrices = new HashMap<>();
-
-        for (TenderItemDTO item : tenderDTO.getItems()) {
-            BigDecimal sumPrice = BigDecimal.ZERO;
-            int count = 0;
-
-            for (TenderRankingDTO ranking : eligibleRankings) {
-                if (!bidsByBidId.containsKey(ranking.getBidId()) ||
-                        !adjustmentRates.containsKey(ranking.getBidId())) {
-                    continue;
-                }
-
-                BidDTO bid = bidsByBidId.get(ranking.getBidId());
-                Optional<BidItemDTO> bidItem = bid.getItems().stream()
-                        .filter(bi -> bi.getCriteriaId().equals(item.getCriteriaId()))
-                        .findFirst();
-
-                if (bidItem.isPresent()) {
-                    BigDecimal adjustmentRate = adjustmentRates.get(ranking.getBidId());
-                    BigDecimal adjustedPrice = bidItem.get().getValue().multiply(adjustmentRate);
-                    sumPrice = sumPrice.add(adjustedPrice);
-                    count++;
-                }
-            }
+        // Index each bid's item prices by criteria once instead of rescanning them per tender item
+        Map<Long, Map<Long, BigDecimal>> pricesByBid = new HashMap<>();
 
-            if (count > 0) {
-                BigDecimal unitPrice = sumPrice.divide(
-                        BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
-                unifiedUnitPrices.put(item.getId(), unitPrice);
-            } else {
-                // If no prices available, use a default unit price based on tender details
-                // This could be an average of item prices or a predefined value
-                log.warn("No price data available for item ID: {}. Using default price.", item.getId());
-                unifiedUnitPrices.put(item.getId(), BigDecimal.ONE); // Default to 1 as a placeholder
+        for (TenderRankingDTO ranking : eligibleRankings) {
+            BidDTO bid = bidsByBidId.get(ranking.getBidId());
+            if (bid != null && adjustmentRates.containsKey(ranking.getBidId())) {
+                Map<Long, BigDecimal> prices = new HashMap<>();
+                bid.getItems().forEach(bidItem -> prices.putIfAbsent(bidItem.getCriteriaId(), bidItem.getValue()));
+                pricesByBid.put(ranking.getBidId(), prices);
             }
         }
 
-        // Allocate quantities
-        List<AllocationResult> allocations = new ArrayList<>();
+        // Items are independent, so large tenders fan out across the fork-join pool.
+        // Per-item results are concatenated in item order, keeping the output identical
+        // to the sequential path.
+        List<TenderItemDTO> items = tenderDTO.getItems();
+        IntStream itemIndexes = IntStream.range(0, items.size());
 
-        for (TenderItemDTO item : tenderDTO.getItems()) {
-            BigDecimal unitPrice = unifiedUnitPrices.get(item.getId());
-
-            if (unitPrice != null) {
-                if (isAverageAllocation) {
-                    // Average allocation
-                    allocateAverageQuantities(tenderId, item, unitPrice, eligibleRankings, allocations);
-                } else {
-                    // Proportional allocation based on scores
-                    allocateProportionalQuantities(tenderId, item, unitPrice, eligibleRankings, allocations);
-                }
-            } else {
-                log.warn("No unit price calculated for item ID: {}. Skipping allocation.", item.getId());
-            }
+        if (items.size() >= parallelItemThreshold) {
+            log.info("Allocating {} items in parallel for tender ID: {}", items.size(), tenderId);
+            itemIndexes = itemIndexes.parallel();
         }
 
+        List<AllocationResult> allocations = itemIndexes
+                .mapToObj(i -> allocateCompetitiveItem(
+                        tenderId, items.get(i), eligibleRankings, pricesByBid, adjustmentRates, isAverageAllocation))
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+
         if (allocations.isEmpty()) {
             log.warn("No allocations could be made for tender ID: {}", tenderId);
             return Collections.emptyList();
@@ -422,7 +397,56 @@ public class AllocationServiceImpl implements AllocationService {
 
         List<AllocationResultDTO> allocationDTOs = allocationMapper.toDtoList(allocations);
 
-        return enrichAllocationDTOs(allocationDTOs);
+        return enrichAllocationDTOs(allocationDTOs, snapshot);
+    }
+
+    /**
+     * Calculates the unified unit price of a single item and splits its quantity among the winners.
+     * Only reads the shared maps, so it is safe to call for several items concurrently.
+     */
+    private List<AllocationResult> allocateCompetitiveItem(
+            Long tenderId,
+            TenderItemDTO item,
+            List<TenderRankingDTO> eligibleRankings,
+            Map<Long, Map<Long, BigDecimal>> pricesByBid,
+            Map<Long, BigDecimal> adjustmentRates,
+            boolean isAverageAllocation) {
+
+        BigDecimal sumPrice = BigDecimal.ZERO;
+        int count = 0;
+
+        for (TenderRankingDTO ranking : eligibleRankings) {
+            Map<Long, BigDecimal> prices = pricesByBid.get(ranking.getBidId());
+            BigDecimal price = prices != null ? prices.get(item.getCriteriaId()) : null;
+
+            if (price != null) {
+                BigDecimal adjustedPrice = price.multiply(adjustmentRates.get(ranking.getBidId()));
+                sumPrice = sumPrice.add(adjustedPrice);
+                count++;
+            }
+        }
+
+        BigDecimal unitPrice;
+        if (count > 0) {
+            unitPrice = sumPrice.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+        } else {
+            // If no prices available, use a default unit price based on tender details
+            // This could be an average of item prices or a predefined value
+            log.warn("No price data available for item ID: {}. Using default price.", item.getId());
+            unitPrice = BigDecimal.ONE; // Default to 1 as a placeholder
+        }
+
+        List<AllocationResult> allocations = new ArrayList<>();
+
+        if (isAverageAllocation) {
+            // Average allocation
+            allocateAverageQuantities(tenderId, item, unitPrice, eligibleRankings, allocations);
+        } else {
+            // Proportional allocation based on scores
+            allocateProportionalQuantities(tenderId, item, unitPrice, eligibleRankings, allocations);
+        }
+
+        return allocations;
     }
 
     /**
@@ -571,6 +595,27 @@ public class AllocationServiceImpl implements AllocationService {
         }
     }
 
+    /**
+     * Marks the given bids as winners in the tender rankings with one bulk update.
+     *
+     * @param required whether every winning bid must already have a ranking
+     */
+    private void markWinners(Long tenderId, Set<Long> bidIds, boolean required) {
+        if (bidIds.isEmpty()) {
+            return;
+        }
+
+        int updated = rankingRepository.markWinners(tenderId, bidIds);
+
+        if (updated < bidIds.size()) {
+            if (required) {
+                throw new AllocationException("Ranking not found for all winning bids of tender ID: " + tenderId);
+            }
+            log.warn("Rankings found for only {} of {} winning bids for tender ID: {}",
+                    updated, bidIds.size(), tenderId);
+        }
+    }
+
     /**
      * Calculates composite bid value as described in the paper.
      * Composite Bid = Sum(Item Price * Item Weight)
@@ -634,11 +679,20 @@ public class AllocationServiceImpl implements AllocationService {
         }
     }
 
+    private TenderDataSnapshot newSnapshot() {
+        return new TenderDataSnapshot(tenderClient, bidClient);
+    }
+
     /**
      * Helper method to enrich allocation DTOs with bidder and item names.
      * Uses batch fetching to minimize API calls.
      */
     private List<AllocationResultDTO> enrichAllocationDTOs(List<AllocationResultDTO> allocationDTOs) {
+        return enrichAllocationDTOs(allocationDTOs, newSnapshot());
+    }
+
+    private List<AllocationResultDTO> enrichAllocationDTOs(
+            List<AllocationResultDTO> allocationDTOs, TenderDataSnapshot snapshot) {
         if (allocationDTOs.isEmpty()) {
             return allocationDTOs;
         }
@@ -653,40 +707,22 @@ public class AllocationServiceImpl implements AllocationService {
                 .collect(Collectors.toSet());
 
         // Pre-fetch tender and bid data in batches
-        Map<Long, String> bidderNames = new HashMap<>();
-        Map<Long, TenderDTO> tenderDataCache = new HashMap<>();
-        Map<Long, String> itemNames = new HashMap<>();
+        snapshot.prefetchBids(bidIds);
+        snapshot.prefetchTenders(tenderIds);
 
-        // Fetch bid data
-        for (Long bidId : bidIds) {
-            try {
-                BidDTO bid = bidClient.getBidById(bidId);
-                bidderNames.put(bidId, bid.getTendererName());
-            } catch (Exception e) {
-                log.warn("Failed to get bid data for bid ID: {}", bidId, e);
-                bidderNames.put(bidId, "Unknown");
-            }
-        }
+        Map<Long, String> itemNames = new HashMap<>();
 
-        // Fetch tender data
+        // Pre-compute item names
         for (Long tenderId : tenderIds) {
-            try {
-                TenderDTO tender = tenderClient.getTenderById(tenderId);
-                tenderDataCache.put(tenderId, tender);
-
-                // Pre-compute item names
-                for (TenderItemDTO item : tender.getItems()) {
-                    itemNames.put(item.getId(), item.getName());
-                }
-            } catch (Exception e) {
-                log.warn("Failed to get tender data for tender ID: {}", tenderId, e);
-            }
+            snapshot.findTender(tenderId).ifPresentOrElse(
+                    tender -> tender.getItems().forEach(item -> itemNames.put(item.getId(), item.getName())),
+                    () -> log.warn("Failed to get tender data for tender ID: {}", tenderId));
         }
 
         // Enrich DTOs with bidder and item names
         for (AllocationResultDTO dto : allocationDTOs) {
             // Set bidder name
-            dto.setBidderName(bidderNames.getOrDefault(dto.getBidId(), "Unknown"));
+            dto.setBidderName(snapshot.getBidderName(dto.getBidId()));
 
             // Set item name
             dto.setItemName(itemNames.getOrDefault(dto.getItemId(), "Unknown"));
@@ -1,9 +1,9 @@
 package com.egov.tendering.evaluation.service.impl;
 
-import com.egov.tendering.common.dal.dto.BidDTO;
 import com.egov.tendering.common.dal.dto.TenderCriteriaDTO;
 import com.egov.tendering.evaluation.client.BidClient;
 import com.egov.tendering.evaluation.client.TenderClient;
+import com.egov.tendering.evaluation.client.TenderDataSnapshot;
 import com.egov.tendering.common.dal.dto.TenderDTO;
 import com.egov.tendering.evaluation.dal.dto.*;
 import com.egov.tendering.evaluation.dal.mapper.CriteriaScoreMapper;
@@ -18,6 +18,7 @@ import com.egov.tendering.evaluation.exception.EvaluationNotFoundException;
 import com.egov.tendering.evaluation.exception.InvalidEvaluationStateException;
 import com.egov.tendering.evaluation.service.AllocationService;
 import com.egov.tendering.evaluation.service.EvaluationService;
+import com.egov.tendering.evaluation.service.NameLookupService;
 import com.egov.tendering.evaluation.service.TenderRankingService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -48,6 +49,7 @@ public class EvaluationServiceImpl implements EvaluationService {
     private final BidClient bidClient;
     private final TenderRankingService rankingService;
     private final AllocationService allocationService;
+    private final NameLookupService nameLookupService;
 
     @Override
     @Transactional
@@ -199,9 +201,14 @@ public class EvaluationServiceImpl implements EvaluationService {
                 .orElseThrow(() -> new EvaluationNotFoundException(evaluationId));
 
         EvaluationStatus oldStatus = evaluation.getStatus();
+        BigDecimal oldCountedScore = countedScore(evaluation);
         evaluation.setStatus(status);
         evaluation = evaluationRepository.save(evaluation);
 
+        // Keep the tender rankings current as evaluations enter or leave COMPLETED
+        rankingService.applyScoreChange(evaluation.getTenderId(), evaluation.getBidId(),
+                oldCountedScore, countedScore(evaluation));
+
         // Publish event
         eventPublisher.publishEvaluationStatusChangedEvent(evaluation, oldStatus);
 
@@ -251,7 +258,9 @@ public class EvaluationServiceImpl implements EvaluationService {
 
         Page<Evaluation> evaluations = evaluationRepository.findAll(pageable);
 
-        return evaluations.map(evaluation -> enrichEvaluationDTO(evaluationMapper.toDto(evaluation)));
+        Page<EvaluationDTO> evaluationDTOs = evaluations.map(evaluationMapper::toDto);
+        enrichEvaluationDTOs(evaluationDTOs.getContent());
+        return evaluationDTOs;
     }
 
     @Override
@@ -278,27 +287,33 @@ public class EvaluationServiceImpl implements EvaluationService {
             throw new IllegalStateException("No completed evaluations found for tender ID: " + tenderId);
         }
 
+        // Fetch the tender and every evaluated bid once for the whole calculation
+        TenderDataSnapshot snapshot = new TenderDataSnapshot(tenderClient, bidClient);
+
         // Get tender details including allocation strategy
-        TenderDTO tenderDTO = tenderClient.getTenderById(tenderId);
+        TenderDTO tenderDTO = snapshot.getTender(tenderId);
+        snapshot.prefetchBids(evaluations.stream()
+                .map(Evaluation::getBidId)
+                .collect(Collectors.toSet()));
 
         // Calculate bid rankings
-        List<TenderRankingDTO> rankings = rankingService.calculateBidRankings(tenderId, evaluations);
+        List<TenderRankingDTO> rankings = rankingService.calculateBidRankings(tenderId, evaluations, snapshot);
 
         // Determine winners and allocate items based on allocation strategy
         List<AllocationResultDTO> allocations;
 
         switch (tenderDTO.getAllocationStrategy()) {
             case SINGLE:
-                allocations = allocationService.allocateSingleWinner(tenderId, rankings);
+                allocations = allocationService.allocateSingleWinner(tenderId, rankings, snapshot);
                 break;
             case COOPERATIVE:
-                allocations = allocationService.allocateCooperative(tenderId, evaluations);
+                allocations = allocationService.allocateCooperative(tenderId, evaluations, snapshot);
                 break;
             case COMPETITIVE:
                 BigDecimal cutoffScore = tenderDTO.getCutoffScore();
                 boolean isAverageAllocation = tenderDTO.getIsAverageAllocation();
                 allocations = allocationService.allocateCompetitive(
-                        tenderId, rankings, cutoffScore, isAverageAllocation);
+                        tenderId, rankings, cutoffScore, isAverageAllocation, snapshot);
                 break;
             default:
                 throw new IllegalArgumentException("Unsupported allocation strategy: " +
@@ -318,32 +333,40 @@ public class EvaluationServiceImpl implements EvaluationService {
                 .build();
     }
 
+    // Only completed evaluations count towards the tender rankings
+    private BigDecimal countedScore(Evaluation evaluation) {
+        return evaluation.getStatus() == EvaluationStatus.COMPLETED ? evaluation.getOverallScore() : null;
+    }
+
     // Helper method to enrich evaluation DTO with bidder name
     private EvaluationDTO enrichEvaluationDTO(EvaluationDTO evaluationDTO) {
-        try {
-            BidDTO bidDTO = bidClient.getBidById(evaluationDTO.getBidId());
-            evaluationDTO.setBidderName(bidDTO.getTendererName());
+        enrichEvaluationDTOs(List.of(evaluationDTO));
+        return evaluationDTO;
+    }
 
-            // Enrich criteria scores with criteria names
-            TenderDTO tenderDTO = tenderClient.getTenderById(evaluationDTO.getTenderId());
-            Map<Long, String> criteriaNames = tenderDTO.getCriteria().stream()
-                    .collect(Collectors.toMap(TenderCriteriaDTO::getId, TenderCriteriaDTO::getName));
+    // Helper method to enrich a list of evaluation DTOs with one bulk lookup per remote service
+    private List<EvaluationDTO> enrichEvaluationDTOs(List<EvaluationDTO> evaluationDTOs) {
+        if (evaluationDTOs.isEmpty()) {
+            return evaluationDTOs;
+        }
+
+        Map<Long, String> bidderNames = nameLookupService.getBidderNames(evaluationDTOs.stream()
+                .map(EvaluationDTO::getBidId)
+                .collect(Collectors.toSet()));
+        Map<Long, Map<Long, String>> criteriaNamesByTender = nameLookupService.getCriteriaNames(evaluationDTOs.stream()
+                .map(EvaluationDTO::getTenderId)
+                .collect(Collectors.toSet()));
 
-            if (evaluationDTO.getCriteriaScores() != null) {
+        for (EvaluationDTO evaluationDTO : evaluationDTOs) {
+            evaluationDTO.setBidderName(bidderNames.getOrDefault(evaluationDTO.getBidId(), "Unknown"));
+
+            Map<Long, String> criteriaNames = criteriaNamesByTender.get(evaluationDTO.getTenderId());
+            if (criteriaNames != null && evaluationDTO.getCriteriaScores() != null) {
                 evaluationDTO.getCriteriaScores().forEach(cs ->
                         cs.setCriteriaName(criteriaNames.getOrDefault(cs.getCriteriaId(), "Unknown")));
             }
-        } catch (Exception e) {
-            log.warn("Failed to enrich evaluation DTO: {}", e.getMessage());
         }
-        return evaluationDTO;
-    }
-
-    // Helper method to enrich a list of evaluation DTOs
-    private List<EvaluationDTO> enrichEvaluationDTOs(List<EvaluationDTO> evaluationDTOs) {
-        return evaluationDTOs.stream()
-                .map(this::enrichEvaluationDTO)
-                .collect(Collectors.toList());
+        return evaluationDTOs;
     }
 
     /**
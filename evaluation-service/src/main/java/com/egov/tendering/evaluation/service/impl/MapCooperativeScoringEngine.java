@@ -0,0 +1,84 @@
+package com.egov.tendering.evaluation.service.impl;
+
+import com.egov.tendering.evaluation.dal.model.Evaluation;
+import com.egov.tendering.evaluation.service.CooperativeScoringEngine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+
+/**
+ * Cooperative scoring over nested maps of BigDecimal scores.
+ * Kept as the reference implementation for the score matrix engine.
+ */
+@Component
+@ConditionalOnProperty(name = "app.allocation.cooperative-engine", havingValue = "map")
+public class MapCooperativeScoringEngine implements CooperativeScoringEngine {
+
+    @Override
+    public Map<Long, List<Long>> findTopBidsByCriteria(List<Evaluation> evaluations, Collection<Long> criteriaIds) {
+        // Map of criteria scores by bid ID and criteria ID
+        Map<Long, Map<Long, List<BigDecimal>>> scoresByBidAndCriteria = new HashMap<>();
+
+        // Organize scores by bid and criteria
+        for (Evaluation evaluation : evaluations) {
+            evaluation.getCriteriaScores().forEach(score -> {
+                scoresByBidAndCriteria
+                        .computeIfAbsent(evaluation.getBidId(), k -> new HashMap<>())
+                        .computeIfAbsent(score.getCriteriaId(), k -> new ArrayList<>())
+                        .add(score.getScore());
+            });
+        }
+
+        // Calculate average score for each bid and criteria
+        Map<Long, Map<Long, BigDecimal>> avgScoresByBidAndCriteria = new HashMap<>();
+
+        scoresByBidAndCriteria.forEach((bidId, criteriaScores) -> {
+            Map<Long, BigDecimal> avgScores = new HashMap<>();
+
+            criteriaScores.forEach((criteriaId, scores) -> {
+                if (!scores.isEmpty()) {
+                    BigDecimal sum = scores.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+                    BigDecimal avgScore = sum.divide(BigDecimal.valueOf(scores.size()), 2, RoundingMode.HALF_UP);
+                    avgScores.put(criteriaId, avgScore);
+                }
+            });
+
+            avgScoresByBidAndCriteria.put(bidId, avgScores);
+        });
+
+        Map<Long, List<Long>> topBidsByCriteria = new HashMap<>();
+
+        for (Long criteriaId : new LinkedHashSet<>(criteriaIds)) {
+            // Find all bids with max score for this criteria
+            BigDecimal maxScore = BigDecimal.ZERO;
+            List<Long> maxScoreBids = new ArrayList<>();
+
+            for (Map.Entry<Long, Map<Long, BigDecimal>> entry : avgScoresByBidAndCriteria.entrySet()) {
+                Long bidId = entry.getKey();
+                Map<Long, BigDecimal> avgScores = entry.getValue();
+
+                if (avgScores.containsKey(criteriaId)) {
+                    BigDecimal score = avgScores.get(criteriaId);
+
+                    if (score.compareTo(maxScore) > 0) {
+                        maxScore = score;
+                        maxScoreBids.clear();
+                        maxScoreBids.add(bidId);
+                    } else if (score.compareTo(maxScore) == 0) {
+                        maxScoreBids.add(bidId);
+                    }
+                }
+            }
+
+            if (!maxScoreBids.isEmpty()) {
+                Collections.sort(maxScoreBids);
+                topBidsByCriteria.put(criteriaId, maxScoreBids);
+            }
+        }
+
+        return topBidsByCriteria;
+    }
+}
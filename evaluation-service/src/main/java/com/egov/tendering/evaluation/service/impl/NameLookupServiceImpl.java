@@ -0,0 +1,106 @@
+package com.egov.tendering.evaluation.service.impl;
+
+import com.egov.tendering.common.dal.dto.BidDTO;
+import com.egov.tendering.common.dal.dto.TenderCriteriaDTO;
+import com.egov.tendering.common.dal.dto.TenderDTO;
+import com.egov.tendering.evaluation.client.BidClient;
+import com.egov.tendering.evaluation.client.TenderClient;
+import com.egov.tendering.evaluation.service.NameLookupService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Name lookups backed by bounded Caffeine caches with a TTL.
+ * Cache misses for a request are resolved with a single batch call per remote service.
+ */
+@Service
+@Slf4j
+public class NameLookupServiceImpl implements NameLookupService {
+
+    private final BidClient bidClient;
+    private final TenderClient tenderClient;
+
+    private final Cache<Long, String> bidderNames;
+    private final Cache<Long, Map<Long, String>> criteriaNamesByTender;
+
+    public NameLookupServiceImpl(
+            BidClient bidClient,
+            TenderClient tenderClient,
+            @Value("${app.lookup-cache.maximum-size:10000}") long maximumSize,
+            @Value("${app.lookup-cache.ttl:10m}") Duration ttl) {
+        this.bidClient = bidClient;
+        this.tenderClient = tenderClient;
+        this.bidderNames = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.criteriaNamesByTender = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public Map<Long, String> getBidderNames(Collection<Long> bidIds) {
+        return bidderNames.getAll(withoutNulls(bidIds), this::loadBidderNames);
+    }
+
+    @Override
+    public Map<Long, Map<Long, String>> getCriteriaNames(Collection<Long> tenderIds) {
+        return criteriaNamesByTender.getAll(withoutNulls(tenderIds), this::loadCriteriaNames);
+    }
+
+    @Override
+    public void evictBid(Long bidId) {
+        bidderNames.invalidate(bidId);
+    }
+
+    @Override
+    public void evictTender(Long tenderId) {
+        criteriaNamesByTender.invalidate(tenderId);
+    }
+
+    private Map<Long, String> loadBidderNames(Set<? extends Long> bidIds) {
+        Map<Long, String> names = new HashMap<>();
+        try {
+            for (BidDTO bid : bidClient.getBidsByIds(new ArrayList<>(bidIds))) {
+                if (bid.getTendererName() != null) {
+                    names.put(bid.getId(), bid.getTendererName());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to get bidder names for {} bids", bidIds.size(), e);
+        }
+        return names;
+    }
+
+    private Map<Long, Map<Long, String>> loadCriteriaNames(Set<? extends Long> tenderIds) {
+        Map<Long, Map<Long, String>> names = new HashMap<>();
+        try {
+            for (TenderDTO tender : tenderClient.getTendersByIds(new ArrayList<>(tenderIds))) {
+                Map<Long, String> criteriaNames = new HashMap<>();
+                if (tender.getCriteria() != null) {
+                    for (TenderCriteriaDTO criteria : tender.getCriteria()) {
+                        criteriaNames.put(criteria.getId(), criteria.getName());
+                    }
+                }
+                names.put(tender.getId(), criteriaNames);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to get criteria names for {} tenders", tenderIds.size(), e);
+        }
+        return names;
+    }
+
+    private static Set<Long> withoutNulls(Collection<Long> ids) {
+        Set<Long> result = new HashSet<>(ids);
+        result.remove(null);
+        return result;
+    }
+}
@@ -0,0 +1,161 @@
+package com.egov.tendering.evaluation.service.impl;
+
+import com.egov.tendering.evaluation.dal.model.CriteriaScore;
+import com.egov.tendering.evaluation.dal.model.Evaluation;
+import com.egov.tendering.evaluation.exception.AllocationException;
+import com.egov.tendering.evaluation.service.CooperativeScoringEngine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Cooperative scoring over a dense bid x criteria matrix of primitive sums and counts.
+ * <p>
+ * Scores are rescaled to exact unscaled longs on the way in, and averages are rounded
+ * HALF_UP to two decimal places with integer arithmetic, so the winners are identical
+ * to the BigDecimal implementation. The per-criteria argmax is computed in a single
+ * pass over the matrix without allocating per cell.
+ */
+@Component
+@ConditionalOnProperty(name = "app.allocation.cooperative-engine", havingValue = "matrix", matchIfMissing = true)
+public class ScoreMatrixCooperativeScoringEngine implements CooperativeScoringEngine {
+
+    private static final int AVERAGE_SCALE = 2;
+    private static final int MAX_SCALE = 18;
+    private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1L;
+        for (int i = 1; i <= MAX_SCALE; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10L;
+        }
+    }
+
+    @Override
+    public Map<Long, List<Long>> findTopBidsByCriteria(List<Evaluation> evaluations, Collection<Long> criteriaIds) {
+        // Index only the criteria that are being allocated
+        Map<Long, Integer> criteriaIndex = new HashMap<>();
+        List<Long> criteriaByIndex = new ArrayList<>();
+        for (Long criteriaId : criteriaIds) {
+            if (criteriaId != null && !criteriaIndex.containsKey(criteriaId)) {
+                criteriaIndex.put(criteriaId, criteriaByIndex.size());
+                criteriaByIndex.add(criteriaId);
+            }
+        }
+
+        if (criteriaByIndex.isEmpty() || evaluations.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        // Index bids and find the smallest scale that represents every relevant score exactly
+        Map<Long, Integer> bidIndex = new HashMap<>();
+        List<Long> bidsByIndex = new ArrayList<>();
+        int scale = 0;
+
+        for (Evaluation evaluation : evaluations) {
+            if (!bidIndex.containsKey(evaluation.getBidId())) {
+                bidIndex.put(evaluation.getBidId(), bidsByIndex.size());
+                bidsByIndex.add(evaluation.getBidId());
+            }
+            for (CriteriaScore score : evaluation.getCriteriaScores()) {
+                if (criteriaIndex.containsKey(score.getCriteriaId())) {
+                    scale = Math.max(scale, score.getScore().stripTrailingZeros().scale());
+                }
+            }
+        }
+
+        if (scale > MAX_SCALE) {
+            throw new AllocationException("Criteria scores exceed the precision supported by the score matrix");
+        }
+
+        int bidCount = bidsByIndex.size();
+        int criteriaCount = criteriaByIndex.size();
+        long[] sums = new long[bidCount * criteriaCount];
+        int[] counts = new int[bidCount * criteriaCount];
+
+        long[] best = new long[criteriaCount];
+        int[] tieHead = new int[criteriaCount];
+        int[] tieNext = new int[bidCount * criteriaCount];
+        Arrays.fill(tieHead, -1);
+
+        try {
+            // Accumulate unscaled sums per cell
+            for (Evaluation evaluation : evaluations) {
+                int row = bidIndex.get(evaluation.getBidId()) * criteriaCount;
+                for (CriteriaScore score : evaluation.getCriteriaScores()) {
+                    Integer column = criteriaIndex.get(score.getCriteriaId());
+                    if (column != null) {
+                        int cell = row + column;
+                        sums[cell] = Math.addExact(sums[cell], toUnscaled(score.getScore(), scale));
+                        counts[cell]++;
+                    }
+                }
+            }
+
+            // Single pass argmax; ties are chained through the cell index
+            for (int bid = 0; bid < bidCount; bid++) {
+                int row = bid * criteriaCount;
+                for (int column = 0; column < criteriaCount; column++) {
+                    int cell = row + column;
+                    if (counts[cell] == 0) {
+                        continue;
+                    }
+
+                    long average = averageInHundredths(sums[cell], counts[cell], scale);
+                    if (average > best[column]) {
+                        best[column] = average;
+                        tieHead[column] = cell;
+                        tieNext[cell] = -1;
+                    } else if (average == best[column]) {
+                        tieNext[cell] = tieHead[column];
+                        tieHead[column] = cell;
+                    }
+                }
+            }
+        } catch (ArithmeticException e) {
+            throw new AllocationException("Criteria scores exceed the range supported by the score matrix");
+        }
+
+        Map<Long, List<Long>> topBidsByCriteria = new HashMap<>();
+
+        for (int column = 0; column < criteriaCount; column++) {
+            if (tieHead[column] < 0) {
+                continue;
+            }
+
+            List<Long> topBids = new ArrayList<>();
+            for (int cell = tieHead[column]; cell >= 0; cell = tieNext[cell]) {
+                topBids.add(bidsByIndex.get(cell / criteriaCount));
+            }
+            Collections.sort(topBids);
+            topBidsByCriteria.put(criteriaByIndex.get(column), topBids);
+        }
+
+        return topBidsByCriteria;
+    }
+
+    private static long toUnscaled(BigDecimal score, int scale) {
+        return score.setScale(scale).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Average of the unscaled sum, rounded HALF_UP to {@link #AVERAGE_SCALE} decimal places
+     */
+    private static long averageInHundredths(long sum, int count, int scale) {
+        if (scale <= AVERAGE_SCALE) {
+            return divideHalfUp(Math.multiplyExact(sum, POWERS_OF_TEN[AVERAGE_SCALE - scale]), count);
+        }
+        return divideHalfUp(sum, Math.multiplyExact((long) count, POWERS_OF_TEN[scale - AVERAGE_SCALE]));
+    }
+
+    private static long divideHalfUp(long numerator, long denominator) {
+        long quotient = numerator / denominator;
+        long remainder = Math.abs(numerator % denominator);
+        if (remainder >= denominator - remainder) {
+            quotient += Long.signum(numerator);
+        }
+        return quotient;
+    }
+}
@@ -1,23 +1,28 @@
 package com.egov.tendering.evaluation.service.impl;
 
 import com.egov.tendering.evaluation.client.BidClient;
+import com.egov.tendering.evaluation.client.TenderClient;
+import com.egov.tendering.evaluation.client.TenderDataSnapshot;
 import com.egov.tendering.evaluation.dal.dto.TenderRankingDTO;
 import com.egov.tendering.evaluation.dal.mapper.TenderRankingMapper;
+import com.egov.tendering.evaluation.dal.model.BidScoreTally;
 import com.egov.tendering.evaluation.dal.model.Evaluation;
 import com.egov.tendering.evaluation.dal.model.TenderRanking;
+import com.egov.tendering.evaluation.dal.repository.BidScoreTallyRepository;
+import com.egov.tendering.evaluation.dal.repository.TenderRankingLockRepository;
 import com.egov.tendering.evaluation.dal.repository.TenderRankingRepository;
+import com.egov.tendering.evaluation.service.NameLookupService;
 import com.egov.tendering.evaluation.service.TenderRankingService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,24 +30,56 @@ import java.util.stream.Collectors;
 @Slf4j
 public class TenderRankingServiceImpl implements TenderRankingService {
 
+    // Highest score first; ties are broken by bid ID so full and incremental ranking agree
+    private static final Comparator<TenderRanking> RANKING_ORDER =
+            Comparator.comparing(TenderRanking::getFinalScore).reversed()
+                    .thenComparing(TenderRanking::getBidId);
+
     private final TenderRankingRepository rankingRepository;
     private final TenderRankingMapper rankingMapper;
     private final BidClient bidClient;
+    private final TenderClient tenderClient;
+    private final NameLookupService nameLookupService;
+    private final BidScoreTallyRepository tallyRepository;
+    private final TenderRankingLockRepository rankingLockRepository;
+
+    @Value("${app.ranking.incremental:true}")
+    private boolean incrementalRanking;
 
     @Override
     @Transactional
     public List<TenderRankingDTO> calculateBidRankings(Long tenderId, List<Evaluation> evaluations) {
-        log.info("Calculating bid rankings for tender ID: {}", tenderId);
+        return calculateBidRankings(tenderId, evaluations, new TenderDataSnapshot(tenderClient, bidClient));
+    }
 
-        // Clear existing rankings
-        clearRankings(tenderId);
+    @Override
+    @Transactional
+    public List<TenderRankingDTO> calculateBidRankings(
+            Long tenderId, List<Evaluation> evaluations, TenderDataSnapshot snapshot) {
+        log.info("Calculating bid rankings for tender ID: {}", tenderId);
 
         // Group evaluations by bid
         Map<Long, List<Evaluation>> evaluationsByBid = evaluations.stream()
                 .collect(Collectors.groupingBy(Evaluation::getBidId));
 
+        // Rankings kept current by applyScoreChange only need their winner flags reset
+        if (incrementalRanking) {
+            rankingLockRepository.lock(tenderId);
+            List<TenderRanking> currentRankings = findCurrentRankings(tenderId, evaluationsByBid);
+            if (currentRankings != null) {
+                log.info("Rankings for tender ID: {} are up to date, skipping full recalculation", tenderId);
+                currentRankings.forEach(ranking -> ranking.setIsWinner(false)); // Will be set later in allocation
+                return enrichRankingDTOs(rankingMapper.toDtoList(currentRankings), snapshot);
+            }
+            tallyRepository.deleteByTenderId(tenderId);
+        }
+
+        // Clear existing rankings
+        clearRankings(tenderId);
+
         // Calculate average score for each bid
         List<TenderRanking> rankings = new ArrayList<>();
+        List<BidScoreTally> tallies = new ArrayList<>();
 
         for (Map.Entry<Long, List<Evaluation>> entry : evaluationsByBid.entrySet()) {
             Long bidId = entry.getKey();
@@ -63,10 +100,19 @@ public class TenderRankingServiceImpl implements TenderRankingService {
             ranking.setFinalScore(averageScore);
 
             rankings.add(ranking);
+
+            if (incrementalRanking) {
+                tallies.add(BidScoreTally.builder()
+                        .tenderId(tenderId)
+                        .bidId(bidId)
+                        .scoreSum(totalScore)
+                        .evaluationCount(bidEvaluations.size())
+                        .build());
+            }
         }
 
         // Sort by score (descending) and assign ranks
-        rankings.sort(Comparator.comparing(TenderRanking::getFinalScore).reversed());
+        rankings.sort(RANKING_ORDER);
 
         int rank = 1;
         for (TenderRanking ranking : rankings) {
@@ -76,11 +122,84 @@ public class TenderRankingServiceImpl implements TenderRankingService {
 
         // Save rankings
         rankings = rankingRepository.saveAll(rankings);
+        tallyRepository.saveAll(tallies);
 
         // Map to DTOs and enrich with bidder names
         List<TenderRankingDTO> rankingDTOs = rankingMapper.toDtoList(rankings);
 
-        return enrichRankingDTOs(rankingDTOs);
+        return enrichRankingDTOs(rankingDTOs, snapshot);
+    }
+
+    @Override
+    @Transactional
+    public void applyScoreChange(Long tenderId, Long bidId, BigDecimal removedScore, BigDecimal addedScore) {
+        if (!incrementalRanking || Objects.equals(removedScore, addedScore)) {
+            return;
+        }
+        log.debug("Applying score change for bid ID: {} in tender ID: {}", bidId, tenderId);
+
+        // Lock the tender first so concurrent changes re-rank it one at a time, including the
+        // first changes of a tender that has no rankings yet
+        rankingLockRepository.lock(tenderId);
+        List<TenderRanking> rankings = new ArrayList<>(rankingRepository.findByTenderIdOrderByRankAsc(tenderId));
+
+        BidScoreTally tally = tallyRepository.findWithLockByTenderIdAndBidId(tenderId, bidId)
+                .orElseGet(() -> BidScoreTally.builder()
+                        .tenderId(tenderId)
+                        .bidId(bidId)
+                        .scoreSum(BigDecimal.ZERO)
+                        .evaluationCount(0)
+                        .build());
+
+        if (removedScore != null) {
+            tally.setScoreSum(tally.getScoreSum().subtract(removedScore));
+            tally.setEvaluationCount(tally.getEvaluationCount() - 1);
+        }
+        if (addedScore != null) {
+            tally.setScoreSum(tally.getScoreSum().add(addedScore));
+            tally.setEvaluationCount(tally.getEvaluationCount() + 1);
+        }
+
+        TenderRanking ranking = rankings.stream()
+                .filter(r -> r.getBidId().equals(bidId))
+                .findFirst()
+                .orElse(null);
+        rankings.remove(ranking);
+
+        if (tally.getEvaluationCount() <= 0) {
+            // The bid has no completed evaluations left
+            if (tally.getId() != null) {
+                tallyRepository.delete(tally);
+            }
+            if (ranking != null) {
+                rankingRepository.delete(ranking);
+            }
+            ranking = null;
+        } else {
+            tallyRepository.save(tally);
+
+            if (ranking == null) {
+                ranking = new TenderRanking();
+                ranking.setTenderId(tenderId);
+                ranking.setBidId(bidId);
+                ranking.setIsWinner(false);
+            }
+            ranking.setFinalScore(tally.getScoreSum().divide(
+                    BigDecimal.valueOf(tally.getEvaluationCount()), 2, RoundingMode.HALF_UP));
+
+            int position = Collections.binarySearch(rankings, ranking, RANKING_ORDER);
+            rankings.add(position < 0 ? -position - 1 : position, ranking);
+        }
+
+        // Only rankings whose position changed are written back
+        for (int i = 0; i < rankings.size(); i++) {
+            if (!Objects.equals(rankings.get(i).getRank(), i + 1)) {
+                rankings.get(i).setRank(i + 1);
+            }
+        }
+        if (ranking != null && ranking.getId() == null) {
+            rankingRepository.save(ranking);
+        }
     }
 
     @Override
@@ -113,15 +232,55 @@ public class TenderRankingServiceImpl implements TenderRankingService {
         rankingRepository.deleteByTenderId(tenderId);
     }
 
+    // Returns the stored rankings if the tallies match these evaluations exactly, otherwise null
+    private List<TenderRanking> findCurrentRankings(Long tenderId, Map<Long, List<Evaluation>> evaluationsByBid) {
+        Map<Long, BidScoreTally> tallies = tallyRepository.findByTenderId(tenderId).stream()
+                .collect(Collectors.toMap(BidScoreTally::getBidId, Function.identity()));
+        if (tallies.size() != evaluationsByBid.size()) {
+            return null;
+        }
+
+        for (Map.Entry<Long, List<Evaluation>> entry : evaluationsByBid.entrySet()) {
+            BidScoreTally tally = tallies.get(entry.getKey());
+            BigDecimal totalScore = entry.getValue().stream()
+                    .map(Evaluation::getOverallScore)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            if (tally == null
+                    || tally.getEvaluationCount() != entry.getValue().size()
+                    || tally.getScoreSum().compareTo(totalScore) != 0) {
+                return null;
+            }
+        }
+
+        List<TenderRanking> rankings = rankingRepository.findByTenderIdOrderByRankAsc(tenderId);
+        Set<Long> rankedBidIds = rankings.stream()
+                .map(TenderRanking::getBidId)
+                .collect(Collectors.toSet());
+        if (rankings.size() != tallies.size() || !rankedBidIds.equals(tallies.keySet())) {
+            return null;
+        }
+        return rankings;
+    }
+
     // Helper method to enrich ranking DTOs with bidder names
     private List<TenderRankingDTO> enrichRankingDTOs(List<TenderRankingDTO> rankingDTOs) {
+        Map<Long, String> bidderNames = nameLookupService.getBidderNames(rankingDTOs.stream()
+                .map(TenderRankingDTO::getBidId)
+                .collect(Collectors.toSet()));
+
         for (TenderRankingDTO dto : rankingDTOs) {
-            try {
-                dto.setBidderName(bidClient.getBidById(dto.getBidId()).getTendererName());
-            } catch (Exception e) {
-                log.warn("Failed to get bidder name for bid ID: {}", dto.getBidId());
-                dto.setBidderName("Unknown");
-            }
+            dto.setBidderName(bidderNames.getOrDefault(dto.getBidId(), "Unknown"));
+        }
+        return rankingDTOs;
+    }
+
+    private List<TenderRankingDTO> enrichRankingDTOs(List<TenderRankingDTO> rankingDTOs, TenderDataSnapshot snapshot) {
+        snapshot.prefetchBids(rankingDTOs.stream()
+                .map(TenderRankingDTO::getBidId)
+                .collect(Collectors.toSet()));
+
+        for (TenderRankingDTO dto : rankingDTOs) {
+            dto.setBidderName(snapshot.getBidderName(dto.getBidId()));
         }
         return rankingDTOs;
     }
@@ -0,0 +1,141 @@
+package com.egov.tendering.evaluation.service.impl;
+
+import com.egov.tendering.common.dal.dto.BidDTO;
+import com.egov.tendering.common.dal.dto.BidItemDTO;
+import com.egov.tendering.common.dal.dto.TenderCriteriaDTO;
+import com.egov.tendering.common.dal.dto.TenderDTO;
+import com.egov.tendering.common.dal.dto.TenderItemDTO;
+import com.egov.tendering.evaluation.client.BidClient;
+import com.egov.tendering.evaluation.client.TenderClient;
+import com.egov.tendering.evaluation.client.TenderDataSnapshot;
+import com.egov.tendering.evaluation.dal.dto.TenderRankingDTO;
+import com.egov.tendering.evaluation.dal.mapper.AllocationResultMapper;
+import com.egov.tendering.evaluation.dal.model.AllocationResult;
+import com.egov.tendering.evaluation.dal.repository.AllocationResultRepository;
+import com.egov.tendering.evaluation.dal.repository.TenderRankingRepository;
+import com.egov.tendering.evaluation.service.CooperativeScoringEngine;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks that competitive allocation of large tenders on the fork-join pool saves exactly the
+ * allocations of the sequential path, down to the scale of every price.
+ */
+class AllocationServiceImplTest {
+
+    private static final Long TENDER_ID = 1L;
+
+    @Test
+    void parallelCompetitiveAllocationMatchesSequential() {
+        for (long seed = 1; seed <= 20; seed++) {
+            Random random = new Random(seed);
+            TenderDTO tender = tender(random, 300 + random.nextInt(200), 1 + random.nextInt(12));
+            List<BidDTO> bids = bids(random, tender, 2 + random.nextInt(15));
+            List<TenderRankingDTO> rankings = rankings(random, bids);
+            // A cutoff at one of the scores leaves at least that bid eligible
+            BigDecimal cutoff = rankings.get(random.nextInt(rankings.size())).getFinalScore();
+            boolean average = random.nextBoolean();
+
+            List<String> sequential = allocate(tender, bids, rankings, cutoff, average, Integer.MAX_VALUE);
+            List<String> parallel = allocate(tender, bids, rankings, cutoff, average, 1);
+
+            assertThat(parallel).as("allocations with seed %d", seed).isEqualTo(sequential);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> allocate(TenderDTO tender, List<BidDTO> bids, List<TenderRankingDTO> rankings,
+                                         BigDecimal cutoff, boolean average, int parallelItemThreshold) {
+        AllocationResultRepository allocationRepository = mock(AllocationResultRepository.class);
+        when(allocationRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TenderRankingRepository rankingRepository = mock(TenderRankingRepository.class);
+        when(rankingRepository.markWinners(eq(TENDER_ID), anyCollection()))
+                .thenAnswer(invocation -> invocation.<Collection<Long>>getArgument(1).size());
+
+        AllocationResultMapper mapper = mock(AllocationResultMapper.class);
+        when(mapper.toDtoList(anyList())).thenReturn(new ArrayList<>());
+
+        TenderDataSnapshot snapshot = mock(TenderDataSnapshot.class);
+        when(snapshot.getTender(TENDER_ID)).thenReturn(tender);
+        when(snapshot.findBid(anyLong())).thenAnswer(invocation -> bids.stream()
+                .filter(bid -> bid.getId().equals(invocation.getArgument(0)))
+                .findFirst());
+
+        AllocationServiceImpl service = new AllocationServiceImpl(allocationRepository, rankingRepository, mapper,
+                mock(TenderClient.class), mock(BidClient.class), mock(CooperativeScoringEngine.class));
+        ReflectionTestUtils.setField(service, "parallelItemThreshold", parallelItemThreshold);
+
+        service.allocateCompetitive(TENDER_ID, rankings, cutoff, average, snapshot);
+
+        ArgumentCaptor<List<AllocationResult>> saved = ArgumentCaptor.forClass(List.class);
+        verify(allocationRepository).saveAll(saved.capture());
+        return saved.getValue().stream()
+                .map(allocation -> allocation.getTenderId() + "|" + allocation.getBidId() + "|" + allocation.getItemId()
+                        + "|" + allocation.getQuantity() + "|" + allocation.getUnitPrice() + "|" + allocation.getTotalPrice())
+                .toList();
+    }
+
+    private static TenderDTO tender(Random random, int itemCount, int criteriaCount) {
+        List<TenderCriteriaDTO> criteria = new ArrayList<>();
+        for (long id = 1; id <= criteriaCount; id++) {
+            criteria.add(TenderCriteriaDTO.builder()
+                    .id(id)
+                    .weight(BigDecimal.valueOf(1 + random.nextInt(50), 2))
+                    .build());
+        }
+
+        List<TenderItemDTO> items = new ArrayList<>();
+        for (long id = 1; id <= itemCount; id++) {
+            items.add(TenderItemDTO.builder()
+                    .id(id)
+                    .criteriaId(1 + (long) random.nextInt(criteriaCount + 1))
+                    .quantity(1 + random.nextInt(1000))
+                    .build());
+        }
+
+        return TenderDTO.builder().id(TENDER_ID).criteria(criteria).items(items).build();
+    }
+
+    private static List<BidDTO> bids(Random random, TenderDTO tender, int bidCount) {
+        List<BidDTO> bids = new ArrayList<>();
+        for (long id = 1; id <= bidCount; id++) {
+            List<BidItemDTO> items = new ArrayList<>();
+            for (TenderCriteriaDTO criteria : tender.getCriteria()) {
+                // Some bids leave criteria out, so items fall back to fewer prices or the default
+                if (random.nextInt(4) > 0) {
+                    items.add(BidItemDTO.builder()
+                            .criteriaId(criteria.getId())
+                            .value(BigDecimal.valueOf(random.nextInt(1_000_000), 2))
+                            .build());
+                }
+            }
+            bids.add(BidDTO.builder().id(id).tenderId(TENDER_ID).items(items).build());
+        }
+        return bids;
+    }
+
+    private static List<TenderRankingDTO> rankings(Random random, List<BidDTO> bids) {
+        List<TenderRankingDTO> rankings = new ArrayList<>();
+        for (BidDTO bid : bids) {
+            rankings.add(TenderRankingDTO.builder()
+                    .tenderId(TENDER_ID)
+                    .bidId(bid.getId())
+                    // Few distinct values, so ties are common
+                    .finalScore(BigDecimal.valueOf(random.nextInt(21) * 5L, 0).setScale(2))
+                    .build());
+        }
+        return rankings;
+    }
+}
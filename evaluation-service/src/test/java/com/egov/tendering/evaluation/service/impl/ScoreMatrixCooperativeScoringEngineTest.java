@@ -0,0 +1,96 @@
+package com.egov.tendering.evaluation.service.impl;
+
+import com.egov.tendering.evaluation.dal.model.CriteriaScore;
+import com.egov.tendering.evaluation.dal.model.Evaluation;
+import com.egov.tendering.evaluation.dal.model.EvaluationStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the score matrix engine picks the same cooperative winners as the nested-map
+ * reference engine.
+ */
+class ScoreMatrixCooperativeScoringEngineTest {
+
+    private final ScoreMatrixCooperativeScoringEngine matrixEngine = new ScoreMatrixCooperativeScoringEngine();
+    private final MapCooperativeScoringEngine mapEngine = new MapCooperativeScoringEngine();
+
+    @Test
+    void winnersMatchTheMapEngine() {
+        for (long seed = 1; seed <= 200; seed++) {
+            Random random = new Random(seed);
+            int bidCount = 1 + random.nextInt(30);
+            int criteriaCount = 1 + random.nextInt(10);
+            int scale = random.nextInt(5);
+
+            int evaluationCount = random.nextInt(120);
+
+            List<Evaluation> evaluations = new ArrayList<>();
+            for (int i = 0; i < evaluationCount; i++) {
+                Evaluation evaluation = evaluation(i, 1 + random.nextInt(bidCount));
+                for (long criteriaId = 1; criteriaId <= criteriaCount; criteriaId++) {
+                    if (random.nextInt(5) > 0) {
+                        // Few distinct values, some negative, so ties and roundings are common
+                        BigDecimal score = BigDecimal.valueOf(random.nextInt(40) - 5L, 0)
+                                .movePointLeft(scale > 0 ? random.nextInt(scale + 1) : 0);
+                        evaluation.getCriteriaScores().add(score(evaluation, criteriaId, score));
+                    }
+                }
+                evaluations.add(evaluation);
+            }
+
+            // Includes criteria nobody scored and a duplicate
+            List<Long> criteriaIds = new ArrayList<>();
+            for (long criteriaId = 1; criteriaId <= criteriaCount + 2; criteriaId++) {
+                criteriaIds.add(criteriaId);
+            }
+            criteriaIds.add(1L);
+
+            assertThat(matrixEngine.findTopBidsByCriteria(evaluations, criteriaIds))
+                    .as("winners with seed %d", seed)
+                    .isEqualTo(mapEngine.findTopBidsByCriteria(evaluations, criteriaIds));
+        }
+    }
+
+    @Test
+    void averagesAreRoundedHalfUpBeforeComparing() {
+        // Bid 1 averages 0.005, which rounds to 0.01 and ties with bid 2; bid 3 averages -0.005
+        List<Evaluation> evaluations = List.of(
+                evaluation(1, 1, "0.01"), evaluation(2, 1, "0.00"),
+                evaluation(3, 2, "0.01"),
+                evaluation(4, 3, "-0.01"), evaluation(5, 3, "0.00"));
+
+        Map<Long, List<Long>> expected = Map.of(1L, List.of(1L, 2L));
+        assertThat(matrixEngine.findTopBidsByCriteria(evaluations, List.of(1L))).isEqualTo(expected);
+        assertThat(mapEngine.findTopBidsByCriteria(evaluations, List.of(1L))).isEqualTo(expected);
+    }
+
+    private static Evaluation evaluation(long id, long bidId, String criteriaOneScore) {
+        Evaluation evaluation = evaluation(id, bidId);
+        evaluation.getCriteriaScores().add(score(evaluation, 1L, new BigDecimal(criteriaOneScore)));
+        return evaluation;
+    }
+
+    private static Evaluation evaluation(long id, long bidId) {
+        return Evaluation.builder()
+                .id(id)
+                .tenderId(1L)
+                .bidId(bidId)
+                .evaluatorId(id)
+                .status(EvaluationStatus.COMPLETED)
+                .criteriaScores(new ArrayList<>())
+                .build();
+    }
+
+    private static CriteriaScore score(Evaluation evaluation, long criteriaId, BigDecimal score) {
+        return CriteriaScore.builder()
+                .evaluation(evaluation)
+                .criteriaId(criteriaId)
+                .score(score)
+                .build();
+    }
+}
@@ -0,0 +1,188 @@
+package com.egov.tendering.evaluation.service.impl;
+
+import com.egov.tendering.evaluation.client.BidClient;
+import com.egov.tendering.evaluation.client.TenderClient;
+import com.egov.tendering.evaluation.client.TenderDataSnapshot;
+import com.egov.tendering.evaluation.dal.mapper.TenderRankingMapper;
+import com.egov.tendering.evaluation.dal.model.BidScoreTally;
+import com.egov.tendering.evaluation.dal.model.Evaluation;
+import com.egov.tendering.evaluation.dal.model.EvaluationStatus;
+import com.egov.tendering.evaluation.dal.model.TenderRanking;
+import com.egov.tendering.evaluation.dal.repository.BidScoreTallyRepository;
+import com.egov.tendering.evaluation.dal.repository.TenderRankingLockRepository;
+import com.egov.tendering.evaluation.dal.repository.TenderRankingRepository;
+import com.egov.tendering.evaluation.service.NameLookupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks that rankings kept current by {@code applyScoreChange} match a full recalculation from
+ * the same completed evaluations.
+ */
+class TenderRankingServiceImplTest {
+
+    private static final Long TENDER_ID = 1L;
+
+    private final List<TenderRanking> storedRankings = new ArrayList<>();
+    private final Map<Long, BidScoreTally> storedTallies = new HashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    private TenderRankingServiceImpl incrementalService;
+
+    @BeforeEach
+    void setUp() {
+        TenderRankingRepository rankingRepository = mock(TenderRankingRepository.class);
+        when(rankingRepository.findByTenderIdOrderByRankAsc(TENDER_ID)).thenAnswer(invocation -> {
+            List<TenderRanking> rankings = new ArrayList<>(storedRankings);
+            rankings.sort(Comparator.comparing(TenderRanking::getRank));
+            return rankings;
+        });
+        when(rankingRepository.save(any(TenderRanking.class))).thenAnswer(invocation -> {
+            TenderRanking ranking = invocation.getArgument(0);
+            ranking.setId(ids.incrementAndGet());
+            storedRankings.add(ranking);
+            return ranking;
+        });
+        doAnswer(invocation -> storedRankings.remove(invocation.<TenderRanking>getArgument(0)))
+                .when(rankingRepository).delete(any(TenderRanking.class));
+
+        BidScoreTallyRepository tallyRepository = mock(BidScoreTallyRepository.class);
+        when(tallyRepository.findWithLockByTenderIdAndBidId(eq(TENDER_ID), anyLong()))
+                .thenAnswer(invocation -> Optional.ofNullable(storedTallies.get(invocation.<Long>getArgument(1))));
+        when(tallyRepository.save(any(BidScoreTally.class))).thenAnswer(invocation -> {
+            BidScoreTally tally = invocation.getArgument(0);
+            if (tally.getId() == null) {
+                tally.setId(ids.incrementAndGet());
+            }
+            storedTallies.put(tally.getBidId(), tally);
+            return tally;
+        });
+        doAnswer(invocation -> storedTallies.remove(invocation.<BidScoreTally>getArgument(0).getBidId()))
+                .when(tallyRepository).delete(any(BidScoreTally.class));
+
+        incrementalService = newService(rankingRepository, tallyRepository, true);
+    }
+
+    @Test
+    void incrementalRankingsMatchFullRecalculation() {
+        Random random = new Random(42);
+        Map<Long, Evaluation> completed = new HashMap<>();
+        long nextEvaluationId = 1;
+
+        for (int step = 0; step < 2000; step++) {
+            int action = completed.isEmpty() ? 0 : random.nextInt(3);
+            if (action == 0) {
+                // An evaluation is completed
+                Evaluation evaluation = evaluation(nextEvaluationId++, 1 + random.nextInt(25), score(random));
+                completed.put(evaluation.getId(), evaluation);
+                incrementalService.applyScoreChange(TENDER_ID, evaluation.getBidId(), null, evaluation.getOverallScore());
+            } else {
+                Evaluation evaluation = randomEntry(completed, random);
+                if (action == 1) {
+                    // A completed evaluation is rescored
+                    BigDecimal previous = evaluation.getOverallScore();
+                    evaluation.setOverallScore(score(random));
+                    incrementalService.applyScoreChange(TENDER_ID, evaluation.getBidId(), previous, evaluation.getOverallScore());
+                } else {
+                    // A completed evaluation is reopened or deleted
+                    completed.remove(evaluation.getId());
+                    incrementalService.applyScoreChange(TENDER_ID, evaluation.getBidId(), evaluation.getOverallScore(), null);
+                }
+            }
+
+            if (step % 100 == 99) {
+                assertThat(rankingRows(currentRankings()))
+                        .as("rankings after step %d", step)
+                        .isEqualTo(rankingRows(fullRecalculation(new ArrayList<>(completed.values()))));
+            }
+        }
+    }
+
+    @Test
+    void tiesAreRankedByBidIdInBothPaths() {
+        List<Evaluation> evaluations = List.of(
+                evaluation(1, 7, new BigDecimal("80.00")),
+                evaluation(2, 3, new BigDecimal("80.00")),
+                evaluation(3, 5, new BigDecimal("90.00")));
+        evaluations.forEach(evaluation -> incrementalService.applyScoreChange(
+                TENDER_ID, evaluation.getBidId(), null, evaluation.getOverallScore()));
+
+        assertThat(rankingRows(currentRankings())).containsExactly(
+                List.<Object>of(5L, 1, new BigDecimal("90.00")),
+                List.<Object>of(3L, 2, new BigDecimal("80.00")),
+                List.<Object>of(7L, 3, new BigDecimal("80.00")));
+        assertThat(rankingRows(fullRecalculation(evaluations))).isEqualTo(rankingRows(currentRankings()));
+    }
+
+    private List<TenderRanking> currentRankings() {
+        List<TenderRanking> rankings = new ArrayList<>(storedRankings);
+        rankings.sort(Comparator.comparing(TenderRanking::getRank));
+        return rankings;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<TenderRanking> fullRecalculation(List<Evaluation> evaluations) {
+        TenderRankingRepository rankingRepository = mock(TenderRankingRepository.class);
+        when(rankingRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        TenderRankingServiceImpl fullService = newService(rankingRepository, mock(BidScoreTallyRepository.class), false);
+
+        fullService.calculateBidRankings(TENDER_ID, evaluations, mock(TenderDataSnapshot.class));
+
+        ArgumentCaptor<List<TenderRanking>> saved = ArgumentCaptor.forClass(List.class);
+        verify(rankingRepository).saveAll(saved.capture());
+        return saved.getValue();
+    }
+
+    private static TenderRankingServiceImpl newService(TenderRankingRepository rankingRepository,
+                                                       BidScoreTallyRepository tallyRepository,
+                                                       boolean incremental) {
+        TenderRankingMapper mapper = mock(TenderRankingMapper.class);
+        when(mapper.toDtoList(anyList())).thenReturn(new ArrayList<>());
+        TenderRankingServiceImpl service = new TenderRankingServiceImpl(rankingRepository, mapper,
+                mock(BidClient.class), mock(TenderClient.class), mock(NameLookupService.class),
+                tallyRepository, mock(TenderRankingLockRepository.class));
+        ReflectionTestUtils.setField(service, "incrementalRanking", incremental);
+        return service;
+    }
+
+    private static List<List<Object>> rankingRows(List<TenderRanking> rankings) {
+        return rankings.stream()
+                .map(ranking -> List.<Object>of(ranking.getBidId(), ranking.getRank(), ranking.getFinalScore()))
+                .toList();
+    }
+
+    private static Evaluation evaluation(long id, long bidId, BigDecimal score) {
+        return Evaluation.builder()
+                .id(id)
+                .tenderId(TENDER_ID)
+                .bidId(bidId)
+                .evaluatorId(id)
+                .status(EvaluationStatus.COMPLETED)
+                .overallScore(score)
+                .build();
+    }
+
+    private static BigDecimal score(Random random) {
+        // Few distinct values, so ties are common
+        return BigDecimal.valueOf(random.nextInt(21) * 5L, 0).setScale(2);
+    }
+
+    private static Evaluation randomEntry(Map<Long, Evaluation> evaluations, Random random) {
+        List<Long> keys = new ArrayList<>(evaluations.keySet());
+        Collections.sort(keys);
+        return evaluations.get(keys.get(random.nextInt(keys.size())));
+    }
+}
@@ -1,6 +1,7 @@
 package com.egov.tendering.gateway.config;
 
 import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -38,6 +39,12 @@ public class RouteConfig {
                 .route("document-service", r -> r.path("/api/documents/**")
                         .uri("lb://document-service"))
 
+                // Notification stream: a long-lived server-sent event response, so no response timeout
+                .route("notification-stream", r -> r.path("/api/notifications/stream")
+                        .filters(f -> f.rewritePath("/api/notifications/stream", "/api/v1/notifications/stream"))
+                        .metadata(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, -1)
+                        .uri("lb://notification-service"))
+
                 // Notification Service Routes
                 .route("notification-service", r -> r.path("/api/notifications/**")
                         .uri("lb://notification-service"))
@@ -0,0 +1,58 @@
+package com.egov.tendering.notification.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings of the notification delivery workers
+ */
+@Configuration
+@ConfigurationProperties(prefix = "notification.delivery")
+@Data
+public class DeliveryProperties {
+
+    // Recipients handled by one delivery task; emails of a task share one SMTP connection
+    private int batchSize = 50;
+
+    // Tasks waiting per channel before the threads creating notifications have to wait
+    private int queueCapacity = 200;
+
+    // How long shutdown waits for queued deliveries to finish
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+    // How long a node owns a notification it is delivering; one it has not finished by then,
+    // for example because the node stopped, is delivered again
+    private Duration lease = Duration.ofMinutes(10);
+
+    private Channel email = new Channel(8, 50);
+    private Channel sms = new Channel(4, 20);
+    private Channel push = new Channel(4, 200);
+
+    private Retry retry = new Retry();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Channel {
+        private int threads;
+
+        // Messages per second this node sends on the channel
+        private double ratePerSecond;
+    }
+
+    /**
+     * Retries of failed deliveries wait initialDelay, doubling with each attempt up to maxDelay,
+     * for a random time up to that bound so failed notifications do not all come back at once
+     */
+    @Data
+    public static class Retry {
+        private int maxAttempts = 3;
+        private Duration initialDelay = Duration.ofSeconds(30);
+        private Duration maxDelay = Duration.ofMinutes(30);
+    }
+}
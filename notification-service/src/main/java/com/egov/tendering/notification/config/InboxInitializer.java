@@ -0,0 +1,39 @@
+package com.egov.tendering.notification.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the notification inbox from the notifications sent before it existed. Runs once the
+ * schema is up to date and only while the inbox is empty; nodes starting together insert the
+ * same rows, which the inbox's unique key lets through once.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InboxInitializer implements SmartInitializingSingleton {
+
+    private static final String BACKFILL = "INSERT IGNORE INTO notification_inbox " +
+            "(notification_id, recipient, type, subject, entity_id, created_at, is_read) " +
+            "SELECT DISTINCT n.id, r.recipients, n.type, n.subject, n.entity_id, n.created_at, n.`read` " +
+            "FROM notifications n JOIN notification_recipients r ON r.notification_id = n.id " +
+            "WHERE r.recipients IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Boolean filled = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM notification_inbox)", Boolean.class);
+        if (Boolean.TRUE.equals(filled)) {
+            return;
+        }
+
+        int inserted = jdbcTemplate.update(BACKFILL);
+        if (inserted > 0) {
+            log.info("Added {} existing notifications to recipient inboxes", inserted);
+        }
+    }
+}
@@ -31,4 +31,7 @@ public class KafkaTopics {
 
     // User events
     private String userRegistered = "user-registered";
+
+    // New notifications and unread count changes, for the inbox streams of all nodes
+    private String inboxStream = "notification-inbox-stream";
 }
@@ -1,16 +1,13 @@
 package com.egov.tendering.notification.config;
 
 
-import com.egov.tendering.notification.dal.model.Notification;
-import com.egov.tendering.notification.dal.repository.NotificationRepository;
+import com.egov.tendering.notification.dal.repository.InboxEntryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
-import java.util.Optional;
-
 /**
  * Utility class for security-related checks in the notification service.
  */
@@ -19,7 +16,7 @@ import java.util.Optional;
 @Slf4j
 public class SecurityUtil {
 
-    private final NotificationRepository notificationRepository;
+    private final InboxEntryRepository inboxEntryRepository;
 
     /**
      * Checks if the current authenticated user is the same as the specified user ID.
@@ -51,13 +48,10 @@ public class SecurityUtil {
         }
 
         String currentUsername = authentication.getName();
-        Optional<Notification> notificationOpt = notificationRepository.findById(notificationId);
-
-        if (notificationOpt.isEmpty()) {
+        try {
+            return inboxEntryRepository.existsByRecipientAndNotificationId(currentUsername, Long.valueOf(notificationId));
+        } catch (NumberFormatException e) {
             return false;
         }
-
-        Notification notification = notificationOpt.get();
-        return notification.getRecipients().contains(currentUsername);
     }
 }
\ No newline at end of file
@@ -20,7 +20,7 @@ public class TemplateConfig {
         templateResolver.setSuffix(".html");
         templateResolver.setTemplateMode(TemplateMode.HTML);
         templateResolver.setCharacterEncoding("UTF-8");
-        templateResolver.setCacheable(false);
+        templateResolver.setCacheable(true);
         templateResolver.setOrder(1);
         templateResolver.setCheckExistence(true);
         return templateResolver;
@@ -34,7 +34,7 @@ public class TemplateConfig {
         templateResolver.setSuffix(".txt");
         templateResolver.setTemplateMode(TemplateMode.TEXT);
         templateResolver.setCharacterEncoding("UTF-8");
-        templateResolver.setCacheable(false);
+        templateResolver.setCacheable(true);
         templateResolver.setOrder(2);
         templateResolver.setCheckExistence(true);
         return templateResolver;
@@ -48,7 +48,7 @@ public class TemplateConfig {
         templateResolver.setSuffix(".txt");
         templateResolver.setTemplateMode(TemplateMode.TEXT);
         templateResolver.setCharacterEncoding("UTF-8");
-        templateResolver.setCacheable(false);
+        templateResolver.setCacheable(true);
         templateResolver.setOrder(3);
         templateResolver.setCheckExistence(true);
         return templateResolver;
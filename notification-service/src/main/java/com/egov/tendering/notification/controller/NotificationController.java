@@ -1,10 +1,12 @@
 package com.egov.tendering.notification.controller;
 
+import com.egov.tendering.notification.dal.dto.InboxPageDTO;
 import com.egov.tendering.notification.dal.dto.NotificationRequest;
 import com.egov.tendering.notification.dal.dto.NotificationResponse;
-import com.egov.tendering.notification.dal.dto.NotificationSummaryDTO;
 import com.egov.tendering.notification.dal.model.Notification;
 
+import com.egov.tendering.notification.service.InboxService;
+import com.egov.tendering.notification.service.InboxStream;
 import com.egov.tendering.notification.service.NotificationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,6 +14,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,12 +22,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.security.Principal;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/notifications")
@@ -34,6 +39,8 @@ import java.util.stream.Collectors;
 public class NotificationController {
 
   private final NotificationService notificationService;
+  private final InboxService inboxService;
+  private final InboxStream inboxStream;
 
   @PostMapping
   @Operation(summary = "Send a new notification")
@@ -46,26 +53,25 @@ public class NotificationController {
   }
 
   @GetMapping("/user/{userId}")
-  @Operation(summary = "Get all notifications for a user")
+  @Operation(summary = "Get a page of a user's notifications, newest first")
   @PreAuthorize("hasRole('ADMIN') or @securityUtil.isCurrentUser(#userId)")
-  public ResponseEntity<List<NotificationSummaryDTO>> getUserNotifications(
+  public ResponseEntity<InboxPageDTO> getUserNotifications(
           @PathVariable String userId,
-          @RequestParam(required = false, defaultValue = "false") boolean unreadOnly) {
+          @RequestParam(required = false, defaultValue = "false") boolean unreadOnly,
+          @RequestParam(required = false) String cursor,
+          @RequestParam(required = false, defaultValue = "20") int size) {
     log.info("REST request to get notifications for user: {}, unreadOnly: {}", userId, unreadOnly);
+    return ResponseEntity.ok(inboxService.getInbox(userId, unreadOnly, cursor, size));
+  }
 
-    List<Notification> notifications;
-    if (unreadOnly) {
-      notifications = notificationService.getUnreadNotificationsForUser(userId);
-    } else {
-      notifications = notificationService.getNotificationsForUser(userId);
-    }
-
-    // Map to DTOs
-    List<NotificationSummaryDTO> dtos = notifications.stream()
-            .map(this::mapToSummaryDto)
-            .collect(Collectors.toList());
-
-    return ResponseEntity.ok(dtos);
+  @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @Operation(summary = "Stream new dashboard notifications and unread count changes of the current user")
+  @PreAuthorize("isAuthenticated()")
+  public SseEmitter streamNotifications(
+          Principal principal,
+          @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+    log.info("REST request to stream notifications for user: {}", principal.getName());
+    return inboxStream.subscribe(principal.getName(), lastEventId);
   }
 
   @GetMapping("/{id}")
@@ -81,29 +87,28 @@ public class NotificationController {
   @PutMapping("/{id}/read")
   @Operation(summary = "Mark a notification as read")
   @PreAuthorize("hasRole('ADMIN') or @securityUtil.canAccessNotification(#id)")
-  public ResponseEntity<Void> markAsRead(@PathVariable String id) {
+  public ResponseEntity<Void> markAsRead(@PathVariable String id, Principal principal) {
     log.info("REST request to mark notification as read: {}", id);
-    notificationService.markAsRead(id);
+    inboxService.markAsRead(principal.getName(), List.of(Long.valueOf(id)));
     return ResponseEntity.ok().build();
   }
 
+  @PutMapping("/user/{userId}/read")
+  @Operation(summary = "Mark notifications of a user as read, or all of them when no ids are given")
+  @PreAuthorize("hasRole('ADMIN') or @securityUtil.isCurrentUser(#userId)")
+  public ResponseEntity<Integer> markAllAsRead(
+          @PathVariable String userId,
+          @RequestBody(required = false) List<Long> notificationIds) {
+    log.info("REST request to mark notifications of user {} as read", userId);
+    return ResponseEntity.ok(inboxService.markAsRead(userId, notificationIds));
+  }
+
   @GetMapping("/count/unread/{userId}")
   @Operation(summary = "Count unread notifications for a user")
   @PreAuthorize("hasRole('ADMIN') or @securityUtil.isCurrentUser(#userId)")
   public ResponseEntity<Long> countUnread(@PathVariable String userId) {
-    log.info("REST request to count unread notifications for user: {}", userId);
-    long count = notificationService.countUnreadNotifications(userId);
+    log.debug("REST request to count unread notifications for user: {}", userId);
+    long count = inboxService.countUnread(userId);
     return ResponseEntity.ok(count);
   }
-
-  private NotificationSummaryDTO mapToSummaryDto(Notification notification) {
-    return new NotificationSummaryDTO(
-            notification.getId(),
-            notification.getType(),
-            notification.getSubject(),
-            notification.getEntityId(),
-            notification.getCreatedAt(),
-            notification.isRead()
-    );
-  }
-}
\ No newline at end of file
+}
@@ -0,0 +1,17 @@
+package com.egov.tendering.notification.dal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InboxPageDTO {
+    private List<NotificationSummaryDTO> notifications;
+
+    // Pass as the cursor parameter to get the next page; null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,54 @@
+package com.egov.tendering.notification.dal.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A notification in the inbox of one recipient. Written when the notification is created, with
+ * the fields the inbox lists, so reading an inbox never touches the notifications table.
+ */
+@Entity
+@Table(name = "notification_inbox",
+        uniqueConstraints = @UniqueConstraint(name = "uk_notification_inbox_recipient_notification",
+                columnNames = {"recipient", "notification_id"}),
+        indexes = {
+                @Index(name = "idx_notification_inbox_recipient_created", columnList = "recipient, created_at, id"),
+                @Index(name = "idx_notification_inbox_recipient_unread", columnList = "recipient, is_read, created_at, id")
+        })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InboxEntry {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "notification_id", nullable = false)
+  private Long notificationId;
+
+  @Column(name = "recipient", nullable = false)
+  private String recipient;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private NotificationType type;
+
+  @Column(nullable = false)
+  private String subject;
+
+  @Column(nullable = false)
+  private String entityId;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+
+  @Column(name = "is_read", nullable = false)
+  private boolean read;
+
+  @Column
+  private LocalDateTime readAt;
+}
@@ -3,12 +3,18 @@ package com.egov.tendering.notification.dal.model;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.List;
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_status_scheduled", columnList = "status, scheduled_at"),
+        @Index(name = "idx_notifications_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_notifications_status_lease", columnList = "status, lease_expires_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -35,6 +41,12 @@ public class Notification {
   @ElementCollection
   private List<String> recipients;
 
+  // Recipients an earlier attempt failed to reach, which a retry sends to; empty when every
+  // recipient is still to be sent. Loaded for all notifications of a query at once.
+  @ElementCollection
+  @Fetch(FetchMode.SUBSELECT)
+  private List<String> pendingRecipients;
+
   @Column(nullable = false)
   private String status;
 
@@ -47,7 +59,8 @@ public class Notification {
   @Column
   private LocalDateTime deliveredAt;
 
-  @Column(nullable = false)
+  // READ is a reserved word in MySQL
+  @Column(name = "`read`", nullable = false)
   private boolean read;
 
   @Column
@@ -60,10 +73,24 @@ public class Notification {
   @UpdateTimestamp
   private LocalDateTime updatedAt;
 
-  @Column
+  @Column(name = "scheduled_at")
   private LocalDateTime scheduledAt;
 
   @Column
   private LocalDateTime sentAt;
+
+  // When a failed delivery may be retried
+  @Column(name = "next_attempt_at")
+  private LocalDateTime nextAttemptAt;
+
+  // Until when the node that claimed the notification for delivery owns it; an expired lease
+  // means the node stopped before recording the outcome
+  @Column(name = "lease_expires_at")
+  private LocalDateTime leaseExpiresAt;
+
+  // Identifies the claim holding the lease; a node that lost its lease to a new claim can no
+  // longer extend it or record a result
+  @Column(name = "lease_token", length = 36)
+  private String leaseToken;
 }
 
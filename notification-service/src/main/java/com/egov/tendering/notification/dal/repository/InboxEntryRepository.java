@@ -0,0 +1,92 @@
+package com.egov.tendering.notification.dal.repository;
+
+import com.egov.tendering.notification.dal.model.InboxEntry;
+import com.egov.tendering.notification.dal.model.NotificationType;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for the per-recipient notification inbox. Pages are read by keyset: the next page
+ * starts after the (createdAt, id) of the last entry of the previous one.
+ */
+@Repository
+public interface InboxEntryRepository extends JpaRepository<InboxEntry, Long> {
+
+    /**
+     * First page of a recipient's inbox, newest first
+     */
+    List<InboxEntry> findByRecipientOrderByCreatedAtDescIdDesc(String recipient, Pageable pageable);
+
+    /**
+     * Page of a recipient's inbox after the given entry, newest first
+     */
+    @Query("SELECT e FROM InboxEntry e WHERE e.recipient = :recipient " +
+            "AND (e.createdAt < :createdAt OR (e.createdAt = :createdAt AND e.id < :id)) " +
+            "ORDER BY e.createdAt DESC, e.id DESC")
+    List<InboxEntry> findByRecipientAfter(@Param("recipient") String recipient,
+                                          @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id,
+                                          Pageable pageable);
+
+    /**
+     * First page of a recipient's unread notifications, newest first
+     */
+    List<InboxEntry> findByRecipientAndReadFalseOrderByCreatedAtDescIdDesc(String recipient, Pageable pageable);
+
+    /**
+     * Page of a recipient's unread notifications after the given entry, newest first
+     */
+    @Query("SELECT e FROM InboxEntry e WHERE e.recipient = :recipient AND e.read = false " +
+            "AND (e.createdAt < :createdAt OR (e.createdAt = :createdAt AND e.id < :id)) " +
+            "ORDER BY e.createdAt DESC, e.id DESC")
+    List<InboxEntry> findUnreadByRecipientAfter(@Param("recipient") String recipient,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
+
+    /**
+     * Notifications of the given types that reached a recipient after the given notification, oldest first
+     */
+    @Query("SELECT e FROM InboxEntry e WHERE e.recipient = :recipient AND e.notificationId > :notificationId " +
+            "AND e.type IN :types ORDER BY e.notificationId")
+    List<InboxEntry> findByRecipientSince(@Param("recipient") String recipient,
+                                          @Param("notificationId") Long notificationId,
+                                          @Param("types") Collection<NotificationType> types,
+                                          Pageable pageable);
+
+    /**
+     * Count unread notifications for a specific recipient
+     */
+    long countByRecipientAndReadFalse(String recipient);
+
+    /**
+     * Check whether a notification is in a recipient's inbox
+     */
+    boolean existsByRecipientAndNotificationId(String recipient, Long notificationId);
+
+    /**
+     * Mark notifications of a recipient as read, returning how many were unread
+     */
+    @Modifying
+    @Query("UPDATE InboxEntry e SET e.read = true, e.readAt = :readAt " +
+            "WHERE e.recipient = :recipient AND e.read = false AND e.notificationId IN :notificationIds")
+    int markRead(@Param("recipient") String recipient,
+                 @Param("notificationIds") Collection<Long> notificationIds,
+                 @Param("readAt") LocalDateTime readAt);
+
+    /**
+     * Mark all notifications of a recipient as read, returning how many were unread
+     */
+    @Modifying
+    @Query("UPDATE InboxEntry e SET e.read = true, e.readAt = :readAt WHERE e.recipient = :recipient AND e.read = false")
+    int markAllRead(@Param("recipient") String recipient, @Param("readAt") LocalDateTime readAt);
+}
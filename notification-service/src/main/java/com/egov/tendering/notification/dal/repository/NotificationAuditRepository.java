@@ -18,7 +18,7 @@ public interface NotificationAuditRepository extends JpaRepository<NotificationA
     /**
      * Find all audit records for a specific notification
      */
-    List<NotificationAudit> findByNotificationIdOrderByTimestampDesc(String notificationId);
+    List<NotificationAudit> findByNotificationIdOrderByTimestampDesc(Long notificationId);
 
     /**
      * Find all audit records for a specific event type
@@ -50,5 +50,5 @@ public interface NotificationAuditRepository extends JpaRepository<NotificationA
      * Find all audit records for a specific notification with pagination
      */
     Page<NotificationAudit> findByNotificationIdOrderByTimestampDesc(
-            String notificationId, Pageable pageable);
+            Long notificationId, Pageable pageable);
 }
\ No newline at end of file
@@ -6,40 +6,24 @@ import com.egov.tendering.notification.dal.model.NotificationType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, String> {
 
-    /**
-     * Find all notifications for a specific recipient ordered by creation date descending
-     */
-    @Query("SELECT n FROM Notification n JOIN n.recipients r WHERE r = :recipient ORDER BY n.createdAt DESC")
-    List<Notification> findByRecipientOrderByCreatedAtDesc(@Param("recipient") String recipient);
-
     /**
      * Find all notifications for a specific recipient with pagination
      */
     @Query("SELECT n FROM Notification n JOIN n.recipients r WHERE r = :recipient ORDER BY n.createdAt DESC")
     Page<Notification> findByRecipient(@Param("recipient") String recipient, Pageable pageable);
 
-    /**
-     * Find all unread notifications for a specific recipient
-     */
-    @Query("SELECT n FROM Notification n JOIN n.recipients r WHERE r = :recipient AND n.read = false ORDER BY n.createdAt DESC")
-    List<Notification> findUnreadByRecipient(@Param("recipient") String recipient);
-
-    /**
-     * Count unread notifications for a specific recipient
-     */
-    @Query("SELECT COUNT(n) FROM Notification n JOIN n.recipients r WHERE r = :recipient AND n.read = false")
-    long countUnreadByRecipient(@Param("recipient") String recipient);
-
     /**
      * Find notifications by type for a specific recipient
      */
@@ -57,10 +41,53 @@ public interface NotificationRepository extends JpaRepository<Notification, Stri
     List<Notification> findByCreatedAtBetweenOrderByCreatedAtDesc(LocalDateTime start, LocalDateTime end);
 
     /**
-     * Find failed notifications that need to be retried
+     * Lock the oldest scheduled notifications that are due. Rows locked by another node are
+     * skipped, so nodes claiming at the same time get different notifications.
+     */
+    @Query(value = "SELECT id FROM notifications WHERE status = 'SCHEDULED' AND scheduled_at <= :now " +
+            "ORDER BY scheduled_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockDueScheduled(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Lock the failed notifications whose next attempt is due, skipping rows locked by another node
+     */
+    @Query(value = "SELECT id FROM notifications WHERE status = 'PENDING_RETRY' " +
+            "AND (next_attempt_at IS NULL OR next_attempt_at <= :now) " +
+            "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockDueRetries(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Lock notifications whose delivery lease has expired, skipping rows locked by another node
+     */
+    @Query(value = "SELECT id FROM notifications WHERE status = 'PENDING' AND lease_expires_at < :now " +
+            "ORDER BY lease_expires_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockExpiredLeases(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Claim locked notifications for delivery by this node until the lease expires
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.status = 'PENDING', n.leaseExpiresAt = :leaseExpiresAt, " +
+            "n.leaseToken = :leaseToken WHERE n.id IN :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt,
+              @Param("leaseToken") String leaseToken);
+
+    /**
+     * Extend the lease of a notification if the claim with the given token still holds it. Locks
+     * the row until the transaction ends, so the notification cannot be claimed again meanwhile.
+     *
+     * @return 1 if the lease was extended, 0 if another claim took it or delivery was recorded
      */
-    List<Notification> findByStatusAndLastRetryAtBefore(String status, LocalDateTime lastRetryBefore);
+    @Modifying
+    @Query("UPDATE Notification n SET n.leaseExpiresAt = :leaseExpiresAt " +
+            "WHERE n.id = :id AND n.status = 'PENDING' AND n.leaseToken = :leaseToken")
+    int renewLease(@Param("id") Long id, @Param("leaseToken") String leaseToken,
+                   @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
 
-    List<Notification> findByStatusAndScheduledAtBefore(String status, LocalDateTime scheduledAt);
+    /**
+     * Find notifications with their recipients loaded
+     */
+    @Query("SELECT DISTINCT n FROM Notification n LEFT JOIN FETCH n.recipients WHERE n.id IN :ids")
+    List<Notification> findWithRecipientsByIdIn(@Param("ids") Collection<Long> ids);
 
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.egov.tendering.notification.event;
+
+import com.egov.tendering.notification.dal.dto.NotificationSummaryDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Change to the inboxes of recipients, sent through Kafka to every node so each can push it to
+ * the streams of the recipients connected to it
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InboxStreamEvent {
+    private List<String> recipients;
+
+    // The new notification to show, or null when only the unread count changed
+    private NotificationSummaryDTO notification;
+
+    private long unreadDelta;
+}
@@ -0,0 +1,20 @@
+package com.egov.tendering.notification.exception;
+
+import java.util.List;
+
+/**
+ * A batch of a notification reached some of its recipients but not the ones given here
+ */
+public class PartialDeliveryException extends NotificationFailedException {
+
+    private final List<String> failedRecipients;
+
+    public PartialDeliveryException(String message, List<String> failedRecipients, Throwable cause) {
+        super(message, cause);
+        this.failedRecipients = List.copyOf(failedRecipients);
+    }
+
+    public List<String> getFailedRecipients() {
+        return failedRecipients;
+    }
+}
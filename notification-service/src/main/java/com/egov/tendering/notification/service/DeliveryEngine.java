@@ -0,0 +1,421 @@
+package com.egov.tendering.notification.service;
+
+import com.egov.tendering.notification.config.DeliveryProperties;
+import com.egov.tendering.notification.dal.model.Notification;
+import com.egov.tendering.notification.dal.model.NotificationChannel;
+import com.egov.tendering.notification.dal.repository.NotificationRepository;
+import com.egov.tendering.notification.event.NotificationEventPublisher;
+import com.egov.tendering.notification.exception.PartialDeliveryException;
+import com.egov.tendering.notification.service.TemplateService.RenderedTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Delivers notifications in the background.
+ * <p>
+ * Each channel has its own fixed pool of workers, a bounded queue of delivery tasks and a rate
+ * limit, so a slow SMTP server cannot hold up SMS or push deliveries. A notification is split into
+ * tasks of up to {@code notification.delivery.batch-size} recipients. When a channel's queue is
+ * full the thread submitting the notification waits for room, which slows the Kafka listeners
+ * down to the rate the channel can deliver. Once every task of a notification has finished, its
+ * status is updated and the sent, retry or failed events are published. The recipients of failed
+ * tasks are kept with the notification, and a retry only sends to them.
+ * <p>
+ * The node owns a notification while it holds its lease. Each task extends the lease before it
+ * sends, so long deliveries are not claimed again by the scheduler, and skips sending once
+ * another claim has taken the notification over. A result is only recorded by the holder of the
+ * lease.
+ */
+@Service
+@Slf4j
+public class DeliveryEngine implements SmartLifecycle {
+
+    // Wait for room in the queue rather than rejecting the task
+    private static final RejectedExecutionHandler WAIT_FOR_ROOM = (task, executor) -> {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("Notification delivery is shut down");
+        }
+        try {
+            executor.getQueue().put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting to queue a notification delivery", e);
+        }
+    };
+
+    private final EmailService emailService;
+    private final SmsService smsService;
+    private final PushNotificationService pushNotificationService;
+    private final TemplateService templateService;
+    private final NotificationRepository notificationRepository;
+    private final NotificationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final DeliveryProperties properties;
+
+    private final Map<NotificationChannel, ChannelWorkers> channels = new EnumMap<>(NotificationChannel.class);
+    private volatile boolean running;
+
+    public DeliveryEngine(EmailService emailService,
+                          SmsService smsService,
+                          PushNotificationService pushNotificationService,
+                          TemplateService templateService,
+                          NotificationRepository notificationRepository,
+                          NotificationEventPublisher eventPublisher,
+                          PlatformTransactionManager transactionManager,
+                          DeliveryProperties properties) {
+        this.emailService = emailService;
+        this.smsService = smsService;
+        this.pushNotificationService = pushNotificationService;
+        this.templateService = templateService;
+        this.notificationRepository = notificationRepository;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+
+        // Results are also recorded from after-commit callbacks, which need a transaction of their own
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Queue a saved notification for delivery. Inside a transaction the notification is queued
+     * once the transaction commits, so workers never see it in an uncommitted state.
+     */
+    public void submit(Notification notification) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(notification);
+                }
+            });
+        } else {
+            enqueue(notification);
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        channels.put(NotificationChannel.EMAIL, new ChannelWorkers(NotificationChannel.EMAIL, properties.getEmail()));
+        channels.put(NotificationChannel.SMS, new ChannelWorkers(NotificationChannel.SMS, properties.getSms()));
+        channels.put(NotificationChannel.PUSH, new ChannelWorkers(NotificationChannel.PUSH, properties.getPush()));
+        running = true;
+        log.info("Started notification delivery workers");
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        channels.values().forEach(workers -> workers.executor.shutdown());
+
+        long deadline = System.nanoTime() + properties.getShutdownTimeout().toNanos();
+        for (ChannelWorkers workers : channels.values()) {
+            try {
+                if (!workers.executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    log.warn("{} deliveries did not finish within {}; {} tasks were not run",
+                            workers.channel, properties.getShutdownTimeout(), workers.executor.shutdownNow().size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                workers.executor.shutdownNow();
+            }
+        }
+        log.info("Stopped notification delivery workers");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Start before the Kafka listeners and stop after them, so queued deliveries can finish
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void enqueue(Notification notification) {
+        NotificationChannel channel = notification.getType().getChannel();
+        notification.setSentAt(LocalDateTime.now());
+
+        if (channel == NotificationChannel.DASHBOARD) {
+            // Nothing to send; the saved notification is the delivery
+            finish(new DeliveryJob(notification, null, 0));
+            return;
+        }
+
+        ChannelWorkers workers = channels.get(channel);
+        List<String> recipients = recipientsToSend(notification);
+        if (workers == null || recipients.isEmpty()) {
+            DeliveryJob job = new DeliveryJob(notification, null, 0);
+            if (workers == null) {
+                job.fail(new IllegalStateException("Notification delivery is not running for channel " + channel), recipients);
+            }
+            finish(job);
+            return;
+        }
+
+        int batchSize = properties.getBatchSize();
+        int batchCount = (recipients.size() + batchSize - 1) / batchSize;
+        // Render once; the batches only fill in each recipient
+        RenderedTemplate content = templateService.render(notification, channel);
+        DeliveryJob job = new DeliveryJob(notification, content, batchCount);
+        log.info("Queueing {} notification {} for {} recipients in {} batches",
+                channel, notification.getId(), recipients.size(), batchCount);
+
+        for (int i = 0; i < batchCount; i++) {
+            List<String> batch = recipients.subList(i * batchSize, Math.min(recipients.size(), (i + 1) * batchSize));
+            try {
+                workers.executor.execute(() -> deliverBatch(job, workers, batch));
+            } catch (RejectedExecutionException e) {
+                log.error("Could not queue notification {} for delivery", notification.getId(), e);
+                job.fail(e, recipients.subList(i * batchSize, recipients.size()));
+                // Count the batches that were never queued as done
+                if (job.pendingBatches.addAndGet(-(batchCount - i)) == 0) {
+                    finish(job);
+                }
+                return;
+            }
+        }
+    }
+
+    private void deliverBatch(DeliveryJob job, ChannelWorkers workers, List<String> recipients) {
+        Notification notification = job.notification;
+        try {
+            workers.rateLimiter.acquire(recipients.size());
+            if (!holdsLease(job)) {
+                log.warn("Notification {} was claimed again; not sending to {} recipients",
+                        notification.getId(), recipients.size());
+                return;
+            }
+            switch (workers.channel) {
+                case EMAIL -> emailService.sendEmails(notification, job.content, recipients);
+                case SMS -> smsService.sendSms(notification, job.content, recipients);
+                case PUSH -> pushNotificationService.sendPushNotification(notification, job.content, recipients);
+                default -> throw new IllegalStateException("Unknown notification channel: " + workers.channel);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail(e, recipients);
+        } catch (PartialDeliveryException e) {
+            log.error("Failed to deliver notification {} to {} of {} recipients",
+                    notification.getId(), e.getFailedRecipients().size(), recipients.size(), e);
+            job.fail(e, e.getFailedRecipients());
+        } catch (Exception e) {
+            log.error("Failed to deliver notification {} to {} recipients", notification.getId(), recipients.size(), e);
+            job.fail(e, recipients);
+        } finally {
+            if (job.pendingBatches.decrementAndGet() == 0) {
+                finish(job);
+            }
+        }
+    }
+
+    /**
+     * Extend the lease of a notification before sending a batch, unless another claim has taken
+     * it over. The notification is sent anyway when the lease cannot be checked.
+     */
+    private boolean holdsLease(DeliveryJob job) {
+        if (job.leaseLost) {
+            return false;
+        }
+        try {
+            Integer renewed = transactionTemplate.execute(status -> notificationRepository.renewLease(
+                    job.notification.getId(), job.leaseToken, LocalDateTime.now().plus(properties.getLease())));
+            if (renewed != null && renewed == 0) {
+                job.leaseLost = true;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not extend delivery lease of notification {}: {}", job.notification.getId(), e.getMessage());
+        }
+        return !job.leaseLost;
+    }
+
+    /**
+     * Record the outcome of a notification's delivery and publish its events, if this node still
+     * holds the notification's lease
+     */
+    private void finish(DeliveryJob job) {
+        Exception failure = job.failure.get();
+        Long notificationId = job.notification.getId();
+        if (job.leaseLost) {
+            log.warn("Notification {} was claimed again; not recording its delivery result", notificationId);
+            return;
+        }
+
+        Notification notification;
+        try {
+            notification = transactionTemplate.execute(status -> {
+                // Locks the row, so the lease cannot be taken over before the result is saved
+                if (notificationRepository.renewLease(notificationId, job.leaseToken, LocalDateTime.now()) == 0) {
+                    return null;
+                }
+                return notificationRepository.findById(String.valueOf(notificationId))
+                        .map(saved -> {
+                            saved.setSentAt(job.notification.getSentAt());
+                            saved.setLeaseExpiresAt(null);
+                            saved.setLeaseToken(null);
+                            if (failure == null) {
+                                saved.setStatus("DELIVERED");
+                                saved.setDeliveredAt(LocalDateTime.now());
+                                saved.setErrorMessage(null);
+                                saved.setPendingRecipients(new ArrayList<>());
+                            } else {
+                                recordFailure(saved, failure);
+                                saved.setPendingRecipients(new ArrayList<>(job.failedRecipients));
+                            }
+                            Hibernate.initialize(saved.getRecipients());
+                            return notificationRepository.save(saved);
+                        })
+                        .orElse(null);
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to record delivery result of notification {}", notificationId, e);
+            return;
+        }
+
+        if (notification == null) {
+            log.warn("Notification {} no longer exists or was claimed again; not recording its delivery result", notificationId);
+            return;
+        }
+
+        if (failure == null) {
+            switch (notification.getType().getChannel()) {
+                case EMAIL -> eventPublisher.publishEmailSentEvent(notification);
+                case SMS -> eventPublisher.publishSmsSentEvent(notification);
+                case PUSH -> eventPublisher.publishPushSentEvent(notification);
+                default -> {
+                }
+            }
+        } else if ("PENDING_RETRY".equals(notification.getStatus())) {
+            eventPublisher.publishNotificationRetryEvent(notification);
+        } else {
+            eventPublisher.publishNotificationFailedEvent(notification, failure.getMessage());
+        }
+    }
+
+    /**
+     * The recipients an earlier attempt failed to reach, or all recipients on the first attempt
+     */
+    private static List<String> recipientsToSend(Notification notification) {
+        List<String> pending = notification.getPendingRecipients();
+        if (pending != null && !pending.isEmpty()) {
+            return List.copyOf(pending);
+        }
+        return notification.getRecipients() != null ? List.copyOf(notification.getRecipients()) : List.of();
+    }
+
+    private void recordFailure(Notification notification, Exception failure) {
+        int retryCount = notification.getRetryCount() != null ? notification.getRetryCount() : 0;
+        int maxAttempts = properties.getRetry().getMaxAttempts();
+        notification.setErrorMessage(failure.getMessage());
+
+        if (retryCount < maxAttempts) {
+            LocalDateTime now = LocalDateTime.now();
+            notification.setRetryCount(retryCount + 1);
+            notification.setLastRetryAt(now);
+            notification.setNextAttemptAt(now.plus(retryDelay(retryCount + 1)));
+            notification.setStatus("PENDING_RETRY");
+            log.info("Notification {} scheduled for retry at {}, attempt {} of {}",
+                    notification.getId(), notification.getNextAttemptAt(), retryCount + 1, maxAttempts);
+        } else {
+            notification.setStatus("FAILED");
+            notification.setNextAttemptAt(null);
+            log.warn("Max retry attempts reached for notification: {}", notification.getId());
+        }
+    }
+
+    /**
+     * Exponential backoff with full jitter: a random delay up to initialDelay * 2^(attempt - 1),
+     * capped at maxDelay
+     */
+    private Duration retryDelay(int attempt) {
+        DeliveryProperties.Retry retry = properties.getRetry();
+        long initialMillis = retry.getInitialDelay().toMillis();
+        long maxMillis = retry.getMaxDelay().toMillis();
+        // The exponent is capped so the bound cannot overflow before it is capped at maxDelay
+        long boundMillis = Math.min(maxMillis, initialMillis * (1L << Math.min(attempt - 1, 20)));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(boundMillis + 1));
+    }
+
+    /**
+     * Workers, queue and rate limit of one delivery channel
+     */
+    private final class ChannelWorkers {
+
+        private final NotificationChannel channel;
+        private final ThreadPoolExecutor executor;
+        private final RateLimiter rateLimiter;
+
+        ChannelWorkers(NotificationChannel channel, DeliveryProperties.Channel settings) {
+            this.channel = channel;
+            this.executor = new ThreadPoolExecutor(settings.getThreads(), settings.getThreads(),
+                    0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                    new CustomizableThreadFactory("notification-" + channel.name().toLowerCase() + "-"),
+                    WAIT_FOR_ROOM);
+            // Tasks put on the queue directly by WAIT_FOR_ROOM need a running worker to take them
+            this.executor.prestartAllCoreThreads();
+            this.rateLimiter = new RateLimiter(settings.getRatePerSecond());
+        }
+    }
+
+    /**
+     * A notification being delivered, with its rendered content, the number of its batches still
+     * running, the first failure among them, the recipients of the failed batches and the claim
+     * whose lease it is delivered under
+     */
+    private static final class DeliveryJob {
+
+        private final Notification notification;
+        private final RenderedTemplate content;
+        private final AtomicInteger pendingBatches;
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+        private final ConcurrentLinkedQueue<String> failedRecipients = new ConcurrentLinkedQueue<>();
+        private final String leaseToken;
+        private volatile boolean leaseLost;
+
+        DeliveryJob(Notification notification, RenderedTemplate content, int batchCount) {
+            this.notification = notification;
+            this.content = content;
+            this.pendingBatches = new AtomicInteger(batchCount);
+            this.leaseToken = notification.getLeaseToken();
+        }
+
+        void fail(Exception e, List<String> recipients) {
+            failure.compareAndSet(null, e);
+            failedRecipients.addAll(recipients);
+        }
+    }
+}
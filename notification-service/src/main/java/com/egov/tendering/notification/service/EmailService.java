@@ -1,18 +1,21 @@
 package com.egov.tendering.notification.service;
 
 import com.egov.tendering.notification.dal.model.Notification;
-import com.egov.tendering.notification.dal.repository.NotificationRepository;
-import com.egov.tendering.notification.event.NotificationEventPublisher;
+import com.egov.tendering.notification.exception.PartialDeliveryException;
+import com.egov.tendering.notification.service.TemplateService.RenderedTemplate;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -20,80 +23,48 @@ import java.time.LocalDateTime;
 public class EmailService {
 
     private final JavaMailSender mailSender;
-    private final TemplateService templateService;
-    private final NotificationRepository notificationRepository;
-    private final NotificationEventPublisher eventPublisher;
 
-    private static final int MAX_RETRY_ATTEMPTS = 3;
+    /**
+     * Send a notification to a batch of recipients. The messages are sent over one SMTP
+     * connection. When only some of them fail, a {@link PartialDeliveryException} names the
+     * recipients that were not reached, so a retry does not send to the others again.
+     */
+    public void sendEmails(Notification notification, RenderedTemplate content, List<String> recipients) throws MessagingException {
+        log.debug("Sending email notification {} to {} recipients", notification.getId(), recipients.size());
+
+        MimeMessage[] messages = new MimeMessage[recipients.size()];
+        for (int i = 0; i < messages.length; i++) {
+            String recipient = recipients.get(i);
+            messages[i] = createMessage(notification, recipient, content.forRecipient(recipient));
+        }
 
-    public void sendEmail(Notification notification) {
         try {
-            log.info("Sending email notification: {}", notification.getId());
-
-            if (notification.getRetryCount() == null) {
-                notification.setRetryCount(0);
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            if (failedMessages.isEmpty() || failedMessages.size() == messages.length) {
+                throw e;
             }
-
-            for (String recipient : notification.getRecipients()) {
-                sendEmailToRecipient(notification, recipient);
+            List<String> failedRecipients = new ArrayList<>(failedMessages.size());
+            for (int i = 0; i < messages.length; i++) {
+                if (failedMessages.containsKey(messages[i])) {
+                    failedRecipients.add(recipients.get(i));
+                }
             }
-
-            // Update notification status
-            notification.setStatus("DELIVERED");
-            notification.setDeliveredAt(LocalDateTime.now());
-            notificationRepository.save(notification);
-
-            // Publish event
-            eventPublisher.publishEmailSentEvent(notification);
-        } catch (Exception e) {
-            handleSendingError(notification, e);
+            throw new PartialDeliveryException("Email notification " + notification.getId() + " failed for "
+                    + failedRecipients.size() + " of " + recipients.size() + " recipients", failedRecipients, e);
         }
+        log.info("Email notification {} sent to {} recipients", notification.getId(), recipients.size());
     }
 
-    private void sendEmailToRecipient(Notification notification, String recipient) throws MessagingException {
+    private MimeMessage createMessage(Notification notification, String recipient, String emailContent) throws MessagingException {
         MimeMessage message = mailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
 
         // Set email parameters
         helper.setTo(recipient);
         helper.setSubject(notification.getSubject());
-
-        // Process the template if needed
-        String emailContent = templateService.processTemplate(
-                notification.getType().name().toLowerCase() + "_email",
-                notification
-        );
-
         helper.setText(emailContent, true);
-
-        // Send the email
-        mailSender.send(message);
-        log.info("Email sent to: {}", recipient);
-    }
-
-    private void handleSendingError(Notification notification, Exception exception) {
-        log.error("Failed to send email notification: {}", notification.getId(), exception);
-
-        // Update notification with error
-        notification.setStatus("FAILED");
-        notification.setErrorMessage(exception.getMessage());
-
-        // Check if we should retry
-        if (notification.getRetryCount() < MAX_RETRY_ATTEMPTS) {
-            notification.setRetryCount(notification.getRetryCount() + 1);
-            notification.setLastRetryAt(LocalDateTime.now());
-            notification.setStatus("PENDING_RETRY");
-            log.info("Scheduled for retry, attempt {} of {}",
-                    notification.getRetryCount(), MAX_RETRY_ATTEMPTS);
-
-            // Publish retry event
-            eventPublisher.publishNotificationRetryEvent(notification);
-        } else {
-            log.warn("Max retry attempts reached for notification: {}", notification.getId());
-            // Publish failure event
-            eventPublisher.publishNotificationFailedEvent(notification, exception.getMessage());
-        }
-
-        notificationRepository.save(notification);
+        return message;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,194 @@
+package com.egov.tendering.notification.service;
+
+import com.egov.tendering.notification.dal.dto.InboxPageDTO;
+import com.egov.tendering.notification.dal.dto.NotificationSummaryDTO;
+import com.egov.tendering.notification.dal.model.InboxEntry;
+import com.egov.tendering.notification.dal.model.Notification;
+import com.egov.tendering.notification.dal.repository.InboxEntryRepository;
+import com.egov.tendering.notification.event.InboxStreamEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Per-recipient notification inbox: written when a notification is created, read page by page
+ * and marked as read per recipient. Unread counts come from {@link UnreadCounter}; changes are
+ * also pushed to the recipients' {@link InboxStream}s.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InboxService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final String INSERT_ENTRY = "INSERT INTO notification_inbox " +
+            "(notification_id, recipient, type, subject, entity_id, created_at, is_read) " +
+            "VALUES (?, ?, ?, ?, ?, ?, false)";
+
+    private final InboxEntryRepository inboxEntryRepository;
+    private final UnreadCounter unreadCounter;
+    private final InboxStream inboxStream;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Put a saved notification into the inbox of each of its recipients, as part of the
+     * transaction that saved it
+     */
+    @Transactional
+    public void deliver(Notification notification) {
+        if (notification.getRecipients() == null || notification.getRecipients().isEmpty()) {
+            return;
+        }
+
+        Set<String> recipients = new LinkedHashSet<>(notification.getRecipients());
+        Timestamp createdAt = Timestamp.valueOf(notification.getCreatedAt());
+        List<Object[]> rows = recipients.stream()
+                .map(recipient -> new Object[]{
+                        notification.getId(),
+                        recipient,
+                        notification.getType().name(),
+                        notification.getSubject(),
+                        notification.getEntityId(),
+                        createdAt
+                })
+                .collect(Collectors.toList());
+        jdbcTemplate.batchUpdate(INSERT_ENTRY, rows);
+
+        unreadCounter.add(recipients.stream().collect(Collectors.toMap(Function.identity(), recipient -> 1L)));
+        inboxStream.publish(InboxStreamEvent.builder()
+                .recipients(List.copyOf(recipients))
+                .notification(inboxStream.isStreamed(notification.getType())
+                        ? new NotificationSummaryDTO(notification.getId(), notification.getType(),
+                                notification.getSubject(), notification.getEntityId(), notification.getCreatedAt(), false)
+                        : null)
+                .unreadDelta(1)
+                .build());
+        log.debug("Added notification {} to {} inboxes", notification.getId(), recipients.size());
+    }
+
+    /**
+     * A page of a recipient's inbox, newest first
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public InboxPageDTO getInbox(String recipient, boolean unreadOnly, String cursor, int size) {
+        log.info("Fetching inbox of user: {}, unreadOnly: {}", recipient, unreadOnly);
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // One extra entry tells whether there is a next page
+        Pageable pageable = PageRequest.ofSize(pageSize + 1);
+
+        List<InboxEntry> entries;
+        if (cursor == null || cursor.isEmpty()) {
+            entries = unreadOnly
+                    ? inboxEntryRepository.findByRecipientAndReadFalseOrderByCreatedAtDescIdDesc(recipient, pageable)
+                    : inboxEntryRepository.findByRecipientOrderByCreatedAtDescIdDesc(recipient, pageable);
+        } else {
+            Cursor after = Cursor.decode(cursor);
+            entries = unreadOnly
+                    ? inboxEntryRepository.findUnreadByRecipientAfter(recipient, after.createdAt(), after.id(), pageable)
+                    : inboxEntryRepository.findByRecipientAfter(recipient, after.createdAt(), after.id(), pageable);
+        }
+
+        String nextCursor = null;
+        if (entries.size() > pageSize) {
+            entries = entries.subList(0, pageSize);
+            InboxEntry last = entries.get(pageSize - 1);
+            nextCursor = new Cursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        List<NotificationSummaryDTO> notifications = entries.stream()
+                .map(InboxService::mapToSummaryDto)
+                .collect(Collectors.toList());
+        return new InboxPageDTO(notifications, nextCursor);
+    }
+
+    public long countUnread(String recipient) {
+        return unreadCounter.get(recipient);
+    }
+
+    /**
+     * Check whether a notification was sent to a recipient
+     */
+    @Transactional(readOnly = true)
+    public boolean isRecipient(String recipient, Long notificationId) {
+        return inboxEntryRepository.existsByRecipientAndNotificationId(recipient, notificationId);
+    }
+
+    /**
+     * Mark notifications of a recipient as read, or all of them when no ids are given
+     *
+     * @return the number of notifications that were unread
+     */
+    @Transactional
+    public int markAsRead(String recipient, Collection<Long> notificationIds) {
+        log.info("Marking notifications of user {} as read: {}", recipient,
+                notificationIds == null || notificationIds.isEmpty() ? "all" : notificationIds);
+
+        LocalDateTime now = LocalDateTime.now();
+        int marked = notificationIds == null || notificationIds.isEmpty()
+                ? inboxEntryRepository.markAllRead(recipient, now)
+                : inboxEntryRepository.markRead(recipient, notificationIds, now);
+
+        if (marked > 0) {
+            unreadCounter.add(Map.of(recipient, (long) -marked));
+            inboxStream.publish(InboxStreamEvent.builder()
+                    .recipients(List.of(recipient))
+                    .unreadDelta(-marked)
+                    .build());
+        }
+        return marked;
+    }
+
+    static NotificationSummaryDTO mapToSummaryDto(InboxEntry entry) {
+        return new NotificationSummaryDTO(
+                entry.getNotificationId(),
+                entry.getType(),
+                entry.getSubject(),
+                entry.getEntityId(),
+                entry.getCreatedAt(),
+                entry.isRead()
+        );
+    }
+
+    /**
+     * Position after the last entry of a page, passed to clients as an opaque string
+     */
+    private record Cursor(LocalDateTime createdAt, Long id) {
+
+        String encode() {
+            String value = createdAt + "," + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = value.indexOf(',');
+                return new Cursor(LocalDateTime.parse(value.substring(0, separator)),
+                        Long.valueOf(value.substring(separator + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+    }
+}
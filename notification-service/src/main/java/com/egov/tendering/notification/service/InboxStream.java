@@ -0,0 +1,221 @@
+package com.egov.tendering.notification.service;
+
+import com.egov.tendering.notification.config.KafkaTopics;
+import com.egov.tendering.notification.dal.model.InboxEntry;
+import com.egov.tendering.notification.dal.model.NotificationChannel;
+import com.egov.tendering.notification.dal.model.NotificationType;
+import com.egov.tendering.notification.dal.repository.InboxEntryRepository;
+import com.egov.tendering.notification.event.InboxStreamEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Server-sent event streams of recipients' inboxes, replacing polling of the notification list
+ * and unread count.
+ * <p>
+ * Each node keeps the streams of the users connected to it. Inbox changes are published to Kafka
+ * after they commit and every node receives all of them, so a change reaches a user whichever
+ * node they are connected to. A stream sends:
+ * <ul>
+ *     <li>{@code unread-count}: the unread count, when the stream opens</li>
+ *     <li>{@code notification}: a new DASHBOARD notification, with the notification id as event id</li>
+ *     <li>{@code unread-delta}: a change of the unread count</li>
+ * </ul>
+ * A client reconnecting with {@code Last-Event-ID} first gets the DASHBOARD notifications it
+ * missed, read from the inbox table.
+ */
+@Service
+@Slf4j
+public class InboxStream {
+
+    private static final Set<NotificationType> STREAMED_TYPES = Arrays.stream(NotificationType.values())
+            .filter(type -> type.getChannel() == NotificationChannel.DASHBOARD)
+            .collect(Collectors.toCollection(() -> EnumSet.noneOf(NotificationType.class)));
+
+    private final Map<String, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final KafkaTemplate<String, InboxStreamEvent> kafkaTemplate;
+    private final KafkaTopics kafkaTopics;
+    private final InboxEntryRepository inboxEntryRepository;
+    private final UnreadCounter unreadCounter;
+    private final Duration timeout;
+    private final int replayLimit;
+
+    public InboxStream(KafkaTemplate<String, InboxStreamEvent> kafkaTemplate,
+                       KafkaTopics kafkaTopics,
+                       InboxEntryRepository inboxEntryRepository,
+                       UnreadCounter unreadCounter,
+                       @Value("${notification.stream.timeout:30m}") Duration timeout,
+                       @Value("${notification.stream.replay-limit:100}") int replayLimit) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.kafkaTopics = kafkaTopics;
+        this.inboxEntryRepository = inboxEntryRepository;
+        this.unreadCounter = unreadCounter;
+        this.timeout = timeout;
+        this.replayLimit = replayLimit;
+    }
+
+    /**
+     * Whether notifications of a type are pushed to the streams
+     */
+    public boolean isStreamed(NotificationType type) {
+        return STREAMED_TYPES.contains(type);
+    }
+
+    /**
+     * Open a stream of a recipient's inbox on this node
+     *
+     * @param lastEventId the Last-Event-ID sent by a reconnecting client, or null
+     */
+    public SseEmitter subscribe(String recipient, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        emitter.onCompletion(() -> unsubscribe(recipient, emitter));
+        emitter.onTimeout(() -> unsubscribe(recipient, emitter));
+        emitter.onError(e -> unsubscribe(recipient, emitter));
+
+        // Registered before the replay, so nothing published meanwhile is missed; a notification
+        // can arrive twice, with the same event id
+        subscribers.compute(recipient, (key, emitters) -> {
+            Set<SseEmitter> current = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+            current.add(emitter);
+            return current;
+        });
+        log.debug("Opened inbox stream of user {}", recipient);
+
+        try {
+            Long lastNotificationId = parseEventId(lastEventId);
+            if (lastNotificationId != null) {
+                List<InboxEntry> missed = inboxEntryRepository.findByRecipientSince(
+                        recipient, lastNotificationId, STREAMED_TYPES, PageRequest.ofSize(replayLimit));
+                for (InboxEntry entry : missed) {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(entry.getNotificationId()))
+                            .name("notification")
+                            .data(InboxService.mapToSummaryDto(entry)));
+                }
+            }
+            emitter.send(SseEmitter.event().name("unread-count").data(unreadCounter.get(recipient)));
+        } catch (IOException e) {
+            log.debug("Inbox stream of user {} closed while opening: {}", recipient, e.getMessage());
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    /**
+     * Send an inbox change to the streams of all nodes once the current transaction commits
+     */
+    public void publish(InboxStreamEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(event);
+                }
+            });
+        } else {
+            send(event);
+        }
+    }
+
+    private void send(InboxStreamEvent event) {
+        kafkaTemplate.send(kafkaTopics.getInboxStream(), event).whenComplete((result, e) -> {
+            if (e != null) {
+                // Clients catch up from the inbox when they reconnect
+                log.warn("Could not publish inbox change for {} recipients: {}", event.getRecipients().size(), e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Push an inbox change to the streams connected to this node
+     */
+    @KafkaListener(topics = "${kafka.topics.inbox-stream}", containerFactory = "inboxStreamListenerContainerFactory")
+    public void handleInboxStreamEvent(InboxStreamEvent event) {
+        if (subscribers.isEmpty() || event.getRecipients() == null) {
+            return;
+        }
+
+        for (String recipient : event.getRecipients()) {
+            Set<SseEmitter> emitters = subscribers.get(recipient);
+            if (emitters == null) {
+                continue;
+            }
+            for (SseEmitter emitter : emitters) {
+                try {
+                    if (event.getNotification() != null) {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(event.getNotification().getId()))
+                                .name("notification")
+                                .data(event.getNotification()));
+                    }
+                    if (event.getUnreadDelta() != 0) {
+                        emitter.send(SseEmitter.event().name("unread-delta").data(event.getUnreadDelta()));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Dropping inbox stream of user {}: {}", recipient, e.getMessage());
+                    unsubscribe(recipient, emitter);
+                }
+            }
+        }
+    }
+
+    /**
+     * Keep idle streams open through proxies, and notice streams whose client has gone
+     */
+    @Scheduled(fixedDelayString = "${notification.stream.heartbeat-interval:30000}")
+    public void sendHeartbeats() {
+        subscribers.forEach((recipient, emitters) -> emitters.forEach(emitter -> {
+            try {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                unsubscribe(recipient, emitter);
+            }
+        }));
+    }
+
+    /**
+     * Close the streams when the node stops, so clients reconnect to another node
+     */
+    @PreDestroy
+    public void closeAll() {
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        subscribers.clear();
+    }
+
+    private void unsubscribe(String recipient, SseEmitter emitter) {
+        subscribers.computeIfPresent(recipient, (key, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,193 +1,121 @@
 package com.egov.tendering.notification.service;
 
 
+import com.egov.tendering.notification.config.DeliveryProperties;
 import com.egov.tendering.notification.dal.model.Notification;
-import com.egov.tendering.notification.dal.model.NotificationChannel;
 import com.egov.tendering.notification.dal.repository.NotificationRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.UUID;
+import java.util.function.BiFunction;
 
 /**
- * Service for handling scheduled notifications and retries
+ * Service for handling scheduled notifications and retries.
+ * <p>
+ * Every node runs the scheduler. Due notifications are claimed in batches: each batch is locked
+ * with {@code FOR UPDATE SKIP LOCKED}, so nodes polling at the same time get different rows, and
+ * moved to PENDING with a lease. The claiming transaction only updates the rows; the delivery
+ * engine sends them in parallel once it commits. A notification whose lease expires before the
+ * engine recorded a result, for example because the node stopped, is claimed again.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class NotificationSchedulerService {
 
     private final NotificationRepository notificationRepository;
-    private final EmailService emailService;
-    private final SmsService smsService;
-    private final PushNotificationService pushNotificationService;
-
-    private static final int MAX_RETRY_ATTEMPTS = 3;
-    private static final int RETRY_DELAY_MINUTES = 5;
+    private final DeliveryEngine deliveryEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration lease;
+
+    public NotificationSchedulerService(NotificationRepository notificationRepository,
+                                        DeliveryEngine deliveryEngine,
+                                        PlatformTransactionManager transactionManager,
+                                        DeliveryProperties deliveryProperties,
+                                        @Value("${notification.scheduler.batch-size:200}") int batchSize) {
+        this.notificationRepository = notificationRepository;
+        this.deliveryEngine = deliveryEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.lease = deliveryProperties.getLease();
+    }
 
     /**
      * Process scheduled notifications that are due to be sent
      * Runs every minute by default
      */
-    @Scheduled(fixedRateString = "${notification.scheduler.interval:60000}")
-    @Transactional
+    @Scheduled(fixedDelayString = "${notification.scheduler.interval:60000}")
     public void processScheduledNotifications() {
-        LocalDateTime now = LocalDateTime.now();
-        log.debug("Processing scheduled notifications at {}", now);
-
-        List<Notification> dueNotifications = notificationRepository.findByStatusAndScheduledAtBefore(
-                "SCHEDULED", now);
-
-        if (dueNotifications.isEmpty()) {
-            log.debug("No scheduled notifications due for processing");
-            return;
-        }
-
-        log.info("Found {} scheduled notifications to process", dueNotifications.size());
+        log.debug("Processing scheduled notifications at {}", LocalDateTime.now());
 
-        for (Notification notification : dueNotifications) {
-            processScheduledNotification(notification);
+        int claimed = claimAll(notificationRepository::lockDueScheduled);
+        if (claimed > 0) {
+            log.info("Queued {} scheduled notifications", claimed);
         }
     }
 
     /**
-     * Retry failed notifications
+     * Retry failed notifications whose backoff has passed, and notifications whose lease expired
      * Runs every minute by default
      */
-    @Scheduled(fixedRateString = "${notification.retry.interval:60000}")
-    @Transactional
+    @Scheduled(fixedDelayString = "${notification.retry.interval:60000}")
     public void retryFailedNotifications() {
         log.debug("Checking for notifications to retry");
 
-        // Find notifications that are due for retry (waited at least RETRY_DELAY_MINUTES)
-        LocalDateTime retryBefore = LocalDateTime.now().minus(RETRY_DELAY_MINUTES, ChronoUnit.MINUTES);
-        List<Notification> notificationsToRetry = notificationRepository.findByStatusAndLastRetryAtBefore(
-                "PENDING_RETRY", retryBefore);
-
-        if (notificationsToRetry.isEmpty()) {
-            log.debug("No notifications to retry at this time");
-            return;
-        }
-
-        log.info("Found {} notifications to retry", notificationsToRetry.size());
-
-        for (Notification notification : notificationsToRetry) {
-            retryNotification(notification);
-        }
-    }
-
-    /**
-     * Process a single scheduled notification
-     */
-    private void processScheduledNotification(Notification notification) {
-        log.info("Processing scheduled notification: {}", notification.getId());
-
-        try {
-            // Update status from SCHEDULED to PENDING
-            notification.setStatus("PENDING");
-            notification = notificationRepository.save(notification);
-
-            // Deliver the notification
-            deliverNotification(notification);
-
-            log.info("Successfully processed scheduled notification: {}", notification.getId());
-        } catch (Exception e) {
-            log.error("Error processing scheduled notification: {}", notification.getId(), e);
-            notification.setStatus("FAILED");
-            notification.setErrorMessage("Error processing scheduled notification: " + e.getMessage());
-            notificationRepository.save(notification);
-        }
-    }
-
-    /**
-     * Retry a failed notification
-     */
-    private void retryNotification(Notification notification) {
-        if (notification.getRetryCount() == null) {
-            notification.setRetryCount(1);
+        int retried = claimAll(notificationRepository::lockDueRetries);
+        if (retried > 0) {
+            log.info("Queued {} notifications for retry", retried);
         }
 
-        log.info("Retrying notification: {} (attempt {}/{})",
-                notification.getId(), notification.getRetryCount(), MAX_RETRY_ATTEMPTS);
-
-        try {
-            // Update status to PENDING
-            notification.setStatus("PENDING");
-            notification = notificationRepository.save(notification);
-
-            // Attempt delivery again
-            deliverNotification(notification);
-
-            log.info("Successfully retried notification: {}", notification.getId());
-        } catch (Exception e) {
-            log.error("Error retrying notification: {}", notification.getId(), e);
-            handleRetryFailure(notification, e);
+        int recovered = claimAll(notificationRepository::lockExpiredLeases);
+        if (recovered > 0) {
+            log.warn("Queued {} notifications again after their delivery lease expired", recovered);
         }
     }
 
     /**
-     * Handle a failed retry attempt
+     * Claim batches until fewer than a full batch is due
      */
-    private void handleRetryFailure(Notification notification, Exception e) {
-        notification.setErrorMessage("Retry failed: " + e.getMessage());
-
-        if (notification.getRetryCount() >= MAX_RETRY_ATTEMPTS) {
-            // Max retries reached, mark as permanently failed
-            notification.setStatus("FAILED");
-            log.warn("Max retry attempts reached for notification: {}", notification.getId());
-        } else {
-            // Schedule another retry
-            notification.setStatus("PENDING_RETRY");
-            notification.setLastRetryAt(LocalDateTime.now());
-            log.info("Scheduled for another retry, attempt {}/{}",
-                    notification.getRetryCount(), MAX_RETRY_ATTEMPTS);
-        }
-
-        notificationRepository.save(notification);
+    private int claimAll(BiFunction<LocalDateTime, Integer, List<Long>> lockDue) {
+        int total = 0;
+        int claimed;
+        do {
+            claimed = claimBatch(lockDue);
+            total += claimed;
+        } while (claimed == batchSize);
+        return total;
     }
 
     /**
-     * Deliver a notification based on its type
+     * Lock, claim and queue one batch in a short transaction of its own
      */
-    private void deliverNotification(Notification notification) {
-        notification.setSentAt(LocalDateTime.now());
-
-        try {
-            NotificationChannel channel = notification.getType().getChannel();
-            switch (channel) {
-                case EMAIL:
-                    emailService.sendEmail(notification);
-                    break;
-                case SMS:
-                    smsService.sendSms(notification);
-                    break;
-                case PUSH:
-                    pushNotificationService.sendPushNotification(notification);
-                    break;
-                case DASHBOARD:
-                    // Just save to repository - no delivery needed
-                    notification.setStatus("DELIVERED");
-                    notification.setDeliveredAt(LocalDateTime.now());
-                    notificationRepository.save(notification);
-                    break;
-                default:
-                    log.warn("Unknown channel for notification type: {}", notification.getType());
-                    throw new IllegalArgumentException("Unknown notification channel: " + channel);
+    private int claimBatch(BiFunction<LocalDateTime, Integer, List<Long>> lockDue) {
+        Integer claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = lockDue.apply(now, batchSize);
+            if (ids.isEmpty()) {
+                return 0;
             }
 
-            // If we get here without an exception, the notification was delivered successfully
-            if (!"DELIVERED".equals(notification.getStatus())) {
-                notification.setStatus("DELIVERED");
-                notification.setDeliveredAt(LocalDateTime.now());
-                notificationRepository.save(notification);
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to deliver notification: " + e.getMessage(), e);
-        }
+            notificationRepository.claim(ids, now.plus(lease), UUID.randomUUID().toString());
+
+            // Queued once the claim commits; the engine extends the lease while it sends and clears
+            // it when it records the result
+            List<Notification> notifications = notificationRepository.findWithRecipientsByIdIn(ids);
+            // Loads the recipients still to be sent of the whole batch in one query
+            notifications.forEach(notification -> Hibernate.initialize(notification.getPendingRecipients()));
+            notifications.forEach(deliveryEngine::submit);
+            return ids.size();
+        });
+        return claimed != null ? claimed : 0;
     }
-}
\ No newline at end of file
+}
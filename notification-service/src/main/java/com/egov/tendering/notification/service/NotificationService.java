@@ -1,5 +1,6 @@
 package com.egov.tendering.notification.service;
 
+import com.egov.tendering.notification.config.DeliveryProperties;
 import com.egov.tendering.notification.config.KafkaTopics;
 import com.egov.tendering.notification.dal.dto.NotificationRequest;
 import com.egov.tendering.notification.dal.dto.NotificationResponse;
@@ -7,8 +8,6 @@ import com.egov.tendering.notification.dal.model.Notification;
 import com.egov.tendering.notification.dal.model.NotificationType;
 import com.egov.tendering.notification.dal.repository.NotificationRepository;
 import com.egov.tendering.notification.event.GenericNotificationEvent;
-import com.egov.tendering.notification.event.NotificationEvent;
-import com.egov.tendering.notification.event.NotificationEventPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -28,13 +27,13 @@ import java.util.UUID;
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
-    private final EmailService emailService;
-    private final SmsService smsService;
-    private final PushNotificationService pushNotificationService;
+    private final DeliveryEngine deliveryEngine;
+    private final InboxService inboxService;
     private final KafkaTemplate<String, GenericNotificationEvent> kafkaTemplate;
-    private final NotificationEventPublisher eventPublisher;
+    private final DeliveryProperties deliveryProperties;
 
     @KafkaListener(topics = "${kafka.topics.tender-created}")
+    @Transactional
     public void handleTenderCreated(GenericNotificationEvent event) {
         log.info("Received tender created event: {}", event);
         sendNotification(
@@ -47,6 +46,7 @@ public class NotificationService {
     }
 
     @KafkaListener(topics = "${kafka.topics.tender-updated}")
+    @Transactional
     public void handleTenderUpdated(GenericNotificationEvent event) {
         log.info("Received tender updated event: {}", event);
         sendNotification(
@@ -59,6 +59,7 @@ public class NotificationService {
     }
 
     @KafkaListener(topics = "${kafka.topics.bid-submitted}")
+    @Transactional
     public void handleBidSubmitted(GenericNotificationEvent event) {
         log.info("Received bid submitted event: {}", event);
 
@@ -80,6 +81,7 @@ public class NotificationService {
     }
 
     @KafkaListener(topics = "${kafka.topics.bid-evaluation-completed}")
+    @Transactional
     public void handleBidEvaluationCompleted(GenericNotificationEvent event) {
         log.info("Received bid evaluation completed event: {}", event);
 
@@ -101,6 +103,7 @@ public class NotificationService {
     }
 
     @KafkaListener(topics = "${kafka.topics.contract-awarded}")
+    @Transactional
     public void handleContractAwarded(GenericNotificationEvent event) {
         log.info("Received contract awarded event: {}", event);
 
@@ -132,7 +135,7 @@ public class NotificationService {
                 request.getRecipients()
         );
 
-        deliverNotification(notification);
+        deliveryEngine.submit(notification);
 
         GenericNotificationEvent event = createGenericNotificationEvent(notification);
         kafkaTemplate.send(KafkaTopics.NOTIFICATION_SENT, event);
@@ -140,7 +143,7 @@ public class NotificationService {
         return new NotificationResponse(
                 notification.getId(),
                 notification.getStatus(),
-                "Notification sent successfully"
+                "Notification queued for delivery"
         );
     }
 
@@ -159,6 +162,8 @@ public class NotificationService {
         // Set scheduled time
         notification.setStatus("SCHEDULED");
         notification.setScheduledAt(scheduledTime);
+        notification.setLeaseExpiresAt(null);
+        notification.setLeaseToken(null);
 
         // Save to repository
         notification = notificationRepository.save(notification);
@@ -172,42 +177,15 @@ public class NotificationService {
         );
     }
 
-    @Transactional(readOnly = true)
-    public List<Notification> getNotificationsForUser(String userId) {
-        log.info("Fetching notifications for user: {}", userId);
-        return notificationRepository.findByRecipientOrderByCreatedAtDesc(userId);
-    }
-
-    @Transactional(readOnly = true)
-    public List<Notification> getUnreadNotificationsForUser(String userId) {
-        log.info("Fetching unread notifications for user: {}", userId);
-        return notificationRepository.findUnreadByRecipient(userId);
-    }
-
-    @Transactional(readOnly = true)
-    public long countUnreadNotifications(String userId) {
-        log.info("Counting unread notifications for user: {}", userId);
-        return notificationRepository.countUnreadByRecipient(userId);
-    }
-
     @Transactional(readOnly = true)
     public java.util.Optional<Notification> getNotification(String notificationId) {
         log.info("Fetching notification details: {}", notificationId);
         return notificationRepository.findById(notificationId);
     }
 
-    @Transactional
-    public void markAsRead(String notificationId) {
-        log.info("Marking notification as read: {}", notificationId);
-        notificationRepository.findById(notificationId).ifPresent(notification -> {
-            notification.setRead(true);
-            notificationRepository.save(notification);
-        });
-    }
-
     private void sendNotification(NotificationType type, String entityId, String subject, String message, List<String> recipients) {
         Notification notification = createNotification(type, entityId, subject, message, recipients);
-        deliverNotification(notification);
+        deliveryEngine.submit(notification);
     }
 
     private Notification createNotification(NotificationType type, String entityId, String subject, String message, List<String> recipients) {
@@ -221,68 +199,13 @@ public class NotificationService {
         notification.setRead(false);
         notification.setStatus("PENDING");
         notification.setRetryCount(0);
+        // Delivered again by the scheduler if this node stops before recording the result
+        notification.setLeaseExpiresAt(notification.getCreatedAt().plus(deliveryProperties.getLease()));
+        notification.setLeaseToken(UUID.randomUUID().toString());
 
-        return notificationRepository.save(notification);
-    }
-
-    private void deliverNotification(Notification notification) {
-        try {
-            notification.setSentAt(LocalDateTime.now());
-
-            switch (notification.getType().getChannel()) {
-                case EMAIL:
-                    emailService.sendEmail(notification);
-                    break;
-                case SMS:
-                    smsService.sendSms(notification);
-                    break;
-                case PUSH:
-                    pushNotificationService.sendPushNotification(notification);
-                    break;
-                case DASHBOARD:
-                    // Just save to repository - no delivery needed
-                    notification.setStatus("DELIVERED");
-                    notification.setDeliveredAt(LocalDateTime.now());
-                    break;
-                default:
-                    log.warn("Unknown channel for notification type: {}", notification.getType());
-                    notification.setStatus("FAILED");
-                    notification.setErrorMessage("Unknown notification channel");
-                    break;
-            }
-
-            // If notification was delivered successfully
-            if ("DELIVERED".equals(notification.getStatus())) {
-                // Publish appropriate event based on channel
-                if (notification.getType().getChannel() == com.egov.tendering.notification.dal.model.NotificationChannel.EMAIL) {
-                    eventPublisher.publishEmailSentEvent(notification);
-                } else if (notification.getType().getChannel() == com.egov.tendering.notification.dal.model.NotificationChannel.SMS) {
-                    eventPublisher.publishSmsSentEvent(notification);
-                } else if (notification.getType().getChannel() == com.egov.tendering.notification.dal.model.NotificationChannel.PUSH) {
-                    eventPublisher.publishPushSentEvent(notification);
-                }
-            }
-
-        } catch (Exception e) {
-            log.error("Failed to deliver notification: {}", notification.getId(), e);
-            notification.setStatus("FAILED");
-            notification.setErrorMessage(e.getMessage());
-
-            // Increment retry count if this should be retried
-            if (notification.getRetryCount() < 3) { // Max 3 retries
-                notification.setRetryCount(notification.getRetryCount() + 1);
-                notification.setStatus("PENDING_RETRY");
-                notification.setLastRetryAt(LocalDateTime.now());
-
-                // Publish retry event
-                eventPublisher.publishNotificationRetryEvent(notification);
-            } else {
-                // Publish failure event
-                eventPublisher.publishNotificationFailedEvent(notification, e.getMessage());
-            }
-        }
-
-        notificationRepository.save(notification);
+        notification = notificationRepository.save(notification);
+        inboxService.deliver(notification);
+        return notification;
     }
 
     /**
@@ -1,50 +1,46 @@
 package com.egov.tendering.notification.service;
 
 import com.egov.tendering.notification.dal.model.Notification;
+import com.egov.tendering.notification.service.TemplateService.RenderedTemplate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PushNotificationService {
 
-    private final TemplateService templateService;
-
     // This could be replaced with an actual push notification service
     // such as Firebase Cloud Messaging, OneSignal, or other providers
     private final PushSender pushSender;
 
-    public void sendPushNotification(Notification notification) {
-        log.info("Sending push notification: {}", notification.getId());
+    /**
+     * Send a notification to a batch of recipients; if any of them fails the batch fails
+     */
+    public void sendPushNotification(Notification notification, RenderedTemplate content, List<String> recipients) {
+        log.debug("Sending push notification {} to {} recipients", notification.getId(), recipients.size());
 
-        for (String recipient : notification.getRecipients()) {
+        for (String recipient : recipients) {
             try {
-                // Process the template if needed
-                String notificationContent = templateService.processTemplate(
-                        notification.getType().name().toLowerCase() + "_push",
-                        notification
-                );
-
-                // Send the push notification
                 pushSender.send(
                         recipient,
                         notification.getSubject(),
-                        notificationContent,
+                        content.forRecipient(recipient),
                         notification.getEntityId()
                 );
-
-                log.info("Push notification sent to: {}", recipient);
             } catch (Exception e) {
                 log.error("Failed to send push notification to recipient: {}", recipient, e);
                 throw new RuntimeException("Failed to send push notification", e);
             }
         }
+        log.info("Push notification {} sent to {} recipients", notification.getId(), recipients.size());
     }
 
     // Interface for push notification implementation
     public interface PushSender {
         void send(String userId, String title, String body, String data);
     }
-}
\ No newline at end of file
+}
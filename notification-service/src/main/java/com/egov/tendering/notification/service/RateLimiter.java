@@ -0,0 +1,59 @@
+package com.egov.tendering.notification.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket shared by the workers of a delivery channel. Up to one second of permits can be
+ * taken at once; larger requests are granted and paid back by the callers that follow, so a
+ * batch bigger than the per-second rate still goes through at the configured average rate.
+ */
+final class RateLimiter {
+
+    private final LongSupplier nanoTime;
+    private final double permitsPerNano;
+    private final double maxPermits;
+    private double availablePermits;
+    private long lastRefillNanos;
+
+    RateLimiter(double permitsPerSecond) {
+        this(permitsPerSecond, System::nanoTime);
+    }
+
+    RateLimiter(double permitsPerSecond, LongSupplier nanoTime) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive: " + permitsPerSecond);
+        }
+        this.nanoTime = nanoTime;
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.maxPermits = Math.max(1, permitsPerSecond);
+        this.availablePermits = maxPermits;
+        this.lastRefillNanos = nanoTime.getAsLong();
+    }
+
+    /**
+     * Take permits, waiting until the rate allows them
+     */
+    void acquire(int permits) throws InterruptedException {
+        long waitNanos = reserve(permits);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Take permits without waiting
+     *
+     * @return how long the caller has to wait before using them, in nanoseconds
+     */
+    synchronized long reserve(int permits) {
+        long now = nanoTime.getAsLong();
+        availablePermits = Math.min(maxPermits, availablePermits + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+
+        // Take the permits now, going into debt if needed, and wait until the debt is repaid.
+        // Rounded up, so callers never wake before the rate allows them
+        availablePermits -= permits;
+        return availablePermits >= 0 ? 0 : (long) Math.ceil(-availablePermits / permitsPerNano);
+    }
+}
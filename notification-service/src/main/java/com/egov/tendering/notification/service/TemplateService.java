@@ -1,51 +1,167 @@
 package com.egov.tendering.notification.service;
 
 import com.egov.tendering.notification.dal.model.Notification;
-import lombok.RequiredArgsConstructor;
+import com.egov.tendering.notification.dal.model.NotificationChannel;
+import com.egov.tendering.notification.dal.model.NotificationType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
+import org.unbescape.html.HtmlEscape;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Renders notification templates.
+ * <p>
+ * A notification is rendered once for all of its recipients. Per-recipient fields are rendered as
+ * a placeholder and filled in by {@link RenderedTemplate#forRecipient(String)}, so a bulk send
+ * costs one template render plus a string concatenation per recipient. Thymeleaf keeps parsed
+ * templates in its cache; this service caches which template each notification type and channel
+ * uses, including the fact that there is none, and counts cache hits and misses in the
+ * {@code notification.template.cache} metric.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class TemplateService {
 
+    // Letters and digits only, so template escaping leaves it unchanged
+    private static final String RECIPIENT_PLACEHOLDER = "recipient" + UUID.randomUUID().toString().replace("-", "");
+
     private final TemplateEngine templateEngine;
+    private final Map<String, Optional<String>> templateNames = new ConcurrentHashMap<>();
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
 
-    public String processTemplate(String templateName, Notification notification) {
-        try {
-            log.debug("Processing template: {} for notification: {}", templateName, notification.getId());
+    public TemplateService(TemplateEngine templateEngine, MeterRegistry meterRegistry) {
+        this.templateEngine = templateEngine;
+        this.cacheHits = Counter.builder("notification.template.cache")
+                .description("Template lookups answered from the template cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.cacheMisses = Counter.builder("notification.template.cache")
+                .description("Template lookups that had to resolve the template")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
 
-            Context context = new Context();
+    /**
+     * Render a notification for a channel once, for all of its recipients. Falls back to the raw
+     * message when the channel has no template for the notification type or rendering fails.
+     */
+    public RenderedTemplate render(Notification notification, NotificationChannel channel) {
+        Optional<String> templateName = findTemplate(notification.getType(), channel);
+        if (templateName.isEmpty()) {
+            return RenderedTemplate.of(notification.getMessage(), false);
+        }
 
-            // Add notification details to the context
-            Map<String, Object> variables = new HashMap<>();
-            variables.put("notification", notification);
-            variables.put("subject", notification.getSubject());
-            variables.put("message", notification.getMessage());
-            variables.put("entityId", notification.getEntityId());
-            variables.put("type", notification.getType());
+        try {
+            log.debug("Processing template: {} for notification: {}", templateName.get(), notification.getId());
 
-            context.setVariables(variables);
+            Context context = new Context();
+            context.setVariable("notification", notification);
+            context.setVariable("subject", notification.getSubject());
+            context.setVariable("message", notification.getMessage());
+            context.setVariable("entityId", notification.getEntityId());
+            context.setVariable("type", notification.getType());
+            context.setVariable("recipient", RECIPIENT_PLACEHOLDER);
 
-            // Process the template
-            String result = templateEngine.process(templateName, context);
+            String result = templateEngine.process(templateName.get(), context);
             if (result == null || result.isEmpty()) {
-                log.warn("Template processing resulted in empty content for template: {}", templateName);
-                // Fallback to the raw message if template processing fails
-                return notification.getMessage();
+                log.warn("Template processing resulted in empty content for template: {}", templateName.get());
+                return RenderedTemplate.of(notification.getMessage(), false);
             }
-
-            return result;
+            return RenderedTemplate.of(result, true);
         } catch (Exception e) {
-            log.error("Failed to process template: {} for notification: {}", templateName, notification.getId(), e);
+            log.error("Failed to process template: {} for notification: {}", templateName.get(), notification.getId(), e);
             // Fallback to the raw message if template processing fails
-            return notification.getMessage();
+            return RenderedTemplate.of(notification.getMessage(), false);
+        }
+    }
+
+    private Optional<String> findTemplate(NotificationType type, NotificationChannel channel) {
+        String templateName = type.name().toLowerCase() + "_" + channel.name().toLowerCase();
+        Optional<String> cached = templateNames.get(templateName);
+        if (cached != null) {
+            cacheHits.increment();
+            return cached;
+        }
+
+        cacheMisses.increment();
+        return templateNames.computeIfAbsent(templateName, name -> {
+            boolean exists = new ClassPathResource(templateLocation(name, channel)).exists();
+            if (!exists) {
+                log.info("No {} template for notification type {}, sending the plain message", channel, type);
+            }
+            return exists ? Optional.of(name) : Optional.empty();
+        });
+    }
+
+    // Must match the template resolvers in TemplateConfig
+    private static String templateLocation(String templateName, NotificationChannel channel) {
+        return switch (channel) {
+            case EMAIL -> "templates/email/" + templateName + ".html";
+            case SMS -> "templates/sms/" + templateName + ".txt";
+            case PUSH -> "templates/push/" + templateName + ".txt";
+            default -> throw new IllegalArgumentException("No templates for channel " + channel);
+        };
+    }
+
+    /**
+     * Content rendered once for a notification, split around the recipient placeholders
+     */
+    public static final class RenderedTemplate {
+
+        private final String[] parts;
+        private final boolean escaped;
+        private final int length;
+
+        private RenderedTemplate(String[] parts, boolean escaped) {
+            this.parts = parts;
+            this.escaped = escaped;
+            int total = 0;
+            for (String part : parts) {
+                total += part.length();
+            }
+            this.length = total;
+        }
+
+        static RenderedTemplate of(String content, boolean escaped) {
+            List<String> parts = new ArrayList<>();
+            int start = 0;
+            int index;
+            while ((index = content.indexOf(RECIPIENT_PLACEHOLDER, start)) >= 0) {
+                parts.add(content.substring(start, index));
+                start = index + RECIPIENT_PLACEHOLDER.length();
+            }
+            parts.add(content.substring(start));
+            return new RenderedTemplate(parts.toArray(String[]::new), escaped);
+        }
+
+        /**
+         * The content as sent to one recipient
+         */
+        public String forRecipient(String recipient) {
+            if (parts.length == 1) {
+                return parts[0];
+            }
+            // Thymeleaf escapes th:text and [[...]] this way in both the HTML and the TEXT template
+            // modes, so the content matches rendering per recipient
+            String value = escaped ? HtmlEscape.escapeHtml4Xml(recipient) : recipient;
+            StringBuilder content = new StringBuilder(length + (parts.length - 1) * value.length());
+            content.append(parts[0]);
+            for (int i = 1; i < parts.length; i++) {
+                content.append(value).append(parts[i]);
+            }
+            return content.toString();
         }
     }
-}
\ No newline at end of file
+}
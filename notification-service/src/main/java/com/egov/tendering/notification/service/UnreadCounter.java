@@ -0,0 +1,111 @@
+package com.egov.tendering.notification.service;
+
+import com.egov.tendering.notification.dal.repository.InboxEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Unread notification counts per recipient, kept in Redis so every node answers badge polls
+ * from the same counter without querying the database.
+ * <p>
+ * A counter is loaded from the inbox table when it is missing and then moved by the inbox as
+ * notifications arrive and are read. Changes are applied after the transaction commits and only
+ * to counters that exist, so a counter is never created from a change alone. A change made while
+ * a counter is being loaded can be missed; counters expire after {@code notification.inbox.counter-ttl}
+ * so such a difference does not last.
+ */
+@Service
+@Slf4j
+public class UnreadCounter {
+
+    private static final String KEY_PREFIX = "notification:unread:";
+
+    // Add to the counter only if it exists
+    private static final byte[] ADD_IF_PRESENT = ("if redis.call('EXISTS', KEYS[1]) == 1 then " +
+            "return redis.call('INCRBY', KEYS[1], ARGV[1]) end return nil").getBytes(StandardCharsets.UTF_8);
+
+    private final StringRedisTemplate redisTemplate;
+    private final InboxEntryRepository inboxEntryRepository;
+    private final Duration ttl;
+
+    public UnreadCounter(StringRedisTemplate redisTemplate,
+                         InboxEntryRepository inboxEntryRepository,
+                         @Value("${notification.inbox.counter-ttl:1h}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.inboxEntryRepository = inboxEntryRepository;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Unread notifications of a recipient
+     */
+    public long get(String recipient) {
+        String key = KEY_PREFIX + recipient;
+        try {
+            String cached = redisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                return Math.max(0, Long.parseLong(cached));
+            }
+        } catch (DataAccessException e) {
+            log.warn("Unread counter unavailable, counting the inbox of {}: {}", recipient, e.getMessage());
+            return inboxEntryRepository.countByRecipientAndReadFalse(recipient);
+        }
+
+        long count = inboxEntryRepository.countByRecipientAndReadFalse(recipient);
+        try {
+            redisTemplate.opsForValue().setIfAbsent(key, String.valueOf(count), ttl);
+        } catch (DataAccessException e) {
+            log.warn("Could not store unread counter of {}: {}", recipient, e.getMessage());
+        }
+        return count;
+    }
+
+    /**
+     * Change the counters of recipients by the given amounts once the current transaction commits
+     */
+    public void add(Map<String, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(deltas);
+                }
+            });
+        } else {
+            apply(deltas);
+        }
+    }
+
+    private void apply(Map<String, Long> deltas) {
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                deltas.forEach((recipient, delta) -> addIfPresent(connection, recipient, delta));
+                return null;
+            });
+        } catch (DataAccessException e) {
+            // The counters are corrected when they expire
+            log.warn("Could not update unread counters of {} recipients: {}", deltas.size(), e.getMessage());
+        }
+    }
+
+    private static void addIfPresent(RedisConnection connection, String recipient, long delta) {
+        connection.scriptingCommands().eval(ADD_IF_PRESENT, ReturnType.INTEGER, 1,
+                (KEY_PREFIX + recipient).getBytes(StandardCharsets.UTF_8),
+                String.valueOf(delta).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,234 @@
+package com.egov.tendering.notification.service;
+
+import com.egov.tendering.notification.config.DeliveryProperties;
+import com.egov.tendering.notification.dal.model.Notification;
+import com.egov.tendering.notification.dal.model.NotificationType;
+import com.egov.tendering.notification.dal.repository.MySqlRepositoryTest;
+import com.egov.tendering.notification.dal.repository.NotificationRepository;
+import com.egov.tendering.notification.event.NotificationEventPublisher;
+import jakarta.mail.MessagingException;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Claiming of notifications by the scheduler and their delivery under the lease, on the
+ * notification table in MySQL
+ */
+class DeliveryEngineTest extends MySqlRepositoryTest {
+
+    private static final List<String> RECIPIENTS = List.of("a@example.com", "b@example.com",
+            "c@example.com", "d@example.com", "e@example.com", "f@example.com");
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<List<String>> sent = Collections.synchronizedList(new ArrayList<>());
+
+    private EmailService emailService;
+    private NotificationEventPublisher eventPublisher;
+    private DeliveryEngine engine;
+    private NotificationSchedulerService scheduler;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        emailService = mock(EmailService.class);
+        eventPublisher = mock(NotificationEventPublisher.class);
+
+        // One worker, so the batches are sent in order
+        DeliveryProperties properties = new DeliveryProperties();
+        properties.setBatchSize(2);
+        properties.setEmail(new DeliveryProperties.Channel(1, 1000));
+
+        engine = new DeliveryEngine(emailService, mock(SmsService.class), mock(PushNotificationService.class),
+                mock(TemplateService.class), notificationRepository, eventPublisher, transactionManager, properties);
+        engine.start();
+        scheduler = new NotificationSchedulerService(notificationRepository, engine, transactionManager, properties, 200);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.stop();
+        notificationRepository.deleteAll();
+    }
+
+    @Test
+    void deliveryToAllRecipientsIsRecordedByTheLeaseHolder() throws Exception {
+        Long id = saveScheduled().getId();
+        recordSends();
+
+        scheduler.processScheduledNotifications();
+        engine.stop();
+
+        assertThat(sent).hasSize(3).allSatisfy(batch -> assertThat(batch).hasSize(2));
+        assertThat(sent.stream().flatMap(List::stream)).containsExactlyInAnyOrderElementsOf(RECIPIENTS);
+        Notification row = reload(id);
+        assertThat(row.getStatus()).isEqualTo("DELIVERED");
+        assertThat(row.getLeaseToken()).isNull();
+        assertThat(row.getLeaseExpiresAt()).isNull();
+        assertThat(row.getPendingRecipients()).isEmpty();
+        verify(eventPublisher).publishEmailSentEvent(any(Notification.class));
+    }
+
+    @Test
+    void batchesStopAndNoResultIsRecordedOnceTheNotificationIsClaimedAgain() throws Exception {
+        Long id = saveScheduled().getId();
+        doAnswer(invocation -> {
+            sent.add(List.copyOf(invocation.<List<String>>getArgument(2)));
+            // Another node claims the notification while the first batch is sent
+            jdbcTemplate.update("UPDATE notifications SET lease_token = 'claim-2' WHERE id = ?", id);
+            return null;
+        }).when(emailService).sendEmails(any(), any(), anyList());
+
+        scheduler.processScheduledNotifications();
+        engine.stop();
+
+        assertThat(sent).hasSize(1);
+        Notification row = reload(id);
+        assertThat(row.getStatus()).isEqualTo("PENDING");
+        assertThat(row.getLeaseToken()).isEqualTo("claim-2");
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void retrySendsOnlyToTheRecipientsOfFailedBatches() throws Exception {
+        Long id = saveScheduled().getId();
+        doAnswer(invocation -> {
+            List<String> recipients = invocation.getArgument(2);
+            sent.add(List.copyOf(recipients));
+            if (recipients.contains("c@example.com")) {
+                throw new MessagingException("mailbox unavailable");
+            }
+            return null;
+        }).when(emailService).sendEmails(any(), any(), anyList());
+
+        scheduler.processScheduledNotifications();
+        engine.stop();
+
+        List<String> failedBatch = sent.stream().filter(batch -> batch.contains("c@example.com")).findFirst().orElseThrow();
+        Notification row = reload(id);
+        assertThat(row.getStatus()).isEqualTo("PENDING_RETRY");
+        assertThat(row.getRetryCount()).isEqualTo(1);
+        assertThat(row.getPendingRecipients()).containsExactlyInAnyOrderElementsOf(failedBatch);
+        verify(eventPublisher).publishNotificationRetryEvent(any(Notification.class));
+
+        // The backoff has passed
+        jdbcTemplate.update("UPDATE notifications SET next_attempt_at = ? WHERE id = ?", LocalDateTime.now().minusSeconds(1), id);
+        sent.clear();
+        reset(emailService);
+        recordSends();
+        engine.start();
+
+        scheduler.retryFailedNotifications();
+        engine.stop();
+
+        assertThat(sent).containsExactly(failedBatch);
+        row = reload(id);
+        assertThat(row.getStatus()).isEqualTo("DELIVERED");
+        assertThat(row.getPendingRecipients()).isEmpty();
+    }
+
+    @Test
+    void notificationWhoseLeaseExpiredIsClaimedAgain() throws Exception {
+        Notification notification = saveScheduled();
+        notification.setStatus("PENDING");
+        notification.setScheduledAt(null);
+        notification.setLeaseToken("claim-1");
+        notification.setLeaseExpiresAt(LocalDateTime.now().minusMinutes(1));
+        Long id = notificationRepository.save(notification).getId();
+        recordSends();
+
+        scheduler.retryFailedNotifications();
+        engine.stop();
+
+        assertThat(sent.stream().flatMap(List::stream)).containsExactlyInAnyOrderElementsOf(RECIPIENTS);
+        assertThat(reload(id).getStatus()).isEqualTo("DELIVERED");
+    }
+
+    @Test
+    void nodesClaimingAtTheSameTimeGetDifferentNotifications() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            saveScheduled();
+        }
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<List<Long>> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            List<Long> ids = notificationRepository.lockDueScheduled(LocalDateTime.now(), 5);
+            locked.countDown();
+            await(release);
+            return ids;
+        }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        List<Long> second = transactionTemplate.execute(status ->
+                notificationRepository.lockDueScheduled(LocalDateTime.now(), 5));
+        release.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).hasSize(5);
+        assertThat(second).hasSize(5).doesNotContainAnyElementsOf(first.get());
+    }
+
+    private void recordSends() throws Exception {
+        doAnswer(invocation -> {
+            sent.add(List.copyOf(invocation.<List<String>>getArgument(2)));
+            return null;
+        }).when(emailService).sendEmails(any(), any(), anyList());
+    }
+
+    private Notification saveScheduled() {
+        return notificationRepository.save(Notification.builder()
+                .type(NotificationType.TENDER_CREATED)
+                .entityId("T-42")
+                .subject("New Tender Created")
+                .message("Roads and bridges")
+                .recipients(new ArrayList<>(RECIPIENTS))
+                .status("SCHEDULED")
+                .scheduledAt(LocalDateTime.now().minusMinutes(1))
+                .retryCount(0)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    private Notification reload(Long id) {
+        return transactionTemplate.execute(status -> {
+            Notification notification = notificationRepository.findWithRecipientsByIdIn(List.of(id)).get(0);
+            Hibernate.initialize(notification.getPendingRecipients());
+            return notification;
+        });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.egov.tendering.notification.service;
+
+import com.egov.tendering.notification.dal.model.Notification;
+import com.egov.tendering.notification.dal.model.NotificationType;
+import com.egov.tendering.notification.exception.PartialDeliveryException;
+import com.egov.tendering.notification.service.TemplateService.RenderedTemplate;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Failures of some of the emails of a batch
+ */
+class EmailServiceTest {
+
+    private static final List<String> RECIPIENTS = List.of("a@example.com", "b@example.com", "c@example.com");
+
+    private JavaMailSender mailSender;
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() {
+        mailSender = mock(JavaMailSender.class);
+        Session session = Session.getInstance(new Properties());
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage(session));
+        emailService = new EmailService(mailSender);
+    }
+
+    @Test
+    void partialFailureNamesTheRecipientsThatWereNotReached() {
+        failSendsTo("b@example.com");
+
+        assertThatThrownBy(() -> emailService.sendEmails(notification(), RenderedTemplate.of("Hello", false), RECIPIENTS))
+                .isInstanceOfSatisfying(PartialDeliveryException.class,
+                        e -> assertThat(e.getFailedRecipients()).containsExactly("b@example.com"));
+    }
+
+    @Test
+    void failureOfEveryMessageFailsTheWholeBatch() {
+        failSendsTo(RECIPIENTS.toArray(String[]::new));
+
+        assertThatThrownBy(() -> emailService.sendEmails(notification(), RenderedTemplate.of("Hello", false), RECIPIENTS))
+                .isExactlyInstanceOf(MailSendException.class);
+    }
+
+    private void failSendsTo(String... failing) {
+        doAnswer(invocation -> {
+            Map<Object, Exception> failed = new LinkedHashMap<>();
+            for (Object argument : invocation.getArguments()) {
+                MimeMessage message = (MimeMessage) argument;
+                String to = message.getAllRecipients()[0].toString();
+                if (List.of(failing).contains(to)) {
+                    failed.put(message, new IllegalStateException("550 mailbox unavailable"));
+                }
+            }
+            throw new MailSendException(failed);
+        }).when(mailSender).send(any(MimeMessage[].class));
+    }
+
+    private static Notification notification() {
+        return Notification.builder()
+                .id(1L)
+                .type(NotificationType.TENDER_CREATED)
+                .subject("New Tender Created")
+                .message("Hello")
+                .build();
+    }
+}
@@ -0,0 +1,160 @@
+package com.egov.tendering.notification.service;
+
+import com.egov.tendering.notification.dal.dto.InboxPageDTO;
+import com.egov.tendering.notification.dal.dto.NotificationSummaryDTO;
+import com.egov.tendering.notification.dal.model.Notification;
+import com.egov.tendering.notification.dal.model.NotificationType;
+import com.egov.tendering.notification.dal.repository.InboxEntryRepository;
+import com.egov.tendering.notification.dal.repository.MySqlRepositoryTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Keyset pages of the inbox table in MySQL, where many entries share a creation time
+ */
+@Import(InboxService.class)
+@MockBean({UnreadCounter.class, InboxStream.class})
+class InboxServiceTest extends MySqlRepositoryTest {
+
+    private static final String RECIPIENT = "alice@example.com";
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    // Entries are inserted in notification order, so a later notification has a higher entry ID
+    private static final Comparator<Notification> NEWEST_FIRST = Comparator
+            .comparing(Notification::getCreatedAt, Comparator.reverseOrder())
+            .thenComparing(Notification::getId, Comparator.reverseOrder());
+
+    @Autowired
+    private InboxService inboxService;
+
+    @Autowired
+    private InboxEntryRepository inboxEntryRepository;
+
+    private final List<Notification> notifications = new ArrayList<>();
+    private final Set<Long> read = new HashSet<>();
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(7);
+        for (int i = 0; i < 95; i++) {
+            // Three entries per second on average, so pages often end inside a run of equal times
+            Notification notification = deliver(random.nextInt(5) == 0 ? "bob@example.com" : RECIPIENT, START.plusSeconds(i / 3));
+            if (random.nextBoolean()) {
+                read.add(notification.getId());
+            }
+        }
+        assertThat(inboxService.markAsRead(RECIPIENT, read)).isEqualTo(expected(notification -> read.contains(notification.getId())).size());
+    }
+
+    @AfterEach
+    void clearInbox() {
+        inboxEntryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void pagesCoverTheInboxNewestFirstWithoutGapsOrRepeats() {
+        for (int size : new int[]{1, 3, 10, 100}) {
+            assertThat(readAll(false, size))
+                    .as("pages of %d", size)
+                    .isEqualTo(expected(notification -> true));
+        }
+    }
+
+    @Test
+    void unreadPagesCoverTheUnreadNotifications() {
+        for (int size : new int[]{1, 4, 10}) {
+            assertThat(readAll(true, size))
+                    .as("pages of %d", size)
+                    .isEqualTo(expected(notification -> !read.contains(notification.getId())));
+        }
+    }
+
+    @Test
+    void notificationsArrivingWhileReadingDoNotShiftLaterPages() {
+        List<Long> expected = expected(notification -> true);
+
+        List<Long> pages = new ArrayList<>();
+        InboxPageDTO page = inboxService.getInbox(RECIPIENT, false, null, 7);
+        while (true) {
+            page.getNotifications().forEach(notification -> pages.add(notification.getId()));
+            if (page.getNextCursor() == null) {
+                break;
+            }
+            // Newer notifications go before the pages already read
+            deliver(RECIPIENT, START.plusDays(1));
+            page = inboxService.getInbox(RECIPIENT, false, page.getNextCursor(), 7);
+        }
+
+        assertThat(pages).isEqualTo(expected);
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        int count = expected(notification -> true).size();
+
+        InboxPageDTO page = inboxService.getInbox(RECIPIENT, false, null, count);
+
+        assertThat(page.getNotifications()).hasSize(count);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> inboxService.getInbox(RECIPIENT, false, "not a cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> inboxService.getInbox(RECIPIENT, false, "MjAyNC0wMy0wMQ", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<Long> readAll(boolean unreadOnly, int size) {
+        List<Long> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            InboxPageDTO page = inboxService.getInbox(RECIPIENT, unreadOnly, cursor, size);
+            assertThat(page.getNotifications().size()).isLessThanOrEqualTo(size);
+            page.getNotifications().stream().map(NotificationSummaryDTO::getId).forEach(pages::add);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return pages;
+    }
+
+    private List<Long> expected(Predicate<Notification> filter) {
+        return notifications.stream()
+                .filter(notification -> notification.getRecipients().contains(RECIPIENT))
+                .filter(filter)
+                .sorted(NEWEST_FIRST)
+                .map(Notification::getId)
+                .toList();
+    }
+
+    private Notification deliver(String recipient, LocalDateTime createdAt) {
+        long id = 1000L + notifications.size();
+        Notification notification = Notification.builder()
+                .id(id)
+                .type(NotificationType.TENDER_CREATED)
+                .entityId("T-" + id)
+                .subject("Notification " + id)
+                .recipients(List.of(recipient))
+                .createdAt(createdAt)
+                .build();
+        inboxService.deliver(notification);
+        notifications.add(notification);
+        return notification;
+    }
+}
@@ -0,0 +1,75 @@
+package com.egov.tendering.notification.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Permits of the delivery rate limiter, on a clock the test moves
+ */
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000 * SECOND);
+
+    @Test
+    void oneSecondOfPermitsIsAvailableAtOnce() {
+        RateLimiter limiter = new RateLimiter(50, clock::get);
+
+        assertThat(limiter.reserve(50)).isZero();
+        assertThat(limiter.reserve(1)).isEqualTo(SECOND / 50);
+    }
+
+    @Test
+    void batchLargerThanTheRateIsGrantedAndPaidBackByTheNextCaller() {
+        RateLimiter limiter = new RateLimiter(20, clock::get);
+
+        // 20 permits are available, the other 30 are owed
+        assertThat(limiter.reserve(50)).isEqualTo(SECOND * 30 / 20);
+        assertThat(limiter.reserve(1)).isEqualTo(SECOND * 31 / 20);
+    }
+
+    @Test
+    void idleTimeSavesAtMostOneSecondOfPermits() {
+        RateLimiter limiter = new RateLimiter(20, clock::get);
+        limiter.reserve(20);
+
+        clock.addAndGet(60 * SECOND);
+
+        assertThat(limiter.reserve(20)).isZero();
+        assertThat(limiter.reserve(20)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void callersThatWaitGoThroughAtTheConfiguredAverageRate() {
+        RateLimiter limiter = new RateLimiter(200, clock::get);
+        long start = clock.get();
+
+        for (int batch = 0; batch < 1000; batch++) {
+            clock.addAndGet(limiter.reserve(50));
+        }
+
+        // The first second of permits was free
+        double seconds = (clock.get() - start) / (double) SECOND;
+        assertThat(seconds).isCloseTo((1000 * 50 - 200) / 200.0, within(0.01));
+    }
+
+    @Test
+    void rateBelowOnePerSecondStillGrantsSinglePermits() {
+        RateLimiter limiter = new RateLimiter(0.5, clock::get);
+
+        assertThat(limiter.reserve(1)).isZero();
+        assertThat(limiter.reserve(1)).isEqualTo(2 * SECOND);
+    }
+
+    @Test
+    void rateMustBePositive() {
+        assertThatThrownBy(() -> new RateLimiter(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,120 @@
+package com.egov.tendering.notification.service;
+
+import com.egov.tendering.notification.config.TemplateConfig;
+import com.egov.tendering.notification.dal.model.Notification;
+import com.egov.tendering.notification.dal.model.NotificationChannel;
+import com.egov.tendering.notification.dal.model.NotificationType;
+import com.egov.tendering.notification.service.TemplateService.RenderedTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that a template rendered once and filled in per recipient matches rendering the template
+ * for each recipient, as notifications were rendered before. The comparison of their throughput
+ * is opt-in:
+ * <pre>
+ * mvn -pl notification-service -am test -Dtest=TemplateServiceTest -Dnotification.benchmark=true -Dsurefire.failIfNoSpecifiedTests=false
+ * </pre>
+ */
+class TemplateServiceTest {
+
+    private static final List<String> RECIPIENTS = List.of(
+            "alice@example.com",
+            "o'brien+tenders@example.com",
+            "\"<script>&amp;\"@example.com",
+            "józef.żak@example.pl");
+
+    private final TemplateEngine templateEngine = new TemplateConfig().templateEngine();
+    private final TemplateService templateService = new TemplateService(templateEngine, new SimpleMeterRegistry());
+
+    @Test
+    void emailRenderedOnceMatchesRenderingPerRecipient() {
+        Notification notification = notification();
+        RenderedTemplate rendered = templateService.render(notification, NotificationChannel.EMAIL);
+
+        for (String recipient : RECIPIENTS) {
+            assertThat(rendered.forRecipient(recipient))
+                    .as("email to %s", recipient)
+                    .isEqualTo(renderFor(notification, "tender_created_email", recipient));
+        }
+    }
+
+    @Test
+    void smsRenderedOnceMatchesRenderingPerRecipient() {
+        Notification notification = notification();
+        RenderedTemplate rendered = templateService.render(notification, NotificationChannel.SMS);
+
+        for (String recipient : RECIPIENTS) {
+            assertThat(rendered.forRecipient(recipient))
+                    .as("SMS to %s", recipient)
+                    .isEqualTo(renderFor(notification, "tender_created_sms", recipient));
+        }
+    }
+
+    @Test
+    void channelWithoutTemplateSendsThePlainMessage() {
+        Notification notification = notification();
+
+        RenderedTemplate rendered = templateService.render(notification, NotificationChannel.PUSH);
+
+        assertThat(rendered.forRecipient("alice@example.com")).isEqualTo(notification.getMessage());
+        // The missing template is remembered
+        assertThat(templateService.render(notification, NotificationChannel.PUSH).forRecipient("bob@example.com"))
+                .isEqualTo(notification.getMessage());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "notification.benchmark", matches = "true")
+    void renderingOnceThroughput() {
+        Notification notification = notification();
+        List<String> recipients = IntStream.range(0, 10_000).mapToObj(i -> "tenderer" + i + "@example.com").toList();
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            List<String> perRecipient = recipients.stream()
+                    .map(recipient -> renderFor(notification, "tender_created_email", recipient))
+                    .toList();
+            double perRecipientSeconds = (System.nanoTime() - start) / 1e9;
+
+            start = System.nanoTime();
+            RenderedTemplate rendered = templateService.render(notification, NotificationChannel.EMAIL);
+            List<String> renderedOnce = recipients.stream().map(rendered::forRecipient).toList();
+            double renderedOnceSeconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("Rendered %d emails per recipient in %.3f s, once in %.3f s: %.0fx%n",
+                    recipients.size(), perRecipientSeconds, renderedOnceSeconds, perRecipientSeconds / renderedOnceSeconds);
+            assertThat(renderedOnce).isEqualTo(perRecipient);
+            assertThat(renderedOnceSeconds).isLessThan(perRecipientSeconds);
+        }
+    }
+
+    private String renderFor(Notification notification, String templateName, String recipient) {
+        Context context = new Context();
+        context.setVariable("notification", notification);
+        context.setVariable("subject", notification.getSubject());
+        context.setVariable("message", notification.getMessage());
+        context.setVariable("entityId", notification.getEntityId());
+        context.setVariable("type", notification.getType());
+        context.setVariable("recipient", recipient);
+        return templateEngine.process(templateName, context);
+    }
+
+    private static Notification notification() {
+        return Notification.builder()
+                .id(1L)
+                .type(NotificationType.TENDER_CREATED)
+                .entityId("T-42")
+                .subject("New Tender Created")
+                .message("Roads & bridges <phase 2>")
+                .recipients(RECIPIENTS)
+                .build();
+    }
+}
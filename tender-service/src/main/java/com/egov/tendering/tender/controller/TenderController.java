@@ -16,6 +16,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 
 
 @RestController
@@ -43,6 +44,13 @@ public class TenderController {
     return ResponseEntity.ok(tender);
   }
 
+  @PostMapping("/batch")
+  public ResponseEntity<List<TenderDTO>> getTendersByIds(@RequestBody List<Long> tenderIds) {
+    log.info("Received request to get {} tenders by ID", tenderIds.size());
+    List<TenderDTO> tenders = tenderService.getTendersByIds(tenderIds);
+    return ResponseEntity.ok(tenders);
+  }
+
   @GetMapping
   public ResponseEntity<Page<TenderDTO>> searchTenders(
           @RequestParam(required = false) String title,
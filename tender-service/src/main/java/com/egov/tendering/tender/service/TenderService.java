@@ -9,6 +9,8 @@ import com.egov.tendering.tender.dal.model.TenderType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+
 
 
 public interface TenderService {
@@ -17,6 +19,8 @@ public interface TenderService {
 
   TenderDTO getTenderById(Long tenderId);
 
+  List<TenderDTO> getTendersByIds(List<Long> tenderIds);
+
   Page<TenderDTO> searchTenders(String title, TenderStatus status, TenderType type, Pageable pageable);
 
   Page<TenderDTO> getTendersByTenderee(Long tendereeId, Pageable pageable);
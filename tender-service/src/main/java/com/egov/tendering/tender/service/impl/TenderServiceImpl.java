@@ -114,6 +114,15 @@ public class TenderServiceImpl implements TenderService {
     return tenderMapper.toDto(tender);
   }
 
+  @Override
+  public List<TenderDTO> getTendersByIds(List<Long> tenderIds) {
+    log.info("Retrieving {} tenders by ID", tenderIds.size());
+
+    return tenderRepository.findAllById(tenderIds).stream()
+            .map(tenderMapper::toDto)
+            .collect(Collectors.toList());
+  }
+
   @Override
   public Page<TenderDTO> searchTenders(String title, TenderStatus status, TenderType type, Pageable pageable) {
     log.info("Searching tenders with title: {}, status: {}, type: {}", title, status, type);